@@ -0,0 +1,72 @@
+package io.improbable.keanu.benchmarks;
+
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.tensor.dbl.JavaDoubleTensor;
+import io.improbable.keanu.tensor.dbl.Nd4jDoubleTensor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class DoubleTensorBenchmark {
+
+    public enum TensorType {
+        ND4J, JAVA
+    }
+
+    @Param({"ND4J", "JAVA"})
+    public TensorType tensorType;
+
+    @Param({"2", "4", "8", "16"})
+    public int size;
+
+    private DoubleTensor matrix;
+    private DoubleTensor row;
+
+    @Setup
+    public void setup() {
+        long[] matrixShape = new long[]{size, size};
+        long[] rowShape = new long[]{1, size};
+
+        double[] matrixValues = DoubleTensor.linspace(1, 2, size * size).asFlatDoubleArray();
+        double[] rowValues = DoubleTensor.linspace(1, 2, size).asFlatDoubleArray();
+
+        switch (tensorType) {
+            case ND4J:
+                matrix = Nd4jDoubleTensor.create(matrixValues, matrixShape);
+                row = Nd4jDoubleTensor.create(rowValues, rowShape);
+                break;
+            case JAVA:
+                matrix = JavaDoubleTensor.create(matrixValues, matrixShape);
+                row = JavaDoubleTensor.create(rowValues, rowShape);
+                break;
+        }
+    }
+
+    @Benchmark
+    public DoubleTensor elementwise() {
+        return matrix.times(matrix).plusInPlace(matrix).logInPlace().expInPlace();
+    }
+
+    @Benchmark
+    public DoubleTensor broadcast() {
+        return matrix.plus(row).timesInPlace(row);
+    }
+
+    @Benchmark
+    public DoubleTensor sumOverDimension() {
+        return matrix.sum(0);
+    }
+
+    @Benchmark
+    public DoubleTensor matrixMultiply() {
+        return matrix.matrixMultiply(matrix);
+    }
+
+    @Benchmark
+    public DoubleTensor transpose() {
+        return matrix.transpose();
+    }
+}
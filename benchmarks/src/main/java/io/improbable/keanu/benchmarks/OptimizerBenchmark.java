@@ -6,6 +6,7 @@ import io.improbable.keanu.algorithms.variational.optimizer.Optimizer;
 import io.improbable.keanu.algorithms.variational.optimizer.gradient.Adam;
 import io.improbable.keanu.algorithms.variational.optimizer.gradient.ConjugateGradient;
 import io.improbable.keanu.algorithms.variational.optimizer.gradient.GradientOptimizer;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.LBFGS;
 import io.improbable.keanu.algorithms.variational.optimizer.nongradient.BOBYQA;
 import io.improbable.keanu.algorithms.variational.optimizer.nongradient.NonGradientOptimizer;
 import io.improbable.keanu.network.KeanuProbabilisticModelWithGradient;
@@ -22,10 +23,10 @@ import org.openjdk.jmh.annotations.TearDown;
 public class OptimizerBenchmark {
 
     public enum OptimizerType {
-        ADAM_OPTIMIZER, CONJUGATE_GRADIENT, BOBYQA_OPTIMIZER
+        ADAM_OPTIMIZER, CONJUGATE_GRADIENT, LBFGS_OPTIMIZER, BOBYQA_OPTIMIZER
     }
 
-    @Param({"ADAM_OPTIMIZER", "CONJUGATE_GRADIENT", "BOBYQA_OPTIMIZER"})
+    @Param({"ADAM_OPTIMIZER", "CONJUGATE_GRADIENT", "LBFGS_OPTIMIZER", "BOBYQA_OPTIMIZER"})
     public OptimizerType optimizerType;
 
     private Optimizer optimizer;
@@ -62,6 +63,15 @@ public class OptimizerBenchmark {
                         .build())
                     .build();
                 break;
+
+            case LBFGS_OPTIMIZER:
+                optimizer = GradientOptimizer.builder()
+                    .probabilisticModel(gradientGraph)
+                    .algorithm(LBFGS.builder()
+                        .convergenceChecker(ConvergenceChecker.absoluteChecker(ConvergenceChecker.Norm.MAX, 1e-5))
+                        .build())
+                    .build();
+                break;
             case BOBYQA_OPTIMIZER:
                 optimizer = NonGradientOptimizer.builder()
                     .probabilisticModel(gradientGraph)
@@ -5,11 +5,12 @@ import io.improbable.keanu.distributions.continuous.Laplace;
 import io.improbable.keanu.distributions.discrete.Poisson;
 import io.improbable.keanu.tensor.INDArrayShim;
 import io.improbable.keanu.tensor.Tensor;
+import io.improbable.keanu.tensor.TensorShape;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.tensor.dbl.JavaDoubleTensor;
 import io.improbable.keanu.tensor.dbl.Nd4jDoubleTensor;
 import io.improbable.keanu.tensor.dbl.ScalarDoubleTensor;
 import io.improbable.keanu.tensor.intgr.IntegerTensor;
-import io.improbable.keanu.tensor.intgr.Nd4jIntegerTensor;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.DefaultRandom;
@@ -60,6 +61,12 @@ public class KeanuRandom {
     public DoubleTensor nextDouble(long[] shape) {
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarDoubleTensor(nextDouble());
+        } else if (JavaDoubleTensor.isPreferredFor(shape)) {
+            double[] buffer = new double[TensorShape.getLengthAsInt(shape)];
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = nextDouble();
+            }
+            return JavaDoubleTensor.create(buffer, shape);
         } else {
             return new Nd4jDoubleTensor(doubleNextDouble(shape));
         }
@@ -84,6 +91,12 @@ public class KeanuRandom {
     public DoubleTensor nextGaussian(long[] shape) {
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarDoubleTensor(nextGaussian());
+        } else if (JavaDoubleTensor.isPreferredFor(shape)) {
+            double[] buffer = new double[TensorShape.getLengthAsInt(shape)];
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = nextGaussian();
+            }
+            return JavaDoubleTensor.create(buffer, shape);
         } else {
             return new Nd4jDoubleTensor(doubleNextGaussian(shape));
         }
@@ -114,7 +127,11 @@ public class KeanuRandom {
     }
 
     public IntegerTensor nextInt(long[] shape) {
-        return new Nd4jIntegerTensor(doubleNextInt(shape));
+        int[] buffer = new int[TensorShape.getLengthAsInt(shape)];
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = nd4jRandom.nextInt();
+        }
+        return IntegerTensor.create(buffer, shape);
     }
 
     public IntegerTensor nextPoisson(long[] shape, DoubleTensor mu) {
@@ -126,9 +143,8 @@ public class KeanuRandom {
         return nd4jRandom.nextInt(maxExclusive);
     }
 
-    private INDArray doubleNextInt(long[] shape) {
-        Nd4j.setDataType(bufferType);
-        return nd4jRandom.nextInt(shape);
+    public long nextLong() {
+        return nd4jRandom.nextLong();
     }
 
     private INDArray doubleNextDouble(long[] shape) {
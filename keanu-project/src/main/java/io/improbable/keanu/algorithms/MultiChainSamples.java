@@ -0,0 +1,98 @@
+package io.improbable.keanu.algorithms;
+
+import io.improbable.keanu.algorithms.statistics.SplitRHat;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The samples of several independent chains of the same model. The samples of every chain are keyed by
+ * the variables of the same model, so they can be looked up in the same way as a single chain's samples.
+ */
+public class MultiChainSamples {
+
+    private final List<NetworkSamples> chains;
+    private final NetworkSamples merged;
+
+    public MultiChainSamples(List<NetworkSamples> chains, Set<VariableReference> variableReferences) {
+        this.chains = Collections.unmodifiableList(new ArrayList<>(chains));
+        this.merged = merge(chains, variableReferences);
+    }
+
+    public int getNumChains() {
+        return chains.size();
+    }
+
+    public NetworkSamples getChain(int chain) {
+        return chains.get(chain);
+    }
+
+    public List<NetworkSamples> getChains() {
+        return chains;
+    }
+
+    /**
+     * @return the samples of every chain one after the other
+     */
+    public NetworkSamples getMerged() {
+        return merged;
+    }
+
+    /**
+     * @param variable a variable whose samples are tensors of doubles
+     * @return the split R-hat of each element of the variable across the chains
+     * @see SplitRHat#calculate(double[][])
+     */
+    public DoubleTensor getSplitRHat(Variable<DoubleTensor, ?> variable) {
+        double[][][] flatSamplesOfEachChain = new double[chains.size()][][];
+        for (int chain = 0; chain < chains.size(); chain++) {
+            List<DoubleTensor> samples = chains.get(chain).<DoubleTensor>get(variable.getReference()).asList();
+            flatSamplesOfEachChain[chain] = new double[samples.size()][];
+            for (int i = 0; i < samples.size(); i++) {
+                flatSamplesOfEachChain[chain][i] = samples.get(i).asFlatDoubleArray();
+            }
+        }
+
+        long[] shape = chains.get(0).<DoubleTensor>get(variable.getReference()).asList().get(0).getShape();
+        int length = flatSamplesOfEachChain[0][0].length;
+        double[] splitRHat = new double[length];
+        double[][] chainsOfOneElement = new double[chains.size()][];
+
+        for (int element = 0; element < length; element++) {
+            for (int chain = 0; chain < chains.size(); chain++) {
+                double[][] flatSamples = flatSamplesOfEachChain[chain];
+                chainsOfOneElement[chain] = new double[flatSamples.length];
+                for (int i = 0; i < flatSamples.length; i++) {
+                    chainsOfOneElement[chain][i] = flatSamples[i][element];
+                }
+            }
+            splitRHat[element] = SplitRHat.calculate(chainsOfOneElement);
+        }
+
+        return DoubleTensor.create(splitRHat, shape);
+    }
+
+    private static NetworkSamples merge(List<NetworkSamples> chains, Set<VariableReference> variableReferences) {
+        Map<VariableReference, List<?>> samplesByVariable = new HashMap<>();
+        List<Double> logOfMasterPForEachSample = new ArrayList<>();
+        int size = 0;
+
+        for (NetworkSamples chain : chains) {
+            for (VariableReference reference : variableReferences) {
+                List<Object> merged = (List<Object>) samplesByVariable.computeIfAbsent(reference, r -> new ArrayList<>());
+                merged.addAll(chain.get(reference).asList());
+            }
+            for (int i = 0; i < chain.size(); i++) {
+                logOfMasterPForEachSample.add(chain.getLogOfMasterP(i));
+            }
+            size += chain.size();
+        }
+
+        return new NetworkSamples(samplesByVariable, logOfMasterPForEachSample, size);
+    }
+}
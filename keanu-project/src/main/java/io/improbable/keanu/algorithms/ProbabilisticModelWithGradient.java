@@ -17,4 +17,21 @@ public interface ProbabilisticModelWithGradient extends ProbabilisticModel {
 
     Map<VariableReference, DoubleTensor> logLikelihoodGradients();
 
+    /**
+     * Sets the inputs once and calculates both the log prob and its gradients, which is cheaper than
+     * calling {@link #logProb(Map)} and {@link #logProbGradients(Map)} for the same inputs.
+     *
+     * @param inputs the values to set
+     * @return the log prob and its gradients at the inputs
+     */
+    LogProbAndGradients logProbAndGradients(Map<VariableReference, ?> inputs);
+
+    /**
+     * Sets the inputs once and calculates both the log likelihood and its gradients.
+     *
+     * @param inputs the values to set
+     * @return the log likelihood and its gradients at the inputs
+     */
+    LogProbAndGradients logLikelihoodAndGradients(Map<VariableReference, ?> inputs);
+
 }
@@ -0,0 +1,88 @@
+package io.improbable.keanu.algorithms;
+
+import com.google.common.primitives.Ints;
+import io.improbable.keanu.tensor.TensorShape;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lays out the values of a list of variables one after another in a flat array. Algorithms such as NUTS and the
+ * gradient optimizers work on positions and gradients as plain arrays and only convert to and from tensors when
+ * they call the model.
+ * <p>
+ * The offsets and shapes are worked out once, so that converting copies each value once, straight between the
+ * flat array and the tensor's own storage.
+ */
+public class VariableLayout {
+
+    private final VariableReference[] references;
+    private final long[][] shapes;
+    private final int[] offsets;
+    private final int length;
+
+    public VariableLayout(List<? extends Variable> variables) {
+        this.references = new VariableReference[variables.size()];
+        this.shapes = new long[variables.size()][];
+        this.offsets = new int[variables.size()];
+
+        int offset = 0;
+        for (int i = 0; i < variables.size(); i++) {
+            Variable<?, ?> variable = variables.get(i);
+            references[i] = variable.getReference();
+            shapes[i] = variable.getShape();
+            offsets[i] = offset;
+            offset = Ints.checkedCast(offset + TensorShape.getLength(shapes[i]));
+        }
+        this.length = offset;
+    }
+
+    /**
+     * @return the total number of values of all of the variables
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @param values a value for variables in the layout
+     * @return the values laid out in a new array
+     */
+    public double[] toArray(Map<? extends VariableReference, DoubleTensor> values) {
+        double[] flat = new double[length];
+        copyToArray(values, flat);
+        return flat;
+    }
+
+    /**
+     * @param values a value for variables in the layout. The values of any variables that are missing are zero.
+     * @param flat   the array to lay the values out in
+     */
+    public void copyToArray(Map<? extends VariableReference, DoubleTensor> values, double[] flat) {
+        for (int i = 0; i < references.length; i++) {
+            DoubleTensor value = values.get(references[i]);
+            if (value != null) {
+                value.copyTo(flat, offsets[i]);
+            } else {
+                int end = i + 1 < offsets.length ? offsets[i + 1] : length;
+                for (int j = offsets[i]; j < end; j++) {
+                    flat[j] = 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param flat values laid out by this layout
+     * @return a new tensor for each variable, shaped like the variable
+     */
+    public Map<VariableReference, DoubleTensor> toMap(double[] flat) {
+        Map<VariableReference, DoubleTensor> values = new HashMap<>(references.length * 2);
+        for (int i = 0; i < references.length; i++) {
+            values.put(references[i], DoubleTensor.fromSlice(flat, offsets[i], shapes[i]));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,87 @@
+package io.improbable.keanu.algorithms.graphtraversal;
+
+import io.improbable.keanu.vertices.Vertex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A precompiled {@link VertexValuePropagation#cascadeUpdate(Collection)} from a fixed set of vertices. The vertices
+ * that a cascade visits only depend on the structure of the graph, so they are found once and stored in the order
+ * that they need to be updated in. Replaying the plan then updates the same vertices without any allocation.
+ * <p>
+ * A plan becomes stale if any vertex it visits gains a child, in which case it should be compiled again.
+ */
+public class CascadeUpdatePlan {
+
+    private final Vertex<?>[] inUpdateOrder;
+    private final Set<Vertex>[] childrenWhenCompiled;
+
+    private CascadeUpdatePlan(Vertex<?>[] inUpdateOrder) {
+        this.inUpdateOrder = inUpdateOrder;
+        this.childrenWhenCompiled = new Set[inUpdateOrder.length];
+
+        for (int i = 0; i < inUpdateOrder.length; i++) {
+            childrenWhenCompiled[i] = inUpdateOrder[i].getChildren();
+        }
+    }
+
+    /**
+     * @param cascadeFrom the vertices that will have been updated when the plan is replayed
+     * @return a plan that updates the same vertices, in the same order, as a cascade update from cascadeFrom.
+     */
+    public static CascadeUpdatePlan compile(Collection<? extends Vertex> cascadeFrom) {
+
+        PriorityQueue<Vertex> priorityQueue = new PriorityQueue<>(Comparator.comparing(Vertex::getId, Comparator.naturalOrder()));
+        priorityQueue.addAll(cascadeFrom);
+
+        HashSet<Vertex> alreadyQueued = new HashSet<>(cascadeFrom);
+        List<Vertex<?>> inUpdateOrder = new ArrayList<>();
+
+        while (!priorityQueue.isEmpty()) {
+            Vertex<?> visiting = priorityQueue.poll();
+
+            inUpdateOrder.add(visiting);
+
+            for (Vertex<?> child : visiting.getChildren()) {
+
+                if (!child.isProbabilistic() && !alreadyQueued.contains(child)) {
+                    priorityQueue.offer(child);
+                    alreadyQueued.add(child);
+                }
+            }
+        }
+
+        return new CascadeUpdatePlan(inUpdateOrder.toArray(new Vertex<?>[0]));
+    }
+
+    /**
+     * Updates the value of every vertex in the plan, in topological order.
+     */
+    public void replay() {
+        for (Vertex<?> vertex : inUpdateOrder) {
+            VertexValuePropagation.updateVertexValue(vertex);
+        }
+    }
+
+    /**
+     * @return true if the structure of the graph downstream of the plan has changed since it was compiled.
+     */
+    public boolean isStale() {
+        for (int i = 0; i < inUpdateOrder.length; i++) {
+            if (inUpdateOrder[i].getChildren() != childrenWhenCompiled[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return inUpdateOrder.length;
+    }
+}
@@ -8,10 +8,8 @@ import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashSet;
-import java.util.PriorityQueue;
 import java.util.Set;
 
 /**
@@ -36,25 +34,7 @@ public class VertexValuePropagation {
      * @param cascadeFrom A collection that contains the vertices that have been updated.
      */
     public static void cascadeUpdate(Collection<? extends Vertex> cascadeFrom) {
-
-        PriorityQueue<Vertex> priorityQueue = new PriorityQueue<>(Comparator.comparing(Vertex::getId, Comparator.naturalOrder()));
-        priorityQueue.addAll(cascadeFrom);
-
-        HashSet<Vertex> alreadyQueued = new HashSet<>(cascadeFrom);
-
-        while (!priorityQueue.isEmpty()) {
-            Vertex<?> visiting = priorityQueue.poll();
-
-            updateVertexValue(visiting);
-
-            for (Vertex<?> child : visiting.getChildren()) {
-
-                if (!child.isProbabilistic() && !alreadyQueued.contains(child)) {
-                    priorityQueue.offer(child);
-                    alreadyQueued.add(child);
-                }
-            }
-        }
+        CascadeUpdatePlan.compile(cascadeFrom).replay();
     }
 
     public static void eval(Vertex... vertices) {
@@ -144,7 +124,7 @@ public class VertexValuePropagation {
         return stack;
     }
 
-    private static <T> void updateVertexValue(Vertex<T> vertex) {
+    static <T> void updateVertexValue(Vertex<T> vertex) {
         if (vertex.isProbabilistic()) {
             if (!vertex.hasValue()) {
                 vertex.setValue(((Probabilistic<T>) vertex).sample());
@@ -0,0 +1,359 @@
+package io.improbable.keanu.algorithms.mcmc;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.MultiChainSamples;
+import io.improbable.keanu.algorithms.NetworkSamples;
+import io.improbable.keanu.algorithms.PosteriorSamplingAlgorithm;
+import io.improbable.keanu.algorithms.ProbabilisticModel;
+import io.improbable.keanu.algorithms.Variable;
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.graphtraversal.TopologicalSort;
+import io.improbable.keanu.network.BayesianNetwork;
+import io.improbable.keanu.network.KeanuProbabilisticModel;
+import io.improbable.keanu.vertices.ProbabilityCalculator;
+import io.improbable.keanu.vertices.ValueStore;
+import io.improbable.keanu.vertices.Vertex;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs several independent chains of a {@link PosteriorSamplingAlgorithm} at the same time, one per thread.
+ * <p>
+ * A model can only be sampled by one thread at a time, so every chain but the first samples from its own copy of the
+ * model, built by a model factory, or from its own {@link ValueStore} of a network's values. Each chain also has its
+ * own algorithm and its own source of randomness, which is seeded from this sampler's random so that the result
+ * doesn't depend on how the threads are scheduled.
+ * <p>
+ * The latent vertices of a {@link KeanuProbabilisticModel} are sampled from their priors with the chain's random
+ * before the chain starts, and resampled if that is an impossible state, so that chains start from different places.
+ * Otherwise the split R-hat of chains that each stay in a different mode would look as if they had converged.
+ */
+public class MultiChainSampler {
+
+    @Getter
+    private final int numChains;
+
+    @Getter
+    private final Function<KeanuRandom, ? extends PosteriorSamplingAlgorithm> algorithmFactory;
+
+    @Getter
+    private final int dropCount;
+
+    @Getter
+    private final int probeAttempts;
+
+    @Getter
+    private final KeanuRandom random;
+
+    private MultiChainSampler(int numChains,
+                              Function<KeanuRandom, ? extends PosteriorSamplingAlgorithm> algorithmFactory,
+                              int dropCount,
+                              int probeAttempts,
+                              KeanuRandom random) {
+        this.numChains = numChains;
+        this.algorithmFactory = algorithmFactory;
+        this.dropCount = dropCount;
+        this.probeAttempts = probeAttempts;
+        this.random = random;
+    }
+
+    public static MultiChainSamplerBuilder builder() {
+        return new MultiChainSamplerBuilder();
+    }
+
+    /**
+     * Samples every chain but the first from its own {@link ValueStore} of the network's values, so the network
+     * doesn't have to be copied. Each chain has its own model of the network, built with the chain's store in use.
+     * <p>
+     * The network mustn't have vertices, such as model vertices, that keep values of their own outside of their
+     * state, or vertices that are already in {@link ValueStore}s of a different set of vertices. The stores of the
+     * chains are closed once sampling has finished.
+     *
+     * @param network               a network containing latent vertices
+     * @param modelOfNetwork        creates the model to sample from for a network, e.g. {@code KeanuProbabilisticModel::new}
+     * @param variablesToSampleFrom latent vertices of network to include in the returned samples
+     * @param sampleCount           the number of samples to take in each chain, including those that are dropped
+     * @return the samples of each chain, keyed by the vertices of network
+     */
+    public MultiChainSamples getPosteriorSamples(BayesianNetwork network,
+                                                 Function<BayesianNetwork, ? extends ProbabilisticModel> modelOfNetwork,
+                                                 List<? extends Variable> variablesToSampleFrom,
+                                                 int sampleCount) {
+        ProbabilisticModel model = modelOfNetwork.apply(network);
+        List<Variable> latentVariables = inCreationOrder(model.getLatentVariables());
+        List<Integer> positionsToSampleFrom = positionsOf(variablesToSampleFrom, latentVariables);
+
+        try (ValueStore networkValues = ValueStore.of(network.getAllVertices())) {
+
+            List<ChainSetup> chainSetups = new ArrayList<>(numChains);
+            chainSetups.add(new ChainSetup(model, null, latentVariables, positionsToSampleFrom, random.nextLong()));
+            for (int i = 1; i < numChains; i++) {
+                ValueStore store = networkValues.copy();
+                ProbabilisticModel chainModel = store.evaluate(() -> modelOfNetwork.apply(network));
+                chainSetups.add(new ChainSetup(chainModel, store, latentVariables, positionsToSampleFrom, random.nextLong()));
+            }
+
+            return sample(chainSetups, variablesToSampleFrom, sampleCount);
+        }
+    }
+
+    public MultiChainSamples getPosteriorSamples(ProbabilisticModel model,
+                                                 Supplier<? extends ProbabilisticModel> modelFactory,
+                                                 int sampleCount) {
+        return getPosteriorSamples(model, modelFactory, model.getLatentVariables(), sampleCount);
+    }
+
+    /**
+     * @param model                 a model containing latent variables
+     * @param modelFactory          builds a new model in exactly the same way as model was built. Latent variables
+     *                              of the copies are matched up with the latent variables of model by the order
+     *                              that they were created in.
+     * @param variablesToSampleFrom latent variables of model to include in the returned samples
+     * @param sampleCount           the number of samples to take in each chain, including those that are dropped
+     * @return the samples of each chain, keyed by the variables of model
+     */
+    public MultiChainSamples getPosteriorSamples(ProbabilisticModel model,
+                                                 Supplier<? extends ProbabilisticModel> modelFactory,
+                                                 List<? extends Variable> variablesToSampleFrom,
+                                                 int sampleCount) {
+
+        List<Variable> latentVariables = inCreationOrder(model.getLatentVariables());
+        List<Integer> positionsToSampleFrom = positionsOf(variablesToSampleFrom, latentVariables);
+
+        List<ChainSetup> chainSetups = new ArrayList<>(numChains);
+        chainSetups.add(new ChainSetup(model, null, latentVariables, positionsToSampleFrom, random.nextLong()));
+        for (int i = 1; i < numChains; i++) {
+            ProbabilisticModel chainModel = modelFactory.get();
+            chainSetups.add(new ChainSetup(chainModel, null, latentVariables, positionsToSampleFrom, random.nextLong()));
+        }
+
+        return sample(chainSetups, variablesToSampleFrom, sampleCount);
+    }
+
+    private MultiChainSamples sample(List<ChainSetup> chainSetups, List<? extends Variable> variablesToSampleFrom, int sampleCount) {
+        ExecutorService executor = Executors.newFixedThreadPool(numChains);
+        try {
+            List<Future<NetworkSamples>> chainResults = new ArrayList<>(numChains);
+            for (ChainSetup chainSetup : chainSetups) {
+                chainResults.add(executor.submit(() -> chainSetup.sample(sampleCount)));
+            }
+
+            List<NetworkSamples> chains = new ArrayList<>(numChains);
+            for (Future<NetworkSamples> chainResult : chainResults) {
+                chains.add(chainResult.get());
+            }
+
+            Set<VariableReference> references = new LinkedHashSet<>();
+            for (Variable variable : variablesToSampleFrom) {
+                references.add(variable.getReference());
+            }
+            return new MultiChainSamples(chains, references);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sampling", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to sample chain", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Variable> inCreationOrder(List<? extends Variable> variables) {
+        List<Variable> sorted = new ArrayList<>(variables);
+        for (Variable variable : sorted) {
+            Preconditions.checkArgument(variable.getReference() instanceof Comparable,
+                "Chains can only be matched up for variables with comparable references, not %s", variable.getReference()
+            );
+        }
+        sorted.sort(Comparator.comparing(v -> (Comparable) v.getReference()));
+        return sorted;
+    }
+
+    private static List<Integer> positionsOf(List<? extends Variable> variablesToSampleFrom, List<Variable> latentVariables) {
+        Map<VariableReference, Integer> positionOfReference = new HashMap<>();
+        for (int i = 0; i < latentVariables.size(); i++) {
+            positionOfReference.put(latentVariables.get(i).getReference(), i);
+        }
+
+        List<Integer> positions = new ArrayList<>(variablesToSampleFrom.size());
+        for (Variable variable : variablesToSampleFrom) {
+            Integer position = positionOfReference.get(variable.getReference());
+            Preconditions.checkArgument(position != null,
+                "Only latent variables can be sampled from with several chains but %s is not latent", variable.getReference()
+            );
+            positions.add(position);
+        }
+        return positions;
+    }
+
+    /**
+     * Everything one chain needs, which is set up on the calling thread before any chain starts.
+     */
+    private class ChainSetup {
+
+        private final ProbabilisticModel model;
+        private final ValueStore store;
+        private final List<Variable> originalLatentVariables;
+        private final List<Variable> latentVariables;
+        private final List<Integer> positionsToSampleFrom;
+        private final List<Variable> variablesToSampleFrom;
+        private final long seed;
+
+        /**
+         * @param store the values of the model's vertices for this chain, or null if the model has vertices of its own
+         */
+        ChainSetup(ProbabilisticModel model,
+                   ValueStore store,
+                   List<Variable> originalLatentVariables,
+                   List<Integer> positionsToSampleFrom,
+                   long seed) {
+            this.model = model;
+            this.store = store;
+            this.originalLatentVariables = originalLatentVariables;
+            this.latentVariables = inCreationOrder(model.getLatentVariables());
+            this.positionsToSampleFrom = positionsToSampleFrom;
+            this.seed = seed;
+
+            Preconditions.checkArgument(latentVariables.size() == originalLatentVariables.size(),
+                "Model copy has %s latent variables but the original has %s",
+                latentVariables.size(), originalLatentVariables.size()
+            );
+
+            this.variablesToSampleFrom = new ArrayList<>(positionsToSampleFrom.size());
+            for (int position : positionsToSampleFrom) {
+                variablesToSampleFrom.add(latentVariables.get(position));
+            }
+
+            if (model instanceof KeanuProbabilisticModel) {
+                inStore(() -> sampleStartingPoint((KeanuProbabilisticModel) model, new KeanuRandom(seed)));
+            }
+        }
+
+        private void inStore(Runnable runnable) {
+            if (store == null) {
+                runnable.run();
+            } else {
+                store.run(runnable);
+            }
+        }
+
+        private <R> R inStore(Supplier<R> evaluation) {
+            return store == null ? evaluation.get() : store.evaluate(evaluation);
+        }
+
+        private void sampleStartingPoint(KeanuProbabilisticModel model, KeanuRandom startRandom) {
+            List<Vertex> sortedByDependency = TopologicalSort.sort(model.getLatentVertices());
+
+            int attempts = 0;
+            do {
+                if (attempts++ > probeAttempts) {
+                    throw new IllegalStateException("Failed to find non-zero probability starting point for chain");
+                }
+                BayesianNetwork.setFromSampleAndCascade(sortedByDependency, startRandom);
+            } while (ProbabilityCalculator.isImpossibleLogProb(model.logProb(Collections.emptyMap())));
+        }
+
+        /**
+         * @return the samples of this chain keyed by the variables of the original model
+         */
+        NetworkSamples sample(int sampleCount) {
+            PosteriorSamplingAlgorithm algorithm = algorithmFactory.apply(new KeanuRandom(seed));
+            NetworkSamples samples = inStore(() -> algorithm.generatePosteriorSamples(model, variablesToSampleFrom)
+                .dropCount(dropCount)
+                .generate(sampleCount)
+            );
+
+            Map<VariableReference, List<?>> samplesByOriginalVariable = new HashMap<>();
+            for (int position : positionsToSampleFrom) {
+                samplesByOriginalVariable.put(
+                    originalLatentVariables.get(position).getReference(),
+                    samples.get(latentVariables.get(position).getReference()).asList()
+                );
+            }
+
+            List<Double> logOfMasterPForEachSample = new ArrayList<>(samples.size());
+            for (int i = 0; i < samples.size(); i++) {
+                logOfMasterPForEachSample.add(samples.getLogOfMasterP(i));
+            }
+
+            return new NetworkSamples(samplesByOriginalVariable, logOfMasterPForEachSample, samples.size());
+        }
+    }
+
+    public static class MultiChainSamplerBuilder {
+        private int numChains = Runtime.getRuntime().availableProcessors();
+        private Function<KeanuRandom, ? extends PosteriorSamplingAlgorithm> algorithmFactory =
+            random -> MetropolisHastings.builder().random(random).build();
+        private int dropCount = 0;
+        private int probeAttempts = 1000;
+        private KeanuRandom random = KeanuRandom.getDefaultRandom();
+
+        /**
+         * @param numChains the number of chains to run, each on its own thread
+         * @return this
+         */
+        public MultiChainSamplerBuilder numChains(int numChains) {
+            Preconditions.checkArgument(numChains > 0, "Number of chains must be positive but was %s", numChains);
+            this.numChains = numChains;
+            return this;
+        }
+
+        /**
+         * @param algorithmFactory creates the algorithm for a chain from that chain's random, e.g.
+         *                         {@code random -> NUTS.builder().random(random).build()}. Algorithms can
+         *                         adapt as they sample so every chain is given a new one.
+         * @return this
+         */
+        public MultiChainSamplerBuilder algorithm(Function<KeanuRandom, ? extends PosteriorSamplingAlgorithm> algorithmFactory) {
+            this.algorithmFactory = algorithmFactory;
+            return this;
+        }
+
+        /**
+         * @param dropCount the number of samples to drop from the start of each chain
+         * @return this
+         */
+        public MultiChainSamplerBuilder dropCount(int dropCount) {
+            this.dropCount = dropCount;
+            return this;
+        }
+
+        /**
+         * @param probeAttempts the number of times to resample a starting point that has zero probability
+         * @return this
+         */
+        public MultiChainSamplerBuilder probeAttempts(int probeAttempts) {
+            this.probeAttempts = probeAttempts;
+            return this;
+        }
+
+        /**
+         * @param random used to seed the random of each chain
+         * @return this
+         */
+        public MultiChainSamplerBuilder random(KeanuRandom random) {
+            this.random = random;
+            return this;
+        }
+
+        public MultiChainSampler build() {
+            return new MultiChainSampler(numChains, algorithmFactory, dropCount, probeAttempts, random);
+        }
+    }
+}
@@ -1,21 +1,44 @@
 package io.improbable.keanu.algorithms.mcmc.initialconditions;
 
+import com.google.common.base.Preconditions;
 import io.improbable.keanu.Keanu;
 import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.algorithms.graphtraversal.TopologicalSort;
 import io.improbable.keanu.network.BayesianNetwork;
 import io.improbable.keanu.network.KeanuProbabilisticModel;
 import io.improbable.keanu.network.NetworkState;
+import io.improbable.keanu.network.SimpleNetworkState;
+import io.improbable.keanu.tensor.NumberTensor;
+import io.improbable.keanu.tensor.Tensor;
+import io.improbable.keanu.tensor.bool.BooleanTensor;
 import io.improbable.keanu.vertices.Vertex;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class MultiModeDiscovery {
 
     private MultiModeDiscovery() {
     }
 
+    /**
+     * Runs the attempts one after another on the network itself and returns the mode found by each attempt, in the
+     * order that the attempts were made.
+     *
+     * @see #findModesBySimulatedAnnealing(BayesianNetwork, int, int, int, double, KeanuRandom) to run the attempts
+     * concurrently and keep only distinct modes
+     */
     public static List<NetworkState> findModesBySimulatedAnnealing(BayesianNetwork network,
                                                                    int attempts,
                                                                    int samplesPerAttempt,
@@ -34,4 +57,182 @@ public class MultiModeDiscovery {
 
         return maxSamples;
     }
+
+    /**
+     * Finds modes of a network by simulated annealing from several random starting points, each sampled from the
+     * priors of the latent vertices.
+     * <p>
+     * Each thread anneals on its own {@link BayesianNetwork#copy() copy} of the network, apart from the first, which
+     * uses the network itself. If the network can't be copied, for example because it has lambda vertices, the
+     * attempts are run one after another on the network itself. Every attempt has its own source of randomness,
+     * seeded from random before any attempt starts, so the modes found don't depend on how the attempts are scheduled.
+     *
+     * @param network           a network containing latent vertices
+     * @param attempts          the number of starting points to anneal from
+     * @param samplesPerAttempt the number of samples to take in each attempt
+     * @param numThreads        the number of attempts to run at the same time
+     * @param minDistance       modes that are no further apart than this are treated as the same mode, and only the
+     *                          most probable is kept. The distance between two modes is the euclidean distance between
+     *                          the values of their latent vertices, or infinite if any non-numeric value differs.
+     * @param random            used to seed the random of each attempt
+     * @return the distinct modes found, most probable first, keyed by the vertices of network
+     */
+    public static List<NetworkState> findModesBySimulatedAnnealing(BayesianNetwork network,
+                                                                   int attempts,
+                                                                   int samplesPerAttempt,
+                                                                   int numThreads,
+                                                                   double minDistance,
+                                                                   KeanuRandom random) {
+        Preconditions.checkArgument(numThreads > 0, "Number of threads must be positive but was %s", numThreads);
+
+        network.cascadeObservations();
+        List<Vertex> latentVertices = TopologicalSort.sort(network.getLatentVertices());
+
+        List<Replica> replicaList = createReplicas(network, latentVertices, Math.max(1, Math.min(numThreads, attempts)));
+        int numReplicas = replicaList.size();
+        BlockingQueue<Replica> replicas = new ArrayBlockingQueue<>(numReplicas, false, replicaList);
+
+        ExecutorService executor = Executors.newFixedThreadPool(numReplicas);
+        try {
+            List<Future<Mode>> attemptResults = new ArrayList<>(attempts);
+            for (int i = 0; i < attempts; i++) {
+                long seed = random.nextLong();
+                attemptResults.add(executor.submit(() -> {
+                    Replica replica = replicas.take();
+                    try {
+                        return replica.anneal(samplesPerAttempt, new KeanuRandom(seed));
+                    } finally {
+                        replicas.put(replica);
+                    }
+                }));
+            }
+
+            List<Mode> modes = new ArrayList<>(attempts);
+            for (Future<Mode> attemptResult : attemptResults) {
+                modes.add(attemptResult.get());
+            }
+            return distinctModes(modes, latentVertices, minDistance);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while finding modes", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to find mode", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return a replica of the network for each thread, or only the network itself if it can't be copied
+     */
+    private static List<Replica> createReplicas(BayesianNetwork network, List<Vertex> latentVertices, int numReplicas) {
+        List<BayesianNetwork> copies = new ArrayList<>(numReplicas - 1);
+        try {
+            for (int i = 1; i < numReplicas; i++) {
+                copies.add(network.copy());
+            }
+        } catch (UnsupportedOperationException e) {
+            copies.clear();
+        }
+
+        List<Replica> replicas = new ArrayList<>(copies.size() + 1);
+        replicas.add(new Replica(network, latentVertices));
+        for (BayesianNetwork copy : copies) {
+            replicas.add(new Replica(copy, latentVertices));
+        }
+        return replicas;
+    }
+
+    private static List<NetworkState> distinctModes(List<Mode> modes, List<Vertex> latentVertices, double minDistance) {
+        List<Mode> byLogProb = new ArrayList<>(modes);
+        byLogProb.sort(Comparator.comparingDouble((Mode mode) -> mode.logProb).reversed());
+
+        List<NetworkState> distinct = new ArrayList<>();
+        for (Mode mode : byLogProb) {
+            boolean isNew = true;
+            for (NetworkState kept : distinct) {
+                if (distance(mode.state, kept, latentVertices) <= minDistance) {
+                    isNew = false;
+                    break;
+                }
+            }
+            if (isNew) {
+                distinct.add(mode.state);
+            }
+        }
+        return distinct;
+    }
+
+    private static double distance(NetworkState a, NetworkState b, List<Vertex> latentVertices) {
+        double squaredDistance = 0.0;
+        for (Vertex vertex : latentVertices) {
+            Object aValue = a.get(vertex.getId());
+            Object bValue = b.get(vertex.getId());
+
+            if (isNumeric(aValue) && isNumeric(bValue)) {
+                double[] aValues = ((Tensor<?>) aValue).asFlatDoubleArray();
+                double[] bValues = ((Tensor<?>) bValue).asFlatDoubleArray();
+                for (int i = 0; i < aValues.length; i++) {
+                    double difference = aValues[i] - bValues[i];
+                    squaredDistance += difference * difference;
+                }
+            } else if (!Objects.equals(aValue, bValue)) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        return Math.sqrt(squaredDistance);
+    }
+
+    private static boolean isNumeric(Object value) {
+        return value instanceof NumberTensor || value instanceof BooleanTensor;
+    }
+
+    private static class Mode {
+        private final NetworkState state;
+        private final double logProb;
+
+        Mode(NetworkState state, double logProb) {
+            this.state = state;
+            this.logProb = logProb;
+        }
+    }
+
+    /**
+     * A network that one thread anneals on, which is reused for each attempt that the thread runs.
+     */
+    private static class Replica {
+
+        private final List<Vertex> latentVertices;
+        private final KeanuProbabilisticModel model;
+        private final Map<VariableReference, VariableReference> originalReferences = new HashMap<>();
+
+        Replica(BayesianNetwork network, List<Vertex> originalLatentVertices) {
+            this.latentVertices = TopologicalSort.sort(network.getLatentVertices());
+            this.model = new KeanuProbabilisticModel(network);
+
+            for (int i = 0; i < latentVertices.size(); i++) {
+                originalReferences.put(latentVertices.get(i).getId(), originalLatentVertices.get(i).getId());
+            }
+        }
+
+        /**
+         * @return the mode found keyed by the vertices of the original network
+         */
+        Mode anneal(int samplesPerAttempt, KeanuRandom random) {
+            BayesianNetwork.setFromSampleAndCascade(latentVertices, random);
+            NetworkState maxAPosteriori = Keanu.Sampling.SimulatedAnnealing.withDefaultConfig(random)
+                .getMaxAPosteriori(model, samplesPerAttempt);
+
+            Map<VariableReference, Object> values = new HashMap<>();
+            Map<VariableReference, Object> originalValues = new HashMap<>();
+            for (VariableReference reference : maxAPosteriori.getVariableReferences()) {
+                Object value = maxAPosteriori.get(reference);
+                values.put(reference, value);
+                originalValues.put(originalReferences.getOrDefault(reference, reference), value);
+            }
+
+            return new Mode(new SimpleNetworkState(originalValues), model.logProb(values));
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package io.improbable.keanu.algorithms.mcmc.nuts;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.KeanuRandom;
+import lombok.Getter;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+
+/**
+ * A potential with a dense mass matrix, whose inverse is the regularised covariance of the positions in the
+ * last window of adaption samples. Unlike a diagonal mass matrix this accounts for correlations between latents,
+ * which lets NUTS take larger steps and build shallower trees on correlated posteriors.
+ * <p>
+ * Each step costs O(n^2) in the number of latent values n and each window costs O(n^3), so this is best
+ * suited to models with up to a few hundred latent values. See {@link AdaptiveLowRankPotential} for larger models.
+ */
+public class AdaptiveDensePotential extends WindowedAdaptivePotential {
+
+    private final double initialVariance;
+
+    /**
+     * The inverse of the mass matrix
+     */
+    @Getter
+    private double[][] covariance;
+
+    /**
+     * The lower triangular cholesky factor of the covariance
+     */
+    private double[][] choleskyFactor;
+
+    /**
+     * @param initialVariance    the variance of every latent value before the first window has been adapted to
+     * @param adaptionWindowSize the number of samples in each window
+     */
+    public AdaptiveDensePotential(double initialVariance, int adaptionWindowSize) {
+        super(adaptionWindowSize);
+        Preconditions.checkArgument(initialVariance > 0, "Initial variance must be greater than 0");
+        this.initialVariance = initialVariance;
+    }
+
+    @Override
+    public void initialize(int dimension) {
+        super.initialize(dimension);
+
+        this.covariance = new double[dimension][dimension];
+        this.choleskyFactor = new double[dimension][dimension];
+        for (int i = 0; i < dimension; i++) {
+            covariance[i][i] = initialVariance;
+            choleskyFactor[i][i] = Math.sqrt(initialVariance);
+        }
+    }
+
+    @Override
+    void adapt(double[][] samples) {
+        int dimension = covariance.length;
+        int sampleCount = samples.length;
+        double[] mean = mean(samples);
+
+        double[][] newCovariance = new double[dimension][dimension];
+        for (double[] sample : samples) {
+            for (int i = 0; i < dimension; i++) {
+                double deltaI = sample[i] - mean[i];
+                for (int j = 0; j <= i; j++) {
+                    newCovariance[i][j] += deltaI * (sample[j] - mean[j]);
+                }
+            }
+        }
+
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < i; j++) {
+                newCovariance[i][j] = regularise(newCovariance[i][j] / (sampleCount - 1), sampleCount, 0.0);
+                newCovariance[j][i] = newCovariance[i][j];
+            }
+            newCovariance[i][i] = regularise(newCovariance[i][i] / (sampleCount - 1), sampleCount, REGULARISATION_VARIANCE);
+        }
+
+        this.covariance = newCovariance;
+        this.choleskyFactor = new CholeskyDecomposition(new Array2DRowRealMatrix(newCovariance, false)).getL().getData();
+    }
+
+    /**
+     * Draws momentum with covariance equal to the mass matrix, which is the inverse of the covariance, by solving
+     * L^T p = z for standard normal z where L is the cholesky factor of the covariance.
+     */
+    @Override
+    public void randomMomentum(KeanuRandom random, double[] momentum) {
+        for (int i = 0; i < momentum.length; i++) {
+            momentum[i] = random.nextGaussian();
+        }
+
+        for (int i = momentum.length - 1; i >= 0; i--) {
+            double sum = momentum[i];
+            for (int k = i + 1; k < momentum.length; k++) {
+                sum -= choleskyFactor[k][i] * momentum[k];
+            }
+            momentum[i] = sum / choleskyFactor[i][i];
+        }
+    }
+
+    @Override
+    public void getVelocity(double[] momentum, double[] velocity) {
+        for (int i = 0; i < momentum.length; i++) {
+            double[] covarianceRow = covariance[i];
+            double sum = 0.0;
+            for (int j = 0; j < momentum.length; j++) {
+                sum += covarianceRow[j] * momentum[j];
+            }
+            velocity[i] = sum;
+        }
+    }
+}
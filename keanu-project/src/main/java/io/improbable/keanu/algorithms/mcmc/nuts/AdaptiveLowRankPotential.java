@@ -0,0 +1,203 @@
+package io.improbable.keanu.algorithms.mcmc.nuts;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.KeanuRandom;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.EigenDecomposition;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * A potential whose inverse mass matrix is a diagonal of variances corrected along a few directions:
+ * <p>
+ * D^1/2 (I + U (&Lambda; - I) U^T) D^1/2
+ * <p>
+ * where D is the regularised variance of each latent value in the last window of adaption samples and the columns
+ * of U are the eigenvectors of the samples' correlation whose eigenvalues &Lambda; are furthest from one.
+ * This captures the strongest correlations between latents at O(n k) cost per step for n latent values and rank k,
+ * which makes it suitable for models that are too large for {@link AdaptiveDensePotential}.
+ * <p>
+ * The eigenvectors are found from the Gram matrix of the window's samples, so adapting to a window of m samples
+ * costs O(m^2 n + m^3) rather than O(n^3).
+ */
+public class AdaptiveLowRankPotential extends WindowedAdaptivePotential {
+
+    /**
+     * Eigenvalues of the Gram matrix smaller than this are directions with no variation in the window
+     */
+    private static final double MIN_EIGENVALUE = 1e-10;
+
+    private final double initialVariance;
+    private final int rank;
+
+    private double[] standardDeviation;
+    private double[][] eigenvectors;
+    private double[] eigenvalues;
+    private double[] projection;
+
+    /**
+     * @param initialVariance    the variance of every latent value before the first window has been adapted to
+     * @param rank               the maximum number of directions to correct the diagonal along
+     * @param adaptionWindowSize the number of samples in each window
+     */
+    public AdaptiveLowRankPotential(double initialVariance, int rank, int adaptionWindowSize) {
+        super(adaptionWindowSize);
+        Preconditions.checkArgument(initialVariance > 0, "Initial variance must be greater than 0");
+        Preconditions.checkArgument(rank > 0, "Rank must be greater than 0");
+        this.initialVariance = initialVariance;
+        this.rank = rank;
+    }
+
+    @Override
+    public void initialize(int dimension) {
+        super.initialize(dimension);
+
+        this.standardDeviation = new double[dimension];
+        Arrays.fill(standardDeviation, Math.sqrt(initialVariance));
+        this.eigenvectors = new double[0][];
+        this.eigenvalues = new double[0];
+        this.projection = new double[0];
+    }
+
+    public double[] getVariance() {
+        double[] variance = new double[standardDeviation.length];
+        for (int i = 0; i < variance.length; i++) {
+            variance[i] = standardDeviation[i] * standardDeviation[i];
+        }
+        return variance;
+    }
+
+    /**
+     * @return the directions that the diagonal is corrected along, in the space where every latent value has unit variance
+     */
+    public double[][] getEigenvectors() {
+        return eigenvectors;
+    }
+
+    /**
+     * @return the variance along each of the eigenvectors, in the space where every latent value has unit variance
+     */
+    public double[] getEigenvalues() {
+        return eigenvalues;
+    }
+
+    @Override
+    void adapt(double[][] samples) {
+        int dimension = standardDeviation.length;
+        int sampleCount = samples.length;
+        double[] mean = mean(samples);
+
+        double[] newStandardDeviation = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            double sumOfSquares = 0.0;
+            for (double[] sample : samples) {
+                double delta = sample[i] - mean[i];
+                sumOfSquares += delta * delta;
+            }
+            newStandardDeviation[i] = Math.sqrt(regularise(sumOfSquares / (sampleCount - 1), sampleCount, REGULARISATION_VARIANCE));
+        }
+
+        double[][] standardised = new double[sampleCount][dimension];
+        for (int s = 0; s < sampleCount; s++) {
+            for (int i = 0; i < dimension; i++) {
+                standardised[s][i] = (samples[s][i] - mean[i]) / newStandardDeviation[i];
+            }
+        }
+
+        double[][] gram = new double[sampleCount][sampleCount];
+        for (int s = 0; s < sampleCount; s++) {
+            for (int t = 0; t <= s; t++) {
+                double dot = 0.0;
+                for (int i = 0; i < dimension; i++) {
+                    dot += standardised[s][i] * standardised[t][i];
+                }
+                gram[s][t] = dot / (sampleCount - 1);
+                gram[t][s] = gram[s][t];
+            }
+        }
+
+        EigenDecomposition decomposition = new EigenDecomposition(new Array2DRowRealMatrix(gram, false));
+        double[] gramEigenvalues = decomposition.getRealEigenvalues();
+
+        //eigenvalues are shrunk towards one, which is their value when there's no correlation
+        int[] kept = IntStream.range(0, gramEigenvalues.length)
+            .filter(j -> gramEigenvalues[j] > MIN_EIGENVALUE)
+            .boxed()
+            .sorted(Comparator.comparingDouble(j -> -Math.abs(Math.log(regularise(gramEigenvalues[j], sampleCount, 1.0)))))
+            .limit(rank)
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        double[][] newEigenvectors = new double[kept.length][dimension];
+        double[] newEigenvalues = new double[kept.length];
+        for (int k = 0; k < kept.length; k++) {
+            int j = kept[k];
+            double[] gramEigenvector = decomposition.getEigenvector(j).toArray();
+            double norm = Math.sqrt((sampleCount - 1) * gramEigenvalues[j]);
+
+            for (int s = 0; s < sampleCount; s++) {
+                for (int i = 0; i < dimension; i++) {
+                    newEigenvectors[k][i] += standardised[s][i] * gramEigenvector[s] / norm;
+                }
+            }
+            newEigenvalues[k] = regularise(gramEigenvalues[j], sampleCount, 1.0);
+        }
+
+        this.standardDeviation = newStandardDeviation;
+        this.eigenvectors = newEigenvectors;
+        this.eigenvalues = newEigenvalues;
+        this.projection = new double[kept.length];
+    }
+
+    /**
+     * Draws momentum with covariance equal to the mass matrix, which is
+     * D^-1/2 (I + U (&Lambda;^-1 - I) U^T) D^-1/2, by multiplying standard normal z by
+     * D^-1/2 (I + U (&Lambda;^-1/2 - I) U^T), which is its square root.
+     */
+    @Override
+    public void randomMomentum(KeanuRandom random, double[] momentum) {
+        for (int i = 0; i < momentum.length; i++) {
+            momentum[i] = random.nextGaussian();
+        }
+
+        correctAlongEigenvectors(momentum, -0.5);
+
+        for (int i = 0; i < momentum.length; i++) {
+            momentum[i] /= standardDeviation[i];
+        }
+    }
+
+    @Override
+    public void getVelocity(double[] momentum, double[] velocity) {
+        for (int i = 0; i < momentum.length; i++) {
+            velocity[i] = momentum[i] * standardDeviation[i];
+        }
+
+        correctAlongEigenvectors(velocity, 1.0);
+
+        for (int i = 0; i < velocity.length; i++) {
+            velocity[i] *= standardDeviation[i];
+        }
+    }
+
+    /**
+     * Multiplies values in place by I + U (&Lambda;^power - I) U^T
+     */
+    private void correctAlongEigenvectors(double[] values, double power) {
+        for (int k = 0; k < eigenvectors.length; k++) {
+            double dot = 0.0;
+            for (int i = 0; i < values.length; i++) {
+                dot += eigenvectors[k][i] * values[i];
+            }
+            projection[k] = (Math.pow(eigenvalues[k], power) - 1.0) * dot;
+        }
+
+        for (int k = 0; k < eigenvectors.length; k++) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] += projection[k] * eigenvectors[k][i];
+            }
+        }
+    }
+}
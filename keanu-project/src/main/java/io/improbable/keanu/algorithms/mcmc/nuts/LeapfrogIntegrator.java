@@ -1,18 +1,26 @@
 package io.improbable.keanu.algorithms.mcmc.nuts;
 
+import io.improbable.keanu.algorithms.LogProbAndGradients;
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
-import io.improbable.keanu.algorithms.VariableReference;
-import io.improbable.keanu.tensor.dbl.DoubleTensor;
-import lombok.AllArgsConstructor;
+import io.improbable.keanu.algorithms.VariableLayout;
 
-import java.util.HashMap;
-import java.util.Map;
-
-@AllArgsConstructor
 public class LeapfrogIntegrator {
 
     private final Potential potential;
 
+    private final VariableLayout layout;
+
+    /**
+     * The velocity after the first half step of momentum, which is only needed during a step
+     */
+    private final double[] halfStepVelocity;
+
+    LeapfrogIntegrator(Potential potential, VariableLayout layout) {
+        this.potential = potential;
+        this.layout = layout;
+        this.halfStepVelocity = new double[layout.getLength()];
+    }
+
     /**
      * Performs one leapfrog of the variables with a time delta as defined by timeStep
      *
@@ -25,47 +33,32 @@ public class LeapfrogIntegrator {
 
         final double halfTimeStep = timeStep / 2.0;
 
-        Map<VariableReference, DoubleTensor> nextMomentum = stepMomentum(halfTimeStep, fromState.getMomentum(), fromState.getGradient());
+        final double[] nextMomentum = new double[halfStepVelocity.length];
+        stepMomentum(halfTimeStep, fromState.getMomentum(), fromState.getGradient(), nextMomentum);
 
-        Map<VariableReference, DoubleTensor> nextVelocity = potential.getVelocity(nextMomentum);
+        potential.getVelocity(nextMomentum, halfStepVelocity);
 
-        Map<VariableReference, DoubleTensor> nextPosition = stepPosition(timeStep, nextVelocity, fromState.getPosition());
+        final double[] nextPosition = new double[halfStepVelocity.length];
+        stepPosition(timeStep, halfStepVelocity, fromState.getPosition(), nextPosition);
 
-        Map<? extends VariableReference, DoubleTensor> nextPositionGradient = logProbGradientCalculator.logProbGradients(nextPosition);
-        final double nextPositionLogProb = logProbGradientCalculator.logProb();
+        LogProbAndGradients atNextPosition = logProbGradientCalculator.logProbAndGradients(layout.toMap(nextPosition));
+        final double nextPositionLogProb = atNextPosition.getLogProb();
+        final double[] nextGradient = layout.toArray(atNextPosition.getGradients());
 
-        nextMomentum = stepMomentum(halfTimeStep, nextMomentum, nextPositionGradient);
+        stepMomentum(halfTimeStep, nextMomentum, nextGradient, nextMomentum);
 
-        return new LeapfrogState(nextPosition, nextMomentum, nextPositionGradient, nextPositionLogProb, potential);
+        return new LeapfrogState(nextPosition, nextMomentum, nextGradient, nextPositionLogProb, potential);
     }
 
-    private static Map<VariableReference, DoubleTensor> stepPosition(double dt,
-                                                                     Map<VariableReference, DoubleTensor> velocity,
-                                                                     Map<VariableReference, DoubleTensor> position) {
-
-        Map<VariableReference, DoubleTensor> nextPosition = new HashMap<>();
-
-        for (VariableReference variableReference : position.keySet()) {
-
-            final DoubleTensor variablePosition = position.get(variableReference);
-            final DoubleTensor variableVelocity = velocity.get(variableReference);
-
-            final DoubleTensor nextPositionForLatent = variableVelocity.times(dt).plusInPlace(variablePosition);
-
-            nextPosition.put(variableReference, nextPositionForLatent);
+    private static void stepPosition(double dt, double[] velocity, double[] position, double[] nextPosition) {
+        for (int i = 0; i < position.length; i++) {
+            nextPosition[i] = velocity[i] * dt + position[i];
         }
-
-        return nextPosition;
     }
 
-    private static Map<VariableReference, DoubleTensor> stepMomentum(double dt,
-                                                                     Map<? extends VariableReference, DoubleTensor> momentum,
-                                                                     Map<? extends VariableReference, DoubleTensor> gradient) {
-        Map<VariableReference, DoubleTensor> nextMomentum = new HashMap<>();
-        for (Map.Entry<? extends VariableReference, DoubleTensor> rEntry : momentum.entrySet()) {
-            final DoubleTensor updatedMomentum = gradient.get(rEntry.getKey()).times(dt).plusInPlace(rEntry.getValue());
-            nextMomentum.put(rEntry.getKey(), updatedMomentum);
+    private static void stepMomentum(double dt, double[] momentum, double[] gradient, double[] nextMomentum) {
+        for (int i = 0; i < momentum.length; i++) {
+            nextMomentum[i] = gradient[i] * dt + momentum[i];
         }
-        return nextMomentum;
     }
 }
@@ -2,12 +2,14 @@ package io.improbable.keanu.algorithms.mcmc.nuts;
 
 import com.google.common.base.Preconditions;
 import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.LogProbAndGradients;
 import io.improbable.keanu.algorithms.NetworkSamples;
 import io.improbable.keanu.algorithms.PosteriorSamplingAlgorithm;
 import io.improbable.keanu.algorithms.ProbabilisticModel;
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.Statistics;
 import io.improbable.keanu.algorithms.Variable;
+import io.improbable.keanu.algorithms.VariableLayout;
 import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.algorithms.mcmc.NetworkSamplesGenerator;
 import io.improbable.keanu.algorithms.mcmc.SamplingAlgorithm;
@@ -105,14 +107,17 @@ public class NUTS implements PosteriorSamplingAlgorithm {
         Map<VariableReference, DoubleTensor> position = latentVariables.stream()
             .collect(toMap(Variable::getReference, Variable::getValue));
 
-        double initialLogOfMasterP = model.logProb(position);
+        LogProbAndGradients initial = model.logProbAndGradients(position);
+        double initialLogOfMasterP = initial.getLogProb();
 
         Preconditions.checkArgument(
             !ProbabilityCalculator.isImpossibleLogProb(initialLogOfMasterP),
             "Sampler starting position is invalid. Please start from a non-zero probability position."
         );
 
-        Map<? extends VariableReference, DoubleTensor> gradient = model.logProbGradients();
+        VariableLayout layout = new VariableLayout(latentVariables);
+
+        double[] gradient = layout.toArray(initial.getGradients());
 
         Map<VariableReference, ?> startingSample = SamplingAlgorithm.takeSample(sampleFromVariables);
 
@@ -126,12 +131,13 @@ public class NUTS implements PosteriorSamplingAlgorithm {
             adaptCount
         );
 
-        potential.initialize(position);
-        Proposal initialProposal = new Proposal(position, gradient, startingSample, initialLogOfMasterP);
+        potential.initialize(layout.getLength());
+        Proposal initialProposal = new Proposal(layout.toArray(position), gradient, startingSample, initialLogOfMasterP);
 
         return new NUTSSampler(
             sampleFromVariables,
             model,
+            layout,
             adaptPotentialEnabled,
             potential,
             adaptStepSizeEnabled,
@@ -227,7 +233,10 @@ public class NUTS implements PosteriorSamplingAlgorithm {
         }
 
         /**
-         * @param potential provides mass in velocity and energy calculations
+         * @param potential provides mass in velocity and energy calculations. This defaults to an
+         *                  {@link AdaptiveQuadraticPotential}, which adapts a diagonal mass matrix. For posteriors
+         *                  with correlated latents use an {@link AdaptiveDensePotential} or, for large models,
+         *                  an {@link AdaptiveLowRankPotential}.
          * @return the builder for NUTS
          */
         public NUTSBuilder potential(Potential potential) {
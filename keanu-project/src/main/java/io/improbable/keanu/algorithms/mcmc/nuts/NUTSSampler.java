@@ -5,9 +5,9 @@ import io.improbable.keanu.algorithms.NetworkSample;
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.Statistics;
 import io.improbable.keanu.algorithms.Variable;
+import io.improbable.keanu.algorithms.VariableLayout;
 import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.algorithms.mcmc.SamplingAlgorithm;
-import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
@@ -51,6 +51,7 @@ class NUTSSampler implements SamplingAlgorithm {
     /**
      * @param sampleFromVariables       variables to sample from
      * @param logProbGradientCalculator gradient calculator for diff of log prob with respect to latents
+     * @param layout                    the layout of the latents in position, momentum and gradient
      * @param adaptPotentialEnabled     enable the potential adaption
      * @param potential                 provides mass in velocity and energy calculations
      * @param adaptStepSizeEnabled      enable the NUTS step size adaptation
@@ -65,6 +66,7 @@ class NUTSSampler implements SamplingAlgorithm {
      */
     public NUTSSampler(List<? extends Variable> sampleFromVariables,
                        ProbabilisticModelWithGradient logProbGradientCalculator,
+                       VariableLayout layout,
                        boolean adaptPotentialEnabled,
                        Potential potential,
                        boolean adaptStepSizeEnabled,
@@ -79,7 +81,7 @@ class NUTSSampler implements SamplingAlgorithm {
 
         this.sampleFromVariables = sampleFromVariables;
         this.logProbGradientCalculator = logProbGradientCalculator;
-        this.leapfrogIntegrator = new LeapfrogIntegrator(potential);
+        this.leapfrogIntegrator = new LeapfrogIntegrator(potential, layout);
 
         this.adaptPotentialEnabled = adaptPotentialEnabled;
         this.potential = potential;
@@ -117,7 +119,8 @@ class NUTSSampler implements SamplingAlgorithm {
     @Override
     public void step() {
 
-        Map<VariableReference, DoubleTensor> initialMomentum = potential.randomMomentum(random);
+        double[] initialMomentum = new double[proposal.getPosition().length];
+        potential.randomMomentum(random, initialMomentum);
 
         LeapfrogState startState = new LeapfrogState(
             proposal.getPosition(),
@@ -1,20 +1,31 @@
 package io.improbable.keanu.algorithms.mcmc.nuts;
 
 import io.improbable.keanu.KeanuRandom;
-import io.improbable.keanu.algorithms.VariableReference;
-import io.improbable.keanu.tensor.dbl.DoubleTensor;
-
-import java.util.Map;
 
+/**
+ * Provides the mass matrix used by NUTS. Positions, momenta and velocities are the values of every latent
+ * variable laid out one after another in a flat array.
+ */
 public interface Potential {
 
-    void initialize(Map<VariableReference, DoubleTensor> shapeLike);
+    /**
+     * @param dimension the number of values in a position
+     */
+    void initialize(int dimension);
 
-    void update(Map<VariableReference, DoubleTensor> position);
+    void update(double[] position);
 
-    Map<VariableReference, DoubleTensor> randomMomentum(KeanuRandom random);
+    /**
+     * @param random   source of randomness
+     * @param momentum filled with a momentum drawn from the distribution of momentum for this potential
+     */
+    void randomMomentum(KeanuRandom random, double[] momentum);
 
-    Map<VariableReference, DoubleTensor> getVelocity(Map<VariableReference, DoubleTensor> momentum);
+    /**
+     * @param momentum the momentum
+     * @param velocity filled with the velocity for the momentum
+     */
+    void getVelocity(double[] momentum, double[] velocity);
 
-    double getKineticEnergy(Map<VariableReference, DoubleTensor> momentum, Map<VariableReference, DoubleTensor> velocity);
+    double getKineticEnergy(double[] momentum, double[] velocity);
 }
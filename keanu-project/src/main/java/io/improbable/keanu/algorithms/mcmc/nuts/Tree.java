@@ -5,7 +5,6 @@ import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.Statistics;
 import io.improbable.keanu.algorithms.Variable;
 import io.improbable.keanu.algorithms.VariableReference;
-import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
@@ -14,7 +13,6 @@ import java.util.List;
 import java.util.Map;
 
 import static io.improbable.keanu.algorithms.mcmc.SamplingAlgorithm.takeSample;
-import static io.improbable.keanu.algorithms.mcmc.nuts.VariableValues.add;
 
 
 /**
@@ -55,7 +53,7 @@ class Tree {
      * Sum of momentum over all steps in tree
      */
     @Getter
-    private Map<VariableReference, DoubleTensor> sumMomentum;
+    private final double[] sumMomentum;
 
     /**
      * The energy at the start state
@@ -128,7 +126,7 @@ class Tree {
         this.leapfrogIntegrator = leapfrogIntegrator;
         this.sampleFromVariables = sampleFromVariables;
         this.random = random;
-        this.sumMomentum = startState.getMomentum();
+        this.sumMomentum = startState.getMomentum().clone();
         this.startEnergy = startState.getEnergy();
         this.logSumWeight = 0.0;
         this.sumMetropolisAcceptanceProbability = 0.0;
@@ -165,7 +163,7 @@ class Tree {
 
             logSumWeight = logSumExp(logSumWeight, otherHalfTree.logSumWeight);
 
-            sumMomentum = add(sumMomentum, otherHalfTree.sumMomentum);
+            addInPlace(sumMomentum, otherHalfTree.sumMomentum);
         }
 
         diverged = otherHalfTree.diverged;
@@ -234,7 +232,7 @@ class Tree {
 
                 if (extendedSubTree.shouldContinue()) {
 
-                    subTree.sumMomentum = add(subTree.sumMomentum, extendedSubTree.sumMomentum);
+                    addInPlace(subTree.sumMomentum, extendedSubTree.sumMomentum);
 
                     subTree.uTurned = isUTurning(
                         subTree.forward.getVelocity(),
@@ -283,7 +281,7 @@ class Tree {
             return new SubTree(
                 leapfrogStateAfterStep,
                 leapfrogStateAfterStep,
-                leapfrogStateAfterStep.getMomentum(),
+                leapfrogStateAfterStep.getMomentum().clone(),
                 null,
                 Double.NEGATIVE_INFINITY,
                 true,
@@ -313,7 +311,7 @@ class Tree {
             return new SubTree(
                 leapfrogStateAfterStep,
                 leapfrogStateAfterStep,
-                leapfrogStateAfterStep.getMomentum(),
+                leapfrogStateAfterStep.getMomentum().clone(),
                 proposal,
                 logSumWeight,
                 false,
@@ -330,25 +328,26 @@ class Tree {
         return Math.log(random.nextDouble()) < probability;
     }
 
-    private static boolean isUTurning(Map<VariableReference, DoubleTensor> velocityForward,
-                                      Map<VariableReference, DoubleTensor> velocityBackward,
-                                      Map<VariableReference, DoubleTensor> rho) {
+    private static boolean isUTurning(double[] velocityForward,
+                                      double[] velocityBackward,
+                                      double[] rho) {
         double forward = 0.0;
         double backward = 0.0;
 
-        for (VariableReference latentId : velocityForward.keySet()) {
-
-            final DoubleTensor vForward = velocityForward.get(latentId);
-            final DoubleTensor vBackward = velocityBackward.get(latentId);
-            final DoubleTensor rhoForLatent = rho.get(latentId);
-
-            forward += vForward.times(rhoForLatent).sum();
-            backward += vBackward.times(rhoForLatent).sum();
+        for (int i = 0; i < rho.length; i++) {
+            forward += velocityForward[i] * rho[i];
+            backward += velocityBackward[i] * rho[i];
         }
 
         return (forward < 0.0) || (backward < 0.0);
     }
 
+    private static void addInPlace(double[] sum, double[] toAdd) {
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += toAdd[i];
+        }
+    }
+
     public boolean shouldContinue() {
         return !diverged && !uTurned;
     }
@@ -373,9 +372,9 @@ class Tree {
         private LeapfrogState backward;
 
         /**
-         * The sum of all of the momentum from each step
+         * The sum of all of the momentum from each step, which belongs to this sub tree so it can be added to in place
          */
-        private Map<VariableReference, DoubleTensor> sumMomentum;
+        private double[] sumMomentum;
 
         /**
          * The current accepted proposal.
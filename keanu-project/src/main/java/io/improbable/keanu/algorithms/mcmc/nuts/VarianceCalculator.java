@@ -1,13 +1,6 @@
 package io.improbable.keanu.algorithms.mcmc.nuts;
 
 import com.google.common.base.Preconditions;
-import io.improbable.keanu.algorithms.VariableReference;
-import io.improbable.keanu.tensor.dbl.DoubleTensor;
-
-import java.util.Map;
-
-import static io.improbable.keanu.algorithms.mcmc.nuts.VariableValues.divide;
-import static io.improbable.keanu.algorithms.mcmc.nuts.VariableValues.times;
 
 /**
  * Uses Welford's online algorithm for computing sample variance
@@ -15,45 +8,43 @@ import static io.improbable.keanu.algorithms.mcmc.nuts.VariableValues.times;
 public class VarianceCalculator {
 
     private double count;
-    private Map<VariableReference, DoubleTensor> mean;
-    private Map<VariableReference, DoubleTensor> M2;
+    private final double[] mean;
+    private final double[] M2;
 
-    public VarianceCalculator(Map<VariableReference, DoubleTensor> initialMean,
-                              Map<VariableReference, DoubleTensor> initialVariance,
+    public VarianceCalculator(double[] initialMean,
+                              double[] initialVariance,
                               double initialWeight) {
         Preconditions.checkArgument(initialWeight >= 0.0, "Initial weight must be greater than or equal to 0");
+        Preconditions.checkArgument(initialMean.length == initialVariance.length, "Mean and variance must be the same length");
         this.count = initialWeight;
-        this.mean = initialMean;
-        this.M2 = times(initialVariance, count);
+        this.mean = initialMean.clone();
+        this.M2 = new double[initialVariance.length];
+        for (int i = 0; i < M2.length; i++) {
+            M2[i] = initialVariance[i] * count;
+        }
     }
 
-    public void addSample(Map<VariableReference, DoubleTensor> sampleForLatents) {
-
-        this.count += 1.0;
-
-        for (Map.Entry<VariableReference, DoubleTensor> sampleForVariable : sampleForLatents.entrySet()) {
-
-            final VariableReference v = sampleForVariable.getKey();
-            final DoubleTensor sample = sampleForVariable.getValue();
-
-            final DoubleTensor oldMean = mean.get(v);
-
-            final DoubleTensor delta = sample.minus(oldMean);
-
-            final DoubleTensor newMean = oldMean.plus(delta.div(count));
+    public VarianceCalculator(int dimension) {
+        this(new double[dimension], new double[dimension], 0);
+    }
 
-            final DoubleTensor delta2 = sample.minus(newMean);
+    public void addSample(double[] sample) {
 
-            final DoubleTensor oldM2 = this.M2.get(v);
-            final DoubleTensor newM2 = oldM2.plus(delta.times(delta2));
+        this.count += 1.0;
 
-            mean.put(v, newMean);
-            M2.put(v, newM2);
+        for (int i = 0; i < mean.length; i++) {
+            final double delta = sample[i] - mean[i];
+            mean[i] += delta / count;
+            M2[i] += delta * (sample[i] - mean[i]);
         }
     }
 
-    public Map<VariableReference, DoubleTensor> calculateCurrentVariance() {
-        return divide(M2, count);
+    public double[] calculateCurrentVariance() {
+        double[] variance = new double[M2.length];
+        for (int i = 0; i < M2.length; i++) {
+            variance[i] = M2[i] / count;
+        }
+        return variance;
     }
 
 }
@@ -0,0 +1,90 @@
+package io.improbable.keanu.algorithms.mcmc.nuts;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A potential whose mass matrix is re-estimated from the positions in each window of adaption samples.
+ * Only the positions of the current window are kept and the mass matrix stays the same within a window,
+ * so an estimate that is expensive to make is only made once per window.
+ * <p>
+ * Estimates are regularised towards a small multiple of the identity in the same way as Stan, which keeps
+ * them well conditioned when a window has few samples.
+ */
+abstract class WindowedAdaptivePotential implements Potential {
+
+    /**
+     * The number of pseudo-samples of the regularising matrix that are added to each window
+     */
+    private static final double REGULARISATION_WEIGHT = 5.0;
+
+    /**
+     * The variance of the regularising matrix
+     */
+    static final double REGULARISATION_VARIANCE = 1e-3;
+
+    private final int adaptionWindowSize;
+    private double[][] windowSamples;
+    private int samplesInWindow;
+
+    WindowedAdaptivePotential(int adaptionWindowSize) {
+        Preconditions.checkArgument(adaptionWindowSize > 1, "Adapt window size must be greater than 1");
+        this.adaptionWindowSize = adaptionWindowSize;
+    }
+
+    @Override
+    public void initialize(int dimension) {
+        this.windowSamples = new double[adaptionWindowSize][dimension];
+        this.samplesInWindow = 0;
+    }
+
+    @Override
+    public void update(double[] position) {
+        System.arraycopy(position, 0, windowSamples[samplesInWindow], 0, position.length);
+        samplesInWindow++;
+
+        if (samplesInWindow == adaptionWindowSize) {
+            adapt(windowSamples);
+            samplesInWindow = 0;
+        }
+    }
+
+    /**
+     * Called at the end of each window with the positions from that window.
+     *
+     * @param samples the positions in the window, which are reused for the next window once this returns
+     */
+    abstract void adapt(double[][] samples);
+
+    @Override
+    public double getKineticEnergy(double[] momentum, double[] velocity) {
+        double dotProduct = 0.0;
+        for (int i = 0; i < momentum.length; i++) {
+            dotProduct += momentum[i] * velocity[i];
+        }
+        return 0.5 * dotProduct;
+    }
+
+    static double[] mean(double[][] samples) {
+        int dimension = samples[0].length;
+        double[] mean = new double[dimension];
+        for (double[] sample : samples) {
+            for (int i = 0; i < dimension; i++) {
+                mean[i] += sample[i];
+            }
+        }
+        for (int i = 0; i < dimension; i++) {
+            mean[i] /= samples.length;
+        }
+        return mean;
+    }
+
+    /**
+     * @param estimate    an estimate made from a window's samples
+     * @param sampleCount the number of samples in the window
+     * @param prior       the value to shrink the estimate towards
+     * @return the estimate shrunk towards the prior as though the prior had been seen a few times
+     */
+    static double regularise(double estimate, int sampleCount, double prior) {
+        return (sampleCount * estimate + REGULARISATION_WEIGHT * prior) / (sampleCount + REGULARISATION_WEIGHT);
+    }
+}
@@ -0,0 +1,75 @@
+package io.improbable.keanu.algorithms.particlefiltering;
+
+import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.graphtraversal.TopologicalSort;
+import io.improbable.keanu.vertices.Vertex;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A copy of the graph being filtered that is confined to one thread, along with that thread's source of randomness.
+ * Particles always store their values against the vertices of the original graph, which are looked up here to find
+ * the vertex that they correspond to in the copy.
+ */
+class GraphReplica {
+
+    private final Map<Vertex, Vertex> replicaOfOriginal;
+    private final KeanuRandom random;
+
+    private GraphReplica(Map<Vertex, Vertex> replicaOfOriginal, KeanuRandom random) {
+        this.replicaOfOriginal = replicaOfOriginal;
+        this.random = random;
+    }
+
+    /**
+     * @param random source of randomness
+     * @return a replica that is the original graph itself
+     */
+    static GraphReplica ofOriginal(KeanuRandom random) {
+        return new GraphReplica(null, random);
+    }
+
+    /**
+     * Pairs up the vertices of two graphs that were built in the same way. Vertex ids are given out in the order that
+     * vertices are created, so the nth vertex of each graph in topological order is the same vertex.
+     *
+     * @param original the graph being filtered
+     * @param replica  an identical graph with different vertices
+     * @param random   source of randomness
+     * @return a replica that maps the vertices of original to the vertices of replica
+     */
+    static GraphReplica of(Collection<? extends Vertex> original, Collection<? extends Vertex> replica, KeanuRandom random) {
+        List<Vertex> originalInOrder = TopologicalSort.sort(original);
+        List<Vertex> replicaInOrder = TopologicalSort.sort(replica);
+
+        if (originalInOrder.size() != replicaInOrder.size()) {
+            throw new IllegalArgumentException(
+                "Replica has " + replicaInOrder.size() + " vertices but the original has " + originalInOrder.size()
+            );
+        }
+
+        Map<Vertex, Vertex> replicaOfOriginal = new HashMap<>();
+        for (int i = 0; i < originalInOrder.size(); i++) {
+            Vertex<?> originalVertex = originalInOrder.get(i);
+            Vertex<?> replicaVertex = replicaInOrder.get(i);
+
+            if (originalVertex.getClass() != replicaVertex.getClass() || originalVertex.isObserved() != replicaVertex.isObserved()) {
+                throw new IllegalArgumentException("Replica of " + originalVertex + " doesn't match it: " + replicaVertex);
+            }
+            replicaOfOriginal.put(originalVertex, replicaVertex);
+        }
+
+        return new GraphReplica(replicaOfOriginal, random);
+    }
+
+    <T> Vertex<T> get(Vertex<T> original) {
+        return replicaOfOriginal == null ? original : (Vertex<T>) replicaOfOriginal.get(original);
+    }
+
+    KeanuRandom getRandom() {
+        return random;
+    }
+}
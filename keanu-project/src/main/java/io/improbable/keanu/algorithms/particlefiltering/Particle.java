@@ -1,26 +1,42 @@
 package io.improbable.keanu.algorithms.particlefiltering;
 
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
-import io.improbable.keanu.vertices.ProbabilityCalculator;
 import io.improbable.keanu.vertices.Vertex;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
  * Represents a Particle used in a Particle Filter.
  * A Particle can be thought of as a particular instance of the network with state and an associated probability.
+ * <p>
+ * A particle only stores the values that were added to it since it was copied, along with a reference to the
+ * particle it was copied from. Particles that are resampled from the same ancestor share that ancestor's history,
+ * so copying a particle doesn't depend on how many vertices it already has values for.
  */
 public class Particle {
 
-    private Map<Vertex, Object> latentVertices = new HashMap<>();
-    private List<Vertex> observedVertices = new ArrayList<>();
-    private double sumLogPOfSubgraph = 1.0;
+    private final Particle parent;
+    private final Map<Vertex, Object> latentVertices = new HashMap<>();
+    private double sumLogPOfSubgraph = 0.0;
 
+    public Particle() {
+        this(null);
+    }
+
+    private Particle(Particle parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * @return a new map of every latent vertex in this particle and its ancestors to its value
+     */
     public Map<Vertex, Object> getLatentVertices() {
-        return latentVertices;
+        Map<Vertex, Object> allLatentVertices = new HashMap<>();
+        for (Particle particle = this; particle != null; particle = particle.parent) {
+            particle.latentVertices.forEach(allLatentVertices::putIfAbsent);
+        }
+        return allLatentVertices;
     }
 
     /**
@@ -31,48 +47,45 @@ public class Particle {
     }
 
     public double getScalarValueOfVertex(Vertex<DoubleTensor> vertex) {
-        return ((DoubleTensor) latentVertices.get(vertex)).scalar();
+        return getValueOfVertex(vertex).scalar();
     }
 
-    public <T> T getValueOfVertex(Vertex<T> vertex){
-        return (T) latentVertices.get(vertex);
+    public <T> T getValueOfVertex(Vertex<T> vertex) {
+        for (Particle particle = this; particle != null; particle = particle.parent) {
+            Object value = particle.latentVertices.get(vertex);
+            if (value != null) {
+                return (T) value;
+            }
+        }
+        return null;
     }
 
     <T> void addLatentVertex(Vertex<T> vertex, T value) {
         latentVertices.put(vertex, value);
     }
 
-    <T> void addObservedVertex(Vertex<T> vertex) {
-        observedVertices.add(vertex);
-    }
-
-    double updateSumLogPOfSubgraph() {
-        applyLatentVertexValues();
-        double sumLogPOfLatents = ProbabilityCalculator.calculateLogProbFor(latentVertices.keySet());
-        double sumLogPOfObservables = ProbabilityCalculator.calculateLogProbFor(observedVertices);
-        sumLogPOfSubgraph = sumLogPOfLatents + sumLogPOfObservables;
+    /**
+     * @param logProbOfIncrement the log probability of the part of the subgraph that has just been added
+     * @return the log probability of the subgraph including the increment
+     */
+    double addLogProbOfIncrement(double logProbOfIncrement) {
+        sumLogPOfSubgraph += logProbOfIncrement;
         return sumLogPOfSubgraph;
     }
 
+    /**
+     * Copies this particle in constant time by making it the parent of the copy. Values added to the copy
+     * aren't seen by this particle, but this particle shouldn't have values added to it after it has been copied.
+     *
+     * @return a particle with the same values and log probability as this one
+     */
     Particle shallowCopy() {
-        Particle clone = new Particle();
-        clone.latentVertices = new HashMap<>(this.latentVertices);
-        clone.observedVertices = new ArrayList<>(this.observedVertices);
+        Particle clone = new Particle(latentVertices.isEmpty() ? this.parent : this);
+        clone.sumLogPOfSubgraph = this.sumLogPOfSubgraph;
         return clone;
     }
 
     static int sortDescending(Particle a, Particle b) {
         return Double.compare(b.logProb(), a.logProb());
     }
-
-    private void applyLatentVertexValues() {
-        latentVertices.keySet().forEach(this::applyLatentVertexValue);
-    }
-
-    private <T> void applyLatentVertexValue(Vertex<T> vertex) {
-        if (latentVertices.containsKey(vertex)) {
-            T value = (T) latentVertices.get(vertex);
-            vertex.setAndCascade(value);
-        }
-    }
 }
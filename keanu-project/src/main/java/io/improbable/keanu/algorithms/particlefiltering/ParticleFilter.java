@@ -1,14 +1,19 @@
 package io.improbable.keanu.algorithms.particlefiltering;
 
 import io.improbable.keanu.KeanuRandom;
-import io.improbable.keanu.vertices.Probabilistic;
 import io.improbable.keanu.vertices.Vertex;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 
 /***
@@ -31,6 +36,10 @@ public class ParticleFilter {
     private int numParticles;
     private int resamplingCycles;
     private double resamplingProportion;
+    private ResamplingStrategy resamplingStrategy;
+    private double effectiveSampleSizeThreshold;
+    private int numThreads;
+    private Supplier<? extends Collection<? extends Vertex>> graphFactory;
     private KeanuRandom random;
     private List<Particle> particles;
 
@@ -52,10 +61,40 @@ public class ParticleFilter {
                           int resamplingCycles,
                           double resamplingProportion,
                           KeanuRandom random) {
+        this(vertices, numParticles, resamplingCycles, resamplingProportion, ResamplingStrategy.MULTINOMIAL, 1.0, random);
+    }
+
+    public ParticleFilter(Collection<? extends Vertex> vertices,
+                          int numParticles,
+                          int resamplingCycles,
+                          double resamplingProportion,
+                          ResamplingStrategy resamplingStrategy,
+                          double effectiveSampleSizeThreshold,
+                          KeanuRandom random) {
+        this(vertices, numParticles, resamplingCycles, resamplingProportion, resamplingStrategy,
+            effectiveSampleSizeThreshold, 1, null, random);
+    }
+
+    public ParticleFilter(Collection<? extends Vertex> vertices,
+                          int numParticles,
+                          int resamplingCycles,
+                          double resamplingProportion,
+                          ResamplingStrategy resamplingStrategy,
+                          double effectiveSampleSizeThreshold,
+                          int numThreads,
+                          Supplier<? extends Collection<? extends Vertex>> graphFactory,
+                          KeanuRandom random) {
+        if (numThreads > 1 && graphFactory == null) {
+            throw new IllegalArgumentException("A graph factory is needed to propagate particles on more than one thread");
+        }
         this.vertices = vertices;
         this.numParticles = numParticles;
         this.resamplingCycles = resamplingCycles;
         this.resamplingProportion = resamplingProportion;
+        this.resamplingStrategy = resamplingStrategy;
+        this.effectiveSampleSizeThreshold = effectiveSampleSizeThreshold;
+        this.numThreads = numThreads;
+        this.graphFactory = graphFactory;
         this.random = random;
         sort();
     }
@@ -80,28 +119,71 @@ public class ParticleFilter {
         Map<Vertex, Set<Vertex>> obsVertIncrDependencies = LatentIncrementSort.sort(this.vertices);
         List<Vertex> observedVertexOrder = new ArrayList<>(obsVertIncrDependencies.keySet());
         List<Particle> particles = createEmptyParticles(this.numParticles);
-
-        for (int i = 0; i < observedVertexOrder.size(); i++) {
-            Vertex<?> nextObsVertex = observedVertexOrder.get(i);
-            Set<Vertex> vertexDeps = obsVertIncrDependencies.get(nextObsVertex);
-            particles = updateParticles(nextObsVertex, vertexDeps, particles);
+        List<GraphReplica> replicas = createReplicas();
+        ExecutorService executor = numThreads > 1 ? Executors.newFixedThreadPool(numThreads) : null;
+
+        try {
+            for (int i = 0; i < observedVertexOrder.size(); i++) {
+                Vertex<?> nextObsVertex = observedVertexOrder.get(i);
+                Set<Vertex> vertexDeps = obsVertIncrDependencies.get(nextObsVertex);
+                List<SubgraphIncrement> increments = createIncrements(nextObsVertex, vertexDeps, replicas);
+                particles = updateParticles(increments, particles, executor);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
 
         this.particles = particles;
     }
 
-    private List<Particle> updateParticles(Vertex<?> nextObservedVertex,
-                                                  Set<Vertex> vertexDeps,
-                                                  List<Particle> particles) {
+    /**
+     * Each thread evaluates its particles on its own copy of the graph, with its own source of randomness
+     * seeded from this filter's random. The first thread uses the original graph.
+     */
+    private List<GraphReplica> createReplicas() {
+        if (numThreads <= 1) {
+            return Collections.singletonList(GraphReplica.ofOriginal(random));
+        }
+
+        List<GraphReplica> replicas = new ArrayList<>(numThreads);
+        replicas.add(GraphReplica.ofOriginal(new KeanuRandom(random.nextLong())));
+        for (int i = 1; i < numThreads; i++) {
+            replicas.add(GraphReplica.of(vertices, graphFactory.get(), new KeanuRandom(random.nextLong())));
+        }
+        return replicas;
+    }
+
+    private List<SubgraphIncrement> createIncrements(Vertex<?> observedVertex,
+                                                     Set<Vertex> vertexDeps,
+                                                     List<GraphReplica> replicas) {
+        List<SubgraphIncrement> increments = new ArrayList<>(replicas.size());
+        for (GraphReplica replica : replicas) {
+            increments.add(new SubgraphIncrement(observedVertex, vertexDeps, replica));
+        }
+        return increments;
+    }
+
+    private List<Particle> updateParticles(List<SubgraphIncrement> increments,
+                                           List<Particle> particles,
+                                           ExecutorService executor) {
+
+        double[] weights = normalisedWeights(particles);
 
-        List<Particle> updatedParticles = sampleAndCopy(particles, numParticles);
-        addObservedVertexToParticles(updatedParticles, nextObservedVertex, vertexDeps);
+        List<Particle> updatedParticles;
+        if (ResamplingStrategy.effectiveSampleSize(weights) < effectiveSampleSizeThreshold * particles.size()) {
+            updatedParticles = sampleAndCopy(particles, weights, numParticles);
+        } else {
+            updatedParticles = copyAll(particles);
+        }
+        addIncrementToParticles(updatedParticles, increments, executor);
 
         for (int i = 0; i < this.resamplingCycles; i++) {
             updatedParticles = removeWorstParticles(updatedParticles);
             int numToSample = this.numParticles - updatedParticles.size();
-            List<Particle> sampledParticles = sampleAndCopy(particles, numToSample);
-            addObservedVertexToParticles(sampledParticles, nextObservedVertex, vertexDeps);
+            List<Particle> sampledParticles = sampleAndCopy(particles, weights, numToSample);
+            addIncrementToParticles(sampledParticles, increments, executor);
             updatedParticles.addAll(sampledParticles);
         }
 
@@ -119,23 +201,45 @@ public class ParticleFilter {
         return emptyParticles;
     }
 
-    private void addObservedVertexToParticles(List<Particle> particles,
-                                                     Vertex<?> observedVertex,
-                                                     Set<Vertex> vertexDependencies) {
+    /**
+     * Splits the particles into one contiguous block per increment so that which random numbers a particle
+     * uses doesn't depend on how the threads are scheduled.
+     */
+    private void addIncrementToParticles(List<Particle> particles,
+                                         List<SubgraphIncrement> increments,
+                                         ExecutorService executor) {
 
-        for (Particle particle : particles) {
-            particle.addObservedVertex(observedVertex);
-            for (Vertex<?> latentVertex : vertexDependencies) {
-                sampleValueAndAddToParticle(latentVertex, particle);
-            }
+        if (increments.size() == 1) {
+            addIncrementToParticles(particles, increments.get(0));
+            return;
+        }
 
-            particle.updateSumLogPOfSubgraph();
+        int blockSize = (particles.size() + increments.size() - 1) / increments.size();
+        List<Future<?>> blocks = new ArrayList<>(increments.size());
+        for (int i = 0; i < increments.size(); i++) {
+            int from = Math.min(i * blockSize, particles.size());
+            int to = Math.min(from + blockSize, particles.size());
+            List<Particle> block = particles.subList(from, to);
+            SubgraphIncrement increment = increments.get(i);
+            blocks.add(executor.submit(() -> addIncrementToParticles(block, increment)));
+        }
+
+        for (Future<?> block : blocks) {
+            try {
+                block.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while propagating particles", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to propagate particles", e.getCause());
+            }
         }
     }
 
-    private <T> void sampleValueAndAddToParticle(Vertex<T> vertex, Particle particle) {
-        T sample = ((Probabilistic<T>) vertex).sample(random);
-        particle.addLatentVertex(vertex, sample);
+    private static void addIncrementToParticles(List<Particle> particles, SubgraphIncrement increment) {
+        for (Particle particle : particles) {
+            increment.addTo(particle);
+        }
     }
 
     private List<Particle> removeWorstParticles(List<Particle> particles) {
@@ -145,31 +249,31 @@ public class ParticleFilter {
         return new ArrayList<>(particlesToKeep);
     }
 
-    private List<Particle> sampleAndCopy(List<Particle> particles, int numToSample) {
+    private double[] normalisedWeights(List<Particle> particles) {
+        double[] logWeights = new double[particles.size()];
+        for (int i = 0; i < logWeights.length; i++) {
+            logWeights[i] = particles.get(i).logProb();
+        }
+        return ResamplingStrategy.normaliseLogWeights(logWeights);
+    }
+
+    private List<Particle> sampleAndCopy(List<Particle> particles, double[] weights, int numToSample) {
 
-        double sumWeights = particles.stream().mapToDouble(p -> Math.exp(p.logProb())).sum();
-        List<Particle> sampledParticles = new ArrayList<>();
-        for (int i = 0; i < numToSample; i++) {
-            Particle sampledParticle = weightedRandomParticle(particles, sumWeights);
-            sampledParticles.add(sampledParticle.shallowCopy());
+        int[] ancestors = resamplingStrategy.sampleAncestors(weights, numToSample, random);
+        List<Particle> sampledParticles = new ArrayList<>(numToSample);
+        for (int ancestor : ancestors) {
+            sampledParticles.add(particles.get(ancestor).shallowCopy());
         }
 
         return sampledParticles;
     }
 
-    private Particle weightedRandomParticle(List<Particle> particles, double sumWeights) {
-        double r = random.nextDouble() * sumWeights;
-        double cumulativeWeight = 0;
-        Particle p = particles.get(0);
-        for (int i = 0; i < particles.size(); i++) {
-            p = particles.get(i);
-            cumulativeWeight += Math.exp(p.logProb());
-            if (cumulativeWeight > r) {
-                break;
-            }
+    private List<Particle> copyAll(List<Particle> particles) {
+        List<Particle> copies = new ArrayList<>(particles.size());
+        for (Particle particle : particles) {
+            copies.add(particle.shallowCopy());
         }
-
-        return p;
+        return copies;
     }
 
 }
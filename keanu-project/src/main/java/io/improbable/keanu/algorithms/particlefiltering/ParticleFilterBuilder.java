@@ -1,9 +1,11 @@
 package io.improbable.keanu.algorithms.particlefiltering;
 
 import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.network.BayesianNetwork;
 import io.improbable.keanu.vertices.Vertex;
 
 import java.util.Collection;
+import java.util.function.Supplier;
 
 public class ParticleFilterBuilder {
 
@@ -11,6 +13,10 @@ public class ParticleFilterBuilder {
     private int numParticles = 1000;
     private int resamplingCycles = 3;
     private double resamplingProportion = 0.5;
+    private ResamplingStrategy resamplingStrategy = ResamplingStrategy.MULTINOMIAL;
+    private double effectiveSampleSizeThreshold = 1.0;
+    private int numThreads = 1;
+    private Supplier<? extends Collection<? extends Vertex>> graphFactory = null;
     private KeanuRandom random = KeanuRandom.getDefaultRandom();
 
     /**
@@ -50,6 +56,52 @@ public class ParticleFilterBuilder {
         return this;
     }
 
+    /**
+     * @param resamplingStrategy the {@link ResamplingStrategy} used to pick which particles are copied forward
+     * @return this
+     */
+    public ParticleFilterBuilder withResamplingStrategy(ResamplingStrategy resamplingStrategy) {
+        this.resamplingStrategy = resamplingStrategy;
+        return this;
+    }
+
+    /**
+     * @param effectiveSampleSizeThreshold the particles are only resampled when their effective sample size falls
+     *                                     below this proportion of the number of particles. The default of 1.0
+     *                                     resamples at every step.
+     * @return this
+     */
+    public ParticleFilterBuilder withEffectiveSampleSizeThreshold(double effectiveSampleSizeThreshold) {
+        this.effectiveSampleSizeThreshold = effectiveSampleSizeThreshold;
+        return this;
+    }
+
+    /**
+     * Propagates and weights particles on several threads, each of which works on its own
+     * {@link BayesianNetwork#copy() copy} of the graph.
+     *
+     * @param numThreads the number of threads to propagate particles on
+     * @return this
+     */
+    public ParticleFilterBuilder withParallelism(int numThreads) {
+        return withParallelism(numThreads, () -> new BayesianNetwork(vertices).copy().getAllVertices());
+    }
+
+    /**
+     * Propagates and weights particles on several threads. The graph is mutable, so each extra thread works on its
+     * own copy of it that is built by calling graphFactory.
+     *
+     * @param numThreads   the number of threads to propagate particles on
+     * @param graphFactory builds a new graph, including its observations, in exactly the same way as the graph
+     *                     being filtered was built
+     * @return this
+     */
+    public ParticleFilterBuilder withParallelism(int numThreads, Supplier<? extends Collection<? extends Vertex>> graphFactory) {
+        this.numThreads = numThreads;
+        this.graphFactory = graphFactory;
+        return this;
+    }
+
     /**
      * @param random A {@link KeanuRandom KeanuRandom} used for stochastic parts of algorithm
      * @return this
@@ -60,6 +112,7 @@ public class ParticleFilterBuilder {
     }
 
     public ParticleFilter build() {
-        return new ParticleFilter(vertices, numParticles, resamplingCycles, resamplingProportion, random);
+        return new ParticleFilter(vertices, numParticles, resamplingCycles, resamplingProportion,
+            resamplingStrategy, effectiveSampleSizeThreshold, numThreads, graphFactory, random);
     }
 }
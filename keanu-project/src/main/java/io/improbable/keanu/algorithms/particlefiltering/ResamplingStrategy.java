@@ -0,0 +1,179 @@
+package io.improbable.keanu.algorithms.particlefiltering;
+
+import io.improbable.keanu.KeanuRandom;
+
+import java.util.Arrays;
+
+/**
+ * Ways of choosing which particles to copy forward, given the normalised weights of the current particles.
+ * All of them take O(N + M) time for N particles and M draws.
+ * <p>
+ * See "Comparison of Resampling Schemes for Particle Filtering" (Douc, Cappe and Moulines, 2005)
+ * (https://arxiv.org/abs/cs/0507025) for a comparison of their variance.
+ */
+public enum ResamplingStrategy {
+
+    /**
+     * Each draw independently picks a particle with probability equal to its weight.
+     */
+    MULTINOMIAL {
+        @Override
+        int[] sampleAncestors(double[] weights, int numToSample, KeanuRandom random) {
+            return ancestorsOfSortedPoints(weights, sortedUniforms(numToSample, random));
+        }
+    },
+
+    /**
+     * Draws one uniform in each of numToSample equal strata of [0, 1).
+     */
+    STRATIFIED {
+        @Override
+        int[] sampleAncestors(double[] weights, int numToSample, KeanuRandom random) {
+            double[] points = new double[numToSample];
+            for (int i = 0; i < numToSample; i++) {
+                points[i] = (i + random.nextDouble()) / numToSample;
+            }
+            return ancestorsOfSortedPoints(weights, points);
+        }
+    },
+
+    /**
+     * Like stratified but uses the same offset in every stratum, so only one random number is drawn.
+     */
+    SYSTEMATIC {
+        @Override
+        int[] sampleAncestors(double[] weights, int numToSample, KeanuRandom random) {
+            double offset = random.nextDouble();
+            double[] points = new double[numToSample];
+            for (int i = 0; i < numToSample; i++) {
+                points[i] = (i + offset) / numToSample;
+            }
+            return ancestorsOfSortedPoints(weights, points);
+        }
+    },
+
+    /**
+     * Deterministically copies each particle floor(numToSample * weight) times and draws the rest
+     * multinomially from what is left over.
+     */
+    RESIDUAL {
+        @Override
+        int[] sampleAncestors(double[] weights, int numToSample, KeanuRandom random) {
+            int[] ancestors = new int[numToSample];
+            double[] residualWeights = new double[weights.length];
+            int numDeterministic = 0;
+
+            for (int i = 0; i < weights.length; i++) {
+                double expectedCopies = numToSample * weights[i];
+                int copies = Math.min((int) expectedCopies, numToSample - numDeterministic);
+                for (int j = 0; j < copies; j++) {
+                    ancestors[numDeterministic++] = i;
+                }
+                residualWeights[i] = expectedCopies - copies;
+            }
+
+            int numResidual = numToSample - numDeterministic;
+            if (numResidual > 0) {
+                int[] residualAncestors = MULTINOMIAL.sampleAncestors(normalise(residualWeights), numResidual, random);
+                System.arraycopy(residualAncestors, 0, ancestors, numDeterministic, numResidual);
+            }
+
+            return ancestors;
+        }
+    };
+
+    /**
+     * @param weights     normalised weights of the particles being resampled
+     * @param numToSample the number of particles to draw
+     * @param random      source of randomness
+     * @return the index of the particle that each draw copies
+     */
+    abstract int[] sampleAncestors(double[] weights, int numToSample, KeanuRandom random);
+
+    /**
+     * @param logWeights unnormalised log weights
+     * @return weights that sum to one, calculated with the log-sum-exp trick so that they don't underflow.
+     * If every weight is zero then they are all treated as equal.
+     */
+    static double[] normaliseLogWeights(double[] logWeights) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double logWeight : logWeights) {
+            max = Math.max(max, logWeight);
+        }
+
+        double[] weights = new double[logWeights.length];
+        if (max == Double.NEGATIVE_INFINITY || Double.isNaN(max)) {
+            Arrays.fill(weights, 1.0 / weights.length);
+            return weights;
+        }
+
+        for (int i = 0; i < logWeights.length; i++) {
+            weights[i] = Math.exp(logWeights[i] - max);
+        }
+
+        return normalise(weights);
+    }
+
+    /**
+     * @param weights normalised weights
+     * @return the effective sample size, 1 / sum(w^2), which is the number of particles for uniform weights
+     * and one if all of the weight is on a single particle.
+     */
+    static double effectiveSampleSize(double[] weights) {
+        double sumOfSquares = 0.0;
+        for (double weight : weights) {
+            sumOfSquares += weight * weight;
+        }
+        return 1.0 / sumOfSquares;
+    }
+
+    private static double[] normalise(double[] weights) {
+        double sum = 0.0;
+        for (double weight : weights) {
+            sum += weight;
+        }
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] /= sum;
+        }
+        return weights;
+    }
+
+    /**
+     * Generates sorted uniforms in linear time from the normalised partial sums of exponential random variables.
+     */
+    private static double[] sortedUniforms(int count, KeanuRandom random) {
+        double[] points = new double[count];
+        double sum = 0.0;
+        for (int i = 0; i < count; i++) {
+            sum -= Math.log(random.nextDoubleNonZero());
+            points[i] = sum;
+        }
+        sum -= Math.log(random.nextDoubleNonZero());
+
+        for (int i = 0; i < count; i++) {
+            points[i] /= sum;
+        }
+        return points;
+    }
+
+    /**
+     * Walks the cumulative weights and the sorted points together, assigning each point to the particle
+     * whose interval of the cumulative weights it falls in.
+     */
+    private static int[] ancestorsOfSortedPoints(double[] weights, double[] sortedPoints) {
+        int[] ancestors = new int[sortedPoints.length];
+        int particle = 0;
+        double cumulativeWeight = weights[0];
+
+        for (int i = 0; i < sortedPoints.length; i++) {
+            while (sortedPoints[i] >= cumulativeWeight && particle < weights.length - 1) {
+                particle++;
+                cumulativeWeight += weights[particle];
+            }
+            ancestors[i] = particle;
+        }
+
+        return ancestors;
+    }
+}
@@ -0,0 +1,125 @@
+package io.improbable.keanu.algorithms.particlefiltering;
+
+import io.improbable.keanu.algorithms.graphtraversal.CascadeUpdatePlan;
+import io.improbable.keanu.vertices.Probabilistic;
+import io.improbable.keanu.vertices.ProbabilityCalculator;
+import io.improbable.keanu.vertices.Vertex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The part of the graph that is added to every particle when the particle filter moves on to its next observed
+ * vertex: the observed vertex itself and the latent vertices that were sampled for it.
+ * <p>
+ * The log probability of the rest of a particle doesn't change when these are added, so a particle's weight
+ * can be updated by adding only the log probability of this increment. Doing that only needs the latent vertices
+ * that the increment directly depends on to be set, which are found once here rather than for every particle.
+ * <p>
+ * The increment is evaluated on a {@link GraphReplica}, so an increment can only be used by one thread at a time.
+ */
+class SubgraphIncrement {
+
+    private final List<Vertex> sampledLatentVertices;
+    private final List<Vertex> latentInputs;
+    private final List<Vertex> replicaLatentInputs;
+    private final List<Vertex> replicaVerticesToScore;
+    private final CascadeUpdatePlan cascadeFromInputs;
+    private final GraphReplica replica;
+
+    SubgraphIncrement(Vertex<?> observedVertex, Set<Vertex> sampledLatentVertices, GraphReplica replica) {
+        this.sampledLatentVertices = new ArrayList<>(sampledLatentVertices);
+        this.replica = replica;
+
+        List<Vertex> verticesToScore = new ArrayList<>(sampledLatentVertices);
+        verticesToScore.add(observedVertex);
+        this.latentInputs = findLatentInputs(verticesToScore);
+
+        this.replicaVerticesToScore = inReplica(verticesToScore);
+        this.replicaLatentInputs = inReplica(latentInputs);
+        this.cascadeFromInputs = CascadeUpdatePlan.compile(replicaLatentInputs);
+    }
+
+    /**
+     * Samples values for the increment's latent vertices, adds them to the particle and then adds the increment's
+     * log probability to the particle's log probability.
+     *
+     * @param particle a particle that doesn't yet include this increment
+     */
+    void addTo(Particle particle) {
+        for (Vertex<?> latentVertex : sampledLatentVertices) {
+            sampleValueAndAddToParticle(latentVertex, particle);
+        }
+
+        particle.addLogProbOfIncrement(logProbGiven(particle));
+    }
+
+    /**
+     * Sets the latent inputs to the particle's values, which are the sampled latent vertices and the first
+     * latent vertices reached by walking up from the increment through non-probabilistic vertices, and
+     * recalculates the non-probabilistic vertices between them and the increment.
+     */
+    private double logProbGiven(Particle particle) {
+        for (int i = 0; i < latentInputs.size(); i++) {
+            setValueFromParticle(latentInputs.get(i), replicaLatentInputs.get(i), particle);
+        }
+        cascadeFromInputs.replay();
+
+        return ProbabilityCalculator.calculateLogProbFor(replicaVerticesToScore);
+    }
+
+    private <T> void sampleValueAndAddToParticle(Vertex<T> vertex, Particle particle) {
+        T sample = ((Probabilistic<T>) replica.get(vertex)).sample(replica.getRandom());
+        particle.addLatentVertex(vertex, sample);
+    }
+
+    private static <T> void setValueFromParticle(Vertex<T> vertex, Vertex<T> replicaVertex, Particle particle) {
+        T value = particle.getValueOfVertex(vertex);
+        if (value != null) {
+            replicaVertex.setValue(value);
+        }
+    }
+
+    private List<Vertex> inReplica(List<Vertex> vertices) {
+        List<Vertex> replicaVertices = new ArrayList<>(vertices.size());
+        for (Vertex<?> vertex : vertices) {
+            replicaVertices.add(replica.get(vertex));
+        }
+        return replicaVertices;
+    }
+
+    private static List<Vertex> findLatentInputs(List<Vertex> increment) {
+        Set<Vertex> visited = new HashSet<>();
+        List<Vertex> latentInputs = new ArrayList<>();
+        Deque<Vertex> toVisit = new ArrayDeque<>();
+
+        for (Vertex<?> vertex : increment) {
+            if (vertex.isProbabilistic() && !vertex.isObserved()) {
+                visited.add(vertex);
+                latentInputs.add(vertex);
+            }
+            toVisit.addAll(vertex.getParents());
+        }
+
+        while (!toVisit.isEmpty()) {
+            Vertex<?> visiting = toVisit.pop();
+            if (!visited.add(visiting)) {
+                continue;
+            }
+
+            if (visiting.isProbabilistic()) {
+                if (!visiting.isObserved()) {
+                    latentInputs.add(visiting);
+                }
+            } else {
+                toVisit.addAll(visiting.getParents());
+            }
+        }
+
+        return latentInputs;
+    }
+}
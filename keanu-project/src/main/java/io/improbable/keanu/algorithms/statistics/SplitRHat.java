@@ -0,0 +1,75 @@
+package io.improbable.keanu.algorithms.statistics;
+
+import com.google.common.base.Preconditions;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class SplitRHat {
+
+    /**
+     * Calculates the split potential scale reduction factor, R-hat, of several chains of samples of the same scalar.
+     * Each chain is split in half so that chains that haven't stopped drifting are also detected. Values close to 1
+     * suggest that the chains have converged to the same distribution.
+     * <p>
+     * See Bayesian Data Analysis (Gelman et al, 3rd edition), section 11.4.
+     *
+     * @param chains the samples of each chain, which must all be the same length and have at least 4 samples
+     * @return the split R-hat of the chains
+     */
+    public static double calculate(double[][] chains) {
+        Preconditions.checkArgument(chains.length > 0, "No chains provided.");
+        int chainLength = chains[0].length;
+        for (double[] chain : chains) {
+            Preconditions.checkArgument(chain.length == chainLength, "Chains must all be the same length.");
+        }
+        Preconditions.checkArgument(chainLength >= 4, "Chains must have at least 4 samples to be split.");
+
+        int halfLength = chainLength / 2;
+        int numHalves = 2 * chains.length;
+        double[] halfMeans = new double[numHalves];
+        double[] halfVariances = new double[numHalves];
+
+        for (int i = 0; i < chains.length; i++) {
+            int secondHalfStart = chainLength - halfLength;
+            setMeanAndVariance(chains[i], 0, halfLength, halfMeans, halfVariances, 2 * i);
+            setMeanAndVariance(chains[i], secondHalfStart, halfLength, halfMeans, halfVariances, 2 * i + 1);
+        }
+
+        double meanOfMeans = mean(halfMeans);
+        double betweenChainVariance = 0.0;
+        for (double halfMean : halfMeans) {
+            betweenChainVariance += (halfMean - meanOfMeans) * (halfMean - meanOfMeans);
+        }
+        betweenChainVariance *= (double) halfLength / (numHalves - 1);
+
+        double withinChainVariance = mean(halfVariances);
+        double pooledVariance = (halfLength - 1.0) / halfLength * withinChainVariance + betweenChainVariance / halfLength;
+
+        return Math.sqrt(pooledVariance / withinChainVariance);
+    }
+
+    private static void setMeanAndVariance(double[] chain, int from, int length,
+                                           double[] means, double[] variances, int index) {
+        double mean = 0.0;
+        for (int i = from; i < from + length; i++) {
+            mean += chain[i];
+        }
+        mean /= length;
+
+        double variance = 0.0;
+        for (int i = from; i < from + length; i++) {
+            variance += (chain[i] - mean) * (chain[i] - mean);
+        }
+
+        means[index] = mean;
+        variances[index] = variance / (length - 1);
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+}
@@ -0,0 +1,18 @@
+package io.improbable.keanu.algorithms.variational.optimizer;
+
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * The fitness and its gradient with respect to each variable, calculated at the same point.
+ */
+@Value
+public class FitnessAndGradient {
+
+    private final double fitness;
+
+    private final Map<? extends VariableReference, DoubleTensor> gradients;
+}
@@ -0,0 +1,45 @@
+package io.improbable.keanu.algorithms.variational.optimizer;
+
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+
+import java.util.Map;
+
+/**
+ * A fitness function that can calculate its fitness and gradient together, which for a probabilistic model
+ * avoids setting the values and walking the graph twice for the same point.
+ */
+public interface FitnessFunctionWithGradient extends FitnessFunction, FitnessFunctionGradient {
+
+    /**
+     * @param values the values for each variable in the function
+     * @return the fitness and the gradient with respect to each of the variables at the values specified
+     */
+    FitnessAndGradient getFitnessAndGradientsAt(Map<VariableReference, DoubleTensor> values);
+
+    /**
+     * Combines a separate fitness function and gradient. The fitness and gradient are still calculated separately.
+     *
+     * @param fitnessFunction         the fitness function
+     * @param fitnessFunctionGradient the gradient of the fitness function
+     * @return a fitness function with gradient backed by the two functions
+     */
+    static FitnessFunctionWithGradient of(FitnessFunction fitnessFunction, FitnessFunctionGradient fitnessFunctionGradient) {
+        return new FitnessFunctionWithGradient() {
+            @Override
+            public FitnessAndGradient getFitnessAndGradientsAt(Map<VariableReference, DoubleTensor> values) {
+                return new FitnessAndGradient(getFitnessAt(values), getGradientsAt(values));
+            }
+
+            @Override
+            public double getFitnessAt(Map<VariableReference, DoubleTensor> values) {
+                return fitnessFunction.getFitnessAt(values);
+            }
+
+            @Override
+            public Map<? extends VariableReference, DoubleTensor> getGradientsAt(Map<VariableReference, DoubleTensor> values) {
+                return fitnessFunctionGradient.getGradientsAt(values);
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package io.improbable.keanu.algorithms.variational.optimizer;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The results of optimizing from several starting points with a {@link MultiStartOptimizer}.
+ */
+public class MultiStartOptimizedResult {
+
+    /**
+     * The optimum found from each starting point, fittest first.
+     */
+    @Getter
+    private final List<OptimizedResult> localOptima;
+
+    public MultiStartOptimizedResult(List<OptimizedResult> localOptima) {
+        this.localOptima = localOptima;
+    }
+
+    /**
+     * @return the fittest of the local optima
+     */
+    public OptimizedResult getBest() {
+        return localOptima.get(0);
+    }
+}
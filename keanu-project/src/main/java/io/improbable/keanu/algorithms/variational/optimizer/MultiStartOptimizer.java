@@ -0,0 +1,235 @@
+package io.improbable.keanu.algorithms.variational.optimizer;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.Keanu;
+import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.graphtraversal.TopologicalSort;
+import io.improbable.keanu.algorithms.graphtraversal.VertexValuePropagation;
+import io.improbable.keanu.network.BayesianNetwork;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.Vertex;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Optimizes a network from several starting points at the same time, so that more than one local optimum of a
+ * multimodal posterior can be found.
+ * <p>
+ * Each start optimizes its own {@link BayesianNetwork#copy() copy} of the network. The latent vertices of the copy
+ * are sampled from their priors and then, if that is an impossible state, probed in the same way as
+ * {@link BayesianNetwork#probeForNonZeroProbability(int, KeanuRandom)}. Every start has its own source of randomness,
+ * seeded from this optimizer's random, so the starting points don't depend on how the threads are scheduled.
+ */
+public class MultiStartOptimizer {
+
+    @Getter
+    private final int numStarts;
+
+    @Getter
+    private final int numThreads;
+
+    @Getter
+    private final Function<BayesianNetwork, ? extends Optimizer> optimizerFactory;
+
+    @Getter
+    private final int probeAttempts;
+
+    @Getter
+    private final KeanuRandom random;
+
+    private MultiStartOptimizer(int numStarts,
+                                int numThreads,
+                                Function<BayesianNetwork, ? extends Optimizer> optimizerFactory,
+                                int probeAttempts,
+                                KeanuRandom random) {
+        this.numStarts = numStarts;
+        this.numThreads = numThreads;
+        this.optimizerFactory = optimizerFactory;
+        this.probeAttempts = probeAttempts;
+        this.random = random;
+    }
+
+    public static MultiStartOptimizerBuilder builder() {
+        return new MultiStartOptimizerBuilder();
+    }
+
+    /**
+     * Finds the MAP from each starting point and then sets the latent vertices of network to the best of them.
+     *
+     * @param network a network containing latent vertices
+     * @return the optimum found from each start, keyed by the vertices of network
+     */
+    public MultiStartOptimizedResult maxAPosteriori(BayesianNetwork network) {
+        return optimize(network, Optimizer::maxAPosteriori);
+    }
+
+    /**
+     * Finds the maximum likelihood from each starting point and then sets the latent vertices of network to the
+     * best of them.
+     *
+     * @param network a network containing latent vertices
+     * @return the optimum found from each start, keyed by the vertices of network
+     */
+    public MultiStartOptimizedResult maxLikelihood(BayesianNetwork network) {
+        return optimize(network, Optimizer::maxLikelihood);
+    }
+
+    private MultiStartOptimizedResult optimize(BayesianNetwork network, Function<Optimizer, OptimizedResult> optimization) {
+
+        List<Vertex> latentVertices = TopologicalSort.sort(network.getLatentVertices());
+        Preconditions.checkArgument(!latentVertices.isEmpty(), "Cannot optimize a network without any latent vertices");
+
+        List<Start> starts = new ArrayList<>(numStarts);
+        for (int i = 0; i < numStarts; i++) {
+            starts.add(new Start(network, latentVertices, random.nextLong()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(numThreads, numStarts));
+        try {
+            List<Future<OptimizedResult>> startResults = new ArrayList<>(numStarts);
+            for (Start start : starts) {
+                startResults.add(executor.submit(() -> start.optimize(optimization)));
+            }
+
+            List<OptimizedResult> localOptima = new ArrayList<>(numStarts);
+            for (Future<OptimizedResult> startResult : startResults) {
+                localOptima.add(startResult.get());
+            }
+            localOptima.sort(Comparator.comparingDouble(OptimizedResult::getFitness).reversed());
+
+            MultiStartOptimizedResult result = new MultiStartOptimizedResult(localOptima);
+            setValues(latentVertices, result.getBest());
+            return result;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while optimizing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to optimize from a starting point", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void setValues(List<Vertex> latentVertices, OptimizedResult optimum) {
+        for (Vertex vertex : latentVertices) {
+            DoubleTensor value = optimum.getValueFor(vertex.getId());
+            if (value != null) {
+                vertex.setValue(value);
+            }
+        }
+        VertexValuePropagation.cascadeUpdate(latentVertices);
+    }
+
+    /**
+     * One starting point, which is set up on the calling thread before any optimization starts.
+     */
+    private class Start {
+
+        private final List<Vertex> originalLatentVertices;
+        private final List<Vertex> latentVertices;
+        private final Optimizer optimizer;
+
+        Start(BayesianNetwork network, List<Vertex> originalLatentVertices, long seed) {
+            BayesianNetwork copy = network.copy();
+            KeanuRandom startRandom = new KeanuRandom(seed);
+
+            this.originalLatentVertices = originalLatentVertices;
+            this.latentVertices = TopologicalSort.sort(copy.getLatentVertices());
+
+            BayesianNetwork.setFromSampleAndCascade(latentVertices, startRandom);
+            copy.probeForNonZeroProbability(probeAttempts, startRandom);
+
+            this.optimizer = optimizerFactory.apply(copy);
+        }
+
+        /**
+         * @return the optimum of this start keyed by the vertices of the original network
+         */
+        OptimizedResult optimize(Function<Optimizer, OptimizedResult> optimization) {
+            OptimizedResult result = optimization.apply(optimizer);
+
+            Map<VariableReference, DoubleTensor> valuesByOriginalVertex = new HashMap<>();
+            for (int i = 0; i < latentVertices.size(); i++) {
+                DoubleTensor value = result.getValueFor(latentVertices.get(i).getId());
+                if (value != null) {
+                    valuesByOriginalVertex.put(originalLatentVertices.get(i).getId(), value);
+                }
+            }
+
+            return new OptimizedResult(valuesByOriginalVertex, result.getFitness());
+        }
+    }
+
+    public static class MultiStartOptimizerBuilder {
+        private int numStarts = 10;
+        private int numThreads = Runtime.getRuntime().availableProcessors();
+        private Function<BayesianNetwork, ? extends Optimizer> optimizerFactory = Keanu.Optimizer::of;
+        private int probeAttempts = 1000;
+        private KeanuRandom random = KeanuRandom.getDefaultRandom();
+
+        /**
+         * @param numStarts the number of starting points to optimize from
+         * @return this
+         */
+        public MultiStartOptimizerBuilder numStarts(int numStarts) {
+            Preconditions.checkArgument(numStarts > 0, "Number of starts must be positive but was %s", numStarts);
+            this.numStarts = numStarts;
+            return this;
+        }
+
+        /**
+         * @param numThreads the number of starts to optimize at the same time
+         * @return this
+         */
+        public MultiStartOptimizerBuilder numThreads(int numThreads) {
+            Preconditions.checkArgument(numThreads > 0, "Number of threads must be positive but was %s", numThreads);
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        /**
+         * @param optimizerFactory creates the optimizer for the copy of the network that a start optimizes, e.g.
+         *                         {@code network -> Keanu.Optimizer.Gradient.builderFor(network).algorithm(...).build()}.
+         *                         This defaults to {@link Keanu.Optimizer#of(BayesianNetwork)}.
+         * @return this
+         */
+        public MultiStartOptimizerBuilder optimizer(Function<BayesianNetwork, ? extends Optimizer> optimizerFactory) {
+            this.optimizerFactory = optimizerFactory;
+            return this;
+        }
+
+        /**
+         * @param probeAttempts the number of times to resample a starting point that has zero probability
+         * @return this
+         */
+        public MultiStartOptimizerBuilder probeAttempts(int probeAttempts) {
+            this.probeAttempts = probeAttempts;
+            return this;
+        }
+
+        /**
+         * @param random used to seed the random of each start
+         * @return this
+         */
+        public MultiStartOptimizerBuilder random(KeanuRandom random) {
+            this.random = random;
+            return this;
+        }
+
+        public MultiStartOptimizer build() {
+            return new MultiStartOptimizer(numStarts, numThreads, optimizerFactory, probeAttempts, random);
+        }
+    }
+}
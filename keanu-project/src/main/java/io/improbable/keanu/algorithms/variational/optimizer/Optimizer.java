@@ -1,7 +1,7 @@
 package io.improbable.keanu.algorithms.variational.optimizer;
 
-import com.google.common.primitives.Ints;
 import io.improbable.keanu.algorithms.Variable;
+import io.improbable.keanu.algorithms.VariableLayout;
 import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.tensor.NumberTensor;
 import io.improbable.keanu.tensor.TensorShape;
@@ -9,7 +9,6 @@ import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.util.status.AverageTimeComponent;
 import io.improbable.keanu.util.status.StatusBar;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -81,23 +80,7 @@ public interface Optimizer {
     }
 
     static Map<VariableReference, DoubleTensor> convertFromPoint(double[] point, List<? extends Variable> latentVariables) {
-
-        Map<VariableReference, DoubleTensor> tensors = new HashMap<>();
-        int position = 0;
-        for (Variable variable : latentVariables) {
-
-            int dimensions = Ints.checkedCast(TensorShape.getLength(variable.getShape()));
-
-            double[] values = new double[dimensions];
-            System.arraycopy(point, position, values, 0, dimensions);
-
-            DoubleTensor newTensor = DoubleTensor.create(values, variable.getShape());
-
-            tensors.put(variable.getReference(), newTensor);
-            position += dimensions;
-        }
-
-        return tensors;
+        return new VariableLayout(latentVariables).toMap(point);
     }
 
     static long totalNumberOfLatentDimensions(List<long[]> continuousLatentVariableShapes) {
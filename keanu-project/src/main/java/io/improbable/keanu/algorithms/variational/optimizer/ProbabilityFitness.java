@@ -27,6 +27,13 @@ public enum ProbabilityFitness {
             return new LogLikelihoodFitnessFunctionGradient(model, handleFitnessCalculation);
 
         }
+
+        @Override
+        public FitnessFunctionWithGradient getFitnessFunctionWithGradient(ProbabilisticModelWithGradient model,
+                                                                          BiConsumer<Map<VariableReference, DoubleTensor>, Double> handleFitnessCalculation,
+                                                                          BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> handleGradientCalculation) {
+            return new LogLikelihoodFitnessFunctionGradient(model, handleFitnessCalculation, handleGradientCalculation);
+        }
     },
     MAP {
         @Override
@@ -40,6 +47,13 @@ public enum ProbabilityFitness {
                                                                   BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> handleFitnessCalculation) {
             return new LogProbFitnessFunctionGradient(model, handleFitnessCalculation);
         }
+
+        @Override
+        public FitnessFunctionWithGradient getFitnessFunctionWithGradient(ProbabilisticModelWithGradient model,
+                                                                          BiConsumer<Map<VariableReference, DoubleTensor>, Double> handleFitnessCalculation,
+                                                                          BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> handleGradientCalculation) {
+            return new LogProbFitnessFunctionGradient(model, handleFitnessCalculation, handleGradientCalculation);
+        }
     };
 
     public abstract FitnessFunction getFitnessFunction(ProbabilisticModel model,
@@ -58,4 +72,14 @@ public enum ProbabilityFitness {
         });
     }
 
+    /**
+     * @param model                     the model to calculate the fitness and gradient of
+     * @param handleFitnessCalculation  called whenever the fitness is calculated at a point
+     * @param handleGradientCalculation called whenever the gradient is calculated at a point
+     * @return a fitness function that can also calculate its gradient, together with the fitness if needed
+     */
+    public abstract FitnessFunctionWithGradient getFitnessFunctionWithGradient(ProbabilisticModelWithGradient model,
+                                                                               BiConsumer<Map<VariableReference, DoubleTensor>, Double> handleFitnessCalculation,
+                                                                               BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> handleGradientCalculation);
+
 }
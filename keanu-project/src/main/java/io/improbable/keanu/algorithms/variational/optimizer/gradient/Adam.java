@@ -3,8 +3,8 @@ package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 import io.improbable.keanu.algorithms.Variable;
 import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.algorithms.variational.optimizer.ConvergenceChecker;
-import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunction;
 import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
 import io.improbable.keanu.algorithms.variational.optimizer.OptimizedResult;
 import io.improbable.keanu.algorithms.variational.optimizer.RelativeConvergenceChecker;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
@@ -35,14 +35,14 @@ public class Adam implements GradientOptimizationAlgorithm {
     private final double beta1;
     private final double beta2;
     private final double epsilon;
+    private final LearningRateSchedule learningRateSchedule;
 
     @Getter
     private AdamStatistics statistics;
 
     @Override
     public OptimizedResult optimize(List<? extends Variable> latentVariables,
-                                    FitnessFunction fitnessFunction,
-                                    FitnessFunctionGradient fitnessFunctionGradient) {
+                                    FitnessFunctionWithGradient fitnessFunction) {
 
         DoubleTensor[] theta = getTheta(latentVariables);
         DoubleTensor[] thetaNext = getZeros(theta);
@@ -59,19 +59,20 @@ public class Adam implements GradientOptimizationAlgorithm {
 
         for (int t = 1; !converged && t <= maxEvaluations; t++) {
 
-            updateGradients(latentVariables, theta, thetaAsPoint, gradients, fitnessFunctionGradient);
+            updateGradients(latentVariables, theta, thetaAsPoint, gradients, fitnessFunction);
 
             beta1T = beta1T * beta1;
             beta2T = beta2T * beta2;
 
             final double b = (1 - beta1T) / Math.sqrt(1 - beta2T);
+            final double alphaT = learningRateSchedule.getLearningRate(alpha, t);
 
             for (int i = 0; i < theta.length; i++) {
 
                 m[i] = m[i].times(beta1).plusInPlace(gradients[i].times(1 - beta1));
                 v[i] = v[i].times(beta2).plusInPlace(gradients[i].pow(2).timesInPlace(1 - beta2));
 
-                thetaNext[i] = theta[i].plus(m[i].times(alpha).divInPlace(v[i].sqrt().timesInPlace(b).plusInPlace(epsilon)));
+                thetaNext[i] = theta[i].plus(m[i].times(alphaT).divInPlace(v[i].sqrt().timesInPlace(b).plusInPlace(epsilon)));
             }
 
             converged = convergenceChecker.hasConverged(theta, thetaNext);
@@ -170,6 +171,7 @@ public class Adam implements GradientOptimizationAlgorithm {
         private double beta1 = 0.9;
         private double beta2 = 0.999;
         private double epsilon = 1e-8;
+        private LearningRateSchedule learningRateSchedule = LearningRateSchedule.constant();
 
         public AdamBuilder maxEvaluations(int maxEvaluations) {
             if (maxEvaluations <= 0) {
@@ -216,8 +218,17 @@ public class Adam implements GradientOptimizationAlgorithm {
             return this;
         }
 
+        /**
+         * @param learningRateSchedule changes alpha as the optimizer goes. This defaults to a constant alpha.
+         * @return the builder for Adam
+         */
+        public AdamBuilder learningRateSchedule(LearningRateSchedule learningRateSchedule) {
+            this.learningRateSchedule = learningRateSchedule;
+            return this;
+        }
+
         public Adam build() {
-            return new Adam(convergenceChecker, maxEvaluations, alpha, beta1, beta2, epsilon);
+            return new Adam(convergenceChecker, maxEvaluations, alpha, beta1, beta2, epsilon, learningRateSchedule);
         }
     }
 }
@@ -1,29 +1,42 @@
 package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 
 import io.improbable.keanu.algorithms.Variable;
-import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.VariableLayout;
 import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunction;
-import io.improbable.keanu.tensor.dbl.DoubleTensor;
-import lombok.AllArgsConstructor;
 import org.apache.commons.math3.analysis.MultivariateFunction;
 
 import java.util.List;
-import java.util.Map;
 
-import static io.improbable.keanu.algorithms.variational.optimizer.Optimizer.convertFromPoint;
-
-@AllArgsConstructor
 public class ApacheFitnessFunctionAdapter implements MultivariateFunction {
 
     private final FitnessFunction fitnessFunction;
-    private final List<? extends Variable> latentVariables;
+    private final VariableLayout layout;
+
+    /**
+     * If present, a fitness already calculated by the gradient at the same point is used instead of recalculating it
+     */
+    private final ApacheFitnessFunctionGradientAdapter gradientAdapter;
+
+    public ApacheFitnessFunctionAdapter(FitnessFunction fitnessFunction,
+                                        List<? extends Variable> latentVariables,
+                                        ApacheFitnessFunctionGradientAdapter gradientAdapter) {
+        this.fitnessFunction = fitnessFunction;
+        this.layout = new VariableLayout(latentVariables);
+        this.gradientAdapter = gradientAdapter;
+    }
+
+    public ApacheFitnessFunctionAdapter(FitnessFunction fitnessFunction, List<? extends Variable> latentVariables) {
+        this(fitnessFunction, latentVariables, null);
+    }
 
     @Override
     public double value(double[] point) {
 
-        Map<VariableReference, DoubleTensor> values = convertFromPoint(point, latentVariables);
+        if (gradientAdapter != null && gradientAdapter.hasFitnessAt(point)) {
+            return gradientAdapter.getLastFitness();
+        }
 
-        return fitnessFunction.getFitnessAt(values);
+        return fitnessFunction.getFitnessAt(layout.toMap(point));
     }
 
 }
@@ -1,64 +1,63 @@
 package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 
 import io.improbable.keanu.algorithms.Variable;
+import io.improbable.keanu.algorithms.VariableLayout;
 import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
 import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
-import lombok.AllArgsConstructor;
 import org.apache.commons.math3.analysis.MultivariateVectorFunction;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
-import static io.improbable.keanu.algorithms.variational.optimizer.Optimizer.convertFromPoint;
-
-@AllArgsConstructor
 public class ApacheFitnessFunctionGradientAdapter implements MultivariateVectorFunction {
 
     private final FitnessFunctionGradient fitnessFunctionGradient;
-    private final List<? extends Variable> latentVariables;
+    private final VariableLayout layout;
+
+    /**
+     * The last point the gradient was calculated at and the fitness there, when the fitness is calculated
+     * together with the gradient.
+     */
+    private double[] lastPoint;
+    private double lastFitness;
+
+    public ApacheFitnessFunctionGradientAdapter(FitnessFunctionGradient fitnessFunctionGradient,
+                                                List<? extends Variable> latentVariables) {
+        this.fitnessFunctionGradient = fitnessFunctionGradient;
+        this.layout = new VariableLayout(latentVariables);
+    }
 
     @Override
     public double[] value(double[] point) {
 
-        Map<VariableReference, DoubleTensor> values = convertFromPoint(point, latentVariables);
-
-        Map<? extends VariableReference, DoubleTensor> diffs = fitnessFunctionGradient.getGradientsAt(values);
-
-        return alignGradientsToAppropriateIndex(diffs, latentVariables);
-    }
-
-    private static double[] alignGradientsToAppropriateIndex(Map<? extends VariableReference, DoubleTensor> diffs,
-                                                             List<? extends Variable> latentVariables) {
+        Map<VariableReference, DoubleTensor> values = layout.toMap(point);
 
-        List<DoubleTensor> tensors = new ArrayList<>();
-        for (Variable variable : latentVariables) {
-            DoubleTensor tensor = diffs.get(variable.getReference());
-            if (tensor != null) {
-                tensors.add(tensor);
-            } else {
-                tensors.add(DoubleTensor.zeros(variable.getShape()));
-            }
+        Map<? extends VariableReference, DoubleTensor> diffs;
+        if (fitnessFunctionGradient instanceof FitnessFunctionWithGradient) {
+            FitnessAndGradient fitnessAndGradient = ((FitnessFunctionWithGradient) fitnessFunctionGradient).getFitnessAndGradientsAt(values);
+            lastPoint = point.clone();
+            lastFitness = fitnessAndGradient.getFitness();
+            diffs = fitnessAndGradient.getGradients();
+        } else {
+            diffs = fitnessFunctionGradient.getGradientsAt(values);
         }
 
-        return flattenAll(tensors);
+        return layout.toArray(diffs);
     }
 
-    private static double[] flattenAll(List<DoubleTensor> tensors) {
-        int totalLatentDimensions = 0;
-        for (DoubleTensor tensor : tensors) {
-            totalLatentDimensions += tensor.getLength();
-        }
-
-        double[] gradient = new double[totalLatentDimensions];
-        int fillPointer = 0;
-        for (DoubleTensor tensor : tensors) {
-            double[] values = tensor.asFlatDoubleArray();
-            System.arraycopy(values, 0, gradient, fillPointer, values.length);
-            fillPointer += values.length;
-        }
+    /**
+     * @param point the point to check
+     * @return true if the fitness at the point was calculated along with the last gradient
+     */
+    boolean hasFitnessAt(double[] point) {
+        return Arrays.equals(point, lastPoint);
+    }
 
-        return gradient;
+    double getLastFitness() {
+        return lastFitness;
     }
 }
@@ -2,8 +2,7 @@ package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 
 import io.improbable.keanu.algorithms.Variable;
 import io.improbable.keanu.algorithms.VariableReference;
-import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunction;
-import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
 import io.improbable.keanu.algorithms.variational.optimizer.OptimizedResult;
 import io.improbable.keanu.algorithms.variational.optimizer.Optimizer;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
@@ -58,17 +57,19 @@ public class ConjugateGradient implements GradientOptimizationAlgorithm {
 
     @Override
     public OptimizedResult optimize(final List<? extends Variable> latentVariables,
-                                    FitnessFunction fitnessFunction,
-                                    FitnessFunctionGradient fitnessFunctionGradient) {
+                                    FitnessFunctionWithGradient fitnessFunction) {
 
-        ObjectiveFunction fitness = new ObjectiveFunction(
-            new ApacheFitnessFunctionAdapter(fitnessFunction, latentVariables)
+        ApacheFitnessFunctionGradientAdapter gradientAdapter = new ApacheFitnessFunctionGradientAdapter(
+            fitnessFunction,
+            latentVariables
         );
 
-        ObjectiveFunctionGradient gradient = new ObjectiveFunctionGradient(
-            new ApacheFitnessFunctionGradientAdapter(fitnessFunctionGradient, latentVariables)
+        ObjectiveFunction fitness = new ObjectiveFunction(
+            new ApacheFitnessFunctionAdapter(fitnessFunction, latentVariables, gradientAdapter)
         );
 
+        ObjectiveFunctionGradient gradient = new ObjectiveFunctionGradient(gradientAdapter);
+
         double[] startingPoint = Optimizer.convertToArrayPoint(getAsDoubleTensors(latentVariables));
 
         NonLinearConjugateGradientOptimizer optimizer;
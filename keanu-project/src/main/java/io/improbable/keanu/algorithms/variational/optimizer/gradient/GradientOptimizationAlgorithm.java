@@ -3,6 +3,7 @@ package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 import io.improbable.keanu.algorithms.Variable;
 import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunction;
 import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
 import io.improbable.keanu.algorithms.variational.optimizer.OptimizedResult;
 
 import java.util.List;
@@ -10,6 +11,11 @@ import java.util.List;
 public interface GradientOptimizationAlgorithm {
 
     OptimizedResult optimize(final List<? extends Variable> latentVariables,
-                             FitnessFunction fitnessFunction,
-                             FitnessFunctionGradient fitnessFunctionGradient);
+                             FitnessFunctionWithGradient fitnessFunction);
+
+    default OptimizedResult optimize(final List<? extends Variable> latentVariables,
+                                     FitnessFunction fitnessFunction,
+                                     FitnessFunctionGradient fitnessFunctionGradient) {
+        return optimize(latentVariables, FitnessFunctionWithGradient.of(fitnessFunction, fitnessFunctionGradient));
+    }
 }
@@ -2,8 +2,8 @@ package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.VariableReference;
-import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunction;
-import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
 import io.improbable.keanu.algorithms.variational.optimizer.OptimizedResult;
 import io.improbable.keanu.algorithms.variational.optimizer.Optimizer;
 import io.improbable.keanu.algorithms.variational.optimizer.ProbabilityFitness;
@@ -99,40 +99,34 @@ public class GradientOptimizer implements Optimizer {
     private OptimizedResult optimize(ProbabilityFitness probabilityFitness) {
         assertHasLatents();
 
-        FitnessFunction fitnessFunction = probabilityFitness.getFitnessFunction(
-            probabilisticModelWithGradient,
-            this::handleFitnessCalculation
-        );
-
-        FitnessFunctionGradient fitnessFunctionGradient = probabilityFitness.getFitnessFunctionGradient(
+        FitnessFunctionWithGradient fitnessFunction = probabilityFitness.getFitnessFunctionWithGradient(
             probabilisticModelWithGradient,
+            this::handleFitnessCalculation,
             this::handleGradientCalculation
         );
 
-        return optimize(fitnessFunction, fitnessFunctionGradient);
+        return optimize(fitnessFunction);
     }
 
-    private OptimizedResult optimize(FitnessFunction fitnessFunction, FitnessFunctionGradient fitnessFunctionGradient) {
+    private OptimizedResult optimize(FitnessFunctionWithGradient fitnessFunction) {
 
         StatusBar statusBar = Optimizer.createFitnessStatusBar(this);
 
         if (checkInitialFitnessConditions) {
             Map<VariableReference, DoubleTensor> startingPoint = Optimizer.convertToMapPoint(probabilisticModelWithGradient.getLatentVariables());
 
-            double initialFitness = fitnessFunction.getFitnessAt(startingPoint);
+            FitnessAndGradient initial = fitnessFunction.getFitnessAndGradientsAt(startingPoint);
 
-            if (ProbabilityCalculator.isImpossibleLogProb(initialFitness)) {
+            if (ProbabilityCalculator.isImpossibleLogProb(initial.getFitness())) {
                 throw new IllegalArgumentException("Cannot start optimizer on zero probability network");
             }
 
-            Map<? extends VariableReference, DoubleTensor> initialGradient = fitnessFunctionGradient.getGradientsAt(startingPoint);
-            throwIfGradientIsFlat(initialGradient);
+            throwIfGradientIsFlat(initial.getGradients());
         }
 
         OptimizedResult result = gradientOptimizationAlgorithm.optimize(
             probabilisticModelWithGradient.getLatentVariables(),
-            fitnessFunction,
-            fitnessFunctionGradient
+            fitnessFunction
         );
 
         statusBar.finish();
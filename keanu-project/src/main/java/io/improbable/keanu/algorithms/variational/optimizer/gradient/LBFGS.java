@@ -0,0 +1,459 @@
+package io.improbable.keanu.algorithms.variational.optimizer.gradient;
+
+import io.improbable.keanu.algorithms.Variable;
+import io.improbable.keanu.algorithms.VariableLayout;
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.variational.optimizer.ConvergenceChecker;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.OptimizedResult;
+import io.improbable.keanu.algorithms.variational.optimizer.Optimizer;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.improbable.keanu.algorithms.variational.optimizer.Optimizer.getAsDoubleTensors;
+
+/**
+ * Limited-memory BFGS with a line search that satisfies the strong Wolfe conditions.
+ * <p>
+ * Algorithms 7.4 (two-loop recursion), 7.5 (L-BFGS), 3.5 (line search) and 3.6 (zoom) in
+ * Numerical Optimization, Nocedal and Wright, 2nd edition.
+ * <p>
+ * The optimizer minimizes the negative fitness, with the latent variables laid out one after another in a flat array.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class LBFGS implements GradientOptimizationAlgorithm {
+
+    public static LBFGSBuilder builder() {
+        return new LBFGSBuilder();
+    }
+
+    private static final int MAX_LINE_SEARCH_ITERATIONS = 20;
+
+    private final ConvergenceChecker convergenceChecker;
+    private final int maxEvaluations;
+    private final int memorySize;
+
+    /**
+     * Sufficient decrease constant of the Wolfe conditions
+     */
+    private final double c1;
+
+    /**
+     * Curvature constant of the Wolfe conditions
+     */
+    private final double c2;
+
+    @Getter
+    private LBFGSStatistics statistics;
+
+    @Override
+    public OptimizedResult optimize(List<? extends Variable> latentVariables,
+                                    FitnessFunctionWithGradient fitnessFunction) {
+
+        VariableLayout layout = new VariableLayout(latentVariables);
+        Objective objective = new Objective(fitnessFunction, layout);
+
+        double[] startingPoint = Optimizer.convertToArrayPoint(getAsDoubleTensors(latentVariables));
+        Evaluation current = objective.evaluate(startingPoint);
+
+        final CorrectionHistory history = new CorrectionHistory(memorySize, startingPoint.length);
+        final double[] direction = new double[startingPoint.length];
+
+        boolean converged = false;
+
+        while (!converged && objective.evaluations < maxEvaluations) {
+
+            if (isZero(current.gradient)) {
+                converged = true;
+                break;
+            }
+
+            history.searchDirection(current.gradient, direction);
+
+            double initialStep = 1.0;
+            if (history.size() == 0) {
+                initialStep = Math.min(1.0, 1.0 / norm(current.gradient));
+            }
+
+            Evaluation next = lineSearch(objective, current, direction, initialStep);
+
+            if (next == null) {
+                if (history.size() == 0) {
+                    break;
+                }
+                history.clear();
+                continue;
+            }
+
+            converged = convergenceChecker.hasConverged(
+                new DoubleTensor[]{DoubleTensor.create(current.point)},
+                new DoubleTensor[]{DoubleTensor.create(next.point)}
+            );
+
+            history.add(current.point, next.point, current.gradient, next.gradient);
+
+            current = next;
+        }
+
+        this.statistics = new LBFGSStatistics(converged, objective.evaluations);
+
+        Map<VariableReference, DoubleTensor> optimizedValues = layout.toMap(current.point);
+
+        return new OptimizedResult(optimizedValues, -current.value);
+    }
+
+    /**
+     * @return a point along the direction that satisfies the strong Wolfe conditions. If the iteration or evaluation
+     * limits are reached first, this is the best point found that satisfies the sufficient decrease condition, which
+     * may not satisfy the curvature condition. This is null if no such point was found.
+     */
+    private Evaluation lineSearch(Objective objective, Evaluation start, double[] direction, double initialStep) {
+
+        final double slope0 = dot(start.gradient, direction);
+        if (slope0 >= 0) {
+            return null;
+        }
+
+        Evaluation previous = start;
+        double previousStep = 0;
+        double previousSlope = slope0;
+        double step = initialStep;
+
+        for (int i = 0; i < MAX_LINE_SEARCH_ITERATIONS && objective.evaluations < maxEvaluations; i++) {
+
+            Evaluation candidate = objective.evaluate(start.point, step, direction);
+            double slope = dot(candidate.gradient, direction);
+
+            if (!isSufficientDecrease(start, slope0, step, candidate) || (i > 0 && candidate.value >= previous.value)) {
+                return zoom(objective, start, slope0, direction, previousStep, previous, previousSlope, step, candidate, slope);
+            }
+
+            if (Math.abs(slope) <= -c2 * slope0) {
+                return candidate;
+            }
+
+            if (slope >= 0) {
+                return zoom(objective, start, slope0, direction, step, candidate, slope, previousStep, previous, previousSlope);
+            }
+
+            previous = candidate;
+            previousStep = step;
+            previousSlope = slope;
+            step *= 2;
+        }
+
+        return previous == start ? null : previous;
+    }
+
+    private Evaluation zoom(Objective objective,
+                            Evaluation start,
+                            double slope0,
+                            double[] direction,
+                            double stepLo, Evaluation lo, double slopeLo,
+                            double stepHi, Evaluation hi, double slopeHi) {
+
+        for (int i = 0; i < MAX_LINE_SEARCH_ITERATIONS && objective.evaluations < maxEvaluations; i++) {
+
+            double step = interpolate(stepLo, lo.value, slopeLo, stepHi, hi.value, slopeHi);
+
+            Evaluation candidate = objective.evaluate(start.point, step, direction);
+            double slope = dot(candidate.gradient, direction);
+
+            if (!isSufficientDecrease(start, slope0, step, candidate) || candidate.value >= lo.value) {
+                stepHi = step;
+                hi = candidate;
+                slopeHi = slope;
+            } else {
+                if (Math.abs(slope) <= -c2 * slope0) {
+                    return candidate;
+                }
+
+                if (slope * (stepHi - stepLo) >= 0) {
+                    stepHi = stepLo;
+                    hi = lo;
+                    slopeHi = slopeLo;
+                }
+
+                stepLo = step;
+                lo = candidate;
+                slopeLo = slope;
+            }
+        }
+
+        return lo == start ? null : lo;
+    }
+
+    private boolean isSufficientDecrease(Evaluation start, double slope0, double step, Evaluation candidate) {
+        return candidate.value <= start.value + c1 * step * slope0;
+    }
+
+    /**
+     * @return the minimum of the cubic through both ends of the interval, or the midpoint if that minimum is
+     * undefined or too close to either end.
+     */
+    private static double interpolate(double stepA, double valueA, double slopeA,
+                                      double stepB, double valueB, double slopeB) {
+
+        final double d1 = slopeA + slopeB - 3 * (valueA - valueB) / (stepA - stepB);
+        final double d2Squared = d1 * d1 - slopeA * slopeB;
+        final double midpoint = 0.5 * (stepA + stepB);
+
+        if (!(d2Squared >= 0) || Double.isInfinite(d2Squared)) {
+            return midpoint;
+        }
+
+        final double d2 = Math.signum(stepB - stepA) * Math.sqrt(d2Squared);
+        final double step = stepB - (stepB - stepA) * (slopeB + d2 - d1) / (slopeB - slopeA + 2 * d2);
+
+        final double margin = 0.1 * Math.abs(stepB - stepA);
+        final double lower = Math.min(stepA, stepB) + margin;
+        final double upper = Math.max(stepA, stepB) - margin;
+
+        if (Double.isNaN(step) || step < lower || step > upper) {
+            return midpoint;
+        }
+
+        return step;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double result = 0;
+        for (int i = 0; i < a.length; i++) {
+            result += a[i] * b[i];
+        }
+        return result;
+    }
+
+    private static double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    private static boolean isZero(double[] a) {
+        for (double value : a) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addScaled(double[] a, double scale, double[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += scale * b[i];
+        }
+    }
+
+    /**
+     * The most recent position and gradient differences, which approximate the inverse Hessian
+     */
+    static class CorrectionHistory {
+
+        private final int memorySize;
+        private final double[][] s;
+        private final double[][] y;
+        private final double[] rho;
+        private final double[] alpha;
+
+        private int size = 0;
+        private int newest = -1;
+
+        CorrectionHistory(int memorySize, int dimension) {
+            this.memorySize = memorySize;
+            this.s = new double[memorySize][dimension];
+            this.y = new double[memorySize][dimension];
+            this.rho = new double[memorySize];
+            this.alpha = new double[memorySize];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * Adds the change between two points, replacing the oldest change if the history is full. The change is
+         * skipped if it has no positive curvature, as it would stop the approximation being positive definite.
+         *
+         * @return true if the change was added
+         */
+        boolean add(double[] fromPoint, double[] toPoint, double[] fromGradient, double[] toGradient) {
+
+            double sDotY = 0;
+            for (int i = 0; i < fromPoint.length; i++) {
+                sDotY += (toPoint[i] - fromPoint[i]) * (toGradient[i] - fromGradient[i]);
+            }
+
+            if (!(sDotY > 0)) {
+                return false;
+            }
+
+            int slot = (newest + 1) % memorySize;
+            for (int i = 0; i < fromPoint.length; i++) {
+                s[slot][i] = toPoint[i] - fromPoint[i];
+                y[slot][i] = toGradient[i] - fromGradient[i];
+            }
+            rho[slot] = 1.0 / sDotY;
+            newest = slot;
+            size = Math.min(size + 1, memorySize);
+            return true;
+        }
+
+        /**
+         * The two-loop recursion, which calculates the direction -Hg from the stored position and gradient differences
+         */
+        void searchDirection(double[] gradient, double[] direction) {
+
+            final double[] q = direction;
+            for (int i = 0; i < q.length; i++) {
+                q[i] = -gradient[i];
+            }
+
+            for (int k = 0; k < size; k++) {
+                int j = Math.floorMod(newest - k, memorySize);
+                alpha[j] = rho[j] * dot(s[j], q);
+                addScaled(q, -alpha[j], y[j]);
+            }
+
+            if (size > 0) {
+                double gamma = dot(s[newest], y[newest]) / dot(y[newest], y[newest]);
+                for (int i = 0; i < q.length; i++) {
+                    q[i] *= gamma;
+                }
+            }
+
+            for (int k = size - 1; k >= 0; k--) {
+                int j = Math.floorMod(newest - k, memorySize);
+                double beta = rho[j] * dot(y[j], q);
+                addScaled(q, alpha[j] - beta, s[j]);
+            }
+        }
+    }
+
+    /**
+     * A point with the negative fitness and its gradient at that point
+     */
+    @AllArgsConstructor
+    private static class Evaluation {
+        private final double[] point;
+        private final double value;
+        private final double[] gradient;
+    }
+
+    /**
+     * The negative of the fitness function, which counts how many times it has been evaluated
+     */
+    private static class Objective {
+
+        private final FitnessFunctionWithGradient fitnessFunction;
+        private final VariableLayout layout;
+        private int evaluations = 0;
+
+        Objective(FitnessFunctionWithGradient fitnessFunction, VariableLayout layout) {
+            this.fitnessFunction = fitnessFunction;
+            this.layout = layout;
+        }
+
+        Evaluation evaluate(double[] start, double step, double[] direction) {
+            double[] point = start.clone();
+            addScaled(point, step, direction);
+            return evaluate(point);
+        }
+
+        Evaluation evaluate(double[] point) {
+            evaluations++;
+
+            FitnessAndGradient fitnessAndGradient = fitnessFunction.getFitnessAndGradientsAt(layout.toMap(point));
+
+            double value = -fitnessAndGradient.getFitness();
+            double[] gradient = layout.toArray(fitnessAndGradient.getGradients());
+
+            for (int i = 0; i < gradient.length; i++) {
+                gradient[i] = -gradient[i];
+            }
+
+            return new Evaluation(point, Double.isNaN(value) ? Double.POSITIVE_INFINITY : value, gradient);
+        }
+    }
+
+    @AllArgsConstructor
+    public static class LBFGSStatistics {
+        private final boolean converged;
+
+        @Getter
+        private final int evaluations;
+
+        /**
+         * @return true if the optimizer convergence checker signalled convergence, false if the optimizer stopped
+         * due to exceeding max evaluations or failing to find a better point.
+         */
+        public boolean didConverge() {
+            return converged;
+        }
+    }
+
+    @ToString
+    public static class LBFGSBuilder {
+        private ConvergenceChecker convergenceChecker = ConvergenceChecker.absoluteChecker(ConvergenceChecker.Norm.MAX, 1e-8);
+
+        private int maxEvaluations = Integer.MAX_VALUE;
+        private int memorySize = 10;
+        private double c1 = 1e-4;
+        private double c2 = 0.9;
+
+        public LBFGSBuilder maxEvaluations(int maxEvaluations) {
+            if (maxEvaluations <= 0) {
+                throw new NotStrictlyPositiveException(maxEvaluations);
+            }
+            this.maxEvaluations = maxEvaluations;
+            return this;
+        }
+
+        public LBFGSBuilder convergenceChecker(ConvergenceChecker convergenceChecker) {
+            this.convergenceChecker = convergenceChecker;
+            return this;
+        }
+
+        /**
+         * @param memorySize the number of previous position and gradient changes used to approximate the
+         *                   inverse Hessian. This defaults to 10.
+         * @return the builder for L-BFGS
+         */
+        public LBFGSBuilder memorySize(int memorySize) {
+            if (memorySize <= 0) {
+                throw new NotStrictlyPositiveException(memorySize);
+            }
+            this.memorySize = memorySize;
+            return this;
+        }
+
+        /**
+         * @param c1 the sufficient decrease constant of the line search
+         * @param c2 the curvature constant of the line search
+         * @return the builder for L-BFGS
+         */
+        public LBFGSBuilder wolfeConstants(double c1, double c2) {
+            if (c1 <= 0 || c1 >= c2 || c2 >= 1) {
+                throw new IllegalArgumentException("Wolfe constants must satisfy 0 < c1 < c2 < 1");
+            }
+            this.c1 = c1;
+            this.c2 = c2;
+            return this;
+        }
+
+        public LBFGS build() {
+            return new LBFGS(convergenceChecker, maxEvaluations, memorySize, c1, c2);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.improbable.keanu.algorithms.variational.optimizer.gradient;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Changes the learning rate of a gradient optimizer as it goes, which lets stochastic optimizers, whose gradients
+ * are noisy, settle on an optimum.
+ */
+@FunctionalInterface
+public interface LearningRateSchedule {
+
+    /**
+     * @param initialLearningRate the learning rate the optimizer was configured with
+     * @param iteration           the iteration, starting at 1
+     * @return the learning rate to use for the iteration
+     */
+    double getLearningRate(double initialLearningRate, int iteration);
+
+    static LearningRateSchedule constant() {
+        return (initialLearningRate, iteration) -> initialLearningRate;
+    }
+
+    /**
+     * @param decayRate  the factor the learning rate is multiplied by every decaySteps iterations
+     * @param decaySteps the number of iterations over which the learning rate decays by decayRate
+     * @return a schedule with a learning rate of initialLearningRate * decayRate ^ (iteration / decaySteps)
+     */
+    static LearningRateSchedule exponentialDecay(double decayRate, int decaySteps) {
+        Preconditions.checkArgument(decayRate > 0 && decayRate <= 1, "Decay rate must be between 0 (exclusive) and 1 (inclusive)");
+        Preconditions.checkArgument(decaySteps > 0, "Decay steps must be greater than 0");
+        return (initialLearningRate, iteration) -> initialLearningRate * Math.pow(decayRate, (double) iteration / decaySteps);
+    }
+
+    /**
+     * @param decayRate how quickly the learning rate decays
+     * @return a schedule with a learning rate of initialLearningRate / (1 + decayRate * iteration), which satisfies the
+     * Robbins-Monro conditions for stochastic gradients to converge
+     */
+    static LearningRateSchedule inverseTimeDecay(double decayRate) {
+        Preconditions.checkArgument(decayRate >= 0, "Decay rate must be greater than or equal to 0");
+        return (initialLearningRate, iteration) -> initialLearningRate / (1 + decayRate * iteration);
+    }
+}
@@ -1,7 +1,9 @@
 package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 
+import io.improbable.keanu.algorithms.LogProbAndGradients;
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 
 import java.util.Map;
@@ -14,6 +16,12 @@ public class LogLikelihoodFitnessFunctionGradient extends ProbabilityFitnessFunc
         super(probabilisticModelWithGradient, onGradientCalculation);
     }
 
+    public LogLikelihoodFitnessFunctionGradient(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                                                BiConsumer<Map<VariableReference, DoubleTensor>, Double> onFitnessCalculation,
+                                                BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> onGradientCalculation) {
+        super(probabilisticModelWithGradient, onFitnessCalculation, onGradientCalculation);
+    }
+
     public LogLikelihoodFitnessFunctionGradient(ProbabilisticModelWithGradient probabilisticModelWithGradient) {
         super(probabilisticModelWithGradient);
     }
@@ -23,4 +31,17 @@ public class LogLikelihoodFitnessFunctionGradient extends ProbabilityFitnessFunc
                                                                       Map<VariableReference, DoubleTensor> values) {
         return probabilisticModelWithGradient.logLikelihoodGradients(values);
     }
-}
\ No newline at end of file
+
+    @Override
+    double calculateFitness(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                            Map<VariableReference, DoubleTensor> values) {
+        return probabilisticModelWithGradient.logLikelihood(values);
+    }
+
+    @Override
+    FitnessAndGradient calculateFitnessAndGradients(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                                                    Map<VariableReference, DoubleTensor> values) {
+        LogProbAndGradients result = probabilisticModelWithGradient.logLikelihoodAndGradients(values);
+        return new FitnessAndGradient(result.getLogProb(), result.getGradients());
+    }
+}
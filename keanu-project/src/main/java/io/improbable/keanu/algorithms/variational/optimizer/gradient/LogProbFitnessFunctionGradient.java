@@ -1,7 +1,9 @@
 package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 
+import io.improbable.keanu.algorithms.LogProbAndGradients;
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 
 import java.util.Map;
@@ -14,6 +16,12 @@ public class LogProbFitnessFunctionGradient extends ProbabilityFitnessFunctionGr
         super(probabilisticModelWithGradient, onGradientCalculation);
     }
 
+    public LogProbFitnessFunctionGradient(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                                          BiConsumer<Map<VariableReference, DoubleTensor>, Double> onFitnessCalculation,
+                                          BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> onGradientCalculation) {
+        super(probabilisticModelWithGradient, onFitnessCalculation, onGradientCalculation);
+    }
+
     public LogProbFitnessFunctionGradient(ProbabilisticModelWithGradient probabilisticModelWithGradient) {
         super(probabilisticModelWithGradient);
     }
@@ -23,4 +31,17 @@ public class LogProbFitnessFunctionGradient extends ProbabilityFitnessFunctionGr
                                                                       Map<VariableReference, DoubleTensor> values) {
         return probabilisticModelWithGradient.logProbGradients(values);
     }
+
+    @Override
+    double calculateFitness(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                            Map<VariableReference, DoubleTensor> values) {
+        return probabilisticModelWithGradient.logProb(values);
+    }
+
+    @Override
+    FitnessAndGradient calculateFitnessAndGradients(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                                                    Map<VariableReference, DoubleTensor> values) {
+        LogProbAndGradients result = probabilisticModelWithGradient.logProbAndGradients(values);
+        return new FitnessAndGradient(result.getLogProb(), result.getGradients());
+    }
 }
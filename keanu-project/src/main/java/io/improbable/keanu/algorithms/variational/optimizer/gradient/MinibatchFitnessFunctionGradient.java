@@ -0,0 +1,92 @@
+package io.improbable.keanu.algorithms.variational.optimizer.gradient;
+
+import io.improbable.keanu.algorithms.LogProbAndGradients;
+import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.ProbabilityFitness;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A fitness function that only looks at a random minibatch of the observed data each time it is evaluated, so that
+ * its cost depends on the size of the minibatch rather than the size of the data set.
+ * <p>
+ * Before each evaluation the next minibatch is observed on the model. The log likelihood of the minibatch is then
+ * scaled up by the size of the data set divided by the size of the minibatch, which makes the fitness and gradient
+ * unbiased estimates of those over the whole data set. This suits a stochastic optimizer such as {@link Adam}.
+ */
+public class MinibatchFitnessFunctionGradient implements FitnessFunctionWithGradient {
+
+    private final ProbabilisticModelWithGradient model;
+    private final ProbabilityFitness probabilityFitness;
+    private final DoubleSupplier observeNextMinibatch;
+
+    /**
+     * @param model                the model to optimize
+     * @param probabilityFitness   whether to find the MAP or the maximum likelihood
+     * @param observeNextMinibatch observes the next minibatch on the observed vertices of the model and returns the
+     *                             size of the data set divided by the size of the minibatch
+     */
+    public MinibatchFitnessFunctionGradient(ProbabilisticModelWithGradient model,
+                                            ProbabilityFitness probabilityFitness,
+                                            DoubleSupplier observeNextMinibatch) {
+        this.model = model;
+        this.probabilityFitness = probabilityFitness;
+        this.observeNextMinibatch = observeNextMinibatch;
+    }
+
+    @Override
+    public double getFitnessAt(Map<VariableReference, DoubleTensor> values) {
+        final double scale = observeNextMinibatch.getAsDouble();
+
+        if (probabilityFitness == ProbabilityFitness.MLE) {
+            return scale * model.logLikelihood(values);
+        }
+
+        final double logProb = model.logProb(values);
+        return logProb + (scale - 1) * model.logLikelihood(Collections.emptyMap());
+    }
+
+    @Override
+    public Map<? extends VariableReference, DoubleTensor> getGradientsAt(Map<VariableReference, DoubleTensor> values) {
+        return getFitnessAndGradientsAt(values).getGradients();
+    }
+
+    @Override
+    public FitnessAndGradient getFitnessAndGradientsAt(Map<VariableReference, DoubleTensor> values) {
+        final double scale = observeNextMinibatch.getAsDouble();
+
+        if (probabilityFitness == ProbabilityFitness.MLE) {
+            LogProbAndGradients logLikelihood = model.logLikelihoodAndGradients(values);
+            return new FitnessAndGradient(
+                scale * logLikelihood.getLogProb(),
+                plusScaled(Collections.emptyMap(), scale, logLikelihood.getGradients())
+            );
+        }
+
+        LogProbAndGradients logProb = model.logProbAndGradients(values);
+        LogProbAndGradients logLikelihood = model.logLikelihoodAndGradients(Collections.emptyMap());
+
+        return new FitnessAndGradient(
+            logProb.getLogProb() + (scale - 1) * logLikelihood.getLogProb(),
+            plusScaled(logProb.getGradients(), scale - 1, logLikelihood.getGradients())
+        );
+    }
+
+    private static Map<VariableReference, DoubleTensor> plusScaled(Map<VariableReference, DoubleTensor> gradients,
+                                                                  double scale,
+                                                                  Map<VariableReference, DoubleTensor> toAdd) {
+        Map<VariableReference, DoubleTensor> result = new HashMap<>(gradients);
+        for (Map.Entry<VariableReference, DoubleTensor> entry : toAdd.entrySet()) {
+            DoubleTensor scaled = entry.getValue().times(scale);
+            result.merge(entry.getKey(), scaled, DoubleTensor::plus);
+        }
+        return result;
+    }
+}
@@ -2,7 +2,8 @@ package io.improbable.keanu.algorithms.variational.optimizer.gradient;
 
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.VariableReference;
-import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessFunctionWithGradient;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import lombok.AllArgsConstructor;
 
@@ -10,17 +11,35 @@ import java.util.Map;
 import java.util.function.BiConsumer;
 
 @AllArgsConstructor
-public abstract class ProbabilityFitnessFunctionGradient implements FitnessFunctionGradient {
+public abstract class ProbabilityFitnessFunctionGradient implements FitnessFunctionWithGradient {
 
     private final ProbabilisticModelWithGradient probabilisticModelWithGradient;
 
+    private final BiConsumer<Map<VariableReference, DoubleTensor>, Double> onFitnessCalculation;
+
     private final BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> onGradientCalculation;
 
+    public ProbabilityFitnessFunctionGradient(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                                              BiConsumer<Map<VariableReference, DoubleTensor>, Map<? extends VariableReference, DoubleTensor>> onGradientCalculation) {
+        this(probabilisticModelWithGradient, (point, fitness) -> {
+        }, onGradientCalculation);
+    }
+
     public ProbabilityFitnessFunctionGradient(ProbabilisticModelWithGradient probabilisticModelWithGradient) {
         this(probabilisticModelWithGradient, (point, gradient) -> {
         });
     }
 
+    @Override
+    public double getFitnessAt(Map<VariableReference, DoubleTensor> values) {
+
+        final double fitness = calculateFitness(probabilisticModelWithGradient, values);
+
+        onFitnessCalculation.accept(values, fitness);
+
+        return fitness;
+    }
+
     @Override
     public Map<? extends VariableReference, DoubleTensor> getGradientsAt(Map<VariableReference, DoubleTensor> values) {
 
@@ -31,6 +50,23 @@ public abstract class ProbabilityFitnessFunctionGradient implements FitnessFunct
         return gradients;
     }
 
+    @Override
+    public FitnessAndGradient getFitnessAndGradientsAt(Map<VariableReference, DoubleTensor> values) {
+
+        final FitnessAndGradient fitnessAndGradient = calculateFitnessAndGradients(probabilisticModelWithGradient, values);
+
+        onFitnessCalculation.accept(values, fitnessAndGradient.getFitness());
+        onGradientCalculation.accept(values, fitnessAndGradient.getGradients());
+
+        return fitnessAndGradient;
+    }
+
+    abstract double calculateFitness(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                                     Map<VariableReference, DoubleTensor> values);
+
     abstract Map<? extends VariableReference, DoubleTensor> calculateGradients(ProbabilisticModelWithGradient probabilisticModelWithGradient,
                                                                                Map<VariableReference, DoubleTensor> values);
+
+    abstract FitnessAndGradient calculateFitnessAndGradients(ProbabilisticModelWithGradient probabilisticModelWithGradient,
+                                                             Map<VariableReference, DoubleTensor> values);
 }
@@ -2,7 +2,6 @@ package io.improbable.keanu.distributions.discrete;
 
 import io.improbable.keanu.KeanuRandom;
 import io.improbable.keanu.distributions.DiscreteDistribution;
-import io.improbable.keanu.tensor.Tensor;
 import io.improbable.keanu.tensor.TensorShape;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.tensor.intgr.IntegerTensor;
@@ -27,26 +26,233 @@ public class Binomial implements DiscreteDistribution {
 
     @Override
     public IntegerTensor sample(long[] shape, KeanuRandom random) {
-        Tensor.FlattenedView<Double> pWrapped = p.getFlattenedView();
-        Tensor.FlattenedView<Integer> nWrapped = n.getFlattenedView();
+        double[] pValues = p.asFlatDoubleArray();
+        int[] nValues = n.asFlatIntegerArray();
 
         int length = TensorShape.getLengthAsInt(shape);
         int[] samples = new int[length];
-        for (int i = 0; i < length; i++) {
-            samples[i] = sample(pWrapped.getOrScalar(i), nWrapped.getOrScalar(i), random);
+
+        if (pValues.length == 1 && nValues.length == 1) {
+            Sampler sampler = new Sampler(pValues[0], nValues[0]);
+            for (int i = 0; i < length; i++) {
+                samples[i] = sampler.sample(random);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                double pi = pValues.length == 1 ? pValues[0] : pValues[i];
+                int ni = nValues.length == 1 ? nValues[0] : nValues[i];
+                samples[i] = sample(pi, ni, random);
+            }
         }
 
         return IntegerTensor.create(samples, shape);
     }
 
-    private static int sample(double p, int n, KeanuRandom random) {
-        int sum = 0;
-        for (int i = 0; i < n; i++) {
-            if (random.nextDouble() < p) {
-                sum++;
+    /**
+     * @param p      the probability of success of each trial
+     * @param n      the number of trials
+     * @param random the source of randomness
+     * @return the number of successes
+     */
+    static int sample(double p, int n, KeanuRandom random) {
+        return new Sampler(p, n).sample(random);
+    }
+
+    /**
+     * Draws the number of successes in O(1) expected time, rather than with a uniform for each trial.
+     * <p>
+     * Samples are drawn for the smaller of p and 1 - p and flipped if need be. When the mean of that is small the
+     * CDF is inverted from zero, which only takes a few steps. Otherwise samples are drawn by BTPE from:
+     * Binomial random variate generation
+     * by Voratas Kachitvichyanukul and Bruce Schmeiser
+     * Communications of the ACM 31 (1988) 216-222
+     * <p>
+     * The constants only depend on p and n, so they are worked out once for all of the samples with the same p and n.
+     */
+    private static class Sampler {
+
+        private static final double MAX_MEAN_FOR_INVERSION = 30.0;
+
+        private final int n;
+        private final boolean flip;
+        private final boolean byInversion;
+        private final double r;
+        private final double q;
+
+        private double qn;
+        private double bound;
+
+        private double m;
+        private double xm;
+        private double xl;
+        private double xr;
+        private double c;
+        private double laml;
+        private double lamr;
+        private double p1;
+        private double p2;
+        private double p3;
+        private double p4;
+        private double nrq;
+
+        Sampler(double p, int n) {
+            if (p < 0. || p > 1. || Double.isNaN(p)) {
+                throw new IllegalArgumentException("Invalid value for p: " + p);
+            }
+            if (n < 0) {
+                throw new IllegalArgumentException("Invalid value for n: " + n);
+            }
+
+            this.n = n;
+            this.flip = p > 0.5;
+            this.r = flip ? 1.0 - p : p;
+            this.q = 1.0 - r;
+            this.byInversion = n * r <= MAX_MEAN_FOR_INVERSION;
+
+            if (byInversion) {
+                initializeInversion();
+            } else {
+                initializeBTPE();
+            }
+        }
+
+        private void initializeInversion() {
+            double mean = n * r;
+            qn = Math.exp(n * Math.log(q));
+            bound = Math.min(n, mean + 10.0 * Math.sqrt(mean * q + 1));
+        }
+
+        private void initializeBTPE() {
+            double fm = n * r + r;
+            m = Math.floor(fm);
+            p1 = Math.floor(2.195 * Math.sqrt(n * r * q) - 4.6 * q) + 0.5;
+            xm = m + 0.5;
+            xl = xm - p1;
+            xr = xm + p1;
+            c = 0.134 + 20.5 / (15.3 + m);
+            double a = (fm - xl) / (fm - xl * r);
+            laml = a * (1.0 + a / 2.0);
+            a = (xr - fm) / (xr * q);
+            lamr = a * (1.0 + a / 2.0);
+            p2 = p1 * (1.0 + 2.0 * c);
+            p3 = p2 + c / laml;
+            p4 = p3 + c / lamr;
+            nrq = n * r * q;
+        }
+
+        int sample(KeanuRandom random) {
+            if (r == 0.0) {
+                return flip ? n : 0;
             }
+            int successes = byInversion ? sampleByInversion(random) : sampleByBTPE(random);
+            return flip ? n - successes : successes;
+        }
+
+        private int sampleByInversion(KeanuRandom random) {
+            int x = 0;
+            double px = qn;
+            double u = random.nextDouble();
+
+            while (u > px) {
+                x++;
+                if (x > bound) {
+                    x = 0;
+                    px = qn;
+                    u = random.nextDouble();
+                } else {
+                    u -= px;
+                    px = ((n - x + 1) * r * px) / (x * q);
+                }
+            }
+            return x;
+        }
+
+        private int sampleByBTPE(KeanuRandom random) {
+            while (true) {
+                double u = random.nextDouble() * p4;
+                double v = random.nextDouble();
+                double y;
+
+                if (u <= p1) {
+                    return (int) Math.floor(xm - p1 * v + u);
+                } else if (u <= p2) {
+                    double x = xl + (u - p1) / c;
+                    v = v * c + 1.0 - Math.abs(m - x + 0.5) / p1;
+                    if (v > 1.0) {
+                        continue;
+                    }
+                    y = Math.floor(x);
+                } else if (u <= p3) {
+                    y = Math.floor(xl + Math.log(v) / laml);
+                    if (y < 0 || v == 0.0) {
+                        continue;
+                    }
+                    v = v * (u - p2) * laml;
+                } else {
+                    y = Math.floor(xr - Math.log(v) / lamr);
+                    if (y > n || v == 0.0) {
+                        continue;
+                    }
+                    v = v * (u - p3) * lamr;
+                }
+
+                if (isAccepted(y, v)) {
+                    return (int) y;
+                }
+            }
+        }
+
+        /**
+         * Compares v with the ratio of the probability of y to the probability of the mode, which is worked out
+         * exactly near the mode and with Stirling's approximation and a squeeze further away.
+         */
+        private boolean isAccepted(double y, double v) {
+            double k = Math.abs(y - m);
+
+            if (k <= 20 || k >= nrq / 2.0 - 1) {
+                double s = r / q;
+                double a = s * (n + 1);
+                double f = 1.0;
+                if (m < y) {
+                    for (double i = m + 1; i <= y; i++) {
+                        f *= a / i - s;
+                    }
+                } else if (m > y) {
+                    for (double i = y + 1; i <= m; i++) {
+                        f /= a / i - s;
+                    }
+                }
+                return v <= f;
+            }
+
+            double rho = (k / nrq) * ((k * (k / 3.0 + 0.625) + 0.16666666666666666) / nrq + 0.5);
+            double t = -k * k / (2.0 * nrq);
+            double logV = Math.log(v);
+            if (logV < t - rho) {
+                return true;
+            }
+            if (logV > t + rho) {
+                return false;
+            }
+
+            double x1 = y + 1;
+            double f1 = m + 1;
+            double z = n + 1 - m;
+            double w = n - y + 1;
+
+            return logV <= xm * Math.log(f1 / x1)
+                + (n - m + 0.5) * Math.log(z / w)
+                + (y - m) * Math.log(w * r / (x1 * q))
+                + stirlingCorrection(f1)
+                + stirlingCorrection(z)
+                + stirlingCorrection(x1)
+                + stirlingCorrection(w);
+        }
+
+        private static double stirlingCorrection(double x) {
+            double x2 = x * x;
+            return (13680. - (462. - (132. - (99. - 140. / x2) / x2) / x2) / x2) / x / 166320.;
         }
-        return sum;
     }
 
     @Override
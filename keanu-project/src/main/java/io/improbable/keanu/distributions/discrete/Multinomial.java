@@ -3,7 +3,6 @@ package io.improbable.keanu.distributions.discrete;
 import com.google.common.base.Preconditions;
 import io.improbable.keanu.KeanuRandom;
 import io.improbable.keanu.distributions.DiscreteDistribution;
-import io.improbable.keanu.tensor.Tensor;
 import io.improbable.keanu.tensor.TensorShape;
 import io.improbable.keanu.tensor.TensorShapeValidation;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
@@ -13,8 +12,6 @@ import io.improbable.keanu.tensor.validate.TensorValidator;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import static io.improbable.keanu.tensor.TensorShapeValidation.checkTensorsMatchNonLengthOneShapeOrAreLengthOne;
 
@@ -51,75 +48,48 @@ public class Multinomial implements DiscreteDistribution {
     }
 
 
+    /**
+     * Each sample is drawn as a sequence of binomials: the count of the first category is drawn from all n draws,
+     * then the count of each following category is drawn from the draws that are left, with its probability
+     * conditioned on not being one of the earlier categories. This takes k binomials per sample, each in O(1)
+     * expected time, rather than a uniform for each of the n draws.
+     * <p>
+     * The counts are written straight into a flat array in the [k, ...shape] layout of the result.
+     */
     @Override
     public IntegerTensor sample(long[] shape, KeanuRandom random) {
         TensorShapeValidation.checkTensorsMatchNonLengthOneShapeOrAreLengthOne(shape, n.getShape());
 
-        Tensor.FlattenedView<Integer> nFlattened = n.getFlattenedView();
-        List<DoubleTensor> sliced = p.sliceAlongDimension(0, 0, numCategories);
+        final int[] nFlat = n.asFlatIntegerArray();
+        final double[] pFlat = p.asFlatDoubleArray();
+        final int categories = Math.toIntExact(numCategories);
+        final int pStride = pFlat.length / categories;
 
-        int length = TensorShape.getLengthAsInt(shape);
-        int[] samples = new int[0];
+        final int length = TensorShape.getLengthAsInt(shape);
+        final int[] samples = new int[categories * length];
 
         for (int i = 0; i < length; i++) {
-            final int j = i;
-            List<Double> categoryProbabilities = sliced.stream().map(p -> p.getFlattenedView().getOrScalar(j)).collect(Collectors.toList());
-            int[] sample = drawNTimes(nFlattened.getOrScalar(i), random, categoryProbabilities.toArray(new Double[0]));
-            samples = ArrayUtils.addAll(samples, sample);
-        }
-        return constructSampleTensor(shape, samples);
-    }
-
-    /**
-     * This method is necessary because I've constructed a flat array by concatenation samples of size k
-     * So for example, if the shape of n is [a, b]
-     * then I've now got a tensor of shape [a, b, k]
-     * which I need to convert to a tensor of shape [k, a, b]
-     * by doing a slice in the highest dimension and then concatenating again
-     *
-     * @param shape   the desired shape, not including the probabilities dimension
-     * @param samples the flat array of samples
-     * @return
-     */
-    private IntegerTensor constructSampleTensor(long[] shape, int[] samples) {
-        long[] outputShape = shape;
-        if (shape[0] == 1) {
-            outputShape = ArrayUtils.remove(outputShape, 0);
-        }
-        IntegerTensor abkTensor = IntegerTensor.create(samples, ArrayUtils.add(outputShape, numCategories));
-        int[] kabArray = new int[]{};
-        for (int category = 0; category < numCategories; category++) {
-            IntegerTensor abTensor = abkTensor.slice(outputShape.length, category);
-            kabArray = ArrayUtils.addAll(kabArray, abTensor.asFlatIntegerArray());
-        }
-
-        return IntegerTensor.create(kabArray, ArrayUtils.insert(0, outputShape, numCategories));
-    }
+            int remainingN = nFlat.length == 1 ? nFlat[0] : nFlat[i];
+            double remainingProbability = 1.0;
+            int pOffset = pStride == 1 ? 0 : i;
+
+            for (int category = 0; category < categories - 1 && remainingN > 0; category++) {
+                double categoryProbability = pFlat[category * pStride + pOffset];
+                double conditionalProbability = remainingProbability > 0. ?
+                    Math.min(1.0, Math.max(0.0, categoryProbability / remainingProbability)) :
+                    1.0;
+
+                int count = Binomial.sample(conditionalProbability, remainingN, random);
+                samples[category * length + i] = count;
+                remainingN -= count;
+                remainingProbability -= categoryProbability;
+            }
 
-    private static int[] drawNTimes(int n, KeanuRandom random, Double... categoryProbabilities) {
-        int[] categoryDrawCounts = new int[categoryProbabilities.length];
-        for (int i = 0; i < n; i++) {
-            int index = draw(random, categoryProbabilities);
-            categoryDrawCounts[index] += 1;
+            samples[(categories - 1) * length + i] = remainingN;
         }
-        return categoryDrawCounts;
-    }
 
-    private static int draw(KeanuRandom random, Double... categoryProbabilities) {
-        double value = random.nextDouble();
-        int index = 0;
-        Double pCumulative = 0.;
-        while (index < categoryProbabilities.length) {
-            Double currentP = categoryProbabilities[index++];
-            if (currentP == 0.) {
-                continue;
-            }
-            pCumulative += currentP;
-            if (pCumulative >= value) {
-                break;
-            }
-        }
-        return index - 1;
+        long[] outputShape = shape[0] == 1 ? ArrayUtils.remove(shape, 0) : shape;
+        return IntegerTensor.create(samples, ArrayUtils.insert(0, outputShape, numCategories));
     }
 
     @Override
@@ -0,0 +1,183 @@
+package io.improbable.keanu.model;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.variational.optimizer.ProbabilityFitness;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.Adam;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.MinibatchFitnessFunctionGradient;
+import io.improbable.keanu.network.KeanuProbabilisticModelWithGradient;
+import io.improbable.keanu.tensor.Tensor;
+import io.improbable.keanu.tensor.bool.BooleanTensor;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+
+public class MinibatchModelFitter<OUTPUT extends Tensor> implements ModelFitter {
+
+    private final DoubleTensor inputTrainingData;
+    private final OUTPUT outputTrainingData;
+    private final int batchSize;
+    private final Adam optimizer;
+    private final ProbabilityFitness probabilityFitness;
+    private final KeanuRandom random;
+
+    /**
+     * @param inputTrainingData  the input data, with one row per data point
+     * @param outputTrainingData the output data, with one row per data point
+     * @param batchSize          the number of rows in each minibatch
+     * @param optimizer          the optimizer, which is given a noisy gradient so should usually have a
+     *                           {@link io.improbable.keanu.algorithms.variational.optimizer.gradient.LearningRateSchedule}
+     *                           that decays
+     * @param probabilityFitness whether to find the MAP or the maximum likelihood
+     * @param random             the source of randomness for choosing minibatches
+     */
+    public MinibatchModelFitter(DoubleTensor inputTrainingData,
+                                OUTPUT outputTrainingData,
+                                int batchSize,
+                                Adam optimizer,
+                                ProbabilityFitness probabilityFitness,
+                                KeanuRandom random) {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be greater than 0");
+        Preconditions.checkArgument(
+            inputTrainingData.getShape()[0] == outputTrainingData.getShape()[0],
+            "Input and output training data must have the same number of rows"
+        );
+        Preconditions.checkArgument(
+            outputTrainingData instanceof DoubleTensor || outputTrainingData instanceof BooleanTensor,
+            "Minibatches are only supported for double or boolean output data"
+        );
+
+        this.inputTrainingData = inputTrainingData;
+        this.outputTrainingData = outputTrainingData;
+        this.batchSize = batchSize;
+        this.optimizer = optimizer;
+        this.probabilityFitness = probabilityFitness;
+        this.random = random;
+    }
+
+    /**
+     * Uses {@link Adam} on random minibatches of the input and output data to fit the model graph, so that each
+     * step costs the same however much data there is. Once fitted, the graph observes all of the data again.
+     */
+    @Override
+    public void fit(ModelGraph modelGraph) {
+        KeanuProbabilisticModelWithGradient model = new KeanuProbabilisticModelWithGradient(modelGraph.getBayesianNetwork());
+
+        Minibatches minibatches = new Minibatches(inputTrainingData, outputTrainingData, Math.min(batchSize, rowCount()), random);
+
+        MinibatchFitnessFunctionGradient fitnessFunction = new MinibatchFitnessFunctionGradient(
+            model,
+            probabilityFitness,
+            () -> {
+                minibatches.next();
+                modelGraph.observeValues(minibatches.getInput(), minibatches.getOutput());
+                return (double) rowCount() / minibatches.getBatchSize();
+            }
+        );
+
+        optimizer.optimize(model.getLatentVariables(), fitnessFunction);
+
+        modelGraph.observeValues(inputTrainingData, outputTrainingData);
+    }
+
+    private int rowCount() {
+        return Math.toIntExact(inputTrainingData.getShape()[0]);
+    }
+
+    /**
+     * Takes rows at random from the training data, without replacement until every row has been used.
+     * The data is flattened once so that a minibatch only copies its own rows.
+     */
+    private static class Minibatches {
+
+        private final double[] input;
+        private final int inputColumns;
+        private final double[] doubleOutput;
+        private final boolean[] booleanOutput;
+        private final int outputColumns;
+        private final int batchSize;
+        private final KeanuRandom random;
+
+        private final int[] order;
+        private int position;
+
+        private DoubleTensor batchInput;
+        private Tensor batchOutput;
+
+        Minibatches(DoubleTensor inputData, Tensor outputData, int batchSize, KeanuRandom random) {
+            int rows = Math.toIntExact(inputData.getShape()[0]);
+
+            this.input = inputData.asFlatDoubleArray();
+            this.inputColumns = input.length / rows;
+
+            if (outputData instanceof DoubleTensor) {
+                this.doubleOutput = outputData.asFlatDoubleArray();
+                this.booleanOutput = null;
+                this.outputColumns = doubleOutput.length / rows;
+            } else {
+                Object[] values = outputData.asFlatArray();
+                this.doubleOutput = null;
+                this.booleanOutput = new boolean[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    booleanOutput[i] = (Boolean) values[i];
+                }
+                this.outputColumns = booleanOutput.length / rows;
+            }
+
+            this.batchSize = batchSize;
+            this.random = random;
+            this.order = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                order[i] = i;
+            }
+            this.position = rows;
+        }
+
+        void next() {
+            double[] inputBatch = new double[batchSize * inputColumns];
+            double[] doubleOutputBatch = doubleOutput != null ? new double[batchSize * outputColumns] : null;
+            boolean[] booleanOutputBatch = booleanOutput != null ? new boolean[batchSize * outputColumns] : null;
+
+            for (int i = 0; i < batchSize; i++) {
+                int row = nextRow();
+                System.arraycopy(input, row * inputColumns, inputBatch, i * inputColumns, inputColumns);
+                if (doubleOutputBatch != null) {
+                    System.arraycopy(doubleOutput, row * outputColumns, doubleOutputBatch, i * outputColumns, outputColumns);
+                } else {
+                    System.arraycopy(booleanOutput, row * outputColumns, booleanOutputBatch, i * outputColumns, outputColumns);
+                }
+            }
+
+            batchInput = DoubleTensor.create(inputBatch, batchSize, inputColumns);
+            batchOutput = doubleOutputBatch != null ?
+                DoubleTensor.create(doubleOutputBatch, batchSize, outputColumns) :
+                BooleanTensor.create(booleanOutputBatch, batchSize, outputColumns);
+        }
+
+        /**
+         * @return the next row of a random permutation of the rows, which is reshuffled once it has all been used
+         */
+        private int nextRow() {
+            if (position == order.length) {
+                for (int i = order.length - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                }
+                position = 0;
+            }
+            return order[position++];
+        }
+
+        DoubleTensor getInput() {
+            return batchInput;
+        }
+
+        Tensor getOutput() {
+            return batchOutput;
+        }
+
+        int getBatchSize() {
+            return batchSize;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package io.improbable.keanu.model.regression;
+
+import io.improbable.keanu.algorithms.graphtraversal.VertexValuePropagation;
+import io.improbable.keanu.algorithms.variational.optimizer.ProbabilityFitness;
+import io.improbable.keanu.model.ModelFitter;
+import io.improbable.keanu.model.ModelGraph;
+import io.improbable.keanu.tensor.TensorShape;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.Vertex;
+import io.improbable.keanu.vertices.dbl.DoubleVertex;
+import io.improbable.keanu.vertices.dbl.nonprobabilistic.ConstantDoubleVertex;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.DecompositionSolver;
+import org.apache.commons.math3.linear.QRDecomposition;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Fits a {@link LinearRegressionGraph} with a Gaussian likelihood directly, with one linear algebra call, instead
+ * of by gradient optimization.
+ * <p>
+ * The maximum likelihood is the least squares solution, which is found by a QR decomposition of the input with a
+ * column of ones for the intercept. With Gaussian priors on the weights and intercept the MAP is the solution of
+ * the ridge normal equations, which are positive definite and are solved by a Cholesky decomposition.
+ * <p>
+ * Any other graph, such as one with a logistic output, Laplace priors or priors whose parameters are themselves
+ * latent, is fitted by the fallback fitter instead.
+ * <p>
+ * The training data can also be streamed a batch at a time, in which case only the normal equations are kept in
+ * memory and the maximum likelihood is found from them too.
+ */
+public class LeastSquaresModelFitter implements ModelFitter {
+
+    private final ProbabilityFitness probabilityFitness;
+    private final ModelFitter fallback;
+    private final Iterator<TrainingBatch> trainingBatches;
+
+    /**
+     * Fits the graph to the data that it observes.
+     *
+     * @param probabilityFitness whether to find the MAP or the maximum likelihood
+     * @param fallback           the fitter to use for graphs that can't be solved directly
+     */
+    public LeastSquaresModelFitter(ProbabilityFitness probabilityFitness, ModelFitter fallback) {
+        this(probabilityFitness, fallback, null);
+    }
+
+    /**
+     * Fits the graph to data that is streamed a batch at a time. Graphs that can't be solved directly can't be
+     * fitted this way.
+     *
+     * @param probabilityFitness whether to find the MAP or the maximum likelihood
+     * @param trainingBatches    the training data, which is read once when the graph is fitted
+     */
+    public LeastSquaresModelFitter(ProbabilityFitness probabilityFitness, Iterator<TrainingBatch> trainingBatches) {
+        this(probabilityFitness, null, trainingBatches);
+    }
+
+    private LeastSquaresModelFitter(ProbabilityFitness probabilityFitness, ModelFitter fallback, Iterator<TrainingBatch> trainingBatches) {
+        this.probabilityFitness = probabilityFitness;
+        this.fallback = fallback;
+        this.trainingBatches = trainingBatches;
+    }
+
+    @Override
+    public void fit(ModelGraph modelGraph) {
+        boolean canFitDirectly = modelGraph instanceof LinearRegressionGraph && canFitDirectly((LinearRegressionGraph<?>) modelGraph);
+
+        if (trainingBatches != null) {
+            if (!canFitDirectly) {
+                throw new IllegalArgumentException(
+                    "Streamed training data can only be fitted by a linear regression with a Gaussian likelihood and, for MAP, constant Gaussian priors"
+                );
+            }
+            fitToTrainingBatches((LinearRegressionGraph<?>) modelGraph);
+        } else if (!canFitDirectly || !fitToObservations((LinearRegressionGraph<?>) modelGraph)) {
+            fallback.fit(modelGraph);
+        }
+    }
+
+    private boolean canFitDirectly(LinearRegressionGraph<?> graph) {
+        Vertex<?> observation = graph.getOutputVertex();
+        DoubleVertex weights = graph.getWeightVertex();
+        DoubleVertex intercept = graph.getInterceptVertex();
+
+        if (!(observation instanceof GaussianVertex)
+            || ((GaussianVertex) observation).getMu() != graph.getPredictionVertex()
+            || !isConstant(((GaussianVertex) observation).getSigma(), 1)
+            || weights.isObserved() || intercept.isObserved()) {
+            return false;
+        }
+
+        return probabilityFitness != ProbabilityFitness.MAP ||
+            (hasConstantGaussianPrior(weights) && hasConstantGaussianPrior(intercept));
+    }
+
+    /**
+     * @return false, without changing the graph, if the observations can't be solved directly
+     */
+    private boolean fitToObservations(LinearRegressionGraph<?> graph) {
+        DoubleTensor input = graph.getInputVertex().getValue();
+        DoubleTensor output = (DoubleTensor) graph.getOutputVertex().getValue();
+        if (input.getRank() != 2 || input.getShape()[0] != output.getLength()) {
+            return false;
+        }
+
+        int features = Math.toIntExact(input.getShape()[1]);
+
+        double[] solution;
+        if (probabilityFitness == ProbabilityFitness.MAP) {
+            NormalEquations normalEquations = new NormalEquations(features);
+            normalEquations.add(input, output);
+            solution = solveMAP(normalEquations, graph, features);
+        } else {
+            solution = solveLeastSquares(input.asFlatDoubleArray(), output.asFlatDoubleArray(), Math.toIntExact(input.getShape()[0]), features);
+            if (solution == null) {
+                return false;
+            }
+        }
+
+        setValues(graph, solution, features);
+        return true;
+    }
+
+    private void fitToTrainingBatches(LinearRegressionGraph<?> graph) {
+        int features = Math.toIntExact(TensorShape.getLength(graph.getWeightVertex().getShape()));
+
+        NormalEquations normalEquations = new NormalEquations(features);
+        while (trainingBatches.hasNext()) {
+            TrainingBatch batch = trainingBatches.next();
+            normalEquations.add(batch.getInput(), batch.getOutput());
+        }
+
+        if (normalEquations.getRowCount() == 0) {
+            throw new IllegalStateException("There is no training data left to fit to");
+        }
+
+        double[] solution = probabilityFitness == ProbabilityFitness.MAP ?
+            solveMAP(normalEquations, graph, features) :
+            normalEquations.solve(new double[features + 1], new double[features + 1]);
+
+        setValues(graph, solution, features);
+    }
+
+    private static void setValues(LinearRegressionGraph<?> graph, double[] solution, int features) {
+        DoubleVertex weights = graph.getWeightVertex();
+        DoubleVertex intercept = graph.getInterceptVertex();
+
+        weights.setValue(DoubleTensor.create(Arrays.copyOf(solution, features), weights.getShape()));
+        intercept.setValue(DoubleTensor.create(solution[features], intercept.getShape()));
+        VertexValuePropagation.cascadeUpdate(weights, intercept);
+    }
+
+    /**
+     * @return the weights followed by the intercept, or null if the input doesn't have full column rank
+     */
+    private static double[] solveLeastSquares(double[] x, double[] y, int rows, int features) {
+        double[][] design = new double[rows][features + 1];
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(x, row * features, design[row], 0, features);
+            design[row][features] = 1.0;
+        }
+
+        DecompositionSolver solver = new QRDecomposition(new Array2DRowRealMatrix(design, false)).getSolver();
+        if (!solver.isNonSingular()) {
+            return null;
+        }
+        return solver.solve(new ArrayRealVector(y, false)).toArray();
+    }
+
+    /**
+     * Solves (Z'Z + s^2 &Lambda;)&theta; = Z'y + s^2 &Lambda;m, where s is the observation sigma and &Lambda; and m are
+     * the precisions and means of the priors on &theta;, the weights followed by the intercept.
+     */
+    private static double[] solveMAP(NormalEquations normalEquations, LinearRegressionGraph<?> graph, int features) {
+        GaussianVertex observation = (GaussianVertex) graph.getOutputVertex();
+        GaussianVertex weights = (GaussianVertex) graph.getWeightVertex();
+        GaussianVertex intercept = (GaussianVertex) graph.getInterceptVertex();
+
+        double observationSigma = observation.getSigma().getValue().scalar();
+        double observationVariance = observationSigma * observationSigma;
+
+        double[] means = Arrays.copyOf(priorValues(weights.getMu(), features), features + 1);
+        double[] sigmas = Arrays.copyOf(priorValues(weights.getSigma(), features), features + 1);
+        means[features] = intercept.getMu().getValue().scalar();
+        sigmas[features] = intercept.getSigma().getValue().scalar();
+
+        double[] precisions = new double[features + 1];
+        for (int i = 0; i <= features; i++) {
+            precisions[i] = observationVariance / (sigmas[i] * sigmas[i]);
+        }
+
+        return normalEquations.solve(precisions, means);
+    }
+
+    private static double[] priorValues(DoubleVertex parameter, int length) {
+        double[] values = parameter.getValue().asFlatDoubleArray();
+        if (values.length == 1) {
+            double[] broadcast = new double[length];
+            Arrays.fill(broadcast, values[0]);
+            return broadcast;
+        }
+        return values;
+    }
+
+    private static boolean hasConstantGaussianPrior(DoubleVertex vertex) {
+        if (!(vertex instanceof GaussianVertex)) {
+            return false;
+        }
+        long length = TensorShape.getLength(vertex.getShape());
+        return isConstant(((GaussianVertex) vertex).getMu(), length) && isConstant(((GaussianVertex) vertex).getSigma(), length);
+    }
+
+    private static boolean isConstant(DoubleVertex vertex, long length) {
+        if (!(vertex instanceof ConstantDoubleVertex)) {
+            return false;
+        }
+        long parameterLength = TensorShape.getLength(vertex.getShape());
+        return parameterLength == 1 || parameterLength == length;
+    }
+}
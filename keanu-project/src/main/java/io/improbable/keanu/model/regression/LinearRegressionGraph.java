@@ -16,6 +16,7 @@ import java.util.function.Function;
 
 public class LinearRegressionGraph<OUTPUT> implements ModelGraph<DoubleTensor, OUTPUT> {
     private final DoubleVertex xVertex;
+    private final DoubleVertex predictionVertex;
     private final Vertex<OUTPUT> yVertex;
     private final Vertex<OUTPUT> yObservationVertex;
     private final DoubleVertex weightsVertex;
@@ -32,11 +33,11 @@ public class LinearRegressionGraph<OUTPUT> implements ModelGraph<DoubleTensor, O
         this.interceptVertex = interceptVertex;
         xVertex = new ConstantDoubleVertex(DoubleTensor.zeros(featureShape));
 
-        OutputVertices<OUTPUT> outputVertices = outputTransform.apply(
-            TensorShape.isLengthOne(weightsVertex.getShape()) ?
-                weightsVertex.times(xVertex).plus(interceptVertex) :
-                xVertex.matrixMultiply(weightsVertex).plus(interceptVertex)
-        );
+        predictionVertex = TensorShape.isLengthOne(weightsVertex.getShape()) ?
+            weightsVertex.times(xVertex).plus(interceptVertex) :
+            xVertex.matrixMultiply(weightsVertex).plus(interceptVertex);
+
+        OutputVertices<OUTPUT> outputVertices = outputTransform.apply(predictionVertex);
 
         yVertex = outputVertices.outputVertex;
         yObservationVertex = outputVertices.observedVertex;
@@ -66,6 +67,17 @@ public class LinearRegressionGraph<OUTPUT> implements ModelGraph<DoubleTensor, O
         return yObservationVertex;
     }
 
+    DoubleVertex getInputVertex() {
+        return xVertex;
+    }
+
+    /**
+     * @return the vertex for the input times the weights plus the intercept, before any output transform
+     */
+    DoubleVertex getPredictionVertex() {
+        return predictionVertex;
+    }
+
     @Value
     public static class OutputVertices<OUTPUT> {
         Vertex<OUTPUT> outputVertex;
@@ -0,0 +1,103 @@
+package io.improbable.keanu.model.regression;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+
+/**
+ * The sufficient statistics Z'Z and Z'y of a linear regression, where Z is the input with a column of ones for the
+ * intercept. They only take space for the number of features squared, so they can be accumulated a batch of rows at
+ * a time however many rows there are.
+ */
+class NormalEquations {
+
+    private final int features;
+    private final double[][] normal;
+    private final double[] rhs;
+    private final double[] z;
+    private long rowCount;
+
+    NormalEquations(int features) {
+        this.features = features;
+        this.normal = new double[features + 1][features + 1];
+        this.rhs = new double[features + 1];
+        this.z = new double[features + 1];
+        z[features] = 1.0;
+    }
+
+    /**
+     * @param input  the input, with one row per data point
+     * @param output the output, with one value per data point
+     */
+    void add(DoubleTensor input, DoubleTensor output) {
+        Preconditions.checkArgument(
+            input.getRank() == 2 && input.getShape()[1] == features,
+            "Input must have %s columns but has shape %s", features, input.getShape()
+        );
+        Preconditions.checkArgument(
+            output.getLength() == input.getShape()[0],
+            "Output must have a value for each of the %s rows of input but has %s", input.getShape()[0], output.getLength()
+        );
+        add(input.asFlatDoubleArray(), output.asFlatDoubleArray(), Math.toIntExact(input.getShape()[0]));
+    }
+
+    /**
+     * @param x    the input laid out row by row
+     * @param y    the output for each row
+     * @param rows the number of rows
+     */
+    void add(double[] x, double[] y, int rows) {
+        int size = features + 1;
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(x, row * features, z, 0, features);
+            for (int i = 0; i < size; i++) {
+                rhs[i] += z[i] * y[row];
+                for (int j = 0; j <= i; j++) {
+                    normal[i][j] += z[i] * z[j];
+                }
+            }
+        }
+        rowCount += rows;
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Solves (Z'Z + &Lambda;)&theta; = Z'y + &Lambda;m for &theta;, the weights followed by the intercept, where &Lambda; is
+     * diagonal.
+     *
+     * @param priorPrecisions the diagonal of &Lambda;, which is all zeros for least squares
+     * @param priorMeans      m
+     * @return &theta;
+     */
+    double[] solve(double[] priorPrecisions, double[] priorMeans) {
+        int size = features + 1;
+        double[][] matrix = new double[size][size];
+        double[] vector = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j <= i; j++) {
+                matrix[i][j] = normal[i][j];
+                matrix[j][i] = normal[i][j];
+            }
+            matrix[i][i] += priorPrecisions[i];
+            vector[i] = rhs[i] + priorPrecisions[i] * priorMeans[i];
+        }
+
+        try {
+            return new CholeskyDecomposition(new Array2DRowRealMatrix(matrix, false))
+                .getSolver()
+                .solve(new ArrayRealVector(vector, false))
+                .toArray();
+        } catch (NonPositiveDefiniteMatrixException e) {
+            throw new IllegalArgumentException(
+                "Cannot solve for the weights as the columns of the input, and a column of ones, are linearly dependent", e
+            );
+        }
+    }
+}
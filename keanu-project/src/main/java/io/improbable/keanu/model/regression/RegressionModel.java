@@ -10,6 +10,7 @@ import io.improbable.keanu.vertices.bool.probabilistic.BernoulliVertex;
 import io.improbable.keanu.vertices.dbl.DoubleVertex;
 import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
 
+import java.util.Iterator;
 import java.util.function.Function;
 
 /**
@@ -40,6 +41,20 @@ public class RegressionModel<OUTPUT> implements PredictiveModel<DoubleTensor, OU
         return new RegressionModelBuilder<>(inputTrainingData, outputTrainingData, RegressionModel.logisticOutputTransform());
     }
 
+    /**
+     * Creates a builder for a linear regression model that is fitted to training data that is streamed a batch at a
+     * time, such as from {@link TrainingBatch#fromCsvLines}, so that it needn't fit in memory. The model is fitted
+     * by solving the normal equations, which take space for the square of the feature count whatever the number of
+     * rows, so only no or ridge regularization can be used.
+     *
+     * @param featureCount    the number of input features
+     * @param trainingBatches the training data, which is read once when the model is fitted
+     * @return a builder for the model
+     */
+    public static RegressionModelBuilder<DoubleTensor> withStreamingTrainingData(long featureCount, Iterator<TrainingBatch> trainingBatches) {
+        return new RegressionModelBuilder<>(featureCount, trainingBatches, RegressionModel.gaussianOutputTransform(DEFAULT_OBSERVATION_SIGMA));
+    }
+
     static Function<DoubleVertex, LinearRegressionGraph.OutputVertices<DoubleTensor>> gaussianOutputTransform(double measurementSigma) {
         return yVertex -> new LinearRegressionGraph.OutputVertices<>(yVertex, new GaussianVertex(yVertex, measurementSigma));
     }
@@ -1,5 +1,8 @@
 package io.improbable.keanu.model.regression;
 
+import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.Adam;
+import io.improbable.keanu.model.MinibatchModelFitter;
 import io.improbable.keanu.model.ModelFitter;
 import io.improbable.keanu.model.SamplingModelFitting;
 import io.improbable.keanu.tensor.Tensor;
@@ -7,6 +10,7 @@ import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.vertices.ConstantVertex;
 import io.improbable.keanu.vertices.dbl.DoubleVertex;
 
+import java.util.Iterator;
 import java.util.function.Function;
 
 /**
@@ -21,6 +25,8 @@ public class RegressionModelBuilder<OUTPUT extends Tensor> {
 
     private final DoubleTensor inputTrainingData;
     private final OUTPUT outputTrainingData;
+    private final long featureCount;
+    private final Iterator<TrainingBatch> trainingBatches;
     private final Function<DoubleVertex, LinearRegressionGraph.OutputVertices<OUTPUT>> outputTransform;
 
     private RegressionRegularization regularization = RegressionRegularization.NONE;
@@ -29,10 +35,23 @@ public class RegressionModelBuilder<OUTPUT extends Tensor> {
     private DoubleVertex priorOnInterceptScaleParameter;
     private DoubleVertex priorOnInterceptMean;
     private SamplingModelFitting samplingAlgorithm = null;
+    private Integer minibatchSize = null;
+    private Adam minibatchOptimizer = null;
+    private KeanuRandom minibatchRandom = null;
 
     public RegressionModelBuilder(DoubleTensor inputTrainingData, OUTPUT outputTrainingData, Function<DoubleVertex, LinearRegressionGraph.OutputVertices<OUTPUT>> outputTransform) {
         this.inputTrainingData = reshapeToMatrix(inputTrainingData);
         this.outputTrainingData = reshapeToMatrix(outputTrainingData);
+        this.featureCount = this.inputTrainingData.getShape()[1];
+        this.trainingBatches = null;
+        this.outputTransform = outputTransform;
+    }
+
+    RegressionModelBuilder(long featureCount, Iterator<TrainingBatch> trainingBatches, Function<DoubleVertex, LinearRegressionGraph.OutputVertices<OUTPUT>> outputTransform) {
+        this.inputTrainingData = null;
+        this.outputTrainingData = null;
+        this.featureCount = featureCount;
+        this.trainingBatches = trainingBatches;
         this.outputTransform = outputTransform;
     }
 
@@ -123,6 +142,36 @@ public class RegressionModelBuilder<OUTPUT extends Tensor> {
         return this;
     }
 
+    /**
+     * Optional - fit the model with a stochastic optimizer that only looks at a random minibatch of the training
+     * data on each step, instead of the default gradient optimization over all of the data. Each step then costs
+     * the same however many rows of training data there are.
+     *
+     * @param batchSize the number of rows of training data in each minibatch
+     * @param optimizer the optimizer to use. As its gradients are noisy it should usually have a decaying
+     *                  {@link io.improbable.keanu.algorithms.variational.optimizer.gradient.LearningRateSchedule}
+     * @return this
+     */
+    public RegressionModelBuilder withMinibatches(int batchSize, Adam optimizer) {
+        return withMinibatches(batchSize, optimizer, KeanuRandom.getDefaultRandom());
+    }
+
+    /**
+     * Optional - fit the model with a stochastic optimizer that only looks at a random minibatch of the training
+     * data on each step, as in {@link #withMinibatches(int, Adam)}.
+     *
+     * @param batchSize the number of rows of training data in each minibatch
+     * @param optimizer the optimizer to use
+     * @param random    the source of randomness for choosing minibatches, which can be seeded to reproduce a fit
+     * @return this
+     */
+    public RegressionModelBuilder withMinibatches(int batchSize, Adam optimizer, KeanuRandom random) {
+        this.minibatchSize = batchSize;
+        this.minibatchOptimizer = optimizer;
+        this.minibatchRandom = random;
+        return this;
+    }
+
     /**
      * @return A linear regression model from the data passed to the builder
      */
@@ -135,6 +184,10 @@ public class RegressionModelBuilder<OUTPUT extends Tensor> {
     public RegressionModel<OUTPUT> buildWithoutFitting() {
         checkVariablesAreCorrectlyInitialised();
 
+        if (trainingBatches != null) {
+            return buildWithoutFittingForTrainingBatches();
+        }
+
         LinearRegressionGraph<OUTPUT> regressionGraph = new LinearRegressionGraph<>(
             this.inputTrainingData.getShape(),
             outputTransform,
@@ -142,19 +195,55 @@ public class RegressionModelBuilder<OUTPUT extends Tensor> {
             getWeightsVertex()
         );
 
-        ModelFitter fitter = samplingAlgorithm == null ?
-            this.regularization.createFitterForGraph() :
-            samplingAlgorithm.createFitterForGraph();
+        ModelFitter fitter;
+        if (samplingAlgorithm != null) {
+            fitter = samplingAlgorithm.createFitterForGraph();
+        } else if (minibatchSize != null) {
+            fitter = new MinibatchModelFitter<>(
+                inputTrainingData,
+                outputTrainingData,
+                minibatchSize,
+                minibatchOptimizer,
+                regularization.getProbabilityFitness(),
+                minibatchRandom
+            );
+        } else {
+            fitter = this.regularization.createFitterForGraph();
+        }
 
         regressionGraph.observeValues(inputTrainingData, outputTrainingData);
         return new RegressionModel(regressionGraph, fitter);
     }
 
+    /**
+     * Builds a graph for one row of input, as the training data is never all in memory at once, and fits it by
+     * solving the normal equations, which are accumulated a batch at a time.
+     */
+    private RegressionModel<OUTPUT> buildWithoutFittingForTrainingBatches() {
+        if (samplingAlgorithm != null || minibatchSize != null) {
+            throw new IllegalArgumentException("Streamed training data can't be fitted by sampling or with minibatches");
+        }
+
+        LinearRegressionGraph<OUTPUT> regressionGraph = new LinearRegressionGraph<>(
+            new long[]{1, featureCount},
+            outputTransform,
+            getInterceptVertex(),
+            getWeightsVertex()
+        );
+
+        ModelFitter fitter = new LeastSquaresModelFitter(regularization.getProbabilityFitness(), trainingBatches);
+        return new RegressionModel(regressionGraph, fitter);
+    }
+
     private void checkVariablesAreCorrectlyInitialised() {
-        if (inputTrainingData == null) {
+        if (trainingBatches != null) {
+            if (featureCount <= 0) {
+                throw new IllegalArgumentException("Feature count must be greater than 0");
+            }
+        } else if (inputTrainingData == null) {
             throw new IllegalArgumentException("You have not provided input training data");
         }
-        if (outputTrainingData == null) {
+        if (trainingBatches == null && outputTrainingData == null) {
             throw new IllegalArgumentException("You have not provided output training data");
         }
         if (priorOnWeightsMeans == null || priorOnWeightsScaleParameters == null) {
@@ -174,7 +263,7 @@ public class RegressionModelBuilder<OUTPUT extends Tensor> {
     }
 
     private long getFeatureCount() {
-        return this.inputTrainingData.getShape()[1];
+        return featureCount;
     }
 
 }
@@ -1,5 +1,6 @@
 package io.improbable.keanu.model.regression;
 
+import io.improbable.keanu.algorithms.variational.optimizer.ProbabilityFitness;
 import io.improbable.keanu.model.MAPModelFitter;
 import io.improbable.keanu.model.MaximumLikelihoodModelFitter;
 import io.improbable.keanu.model.ModelFitter;
@@ -18,7 +19,11 @@ public enum RegressionRegularization {
         }
 
         public ModelFitter createFitterForGraph() {
-            return new MaximumLikelihoodModelFitter();
+            return new LeastSquaresModelFitter(ProbabilityFitness.MLE, new MaximumLikelihoodModelFitter());
+        }
+
+        public ProbabilityFitness getProbabilityFitness() {
+            return ProbabilityFitness.MLE;
         }
     },
     LASSO {
@@ -33,6 +38,10 @@ public enum RegressionRegularization {
         public ModelFitter createFitterForGraph() {
             return new MAPModelFitter();
         }
+
+        public ProbabilityFitness getProbabilityFitness() {
+            return ProbabilityFitness.MAP;
+        }
     },
     RIDGE {
         public DoubleVertex getWeightsVertex(long featureCount, DoubleVertex priorOnWeightsMeans, DoubleVertex priorOnWeightsScaleParameter) {
@@ -44,7 +53,11 @@ public enum RegressionRegularization {
         }
 
         public ModelFitter createFitterForGraph() {
-            return new MAPModelFitter();
+            return new LeastSquaresModelFitter(ProbabilityFitness.MAP, new MAPModelFitter());
+        }
+
+        public ProbabilityFitness getProbabilityFitness() {
+            return ProbabilityFitness.MAP;
         }
     };
 
@@ -53,4 +66,9 @@ public enum RegressionRegularization {
     public abstract DoubleVertex getInterceptVertex(DoubleVertex priorOnInterceptMean, DoubleVertex priorOnInterceptScaleParameter);
 
     public abstract ModelFitter createFitterForGraph();
+
+    /**
+     * @return the fitness that the fitter created by {@link #createFitterForGraph()} optimizes
+     */
+    public abstract ProbabilityFitness getProbabilityFitness();
 }
@@ -0,0 +1,85 @@
+package io.improbable.keanu.model.regression;
+
+import com.google.common.collect.Iterators;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import lombok.Value;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Some rows of training data, for fitting a regression model to data that is streamed a batch at a time.
+ */
+@Value
+public class TrainingBatch {
+
+    /**
+     * The input, with one row per data point
+     */
+    DoubleTensor input;
+
+    /**
+     * The output, with one row per data point
+     */
+    DoubleTensor output;
+
+    /**
+     * Groups the lines of a csv file into batches, so that a regression model can be fitted to a file that is too
+     * large to read into memory, e.g.
+     * <pre>
+     * try (Stream&lt;List&lt;String&gt;&gt; lines = ReadCsv.fromFile(path).streamLines()) {
+     *     RegressionModel model = RegressionModel
+     *         .withStreamingTrainingData(featureCount, TrainingBatch.fromCsvLines(lines, outputColumn, 10000))
+     *         .build();
+     * }
+     * </pre>
+     * Lines are only read as batches are taken.
+     *
+     * @param lines        the lines of the file, split into fields, e.g. from
+     *                     {@link io.improbable.keanu.util.csv.CsvReader#streamLines()}
+     * @param outputColumn the column holding the output. Every other column is an input feature.
+     * @param batchSize    the largest number of lines in a batch
+     * @return the batches of lines, which throw an IllegalArgumentException when taken if a line has a different
+     * number of fields to the first line of its batch, or doesn't have the output column
+     */
+    public static Iterator<TrainingBatch> fromCsvLines(Stream<List<String>> lines, int outputColumn, int batchSize) {
+        return Iterators.transform(
+            Iterators.partition(lines.iterator(), batchSize),
+            batch -> fromLines(batch, outputColumn)
+        );
+    }
+
+    private static TrainingBatch fromLines(List<List<String>> lines, int outputColumn) {
+        int rows = lines.size();
+        int features = lines.get(0).size() - 1;
+        double[] input = new double[rows * features];
+        double[] output = new double[rows];
+
+        for (int row = 0; row < rows; row++) {
+            List<String> line = lines.get(row);
+            if (line.size() != features + 1) {
+                throw new IllegalArgumentException(
+                    "Expected " + (features + 1) + " fields but found " + line.size() + " in line " + line
+                );
+            }
+            if (outputColumn < 0 || outputColumn >= line.size()) {
+                throw new IllegalArgumentException(
+                    "Output column " + outputColumn + " is outside of line " + line + " with " + line.size() + " fields"
+                );
+            }
+
+            int feature = 0;
+            for (int column = 0; column < line.size(); column++) {
+                double value = Double.parseDouble(line.get(column));
+                if (column == outputColumn) {
+                    output[row] = value;
+                } else {
+                    input[row * features + feature++] = value;
+                }
+            }
+        }
+
+        return new TrainingBatch(DoubleTensor.create(input, rows, features), DoubleTensor.create(output, rows, 1));
+    }
+}
@@ -244,6 +244,38 @@ public class BayesianNetwork {
         indentation++;
     }
 
+    /**
+     * Creates an independent network with the same structure, labels, observations and values as this one.
+     * Each vertex is copied with {@link Vertex#copy(Map)}, so parameters that aren't vertices, such as constant
+     * tensors, are shared with this network rather than duplicated.
+     * <p>
+     * Vertices are copied in topological order, so the nth vertex of the copy in {@link TopologicalSort} order is
+     * the copy of the nth vertex of this network.
+     *
+     * @return a copy of this network
+     */
+    public BayesianNetwork copy() {
+        Map<Vertex, Vertex> copies = new HashMap<>();
+        List<Vertex> copiesInOrder = new ArrayList<>(vertices.size());
+
+        for (Vertex<?> vertex : TopologicalSort.sort(vertices)) {
+            Vertex copy = copyOf(vertex, copies);
+            copies.put(vertex, copy);
+            copiesInOrder.add(copy);
+        }
+
+        return new BayesianNetwork(copiesInOrder);
+    }
+
+    private static <T> Vertex<T> copyOf(Vertex<T> vertex, Map<Vertex, Vertex> copies) {
+        Vertex<T> copy = vertex.copy(copies);
+        copy.setState(vertex.getState());
+        if (vertex.getLabel() != null) {
+            copy.setLabel(vertex.getLabel());
+        }
+        return copy;
+    }
+
     public void save(NetworkSaver networkSaver) {
         if (isSaveable()) {
             for (Vertex vertex : TopologicalSort.sort(vertices)) {
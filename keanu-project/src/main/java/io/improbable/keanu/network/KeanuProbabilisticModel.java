@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableSet;
 import io.improbable.keanu.algorithms.ProbabilisticModel;
 import io.improbable.keanu.algorithms.Variable;
 import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.graphtraversal.CascadeUpdatePlan;
 import io.improbable.keanu.algorithms.graphtraversal.VertexValuePropagation;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.vertices.ProbabilityCalculator;
@@ -12,6 +13,7 @@ import io.improbable.keanu.vertices.Vertex;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,11 +26,14 @@ import static java.util.stream.Collectors.toMap;
  */
 public class KeanuProbabilisticModel implements ProbabilisticModel {
 
+    private static final int MAX_CASCADE_UPDATE_PLANS = 1024;
+
     private final Map<VariableReference, Vertex> vertexLookup;
     private final List<Vertex> latentVertices;
     private final List<Vertex> observedVertices;
     private final List<Vertex> latentOrObservedVertices;
     private final LambdaSectionSnapshot lambdaSectionSnapshot;
+    private final Map<Set<VariableReference>, CascadeUpdatePlan> cascadeUpdatePlans;
 
     public KeanuProbabilisticModel(Collection<? extends Vertex> variables) {
         this(new BayesianNetwork(variables));
@@ -42,6 +47,12 @@ public class KeanuProbabilisticModel implements ProbabilisticModel {
         this.observedVertices = ImmutableList.copyOf(bayesianNetwork.getObservedVertices());
         this.latentOrObservedVertices = ImmutableList.copyOf(bayesianNetwork.getLatentOrObservedVertices());
         this.lambdaSectionSnapshot = new LambdaSectionSnapshot();
+        this.cascadeUpdatePlans = new LinkedHashMap<Set<VariableReference>, CascadeUpdatePlan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Set<VariableReference>, CascadeUpdatePlan> eldest) {
+                return size() > MAX_CASCADE_UPDATE_PLANS;
+            }
+        };
 
         resetModelToObservedState();
         checkBayesNetInHealthyState();
@@ -92,6 +103,10 @@ public class KeanuProbabilisticModel implements ProbabilisticModel {
         return latentOrObservedVertices;
     }
 
+    public List<Vertex> getObservedVertices() {
+        return observedVertices;
+    }
+
     @Override
     public List<Variable<DoubleTensor, ?>> getContinuousLatentVariables() {
         return getLatentVariables().stream()
@@ -110,9 +125,15 @@ public class KeanuProbabilisticModel implements ProbabilisticModel {
         VertexValuePropagation.cascadeUpdate(this.observedVertices);
     }
 
+    /**
+     * Sets the inputs and cascades their values through the graph. The vertices that need updating for a given
+     * set of inputs are compiled into a {@link CascadeUpdatePlan} the first time that set is seen, and replayed
+     * after that.
+     *
+     * @param inputs the values to set
+     */
     protected void cascadeValues(Map<VariableReference, ?> inputs) {
 
-        List<Vertex> updatedVertices = new ArrayList<>();
         for (Map.Entry<VariableReference, ?> input : inputs.entrySet()) {
             Vertex updatingVertex = vertexLookup.get(input.getKey());
 
@@ -121,10 +142,25 @@ public class KeanuProbabilisticModel implements ProbabilisticModel {
             }
 
             updatingVertex.setValue(input.getValue());
-            updatedVertices.add(updatingVertex);
         }
 
-        VertexValuePropagation.cascadeUpdate(updatedVertices);
+        getCascadeUpdatePlan(inputs.keySet()).replay();
+    }
+
+    private CascadeUpdatePlan getCascadeUpdatePlan(Set<VariableReference> updatedReferences) {
+        CascadeUpdatePlan plan = cascadeUpdatePlans.get(updatedReferences);
+
+        if (plan == null || plan.isStale()) {
+            List<Vertex> updatedVertices = new ArrayList<>();
+            for (VariableReference reference : updatedReferences) {
+                updatedVertices.add(vertexLookup.get(reference));
+            }
+
+            plan = CascadeUpdatePlan.compile(updatedVertices);
+            cascadeUpdatePlans.put(ImmutableSet.copyOf(updatedReferences), plan);
+        }
+
+        return plan;
     }
 
 }
@@ -1,8 +1,10 @@
 package io.improbable.keanu.network;
 
+import io.improbable.keanu.algorithms.LogProbAndGradients;
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
 import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.ProbabilityCalculator;
 import io.improbable.keanu.vertices.Vertex;
 import io.improbable.keanu.vertices.dbl.nonprobabilistic.diff.LogProbGradientCalculator;
 
@@ -58,6 +60,23 @@ public class KeanuProbabilisticModelWithGradient extends KeanuProbabilisticModel
         return logLikelihoodGradients(null);
     }
 
+    @Override
+    public LogProbAndGradients logProbAndGradients(Map<VariableReference, ?> inputs) {
+        return logProbAndGradients(inputs, getLatentOrObservedVertices(), logProbGradientCalculator);
+    }
+
+    @Override
+    public LogProbAndGradients logLikelihoodAndGradients(Map<VariableReference, ?> inputs) {
+        return logProbAndGradients(inputs, getObservedVertices(), logLikelihoodGradientCalculator);
+    }
+
+    private LogProbAndGradients logProbAndGradients(Map<VariableReference, ?> inputs,
+                                                    List<Vertex> logProbOfVertices,
+                                                    LogProbGradientCalculator gradientCalculator) {
+        Map<VariableReference, DoubleTensor> gradients = gradients(inputs, gradientCalculator);
+        return new LogProbAndGradients(ProbabilityCalculator.calculateLogProbFor(logProbOfVertices), gradients);
+    }
+
     private Map gradients(Map<VariableReference, ?> inputs, LogProbGradientCalculator gradientCalculator) {
         if (inputs != null && !inputs.isEmpty()) {
             cascadeValues(inputs);
@@ -128,6 +128,80 @@ public class TensorShape {
         return shapeIndices;
     }
 
+    /**
+     * @param left  shape of the left operand
+     * @param right shape of the right operand
+     * @return the shape that results from a numpy style broadcast of the left and right shapes
+     */
+    public static long[] getBroadcastResultShape(long[] left, long[] right) {
+        int resultRank = Math.max(left.length, right.length);
+        long[] resultShape = new long[resultRank];
+
+        for (int i = 1; i <= resultRank; i++) {
+            long leftDimension = i <= left.length ? left[left.length - i] : 1;
+            long rightDimension = i <= right.length ? right[right.length - i] : 1;
+
+            if (leftDimension != rightDimension && leftDimension != 1 && rightDimension != 1) {
+                throw new IllegalArgumentException(
+                    "Cannot broadcast " + Arrays.toString(left) + " with " + Arrays.toString(right)
+                );
+            }
+
+            resultShape[resultRank - i] = Math.max(leftDimension, rightDimension);
+        }
+
+        return resultShape;
+    }
+
+    /**
+     * @param shape       shape of an operand that is being broadcast
+     * @param resultShape shape that the operand is being broadcast to
+     * @return the row first stride of the operand in terms of the result index. Broadcast dimensions have a
+     * stride of zero so that the same value is used all along them.
+     */
+    public static long[] getBroadcastStride(long[] shape, long[] resultShape) {
+        long[] stride = getRowFirstStride(shape);
+        long[] broadcastStride = new long[resultShape.length];
+        int rankDifference = resultShape.length - shape.length;
+
+        for (int i = 0; i < shape.length; i++) {
+            broadcastStride[i + rankDifference] = shape[i] == 1 ? 0 : stride[i];
+        }
+
+        return broadcastStride;
+    }
+
+    /**
+     * Moves the index to the next element of the shape in row first order. The index wraps back round to
+     * all zeros after the last element.
+     *
+     * @param index the N dimensional index which is mutated
+     * @param shape the shape being iterated over
+     */
+    public static void incrementIndex(long[] index, long[] shape) {
+        for (int i = index.length - 1; i >= 0; i--) {
+            if (++index[i] < shape[i]) {
+                return;
+            }
+            index[i] = 0;
+        }
+    }
+
+    /**
+     * Like getFlatIndex but without any bounds checking, for use in tight loops.
+     *
+     * @param stride the stride to find the index for
+     * @param index  the index in each dimension
+     * @return the flat index from a N dimensional index
+     */
+    public static int getFlatIndexUnchecked(long[] stride, long[] index) {
+        long flatIndex = 0;
+        for (int i = 0; i < index.length; i++) {
+            flatIndex += stride[i] * index[i];
+        }
+        return (int) flatIndex;
+    }
+
     public static boolean isScalar(long[] shape) {
         return shape.length == 0;
     }
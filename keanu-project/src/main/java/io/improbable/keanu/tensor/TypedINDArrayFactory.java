@@ -22,6 +22,25 @@ public class TypedINDArrayFactory {
         }
     }
 
+    /**
+     * Creates an array whose buffer is filled straight from part of data, so the values are only copied once.
+     *
+     * @param data       the values of the array, in row major order, from offset onwards
+     * @param offset     the index in data of the first value
+     * @param shape      the shape of the array, which must not be a scalar
+     * @param bufferType the type of the buffer
+     * @return an array holding a copy of the values
+     */
+    public static INDArray createFromSlice(double[] data, int offset, long[] shape, DataBuffer.Type bufferType) {
+        Preconditions.checkArgument(shape.length > 0, "Use scalar to create a scalar.");
+        Nd4j.setDataType(bufferType);
+        int length = TensorShape.getLengthAsInt(shape);
+        DataBuffer buffer = Nd4j.getDataBufferFactory().createDouble(length, false);
+        buffer.asNioDouble().put(data, offset, length);
+        INDArray array = Nd4j.create(buffer, shape);
+        return shape.length == 1 ? reshapeToVector(array) : array;
+    }
+
     public static INDArray valueArrayOf(long[] shape, double value, DataBuffer.Type bufferType) {
         Nd4j.setDataType(bufferType);
         switch (shape.length) {
@@ -3,6 +3,7 @@ package io.improbable.keanu.tensor.dbl;
 import io.improbable.keanu.kotlin.DoubleOperators;
 import io.improbable.keanu.tensor.NumberTensor;
 import io.improbable.keanu.tensor.Tensor;
+import io.improbable.keanu.tensor.TensorShape;
 import io.improbable.keanu.tensor.bool.BooleanTensor;
 import org.apache.commons.lang3.ArrayUtils;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -28,6 +29,8 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
     static DoubleTensor create(double value, long[] shape) {
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarDoubleTensor(value);
+        } else if (JavaDoubleTensor.isPreferredFor(shape)) {
+            return JavaDoubleTensor.create(value, shape);
         } else {
             return Nd4jDoubleTensor.create(value, shape);
         }
@@ -36,6 +39,8 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
     static DoubleTensor create(double[] values, long... shape) {
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE) && values.length == 1) {
             return new ScalarDoubleTensor(values[0]);
+        } else if (JavaDoubleTensor.isPreferredFor(shape)) {
+            return JavaDoubleTensor.create(values, shape);
         } else {
             return Nd4jDoubleTensor.create(values, shape);
         }
@@ -45,9 +50,29 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
         return create(values, values.length);
     }
 
+    /**
+     * @param values an array holding the values of the tensor, in row major order, from offset onwards
+     * @param offset the index of the first value of the tensor in values
+     * @param shape  the shape of the tensor
+     * @return a tensor holding a copy of the values, which are copied once straight from the array
+     */
+    static DoubleTensor fromSlice(double[] values, int offset, long[] shape) {
+        if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
+            return new ScalarDoubleTensor(values[offset]);
+        }
+
+        if (JavaDoubleTensor.isPreferredFor(shape)) {
+            return new JavaDoubleTensor(Arrays.copyOfRange(values, offset, offset + TensorShape.getLengthAsInt(shape)), shape);
+        } else {
+            return Nd4jDoubleTensor.fromSlice(values, offset, shape);
+        }
+    }
+
     static DoubleTensor ones(long... shape) {
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarDoubleTensor(1.0);
+        } else if (JavaDoubleTensor.isPreferredFor(shape)) {
+            return JavaDoubleTensor.ones(shape);
         } else {
             return Nd4jDoubleTensor.ones(shape);
         }
@@ -56,6 +81,8 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
     static DoubleTensor eye(long n) {
         if (n == 1) {
             return new ScalarDoubleTensor(1.0);
+        } else if (JavaDoubleTensor.isPreferredFor(new long[]{n, n})) {
+            return JavaDoubleTensor.eye(n);
         } else {
             return Nd4jDoubleTensor.eye(n);
         }
@@ -64,12 +91,17 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
     static DoubleTensor zeros(long... shape) {
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarDoubleTensor(0.0);
+        } else if (JavaDoubleTensor.isPreferredFor(shape)) {
+            return JavaDoubleTensor.zeros(shape);
         } else {
             return Nd4jDoubleTensor.zeros(shape);
         }
     }
 
     static DoubleTensor linspace(double start, double end, int numberOfPoints) {
+        if (JavaDoubleTensor.isPreferredFor(new long[]{numberOfPoints})) {
+            return JavaDoubleTensor.linspace(start, end, numberOfPoints);
+        }
         return Nd4jDoubleTensor.linspace(start, end, numberOfPoints);
     }
 
@@ -79,6 +111,9 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
      * @return a vector of numbers from start incrementing by one to end (exclusively)
      */
     static DoubleTensor arange(double start, double end) {
+        if (JavaDoubleTensor.isPreferredFor(new long[]{(long) Math.ceil(end - start)})) {
+            return JavaDoubleTensor.arange(start, end);
+        }
         return Nd4jDoubleTensor.arange(start, end);
     }
 
@@ -89,6 +124,9 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
      * @return a vector of numbers starting at start and stepping to end (exclusively)
      */
     static DoubleTensor arange(double start, double end, double stepSize) {
+        if (JavaDoubleTensor.isPreferredFor(new long[]{(long) Math.ceil((end - start) / stepSize)})) {
+            return JavaDoubleTensor.arange(start, end, stepSize);
+        }
         return Nd4jDoubleTensor.arange(start, end, stepSize);
     }
 
@@ -143,6 +181,17 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
      * DoubleTensor.concat(0, A, B, C) gives DoubleTensor.ones(12, 2)
      */
     static DoubleTensor concat(int dimension, DoubleTensor... toConcat) {
+        long concatLength = 0;
+        boolean anyScalar = false;
+        for (DoubleTensor tensor : toConcat) {
+            concatLength += tensor.getLength();
+            anyScalar |= tensor.getRank() == 0;
+        }
+
+        if (!anyScalar && JavaDoubleTensor.isPreferredForLength(concatLength)) {
+            return JavaDoubleTensor.concat(dimension, toConcat);
+        }
+
         INDArray[] concatAsINDArray = new INDArray[toConcat.length];
         for (int i = 0; i < toConcat.length; i++) {
             concatAsINDArray[i] = Nd4jDoubleTensor.unsafeGetNd4J(toConcat[i]).dup();
@@ -359,4 +408,15 @@ public interface DoubleTensor extends NumberTensor<Double, DoubleTensor>, Double
         return notNaN().not();
     }
 
+    /**
+     * Copies the values of this tensor, in row major order, into part of an array.
+     *
+     * @param destination       the array to copy into
+     * @param destinationOffset the index in destination of the first value
+     */
+    default void copyTo(double[] destination, int destinationOffset) {
+        double[] values = asFlatDoubleArray();
+        System.arraycopy(values, 0, destination, destinationOffset, values.length);
+    }
+
 }
@@ -0,0 +1,1287 @@
+package io.improbable.keanu.tensor.dbl;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.tensor.Tensor;
+import io.improbable.keanu.tensor.TensorShape;
+import io.improbable.keanu.tensor.TensorShapeValidation;
+import io.improbable.keanu.tensor.bool.BooleanTensor;
+import io.improbable.keanu.tensor.intgr.IntegerTensor;
+import io.improbable.keanu.tensor.validate.TensorValidator;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.special.Gamma;
+import org.apache.commons.math3.util.FastMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import static io.improbable.keanu.tensor.TensorShape.getAbsoluteDimension;
+import static io.improbable.keanu.tensor.TensorShapeValidation.getTensorMultiplyResultShape;
+
+/**
+ * Class for representing n-dimensional arrays of doubles. This is backed by a row major double[] and so
+ * avoids the overhead of calling into ND4J, which dominates the cost of operations on small tensors.
+ * <p>
+ * The {@link DoubleTensor} factory methods create a JavaDoubleTensor instead of a {@link Nd4jDoubleTensor}
+ * for tensors with a length of at most {@link #MAX_LENGTH}. This is set with the system property
+ * io.improbable.keanu.tensor.dbl.JavaDoubleTensor.maxLength and defaults to 0, which disables it.
+ */
+public class JavaDoubleTensor implements DoubleTensor {
+
+    public static final long MAX_LENGTH = Long.getLong("io.improbable.keanu.tensor.dbl.JavaDoubleTensor.maxLength", 0L);
+
+    private double[] buffer;
+    private long[] shape;
+    private long[] stride;
+
+    JavaDoubleTensor(double[] buffer, long[] shape) {
+        this.buffer = buffer;
+        this.shape = Arrays.copyOf(shape, shape.length);
+        this.stride = TensorShape.getRowFirstStride(shape);
+    }
+
+    /**
+     * @param shape the shape of the tensor that is going to be created
+     * @return true if the {@link DoubleTensor} factory methods should create a JavaDoubleTensor for this shape
+     */
+    public static boolean isPreferredFor(long[] shape) {
+        return isPreferredForLength(TensorShape.getLength(shape));
+    }
+
+    static boolean isPreferredForLength(long length) {
+        return MAX_LENGTH > 0 && length <= MAX_LENGTH;
+    }
+
+    public static JavaDoubleTensor create(double value, long[] shape) {
+        double[] buffer = new double[TensorShape.getLengthAsInt(shape)];
+        if (value != 0.0) {
+            Arrays.fill(buffer, value);
+        }
+        return new JavaDoubleTensor(buffer, shape);
+    }
+
+    public static JavaDoubleTensor create(double[] values, long[] shape) {
+        if (values.length != TensorShape.getLength(shape)) {
+            throw new IllegalArgumentException(
+                "Cannot create a tensor of shape " + Arrays.toString(shape) + " from " + values.length + " values"
+            );
+        }
+        return new JavaDoubleTensor(Arrays.copyOf(values, values.length), shape);
+    }
+
+    public static JavaDoubleTensor ones(long... shape) {
+        return create(1.0, shape);
+    }
+
+    public static JavaDoubleTensor zeros(long... shape) {
+        return create(0.0, shape);
+    }
+
+    public static JavaDoubleTensor eye(long n) {
+        int size = Math.toIntExact(n);
+        double[] buffer = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            buffer[i * size + i] = 1.0;
+        }
+        return new JavaDoubleTensor(buffer, new long[]{n, n});
+    }
+
+    public static JavaDoubleTensor linspace(double start, double end, int numberOfPoints) {
+        double[] buffer = new double[numberOfPoints];
+        double step = numberOfPoints > 1 ? (end - start) / (numberOfPoints - 1) : 0.0;
+        for (int i = 0; i < numberOfPoints; i++) {
+            buffer[i] = start + i * step;
+        }
+        return new JavaDoubleTensor(buffer, new long[]{numberOfPoints});
+    }
+
+    public static JavaDoubleTensor arange(double start, double end) {
+        return arange(start, end, 1.0);
+    }
+
+    public static JavaDoubleTensor arange(double start, double end, double stepSize) {
+        int stepCount = (int) Math.ceil((end - start) / stepSize);
+        double[] buffer = new double[stepCount];
+        for (int i = 0; i < stepCount; i++) {
+            buffer[i] = start + i * stepSize;
+        }
+        return new JavaDoubleTensor(buffer, new long[]{stepCount});
+    }
+
+    static JavaDoubleTensor concat(int dimension, DoubleTensor... toConcat) {
+        long[] concatShape = TensorShapeValidation.checkShapesCanBeConcatenated(
+            dimension,
+            Arrays.stream(toConcat).map(DoubleTensor::getShape).toArray(long[][]::new)
+        );
+
+        int absoluteDimension = getAbsoluteDimension(dimension, concatShape.length);
+        long outerLength = TensorShape.getLength(Arrays.copyOfRange(concatShape, 0, absoluteDimension));
+
+        double[] buffer = new double[TensorShape.getLengthAsInt(concatShape)];
+        int position = 0;
+        for (int outer = 0; outer < outerLength; outer++) {
+            for (DoubleTensor tensor : toConcat) {
+                long[] tensorShape = tensor.getShape();
+                int blockLength = TensorShape.getLengthAsInt(Arrays.copyOfRange(tensorShape, absoluteDimension, tensorShape.length));
+                System.arraycopy(asBuffer(tensor), outer * blockLength, buffer, position, blockLength);
+                position += blockLength;
+            }
+        }
+
+        return new JavaDoubleTensor(buffer, concatShape);
+    }
+
+    private static double[] asBuffer(DoubleTensor tensor) {
+        if (tensor instanceof JavaDoubleTensor) {
+            return ((JavaDoubleTensor) tensor).buffer;
+        }
+        return tensor.asFlatDoubleArray();
+    }
+
+    @Override
+    public int getRank() {
+        return shape.length;
+    }
+
+    @Override
+    public long[] getShape() {
+        return Arrays.copyOf(shape, shape.length);
+    }
+
+    @Override
+    public long getLength() {
+        return buffer.length;
+    }
+
+    @Override
+    public boolean isShapePlaceholder() {
+        return buffer == null;
+    }
+
+    @Override
+    public Double getValue(long... index) {
+        return buffer[getFlatIndex(index)];
+    }
+
+    @Override
+    public DoubleTensor setValue(Double value, long... index) {
+        buffer[getFlatIndex(index)] = value;
+        return this;
+    }
+
+    private int getFlatIndex(long[] index) {
+        if (index.length == 1) {
+            return Math.toIntExact(index[0]);
+        }
+        TensorShapeValidation.checkIndexIsValid(shape, index);
+        return Math.toIntExact(TensorShape.getFlatIndex(shape, stride, index));
+    }
+
+    @Override
+    public Double scalar() {
+        return buffer[0];
+    }
+
+    @Override
+    public DoubleTensor duplicate() {
+        return copy();
+    }
+
+    private JavaDoubleTensor copy() {
+        return new JavaDoubleTensor(Arrays.copyOf(buffer, buffer.length), shape);
+    }
+
+    @Override
+    public DoubleTensor reshape(long... newShape) {
+        newShape = inferUnknownDimension(newShape);
+        if (TensorShape.getLength(newShape) != buffer.length) {
+            throw new IllegalArgumentException(
+                "Cannot reshape a tensor of shape " + Arrays.toString(shape) + " to " + Arrays.toString(newShape)
+            );
+        }
+        return new JavaDoubleTensor(Arrays.copyOf(buffer, buffer.length), newShape);
+    }
+
+    /**
+     * @return the new shape with a dimension of -1 replaced by whatever length makes the shape match the length of this
+     */
+    private long[] inferUnknownDimension(long[] newShape) {
+        int unknownDimension = ArrayUtils.indexOf(newShape, -1L);
+        if (unknownDimension == ArrayUtils.INDEX_NOT_FOUND) {
+            return newShape;
+        }
+
+        long[] inferredShape = Arrays.copyOf(newShape, newShape.length);
+        inferredShape[unknownDimension] = 1;
+        inferredShape[unknownDimension] = buffer.length / TensorShape.getLength(inferredShape);
+        return inferredShape;
+    }
+
+    @Override
+    public DoubleTensor permute(int... rearrange) {
+        Preconditions.checkArgument(rearrange.length == shape.length, "Cannot permute %s with %s", Arrays.toString(shape), Arrays.toString(rearrange));
+
+        long[] permutedShape = new long[shape.length];
+        long[] strideInSource = new long[shape.length];
+        for (int i = 0; i < rearrange.length; i++) {
+            permutedShape[i] = shape[rearrange[i]];
+            strideInSource[i] = stride[rearrange[i]];
+        }
+
+        double[] permuted = new double[buffer.length];
+        long[] index = new long[shape.length];
+        for (int i = 0; i < permuted.length; i++) {
+            permuted[i] = buffer[TensorShape.getFlatIndexUnchecked(strideInSource, index)];
+            TensorShape.incrementIndex(index, permutedShape);
+        }
+
+        return new JavaDoubleTensor(permuted, permutedShape);
+    }
+
+    @Override
+    public DoubleTensor diag() {
+        if (shape.length == 1 || (shape.length == 2 && (shape[0] == 1 || shape[1] == 1))) {
+            int n = buffer.length;
+            double[] diag = new double[n * n];
+            for (int i = 0; i < n; i++) {
+                diag[i * n + i] = buffer[i];
+            }
+            return new JavaDoubleTensor(diag, new long[]{n, n});
+        } else if (shape.length == 2) {
+            int n = (int) Math.min(shape[0], shape[1]);
+            double[] diag = new double[n];
+            for (int i = 0; i < n; i++) {
+                diag[i] = buffer[(int) (i * stride[0] + i)];
+            }
+            return new JavaDoubleTensor(diag, new long[]{n});
+        } else {
+            throw new IllegalArgumentException("Diag is only valid for vectors and matrices");
+        }
+    }
+
+    @Override
+    public DoubleTensor transpose() {
+        int[] reversed = new int[shape.length];
+        for (int i = 0; i < reversed.length; i++) {
+            reversed[i] = reversed.length - 1 - i;
+        }
+        return permute(reversed);
+    }
+
+    @Override
+    public DoubleTensor sum(int... overDimensions) {
+        if (overDimensions.length == 0) {
+            return duplicate();
+        }
+
+        overDimensions = TensorShape.getAbsoluteDimensions(shape.length, overDimensions);
+        long[] summedShape = ArrayUtils.removeAll(shape, overDimensions);
+        long[] summedStride = TensorShape.getRowFirstStride(summedShape);
+
+        long[] strideInResult = new long[shape.length];
+        for (int i = 0, resultDimension = 0; i < shape.length; i++) {
+            if (!ArrayUtils.contains(overDimensions, i)) {
+                strideInResult[i] = summedStride[resultDimension++];
+            }
+        }
+
+        double[] summed = new double[TensorShape.getLengthAsInt(summedShape)];
+        long[] index = new long[shape.length];
+        for (int i = 0; i < buffer.length; i++) {
+            summed[TensorShape.getFlatIndexUnchecked(strideInResult, index)] += buffer[i];
+            TensorShape.incrementIndex(index, shape);
+        }
+
+        return new JavaDoubleTensor(summed, summedShape);
+    }
+
+    @Override
+    public Double sum() {
+        double sum = 0.0;
+        for (double value : buffer) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Override
+    public DoubleTensor toDouble() {
+        return duplicate();
+    }
+
+    @Override
+    public IntegerTensor toInteger() {
+        return IntegerTensor.create(asFlatIntegerArray(), shape);
+    }
+
+    @Override
+    public DoubleTensor reciprocal() {
+        return duplicate().reciprocalInPlace();
+    }
+
+    @Override
+    public DoubleTensor minus(double value) {
+        return duplicate().minusInPlace(value);
+    }
+
+    @Override
+    public DoubleTensor plus(double value) {
+        return duplicate().plusInPlace(value);
+    }
+
+    @Override
+    public DoubleTensor times(double value) {
+        return duplicate().timesInPlace(value);
+    }
+
+    @Override
+    public DoubleTensor div(double value) {
+        return duplicate().divInPlace(value);
+    }
+
+    @Override
+    public DoubleTensor matrixMultiply(DoubleTensor value) {
+        long[] resultShape = TensorShapeValidation.getMatrixMultiplicationResultingShape(shape, value.getShape());
+        return new JavaDoubleTensor(
+            matrixMultiply(buffer, asBuffer(value), (int) shape[0], (int) shape[1], (int) resultShape[1]),
+            resultShape
+        );
+    }
+
+    private static double[] matrixMultiply(double[] left, double[] right, int rows, int inner, int columns) {
+        double[] result = new double[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < inner; k++) {
+                double leftValue = left[i * inner + k];
+                if (leftValue != 0.0) {
+                    for (int j = 0; j < columns; j++) {
+                        result[i * columns + j] += leftValue * right[k * columns + j];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Contracts the dimsLeft of this with the dimsRight of value by permuting the contracted dimensions to be
+     * adjacent and then doing a matrix multiply.
+     */
+    @Override
+    public DoubleTensor tensorMultiply(DoubleTensor value, int[] dimsLeft, int[] dimsRight) {
+        long[] rightShape = value.getShape();
+        long[] resultShape = getTensorMultiplyResultShape(shape, rightShape, dimsLeft, dimsRight);
+
+        int[] freeLeft = freeDimensions(shape.length, dimsLeft);
+        int[] freeRight = freeDimensions(rightShape.length, dimsRight);
+
+        int contractedLength = 1;
+        for (int dimension : dimsLeft) {
+            contractedLength *= (int) shape[dimension];
+        }
+
+        DoubleTensor left = permute(ArrayUtils.addAll(freeLeft, dimsLeft));
+        DoubleTensor right = JavaDoubleTensor.create(asBuffer(value), rightShape).permute(ArrayUtils.addAll(dimsRight, freeRight));
+
+        int rows = buffer.length / contractedLength;
+        int columns = (int) value.getLength() / contractedLength;
+
+        return new JavaDoubleTensor(
+            matrixMultiply(asBuffer(left), asBuffer(right), rows, contractedLength, columns),
+            resultShape
+        );
+    }
+
+    private static int[] freeDimensions(int rank, int[] contracted) {
+        int[] free = new int[rank - contracted.length];
+        for (int i = 0, j = 0; i < rank; i++) {
+            if (!ArrayUtils.contains(contracted, i)) {
+                free[j++] = i;
+            }
+        }
+        return free;
+    }
+
+    @Override
+    public DoubleTensor pow(DoubleTensor exponent) {
+        return duplicate().powInPlace(exponent);
+    }
+
+    @Override
+    public DoubleTensor pow(double exponent) {
+        return duplicate().powInPlace(exponent);
+    }
+
+    @Override
+    public DoubleTensor sqrt() {
+        return duplicate().sqrtInPlace();
+    }
+
+    @Override
+    public DoubleTensor log() {
+        return duplicate().logInPlace();
+    }
+
+    @Override
+    public DoubleTensor safeLogTimes(DoubleTensor y) {
+        return duplicate().safeLogTimesInPlace(y);
+    }
+
+    @Override
+    public DoubleTensor logGamma() {
+        return duplicate().logGammaInPlace();
+    }
+
+    @Override
+    public DoubleTensor digamma() {
+        return duplicate().digammaInPlace();
+    }
+
+    @Override
+    public DoubleTensor sin() {
+        return duplicate().sinInPlace();
+    }
+
+    @Override
+    public DoubleTensor cos() {
+        return duplicate().cosInPlace();
+    }
+
+    @Override
+    public DoubleTensor tan() {
+        return duplicate().tanInPlace();
+    }
+
+    @Override
+    public DoubleTensor atan() {
+        return duplicate().atanInPlace();
+    }
+
+    @Override
+    public DoubleTensor atan2(double y) {
+        return duplicate().atan2InPlace(y);
+    }
+
+    @Override
+    public DoubleTensor atan2(DoubleTensor y) {
+        return duplicate().atan2InPlace(y);
+    }
+
+    @Override
+    public DoubleTensor asin() {
+        return duplicate().asinInPlace();
+    }
+
+    @Override
+    public DoubleTensor acos() {
+        return duplicate().acosInPlace();
+    }
+
+    @Override
+    public DoubleTensor exp() {
+        return duplicate().expInPlace();
+    }
+
+    @Override
+    public DoubleTensor minus(DoubleTensor that) {
+        return duplicate().minusInPlace(that);
+    }
+
+    @Override
+    public DoubleTensor plus(DoubleTensor that) {
+        return duplicate().plusInPlace(that);
+    }
+
+    @Override
+    public DoubleTensor times(DoubleTensor that) {
+        return duplicate().timesInPlace(that);
+    }
+
+    @Override
+    public DoubleTensor div(DoubleTensor that) {
+        return duplicate().divInPlace(that);
+    }
+
+    @Override
+    public DoubleTensor unaryMinus() {
+        return duplicate().unaryMinusInPlace();
+    }
+
+    @Override
+    public DoubleTensor abs() {
+        return duplicate().absInPlace();
+    }
+
+    @Override
+    public DoubleTensor matrixInverse() {
+        Preconditions.checkArgument(isMatrix(), "Matrix inverse on non-matrix not allowed");
+        RealMatrix inverse = new LUDecomposition(asRealMatrix()).getSolver().getInverse();
+        return fromRealMatrix(inverse);
+    }
+
+    @Override
+    public double max() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : buffer) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    @Override
+    public double min() {
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : buffer) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    @Override
+    public int argMax() {
+        int argMax = 0;
+        for (int i = 1; i < buffer.length; i++) {
+            if (buffer[i] > buffer[argMax]) {
+                argMax = i;
+            }
+        }
+        return argMax;
+    }
+
+    @Override
+    public IntegerTensor argMax(int axis) {
+        TensorShapeValidation.checkDimensionExistsInShape(axis, shape);
+        long[] resultShape = TensorShape.removeDimension(axis, shape);
+        long[] resultStride = TensorShape.getRowFirstStride(resultShape);
+
+        long[] strideInResult = new long[shape.length];
+        for (int i = 0, resultDimension = 0; i < shape.length; i++) {
+            if (i != axis) {
+                strideInResult[i] = resultStride[resultDimension++];
+            }
+        }
+
+        int[] argMax = new int[TensorShape.getLengthAsInt(resultShape)];
+        double[] max = new double[argMax.length];
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+
+        long[] index = new long[shape.length];
+        for (int i = 0; i < buffer.length; i++) {
+            int resultIndex = TensorShape.getFlatIndexUnchecked(strideInResult, index);
+            if (buffer[i] > max[resultIndex]) {
+                max[resultIndex] = buffer[i];
+                argMax[resultIndex] = (int) index[axis];
+            }
+            TensorShape.incrementIndex(index, shape);
+        }
+
+        return IntegerTensor.create(argMax, resultShape);
+    }
+
+    @Override
+    public double average() {
+        return sum() / buffer.length;
+    }
+
+    /**
+     * @return the bias corrected standard deviation of all elements of the tensor
+     */
+    @Override
+    public double standardDeviation() {
+        double average = average();
+        double sumOfSquares = 0.0;
+        for (double value : buffer) {
+            sumOfSquares += (value - average) * (value - average);
+        }
+        return Math.sqrt(sumOfSquares / (buffer.length - 1));
+    }
+
+    @Override
+    public boolean equalsWithinEpsilon(DoubleTensor o, double epsilon) {
+        if (this == o) return true;
+        if (!this.hasSameShapeAs(o)) return false;
+
+        double[] other = asBuffer(o);
+        for (int i = 0; i < buffer.length; i++) {
+            if (!(Math.abs(buffer[i] - other[i]) <= epsilon)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public DoubleTensor standardize() {
+        return duplicate().standardizeInPlace();
+    }
+
+    @Override
+    public DoubleTensor replaceNaN(double value) {
+        return duplicate().replaceNaNInPlace(value);
+    }
+
+    @Override
+    public DoubleTensor clamp(DoubleTensor min, DoubleTensor max) {
+        return duplicate().clampInPlace(min, max);
+    }
+
+    @Override
+    public DoubleTensor ceil() {
+        return duplicate().ceilInPlace();
+    }
+
+    @Override
+    public DoubleTensor floor() {
+        return duplicate().floorInPlace();
+    }
+
+    @Override
+    public DoubleTensor round() {
+        return duplicate().roundInPlace();
+    }
+
+    @Override
+    public DoubleTensor sigmoid() {
+        return duplicate().sigmoidInPlace();
+    }
+
+    /**
+     * @return the upper triangular matrix U where U^T * U is this. This is the same triangle as
+     * {@link Nd4jDoubleTensor#choleskyDecomposition()} returns.
+     */
+    @Override
+    public DoubleTensor choleskyDecomposition() {
+        return fromRealMatrix(new CholeskyDecomposition(asRealMatrix()).getLT());
+    }
+
+    @Override
+    public double determinant() {
+        return new LUDecomposition(asRealMatrix()).getDeterminant();
+    }
+
+    private RealMatrix asRealMatrix() {
+        Preconditions.checkArgument(isMatrix(), "Expected a matrix but got shape %s", Arrays.toString(shape));
+        int rows = (int) shape[0];
+        int columns = (int) shape[1];
+        double[][] matrix = new double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(buffer, i * columns, matrix[i], 0, columns);
+        }
+        return new Array2DRowRealMatrix(matrix, false);
+    }
+
+    private static JavaDoubleTensor fromRealMatrix(RealMatrix matrix) {
+        int rows = matrix.getRowDimension();
+        int columns = matrix.getColumnDimension();
+        double[] buffer = new double[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(matrix.getRow(i), 0, buffer, i * columns, columns);
+        }
+        return new JavaDoubleTensor(buffer, new long[]{rows, columns});
+    }
+
+    @Override
+    public double product() {
+        double product = 1.0;
+        for (double value : buffer) {
+            product *= value;
+        }
+        return product;
+    }
+
+    @Override
+    public DoubleTensor slice(int dimension, long index) {
+        Preconditions.checkArgument(dimension < shape.length && index < shape[dimension], "Slice is out of bounds");
+
+        if (shape.length <= 1) {
+            return new JavaDoubleTensor(new double[]{buffer[(int) index]}, Tensor.SCALAR_SHAPE);
+        }
+
+        long[] slicedShape = ArrayUtils.remove(shape, dimension);
+        int innerLength = (int) stride[dimension];
+        int outerLength = TensorShape.getLengthAsInt(Arrays.copyOfRange(shape, 0, dimension));
+
+        double[] sliced = new double[outerLength * innerLength];
+        for (int outer = 0; outer < outerLength; outer++) {
+            int from = (int) (outer * shape[dimension] * innerLength + index * innerLength);
+            System.arraycopy(buffer, from, sliced, outer * innerLength, innerLength);
+        }
+
+        return new JavaDoubleTensor(sliced, slicedShape);
+    }
+
+    @Override
+    public List<DoubleTensor> split(int dimension, long... splitAtIndices) {
+        dimension = getAbsoluteDimension(dimension, getRank());
+
+        if (dimension < 0 || dimension >= shape.length) {
+            throw new IllegalArgumentException("Invalid dimension to split on " + dimension);
+        }
+
+        int innerLength = (int) stride[dimension];
+        int outerLength = TensorShape.getLengthAsInt(Arrays.copyOfRange(shape, 0, dimension));
+
+        List<DoubleTensor> splits = new ArrayList<>();
+        long previousSplitIndex = 0;
+        for (long splitAtIndex : splitAtIndices) {
+
+            if (previousSplitIndex == splitAtIndex) {
+                throw new IllegalArgumentException("Invalid index to split on " + splitAtIndex + " at dimension " + dimension + " for tensor of shape " + Arrays.toString(shape));
+            }
+
+            long[] splitShape = getShape();
+            splitShape[dimension] = splitAtIndex - previousSplitIndex;
+            int blockLength = (int) splitShape[dimension] * innerLength;
+
+            double[] split = new double[outerLength * blockLength];
+            for (int outer = 0; outer < outerLength; outer++) {
+                int from = (int) (outer * shape[dimension] * innerLength + previousSplitIndex * innerLength);
+                System.arraycopy(buffer, from, split, outer * blockLength, blockLength);
+            }
+
+            splits.add(new JavaDoubleTensor(split, splitShape));
+            previousSplitIndex = splitAtIndex;
+        }
+
+        return splits;
+    }
+
+    // In place Ops and Transforms
+
+    private JavaDoubleTensor applyElementwiseInPlace(DoubleUnaryOperator function) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = function.applyAsDouble(buffer[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Applies the operation elementwise with numpy style broadcasting. If the result is larger than this
+     * then this takes on the shape of the result.
+     */
+    private JavaDoubleTensor broadcastableBinaryOpInPlace(DoubleTensor that, DoubleBinaryOperator op) {
+        long[] thatShape = that.getShape();
+        double[] thatBuffer = asBuffer(that);
+
+        if (Arrays.equals(shape, thatShape)) {
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = op.applyAsDouble(buffer[i], thatBuffer[i]);
+            }
+        } else if (thatBuffer.length == 1) {
+            double thatValue = thatBuffer[0];
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = op.applyAsDouble(buffer[i], thatValue);
+            }
+            setShape(TensorShape.getBroadcastResultShape(shape, thatShape));
+        } else {
+            long[] resultShape = TensorShape.getBroadcastResultShape(shape, thatShape);
+            buffer = broadcastBinaryOp(buffer, shape, thatBuffer, thatShape, resultShape, op);
+            setShape(resultShape);
+        }
+
+        return this;
+    }
+
+    private void setShape(long[] newShape) {
+        if (!Arrays.equals(shape, newShape)) {
+            this.shape = Arrays.copyOf(newShape, newShape.length);
+            this.stride = TensorShape.getRowFirstStride(newShape);
+        }
+    }
+
+    private static double[] broadcastBinaryOp(double[] left, long[] leftShape,
+                                              double[] right, long[] rightShape,
+                                              long[] resultShape, DoubleBinaryOperator op) {
+
+        long[] leftStride = TensorShape.getBroadcastStride(leftShape, resultShape);
+        long[] rightStride = TensorShape.getBroadcastStride(rightShape, resultShape);
+
+        double[] result = new double[TensorShape.getLengthAsInt(resultShape)];
+        long[] index = new long[resultShape.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = op.applyAsDouble(
+                left[TensorShape.getFlatIndexUnchecked(leftStride, index)],
+                right[TensorShape.getFlatIndexUnchecked(rightStride, index)]
+            );
+            TensorShape.incrementIndex(index, resultShape);
+        }
+
+        return result;
+    }
+
+    @Override
+    public DoubleTensor reciprocalInPlace() {
+        return applyElementwiseInPlace(x -> 1.0 / x);
+    }
+
+    @Override
+    public DoubleTensor minusInPlace(double value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] -= value;
+        }
+        return this;
+    }
+
+    @Override
+    public DoubleTensor plusInPlace(double value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] += value;
+        }
+        return this;
+    }
+
+    @Override
+    public DoubleTensor timesInPlace(double value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] *= value;
+        }
+        return this;
+    }
+
+    @Override
+    public DoubleTensor divInPlace(double value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] /= value;
+        }
+        return this;
+    }
+
+    @Override
+    public DoubleTensor powInPlace(double exponent) {
+        return applyElementwiseInPlace(x -> FastMath.pow(x, exponent));
+    }
+
+    @Override
+    public DoubleTensor sqrtInPlace() {
+        return applyElementwiseInPlace(Math::sqrt);
+    }
+
+    @Override
+    public DoubleTensor logInPlace() {
+        return applyElementwiseInPlace(Math::log);
+    }
+
+    /**
+     * This is identical to log().times(y), except that it changes NaN results to 0.
+     * This is important when calculating 0log0, which should return 0
+     * See https://arcsecond.wordpress.com/2009/03/19/0log0-0-for-real/ for some mathematical justification
+     *
+     * @param y The tensor value to multiply by
+     * @return the log of this tensor multiplied by y
+     */
+    @Override
+    public DoubleTensor safeLogTimesInPlace(DoubleTensor y) {
+        TensorValidator.NAN_CATCHER.validate(this);
+        TensorValidator.NAN_CATCHER.validate(y);
+        DoubleTensor result = this.logInPlace().timesInPlace(y);
+        return TensorValidator.NAN_FIXER.validate(result);
+    }
+
+    @Override
+    public DoubleTensor logGammaInPlace() {
+        return applyElementwiseInPlace(Gamma::logGamma);
+    }
+
+    @Override
+    public DoubleTensor digammaInPlace() {
+        return applyElementwiseInPlace(Gamma::digamma);
+    }
+
+    @Override
+    public DoubleTensor sinInPlace() {
+        return applyElementwiseInPlace(Math::sin);
+    }
+
+    @Override
+    public DoubleTensor cosInPlace() {
+        return applyElementwiseInPlace(Math::cos);
+    }
+
+    @Override
+    public DoubleTensor tanInPlace() {
+        return applyElementwiseInPlace(Math::tan);
+    }
+
+    @Override
+    public DoubleTensor atanInPlace() {
+        return applyElementwiseInPlace(Math::atan);
+    }
+
+    @Override
+    public DoubleTensor atan2InPlace(double y) {
+        return applyElementwiseInPlace(x -> Math.atan2(y, x));
+    }
+
+    @Override
+    public DoubleTensor atan2InPlace(DoubleTensor y) {
+        return broadcastableBinaryOpInPlace(y, (x, yValue) -> Math.atan2(yValue, x));
+    }
+
+    @Override
+    public DoubleTensor asinInPlace() {
+        return applyElementwiseInPlace(Math::asin);
+    }
+
+    @Override
+    public DoubleTensor acosInPlace() {
+        return applyElementwiseInPlace(Math::acos);
+    }
+
+    @Override
+    public DoubleTensor expInPlace() {
+        return applyElementwiseInPlace(Math::exp);
+    }
+
+    @Override
+    public DoubleTensor minInPlace(DoubleTensor min) {
+        return broadcastableBinaryOpInPlace(min, Math::min);
+    }
+
+    @Override
+    public DoubleTensor maxInPlace(DoubleTensor max) {
+        return broadcastableBinaryOpInPlace(max, Math::max);
+    }
+
+    @Override
+    public DoubleTensor clampInPlace(DoubleTensor min, DoubleTensor max) {
+        return minInPlace(max).maxInPlace(min);
+    }
+
+    @Override
+    public DoubleTensor ceilInPlace() {
+        return applyElementwiseInPlace(Math::ceil);
+    }
+
+    @Override
+    public DoubleTensor floorInPlace() {
+        return applyElementwiseInPlace(Math::floor);
+    }
+
+    /**
+     * Note that we have modified the native Java behaviour to match Python (and therefore ND4J) behaviour
+     * Which rounds negative numbers down if they end in 0.5
+     * e.g.
+     * Java: round(-2.5) == -2.0
+     * Python: round(-2.5) == -3.0
+     *
+     * @return Nearest integer value as a DoubleTensor
+     */
+    @Override
+    public DoubleTensor roundInPlace() {
+        return applyElementwiseInPlace(x -> {
+            double valueToRound = x;
+            if (x < 0. && x + 0.5 == (double) (long) x) {
+                valueToRound -= 1.;
+            }
+            return (double) Math.round(valueToRound);
+        });
+    }
+
+    @Override
+    public DoubleTensor sigmoidInPlace() {
+        return applyElementwiseInPlace(x -> 1.0D / (1.0D + FastMath.exp(-x)));
+    }
+
+    @Override
+    public DoubleTensor standardizeInPlace() {
+        double average = average();
+        double standardDeviation = standardDeviation();
+        return applyElementwiseInPlace(x -> (x - average) / standardDeviation);
+    }
+
+    @Override
+    public DoubleTensor replaceNaNInPlace(double value) {
+        return applyElementwiseInPlace(x -> Double.isNaN(x) ? value : x);
+    }
+
+    @Override
+    public DoubleTensor setAllInPlace(double value) {
+        Arrays.fill(buffer, value);
+        return this;
+    }
+
+    @Override
+    public DoubleTensor minusInPlace(DoubleTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a - b);
+    }
+
+    @Override
+    public DoubleTensor plusInPlace(DoubleTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a + b);
+    }
+
+    @Override
+    public DoubleTensor timesInPlace(DoubleTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a * b);
+    }
+
+    @Override
+    public DoubleTensor divInPlace(DoubleTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a / b);
+    }
+
+    @Override
+    public DoubleTensor powInPlace(DoubleTensor exponent) {
+        return broadcastableBinaryOpInPlace(exponent, FastMath::pow);
+    }
+
+    @Override
+    public DoubleTensor unaryMinusInPlace() {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = -buffer[i];
+        }
+        return this;
+    }
+
+    @Override
+    public DoubleTensor absInPlace() {
+        return applyElementwiseInPlace(Math::abs);
+    }
+
+    @Override
+    public DoubleTensor apply(Function<Double, Double> function) {
+        return duplicate().applyInPlace(function);
+    }
+
+    @Override
+    public DoubleTensor applyInPlace(Function<Double, Double> function) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = function.apply(buffer[i]);
+        }
+        return this;
+    }
+
+    // Masks
+
+    private DoubleTensor getMask(DoubleTensor that, DoubleBinaryPredicate predicate) {
+        return copy().broadcastableBinaryOpInPlace(that, (a, b) -> predicate.test(a, b) ? 1.0 : 0.0);
+    }
+
+    @Override
+    public DoubleTensor getGreaterThanMask(DoubleTensor greaterThanThis) {
+        return getMask(greaterThanThis, (a, b) -> a > b);
+    }
+
+    @Override
+    public DoubleTensor getGreaterThanOrEqualToMask(DoubleTensor greaterThanOrEqualToThis) {
+        return getMask(greaterThanOrEqualToThis, (a, b) -> a >= b);
+    }
+
+    @Override
+    public DoubleTensor getLessThanMask(DoubleTensor lessThanThis) {
+        return getMask(lessThanThis, (a, b) -> a < b);
+    }
+
+    @Override
+    public DoubleTensor getLessThanOrEqualToMask(DoubleTensor lessThanOrEqualToThis) {
+        return getMask(lessThanOrEqualToThis, (a, b) -> a <= b);
+    }
+
+    @Override
+    public DoubleTensor setWithMaskInPlace(DoubleTensor mask, Double value) {
+        if (this.getLength() != mask.getLength()) {
+            throw new IllegalArgumentException("The lengths of the tensor and mask must match, but got tensor length: " + this.getLength() + ", mask length: " + mask.getLength());
+        }
+
+        double[] maskBuffer = asBuffer(mask);
+        for (int i = 0; i < buffer.length; i++) {
+            if (maskBuffer[i] == 1.0) {
+                buffer[i] = value;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public DoubleTensor setWithMask(DoubleTensor mask, Double value) {
+        return duplicate().setWithMaskInPlace(mask, value);
+    }
+
+    // Comparisons
+
+    private BooleanTensor compare(double value, DoublePredicateOfValue predicate) {
+        boolean[] result = new boolean[buffer.length];
+        for (int i = 0; i < buffer.length; i++) {
+            result[i] = predicate.test(buffer[i], value);
+        }
+        return BooleanTensor.create(result, getShape());
+    }
+
+    private BooleanTensor compare(DoubleTensor that, DoubleBinaryPredicate predicate) {
+        DoubleTensor mask = getMask(that, predicate);
+        double[] maskBuffer = asBuffer(mask);
+
+        boolean[] result = new boolean[maskBuffer.length];
+        for (int i = 0; i < maskBuffer.length; i++) {
+            result[i] = maskBuffer[i] != 0.0;
+        }
+        return BooleanTensor.create(result, mask.getShape());
+    }
+
+    @Override
+    public BooleanTensor lessThan(double value) {
+        return compare(value, (a, b) -> a < b);
+    }
+
+    @Override
+    public BooleanTensor lessThanOrEqual(double value) {
+        return compare(value, (a, b) -> a <= b);
+    }
+
+    @Override
+    public BooleanTensor greaterThan(double value) {
+        return compare(value, (a, b) -> a > b);
+    }
+
+    @Override
+    public BooleanTensor greaterThanOrEqual(double value) {
+        return compare(value, (a, b) -> a >= b);
+    }
+
+    @Override
+    public BooleanTensor lessThan(DoubleTensor value) {
+        return compare(value, (a, b) -> a < b);
+    }
+
+    @Override
+    public BooleanTensor lessThanOrEqual(DoubleTensor value) {
+        return compare(value, (a, b) -> a <= b);
+    }
+
+    @Override
+    public BooleanTensor greaterThan(DoubleTensor value) {
+        return compare(value, (a, b) -> a > b);
+    }
+
+    @Override
+    public BooleanTensor greaterThanOrEqual(DoubleTensor value) {
+        return compare(value, (a, b) -> a >= b);
+    }
+
+    @Override
+    public BooleanTensor notNaN() {
+        return compare(0.0, (a, b) -> !Double.isNaN(a));
+    }
+
+    @Override
+    public BooleanTensor elementwiseEquals(Tensor that) {
+        if (that instanceof DoubleTensor) {
+            return compare((DoubleTensor) that, (a, b) -> a == b);
+        } else {
+            return Tensor.elementwiseEquals(this, that);
+        }
+    }
+
+    @Override
+    public BooleanTensor elementwiseEquals(Double value) {
+        return compare(value, (a, b) -> a == b);
+    }
+
+    @FunctionalInterface
+    private interface DoubleBinaryPredicate {
+        boolean test(double a, double b);
+    }
+
+    @FunctionalInterface
+    private interface DoublePredicateOfValue {
+        boolean test(double element, double value);
+    }
+
+    @Override
+    public FlattenedView<Double> getFlattenedView() {
+        return new JavaDoubleFlattenedView();
+    }
+
+    @Override
+    public double[] asFlatDoubleArray() {
+        return Arrays.copyOf(buffer, buffer.length);
+    }
+
+    @Override
+    public void copyTo(double[] destination, int destinationOffset) {
+        System.arraycopy(buffer, 0, destination, destinationOffset, buffer.length);
+    }
+
+    @Override
+    public int[] asFlatIntegerArray() {
+        int[] integers = new int[buffer.length];
+        for (int i = 0; i < buffer.length; i++) {
+            integers[i] = (int) buffer[i];
+        }
+        return integers;
+    }
+
+    @Override
+    public Double[] asFlatArray() {
+        return ArrayUtils.toObject(buffer);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Tensor)) return false;
+
+        Tensor that = (Tensor) o;
+        if (!Arrays.equals(that.getShape(), shape)) return false;
+
+        if (that instanceof DoubleTensor) {
+            double[] thatBuffer = asBuffer((DoubleTensor) that);
+            for (int i = 0; i < buffer.length; i++) {
+                if (buffer[i] != thatBuffer[i] && !(Double.isNaN(buffer[i]) && Double.isNaN(thatBuffer[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return Arrays.equals(that.asFlatArray(), asFlatArray());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(buffer);
+        result = 31 * result + Arrays.hashCode(shape);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "{\n" +
+            "data = " + Arrays.toString(buffer) +
+            "\nshape = " + Arrays.toString(shape) +
+            "\n}";
+    }
+
+    private class JavaDoubleFlattenedView implements FlattenedView<Double> {
+
+        @Override
+        public long size() {
+            return buffer.length;
+        }
+
+        @Override
+        public Double get(long index) {
+            return buffer[Math.toIntExact(index)];
+        }
+
+        @Override
+        public Double getOrScalar(long index) {
+            if (buffer.length == 1) {
+                return buffer[0];
+            } else {
+                return get(index);
+            }
+        }
+
+        @Override
+        public void set(long index, Double value) {
+            buffer[Math.toIntExact(index)] = value;
+        }
+    }
+}
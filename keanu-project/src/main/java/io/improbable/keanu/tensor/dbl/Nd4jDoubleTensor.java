@@ -9,7 +9,6 @@ import io.improbable.keanu.tensor.TypedINDArrayFactory;
 import io.improbable.keanu.tensor.bool.BooleanTensor;
 import io.improbable.keanu.tensor.bool.SimpleBooleanTensor;
 import io.improbable.keanu.tensor.intgr.IntegerTensor;
-import io.improbable.keanu.tensor.intgr.Nd4jIntegerTensor;
 import io.improbable.keanu.tensor.validate.TensorValidator;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
@@ -70,6 +69,10 @@ public class Nd4jDoubleTensor implements DoubleTensor {
         return new Nd4jDoubleTensor(values, shape);
     }
 
+    static Nd4jDoubleTensor fromSlice(double[] values, int offset, long[] shape) {
+        return new Nd4jDoubleTensor(TypedINDArrayFactory.createFromSlice(values, offset, shape, BUFFER_TYPE));
+    }
+
     public static Nd4jDoubleTensor create(double value, long[] shape) {
         return new Nd4jDoubleTensor(valueArrayOf(shape, value, BUFFER_TYPE));
     }
@@ -104,7 +107,10 @@ public class Nd4jDoubleTensor implements DoubleTensor {
         if (that.isLengthOne()) {
             return TypedINDArrayFactory.scalar(that.scalar(), BUFFER_TYPE).reshape(that.getShape());
         }
-        return ((Nd4jDoubleTensor) that).tensor;
+        if (that instanceof Nd4jDoubleTensor) {
+            return ((Nd4jDoubleTensor) that).tensor;
+        }
+        return TypedINDArrayFactory.create(that.asFlatDoubleArray(), that.getShape(), BUFFER_TYPE);
     }
 
     @Override
@@ -206,8 +212,8 @@ public class Nd4jDoubleTensor implements DoubleTensor {
     public IntegerTensor argMax(int axis) {
         long[] shape = this.getShape();
         TensorShapeValidation.checkDimensionExistsInShape(axis, shape);
-        INDArray max = tensor.argMax(axis).reshape(TensorShape.removeDimension(axis, shape));
-        return new Nd4jIntegerTensor(max);
+        INDArray max = tensor.argMax(axis);
+        return IntegerTensor.create(max.data().asInt(), TensorShape.removeDimension(axis, shape));
     }
 
     @Override
@@ -1107,7 +1113,7 @@ public class Nd4jDoubleTensor implements DoubleTensor {
 
     @Override
     public IntegerTensor toInteger() {
-        return new Nd4jIntegerTensor(INDArrayExtensions.castToInteger(tensor, true));
+        return IntegerTensor.create(INDArrayExtensions.castToInteger(tensor, true).data().asInt(), getShape());
     }
 
     private BooleanTensor fromMask(INDArray mask, long[] shape) {
@@ -1125,6 +1131,15 @@ public class Nd4jDoubleTensor implements DoubleTensor {
         return tensor.dup().data().asDouble();
     }
 
+    @Override
+    public void copyTo(double[] destination, int destinationOffset) {
+        if (tensor.isView() || tensor.ordering() != 'c') {
+            DoubleTensor.super.copyTo(destination, destinationOffset);
+            return;
+        }
+        tensor.data().asNioDouble().get(destination, destinationOffset, checkedCast(tensor.length()));
+    }
+
     @Override
     public int[] asFlatIntegerArray() {
         return tensor.dup().data().asInt();
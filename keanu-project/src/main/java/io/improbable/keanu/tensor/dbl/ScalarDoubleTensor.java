@@ -842,6 +842,11 @@ public class ScalarDoubleTensor implements DoubleTensor {
         return new double[]{value};
     }
 
+    @Override
+    public void copyTo(double[] destination, int destinationOffset) {
+        destination[destinationOffset] = value;
+    }
+
     @Override
     public int[] asFlatIntegerArray() {
         return new int[]{value.intValue()};
@@ -5,8 +5,6 @@ import io.improbable.keanu.tensor.NumberTensor;
 import io.improbable.keanu.tensor.Tensor;
 import io.improbable.keanu.tensor.bool.BooleanTensor;
 import org.apache.commons.lang3.ArrayUtils;
-import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
 
 import java.util.Arrays;
 import java.util.function.Function;
@@ -25,7 +23,7 @@ public interface IntegerTensor extends NumberTensor<Integer, IntegerTensor>, Int
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarIntegerTensor(value);
         } else {
-            return Nd4jIntegerTensor.create(value, shape);
+            return JavaIntegerTensor.create(value, shape);
         }
     }
 
@@ -33,7 +31,7 @@ public interface IntegerTensor extends NumberTensor<Integer, IntegerTensor>, Int
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE) && values.length == 1) {
             return new ScalarIntegerTensor(values[0]);
         } else {
-            return Nd4jIntegerTensor.create(values, shape);
+            return JavaIntegerTensor.create(values, shape);
         }
     }
 
@@ -45,7 +43,7 @@ public interface IntegerTensor extends NumberTensor<Integer, IntegerTensor>, Int
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarIntegerTensor(1);
         } else {
-            return Nd4jIntegerTensor.ones(shape);
+            return JavaIntegerTensor.ones(shape);
         }
     }
 
@@ -53,7 +51,7 @@ public interface IntegerTensor extends NumberTensor<Integer, IntegerTensor>, Int
         if (n == 1) {
             return new ScalarIntegerTensor(1);
         } else {
-            return Nd4jIntegerTensor.eye(n);
+            return JavaIntegerTensor.eye(n);
         }
     }
 
@@ -61,7 +59,7 @@ public interface IntegerTensor extends NumberTensor<Integer, IntegerTensor>, Int
         if (Arrays.equals(shape, Tensor.SCALAR_SHAPE)) {
             return new ScalarIntegerTensor(0);
         } else {
-            return Nd4jIntegerTensor.zeros(shape);
+            return JavaIntegerTensor.zeros(shape);
         }
     }
 
@@ -115,15 +113,7 @@ public interface IntegerTensor extends NumberTensor<Integer, IntegerTensor>, Int
      * IntegerTensor.concat(0, A, B, C) gives IntegerTensor.ones(12, 2)
      */
     static IntegerTensor concat(int dimension, IntegerTensor... toConcat) {
-        INDArray[] concatAsINDArray = new INDArray[toConcat.length];
-        for (int i = 0; i < toConcat.length; i++) {
-            concatAsINDArray[i] = Nd4jIntegerTensor.unsafeGetNd4J(toConcat[i]).dup();
-            if (concatAsINDArray[i].shape().length == 0) {
-                concatAsINDArray[i] = concatAsINDArray[i].reshape(1);
-            }
-        }
-        INDArray concat = Nd4j.concat(dimension, concatAsINDArray);
-        return new Nd4jIntegerTensor(concat);
+        return JavaIntegerTensor.concat(dimension, toConcat);
     }
 
     static IntegerTensor min(IntegerTensor a, IntegerTensor b) {
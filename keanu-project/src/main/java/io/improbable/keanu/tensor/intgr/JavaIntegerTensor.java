@@ -0,0 +1,842 @@
+package io.improbable.keanu.tensor.intgr;
+
+import com.google.common.base.Preconditions;
+import io.improbable.keanu.tensor.Tensor;
+import io.improbable.keanu.tensor.TensorShape;
+import io.improbable.keanu.tensor.TensorShapeValidation;
+import io.improbable.keanu.tensor.bool.BooleanTensor;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+import static io.improbable.keanu.tensor.TensorShape.getAbsoluteDimension;
+import static io.improbable.keanu.tensor.TensorShapeValidation.getTensorMultiplyResultShape;
+
+/**
+ * Class for representing n-dimensional arrays of integers. This is backed by a row major int[] so
+ * arithmetic and comparisons are done on ints rather than on doubles in an ND4J buffer.
+ * <p>
+ * This is what the {@link IntegerTensor} factory methods create for any tensor that isn't a scalar.
+ */
+public class JavaIntegerTensor implements IntegerTensor {
+
+    private int[] buffer;
+    private long[] shape;
+    private long[] stride;
+
+    JavaIntegerTensor(int[] buffer, long[] shape) {
+        this.buffer = buffer;
+        this.shape = Arrays.copyOf(shape, shape.length);
+        this.stride = TensorShape.getRowFirstStride(shape);
+    }
+
+    public static JavaIntegerTensor create(int value, long[] shape) {
+        int[] buffer = new int[TensorShape.getLengthAsInt(shape)];
+        if (value != 0) {
+            Arrays.fill(buffer, value);
+        }
+        return new JavaIntegerTensor(buffer, shape);
+    }
+
+    public static JavaIntegerTensor create(int[] values, long[] shape) {
+        if (values.length != TensorShape.getLength(shape)) {
+            throw new IllegalArgumentException(
+                "Cannot create a tensor of shape " + Arrays.toString(shape) + " from " + values.length + " values"
+            );
+        }
+        return new JavaIntegerTensor(Arrays.copyOf(values, values.length), shape);
+    }
+
+    public static JavaIntegerTensor ones(long... shape) {
+        return create(1, shape);
+    }
+
+    public static JavaIntegerTensor zeros(long... shape) {
+        return create(0, shape);
+    }
+
+    public static JavaIntegerTensor eye(long n) {
+        int size = Math.toIntExact(n);
+        int[] buffer = new int[size * size];
+        for (int i = 0; i < size; i++) {
+            buffer[i * size + i] = 1;
+        }
+        return new JavaIntegerTensor(buffer, new long[]{n, n});
+    }
+
+    static JavaIntegerTensor concat(int dimension, IntegerTensor... toConcat) {
+        long[][] shapes = new long[toConcat.length][];
+        for (int i = 0; i < toConcat.length; i++) {
+            shapes[i] = toConcat[i].getRank() == 0 ? new long[]{1} : toConcat[i].getShape();
+        }
+
+        long[] concatShape = TensorShapeValidation.checkShapesCanBeConcatenated(dimension, shapes);
+        int absoluteDimension = getAbsoluteDimension(dimension, concatShape.length);
+        long outerLength = TensorShape.getLength(Arrays.copyOfRange(concatShape, 0, absoluteDimension));
+
+        int[] buffer = new int[TensorShape.getLengthAsInt(concatShape)];
+        int position = 0;
+        for (int outer = 0; outer < outerLength; outer++) {
+            for (int i = 0; i < toConcat.length; i++) {
+                int blockLength = TensorShape.getLengthAsInt(Arrays.copyOfRange(shapes[i], absoluteDimension, shapes[i].length));
+                System.arraycopy(asBuffer(toConcat[i]), outer * blockLength, buffer, position, blockLength);
+                position += blockLength;
+            }
+        }
+
+        return new JavaIntegerTensor(buffer, concatShape);
+    }
+
+    private static int[] asBuffer(IntegerTensor tensor) {
+        if (tensor instanceof JavaIntegerTensor) {
+            return ((JavaIntegerTensor) tensor).buffer;
+        }
+        return tensor.asFlatIntegerArray();
+    }
+
+    @Override
+    public int getRank() {
+        return shape.length;
+    }
+
+    @Override
+    public long[] getShape() {
+        return Arrays.copyOf(shape, shape.length);
+    }
+
+    @Override
+    public long getLength() {
+        return buffer.length;
+    }
+
+    @Override
+    public boolean isShapePlaceholder() {
+        return buffer == null;
+    }
+
+    @Override
+    public Integer getValue(long... index) {
+        return buffer[getFlatIndex(index)];
+    }
+
+    @Override
+    public IntegerTensor setValue(Integer value, long... index) {
+        buffer[getFlatIndex(index)] = value;
+        return this;
+    }
+
+    private int getFlatIndex(long[] index) {
+        if (index.length == 1) {
+            return Math.toIntExact(index[0]);
+        }
+        TensorShapeValidation.checkIndexIsValid(shape, index);
+        return Math.toIntExact(TensorShape.getFlatIndex(shape, stride, index));
+    }
+
+    @Override
+    public Integer scalar() {
+        if (buffer.length > 1) {
+            throw new IllegalArgumentException("Not a scalar");
+        }
+        return buffer[0];
+    }
+
+    @Override
+    public IntegerTensor duplicate() {
+        return copy();
+    }
+
+    private JavaIntegerTensor copy() {
+        return new JavaIntegerTensor(Arrays.copyOf(buffer, buffer.length), shape);
+    }
+
+    @Override
+    public IntegerTensor reshape(long... newShape) {
+        newShape = inferUnknownDimension(newShape);
+        if (TensorShape.getLength(newShape) != buffer.length) {
+            throw new IllegalArgumentException(
+                "Cannot reshape a tensor of shape " + Arrays.toString(shape) + " to " + Arrays.toString(newShape)
+            );
+        }
+        return new JavaIntegerTensor(Arrays.copyOf(buffer, buffer.length), newShape);
+    }
+
+    private long[] inferUnknownDimension(long[] newShape) {
+        int unknownDimension = ArrayUtils.indexOf(newShape, -1L);
+        if (unknownDimension == ArrayUtils.INDEX_NOT_FOUND) {
+            return newShape;
+        }
+
+        long[] inferredShape = Arrays.copyOf(newShape, newShape.length);
+        inferredShape[unknownDimension] = 1;
+        inferredShape[unknownDimension] = buffer.length / TensorShape.getLength(inferredShape);
+        return inferredShape;
+    }
+
+    private JavaIntegerTensor permute(int... rearrange) {
+        long[] permutedShape = new long[shape.length];
+        long[] strideInSource = new long[shape.length];
+        for (int i = 0; i < rearrange.length; i++) {
+            permutedShape[i] = shape[rearrange[i]];
+            strideInSource[i] = stride[rearrange[i]];
+        }
+
+        int[] permuted = new int[buffer.length];
+        long[] index = new long[shape.length];
+        for (int i = 0; i < permuted.length; i++) {
+            permuted[i] = buffer[TensorShape.getFlatIndexUnchecked(strideInSource, index)];
+            TensorShape.incrementIndex(index, permutedShape);
+        }
+
+        return new JavaIntegerTensor(permuted, permutedShape);
+    }
+
+    @Override
+    public IntegerTensor diag() {
+        if (shape.length == 1 || (shape.length == 2 && (shape[0] == 1 || shape[1] == 1))) {
+            int n = buffer.length;
+            int[] diag = new int[n * n];
+            for (int i = 0; i < n; i++) {
+                diag[i * n + i] = buffer[i];
+            }
+            return new JavaIntegerTensor(diag, new long[]{n, n});
+        } else if (shape.length == 2) {
+            int n = (int) Math.min(shape[0], shape[1]);
+            int[] diag = new int[n];
+            for (int i = 0; i < n; i++) {
+                diag[i] = buffer[(int) (i * stride[0] + i)];
+            }
+            return new JavaIntegerTensor(diag, new long[]{n});
+        } else {
+            throw new IllegalArgumentException("Diag is only valid for vectors and matrices");
+        }
+    }
+
+    @Override
+    public IntegerTensor transpose() {
+        int[] reversed = new int[shape.length];
+        for (int i = 0; i < reversed.length; i++) {
+            reversed[i] = reversed.length - 1 - i;
+        }
+        return permute(reversed);
+    }
+
+    @Override
+    public IntegerTensor sum(int... overDimensions) {
+        if (overDimensions.length == 0) {
+            return duplicate();
+        }
+
+        overDimensions = TensorShape.getAbsoluteDimensions(shape.length, overDimensions);
+        long[] summedShape = ArrayUtils.removeAll(shape, overDimensions);
+        long[] summedStride = TensorShape.getRowFirstStride(summedShape);
+
+        long[] strideInResult = new long[shape.length];
+        for (int i = 0, resultDimension = 0; i < shape.length; i++) {
+            if (!ArrayUtils.contains(overDimensions, i)) {
+                strideInResult[i] = summedStride[resultDimension++];
+            }
+        }
+
+        int[] summed = new int[TensorShape.getLengthAsInt(summedShape)];
+        long[] index = new long[shape.length];
+        for (int i = 0; i < buffer.length; i++) {
+            summed[TensorShape.getFlatIndexUnchecked(strideInResult, index)] += buffer[i];
+            TensorShape.incrementIndex(index, shape);
+        }
+
+        return new JavaIntegerTensor(summed, summedShape);
+    }
+
+    @Override
+    public Integer sum() {
+        int sum = 0;
+        for (int value : buffer) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Override
+    public DoubleTensor toDouble() {
+        return DoubleTensor.create(asFlatDoubleArray(), shape);
+    }
+
+    @Override
+    public IntegerTensor toInteger() {
+        return duplicate();
+    }
+
+    @Override
+    public IntegerTensor minus(int value) {
+        return duplicate().minusInPlace(value);
+    }
+
+    @Override
+    public IntegerTensor plus(int value) {
+        return duplicate().plusInPlace(value);
+    }
+
+    @Override
+    public IntegerTensor times(int value) {
+        return duplicate().timesInPlace(value);
+    }
+
+    @Override
+    public IntegerTensor div(int value) {
+        return duplicate().divInPlace(value);
+    }
+
+    @Override
+    public IntegerTensor pow(int exponent) {
+        return duplicate().powInPlace(exponent);
+    }
+
+    @Override
+    public IntegerTensor pow(IntegerTensor exponent) {
+        return duplicate().powInPlace(exponent);
+    }
+
+    @Override
+    public IntegerTensor minus(IntegerTensor that) {
+        return duplicate().minusInPlace(that);
+    }
+
+    @Override
+    public IntegerTensor plus(IntegerTensor that) {
+        return duplicate().plusInPlace(that);
+    }
+
+    @Override
+    public IntegerTensor times(IntegerTensor that) {
+        return duplicate().timesInPlace(that);
+    }
+
+    @Override
+    public IntegerTensor div(IntegerTensor that) {
+        return duplicate().divInPlace(that);
+    }
+
+    @Override
+    public IntegerTensor matrixMultiply(IntegerTensor value) {
+        long[] resultShape = TensorShapeValidation.getMatrixMultiplicationResultingShape(shape, value.getShape());
+        return new JavaIntegerTensor(
+            matrixMultiply(buffer, asBuffer(value), (int) shape[0], (int) shape[1], (int) resultShape[1]),
+            resultShape
+        );
+    }
+
+    private static int[] matrixMultiply(int[] left, int[] right, int rows, int inner, int columns) {
+        int[] result = new int[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < inner; k++) {
+                int leftValue = left[i * inner + k];
+                if (leftValue != 0) {
+                    for (int j = 0; j < columns; j++) {
+                        result[i * columns + j] += leftValue * right[k * columns + j];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public IntegerTensor tensorMultiply(IntegerTensor value, int[] dimsLeft, int[] dimsRight) {
+        long[] rightShape = value.getShape();
+        long[] resultShape = getTensorMultiplyResultShape(shape, rightShape, dimsLeft, dimsRight);
+
+        int[] freeLeft = freeDimensions(shape.length, dimsLeft);
+        int[] freeRight = freeDimensions(rightShape.length, dimsRight);
+
+        int contractedLength = 1;
+        for (int dimension : dimsLeft) {
+            contractedLength *= (int) shape[dimension];
+        }
+
+        JavaIntegerTensor left = permute(ArrayUtils.addAll(freeLeft, dimsLeft));
+        JavaIntegerTensor right = new JavaIntegerTensor(asBuffer(value), rightShape).permute(ArrayUtils.addAll(dimsRight, freeRight));
+
+        int rows = buffer.length / contractedLength;
+        int columns = (int) value.getLength() / contractedLength;
+
+        return new JavaIntegerTensor(
+            matrixMultiply(left.buffer, right.buffer, rows, contractedLength, columns),
+            resultShape
+        );
+    }
+
+    private static int[] freeDimensions(int rank, int[] contracted) {
+        int[] free = new int[rank - contracted.length];
+        for (int i = 0, j = 0; i < rank; i++) {
+            if (!ArrayUtils.contains(contracted, i)) {
+                free[j++] = i;
+            }
+        }
+        return free;
+    }
+
+    @Override
+    public IntegerTensor unaryMinus() {
+        return duplicate().unaryMinusInPlace();
+    }
+
+    @Override
+    public IntegerTensor abs() {
+        return duplicate().absInPlace();
+    }
+
+    @Override
+    public int argMax() {
+        int argMax = 0;
+        for (int i = 1; i < buffer.length; i++) {
+            if (buffer[i] > buffer[argMax]) {
+                argMax = i;
+            }
+        }
+        return argMax;
+    }
+
+    @Override
+    public IntegerTensor argMax(int axis) {
+        TensorShapeValidation.checkDimensionExistsInShape(axis, shape);
+        long[] resultShape = TensorShape.removeDimension(axis, shape);
+        long[] resultStride = TensorShape.getRowFirstStride(resultShape);
+
+        long[] strideInResult = new long[shape.length];
+        for (int i = 0, resultDimension = 0; i < shape.length; i++) {
+            if (i != axis) {
+                strideInResult[i] = resultStride[resultDimension++];
+            }
+        }
+
+        int[] argMax = new int[TensorShape.getLengthAsInt(resultShape)];
+        int[] max = new int[argMax.length];
+        Arrays.fill(max, Integer.MIN_VALUE);
+
+        long[] index = new long[shape.length];
+        for (int i = 0; i < buffer.length; i++) {
+            int resultIndex = TensorShape.getFlatIndexUnchecked(strideInResult, index);
+            if (buffer[i] > max[resultIndex] || index[axis] == 0) {
+                max[resultIndex] = buffer[i];
+                argMax[resultIndex] = (int) index[axis];
+            }
+            TensorShape.incrementIndex(index, shape);
+        }
+
+        return IntegerTensor.create(argMax, resultShape);
+    }
+
+    @Override
+    public int min() {
+        int min = Integer.MAX_VALUE;
+        for (int value : buffer) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    @Override
+    public int max() {
+        int max = Integer.MIN_VALUE;
+        for (int value : buffer) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    @Override
+    public IntegerTensor slice(int dimension, long index) {
+        Preconditions.checkArgument(dimension < shape.length && index < shape[dimension], "Slice is out of bounds");
+
+        if (shape.length <= 1) {
+            return new JavaIntegerTensor(new int[]{buffer[(int) index]}, Tensor.SCALAR_SHAPE);
+        }
+
+        long[] slicedShape = ArrayUtils.remove(shape, dimension);
+        int innerLength = (int) stride[dimension];
+        int outerLength = TensorShape.getLengthAsInt(Arrays.copyOfRange(shape, 0, dimension));
+
+        int[] sliced = new int[outerLength * innerLength];
+        for (int outer = 0; outer < outerLength; outer++) {
+            int from = (int) (outer * shape[dimension] * innerLength + index * innerLength);
+            System.arraycopy(buffer, from, sliced, outer * innerLength, innerLength);
+        }
+
+        return new JavaIntegerTensor(sliced, slicedShape);
+    }
+
+    // In place Ops and Transforms
+
+    private JavaIntegerTensor applyElementwiseInPlace(IntUnaryOperator function) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = function.applyAsInt(buffer[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Applies the operation elementwise with numpy style broadcasting. If the result is larger than this
+     * then this takes on the shape of the result.
+     */
+    private JavaIntegerTensor broadcastableBinaryOpInPlace(IntegerTensor that, IntBinaryOperator op) {
+        long[] thatShape = that.getShape();
+        int[] thatBuffer = asBuffer(that);
+
+        if (Arrays.equals(shape, thatShape)) {
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = op.applyAsInt(buffer[i], thatBuffer[i]);
+            }
+        } else if (thatBuffer.length == 1) {
+            int thatValue = thatBuffer[0];
+            for (int i = 0; i < buffer.length; i++) {
+                buffer[i] = op.applyAsInt(buffer[i], thatValue);
+            }
+            setShape(TensorShape.getBroadcastResultShape(shape, thatShape));
+        } else {
+            long[] resultShape = TensorShape.getBroadcastResultShape(shape, thatShape);
+            buffer = broadcastBinaryOp(buffer, shape, thatBuffer, thatShape, resultShape, op);
+            setShape(resultShape);
+        }
+
+        return this;
+    }
+
+    private void setShape(long[] newShape) {
+        if (!Arrays.equals(shape, newShape)) {
+            this.shape = Arrays.copyOf(newShape, newShape.length);
+            this.stride = TensorShape.getRowFirstStride(newShape);
+        }
+    }
+
+    private static int[] broadcastBinaryOp(int[] left, long[] leftShape,
+                                           int[] right, long[] rightShape,
+                                           long[] resultShape, IntBinaryOperator op) {
+
+        long[] leftStride = TensorShape.getBroadcastStride(leftShape, resultShape);
+        long[] rightStride = TensorShape.getBroadcastStride(rightShape, resultShape);
+
+        int[] result = new int[TensorShape.getLengthAsInt(resultShape)];
+        long[] index = new long[resultShape.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = op.applyAsInt(
+                left[TensorShape.getFlatIndexUnchecked(leftStride, index)],
+                right[TensorShape.getFlatIndexUnchecked(rightStride, index)]
+            );
+            TensorShape.incrementIndex(index, resultShape);
+        }
+
+        return result;
+    }
+
+    private static int pow(int base, int exponent) {
+        return (int) Math.pow(base, exponent);
+    }
+
+    @Override
+    public IntegerTensor minusInPlace(int value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] -= value;
+        }
+        return this;
+    }
+
+    @Override
+    public IntegerTensor plusInPlace(int value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] += value;
+        }
+        return this;
+    }
+
+    @Override
+    public IntegerTensor timesInPlace(int value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] *= value;
+        }
+        return this;
+    }
+
+    @Override
+    public IntegerTensor divInPlace(int value) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] /= value;
+        }
+        return this;
+    }
+
+    @Override
+    public IntegerTensor powInPlace(int exponent) {
+        return applyElementwiseInPlace(x -> pow(x, exponent));
+    }
+
+    @Override
+    public IntegerTensor powInPlace(IntegerTensor exponent) {
+        return broadcastableBinaryOpInPlace(exponent, JavaIntegerTensor::pow);
+    }
+
+    @Override
+    public IntegerTensor minusInPlace(IntegerTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a - b);
+    }
+
+    @Override
+    public IntegerTensor plusInPlace(IntegerTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a + b);
+    }
+
+    @Override
+    public IntegerTensor timesInPlace(IntegerTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a * b);
+    }
+
+    @Override
+    public IntegerTensor divInPlace(IntegerTensor that) {
+        return broadcastableBinaryOpInPlace(that, (a, b) -> a / b);
+    }
+
+    @Override
+    public IntegerTensor unaryMinusInPlace() {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = -buffer[i];
+        }
+        return this;
+    }
+
+    @Override
+    public IntegerTensor absInPlace() {
+        return applyElementwiseInPlace(Math::abs);
+    }
+
+    @Override
+    public IntegerTensor minInPlace(IntegerTensor min) {
+        return broadcastableBinaryOpInPlace(min, Math::min);
+    }
+
+    @Override
+    public IntegerTensor maxInPlace(IntegerTensor max) {
+        return broadcastableBinaryOpInPlace(max, Math::max);
+    }
+
+    @Override
+    public IntegerTensor apply(Function<Integer, Integer> function) {
+        return duplicate().applyInPlace(function);
+    }
+
+    @Override
+    public IntegerTensor applyInPlace(Function<Integer, Integer> function) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = function.apply(buffer[i]);
+        }
+        return this;
+    }
+
+    // Masks
+
+    private IntegerTensor getMask(IntegerTensor that, IntBinaryPredicate predicate) {
+        return copy().broadcastableBinaryOpInPlace(that, (a, b) -> predicate.test(a, b) ? 1 : 0);
+    }
+
+    @Override
+    public IntegerTensor getGreaterThanMask(IntegerTensor greaterThanThis) {
+        return getMask(greaterThanThis, (a, b) -> a > b);
+    }
+
+    @Override
+    public IntegerTensor getGreaterThanOrEqualToMask(IntegerTensor greaterThanOrEqualToThis) {
+        return getMask(greaterThanOrEqualToThis, (a, b) -> a >= b);
+    }
+
+    @Override
+    public IntegerTensor getLessThanMask(IntegerTensor lessThanThis) {
+        return getMask(lessThanThis, (a, b) -> a < b);
+    }
+
+    @Override
+    public IntegerTensor getLessThanOrEqualToMask(IntegerTensor lessThanOrEqualToThis) {
+        return getMask(lessThanOrEqualToThis, (a, b) -> a <= b);
+    }
+
+    @Override
+    public IntegerTensor setWithMaskInPlace(IntegerTensor mask, Integer value) {
+        if (this.getLength() != mask.getLength()) {
+            throw new IllegalArgumentException("The lengths of the tensor and mask must match, but got tensor length: " + this.getLength() + ", mask length: " + mask.getLength());
+        }
+
+        int[] maskBuffer = asBuffer(mask);
+        for (int i = 0; i < buffer.length; i++) {
+            if (maskBuffer[i] == 1) {
+                buffer[i] = value;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public IntegerTensor setWithMask(IntegerTensor mask, Integer value) {
+        return duplicate().setWithMaskInPlace(mask, value);
+    }
+
+    // Comparisons
+
+    private BooleanTensor compare(int value, IntBinaryPredicate predicate) {
+        boolean[] result = new boolean[buffer.length];
+        for (int i = 0; i < buffer.length; i++) {
+            result[i] = predicate.test(buffer[i], value);
+        }
+        return BooleanTensor.create(result, getShape());
+    }
+
+    private BooleanTensor compare(IntegerTensor that, IntBinaryPredicate predicate) {
+        JavaIntegerTensor mask = copy().broadcastableBinaryOpInPlace(that, (a, b) -> predicate.test(a, b) ? 1 : 0);
+
+        boolean[] result = new boolean[mask.buffer.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = mask.buffer[i] != 0;
+        }
+        return BooleanTensor.create(result, mask.getShape());
+    }
+
+    @Override
+    public BooleanTensor lessThan(int value) {
+        return compare(value, (a, b) -> a < b);
+    }
+
+    @Override
+    public BooleanTensor lessThanOrEqual(int value) {
+        return compare(value, (a, b) -> a <= b);
+    }
+
+    @Override
+    public BooleanTensor greaterThan(int value) {
+        return compare(value, (a, b) -> a > b);
+    }
+
+    @Override
+    public BooleanTensor greaterThanOrEqual(int value) {
+        return compare(value, (a, b) -> a >= b);
+    }
+
+    @Override
+    public BooleanTensor lessThan(IntegerTensor value) {
+        return compare(value, (a, b) -> a < b);
+    }
+
+    @Override
+    public BooleanTensor lessThanOrEqual(IntegerTensor value) {
+        return compare(value, (a, b) -> a <= b);
+    }
+
+    @Override
+    public BooleanTensor greaterThan(IntegerTensor value) {
+        return compare(value, (a, b) -> a > b);
+    }
+
+    @Override
+    public BooleanTensor greaterThanOrEqual(IntegerTensor value) {
+        return compare(value, (a, b) -> a >= b);
+    }
+
+    @Override
+    public BooleanTensor elementwiseEquals(Tensor that) {
+        if (that instanceof IntegerTensor) {
+            return compare((IntegerTensor) that, (a, b) -> a == b);
+        } else {
+            return Tensor.elementwiseEquals(this, that);
+        }
+    }
+
+    @Override
+    public BooleanTensor elementwiseEquals(Integer value) {
+        return compare(value, (a, b) -> a == b);
+    }
+
+    @FunctionalInterface
+    private interface IntBinaryPredicate {
+        boolean test(int a, int b);
+    }
+
+    @Override
+    public FlattenedView<Integer> getFlattenedView() {
+        return new JavaIntegerFlattenedView();
+    }
+
+    @Override
+    public double[] asFlatDoubleArray() {
+        double[] doubles = new double[buffer.length];
+        for (int i = 0; i < buffer.length; i++) {
+            doubles[i] = buffer[i];
+        }
+        return doubles;
+    }
+
+    @Override
+    public int[] asFlatIntegerArray() {
+        return Arrays.copyOf(buffer, buffer.length);
+    }
+
+    @Override
+    public Integer[] asFlatArray() {
+        return ArrayUtils.toObject(buffer);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Tensor)) return false;
+
+        Tensor that = (Tensor) o;
+        if (!Arrays.equals(that.getShape(), shape)) return false;
+
+        if (that instanceof IntegerTensor) {
+            return Arrays.equals(buffer, asBuffer((IntegerTensor) that));
+        }
+        return Arrays.equals(that.asFlatArray(), asFlatArray());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(buffer);
+        result = 31 * result + Arrays.hashCode(shape);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "{\n" +
+            "data = " + Arrays.toString(buffer) +
+            "\nshape = " + Arrays.toString(shape) +
+            "\n}";
+    }
+
+    private class JavaIntegerFlattenedView implements FlattenedView<Integer> {
+
+        @Override
+        public long size() {
+            return buffer.length;
+        }
+
+        @Override
+        public Integer get(long index) {
+            return buffer[Math.toIntExact(index)];
+        }
+
+        @Override
+        public Integer getOrScalar(long index) {
+            if (buffer.length == 1) {
+                return buffer[0];
+            } else {
+                return get(index);
+            }
+        }
+
+        @Override
+        public void set(long index, Integer value) {
+            buffer[Math.toIntExact(index)] = value;
+        }
+    }
+}
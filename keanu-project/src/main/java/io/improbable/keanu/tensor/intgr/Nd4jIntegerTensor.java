@@ -89,7 +89,10 @@ public class Nd4jIntegerTensor implements IntegerTensor {
         if (that.isLengthOne()) {
             return TypedINDArrayFactory.scalar(that.scalar(), BUFFER_TYPE).reshape(that.getShape());
         }
-        return ((Nd4jIntegerTensor) that).tensor;
+        if (that instanceof Nd4jIntegerTensor) {
+            return ((Nd4jIntegerTensor) that).tensor;
+        }
+        return TypedINDArrayFactory.create(toDoubles(that.asFlatIntegerArray()), that.getShape(), BUFFER_TYPE);
     }
 
     @Override
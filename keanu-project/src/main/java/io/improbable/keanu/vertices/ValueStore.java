@@ -0,0 +1,198 @@
+package io.improbable.keanu.vertices;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Holds the state of every vertex in a graph separately from the vertices themselves, in an array indexed by each
+ * vertex's position in the graph.
+ * <p>
+ * Creating a store gives each of its vertices an index into the array, which is kept on the vertex. Stores for the
+ * same vertices share these indices, so copying a store only copies the array of states.
+ * <p>
+ * While a store is in use on a thread, by calling {@link #run(Runnable)} or {@link #evaluate(Supplier)}, every vertex
+ * in the store reads and writes its value from the store instead of from itself. Everything that evaluates a graph,
+ * such as cascading values, calculating log probabilities and automatic differentiation, then works on the store.
+ * This means several threads can evaluate the same graph at the same time, each with its own store, without copying
+ * the graph. Vertices that have never been in a store don't look for one at all.
+ * <p>
+ * A store must only be used by one thread at a time. Use {@link #copy()} to create a store for another thread.
+ * Stores must be created before they are handed to other threads. A vertex can only be in stores of one set of
+ * vertices, so creating a store for a set that overlaps, but isn't the same as, the vertices of an existing store
+ * throws an {@link IllegalStateException}. Call {@link #close()} once the stores of a set of vertices are no longer
+ * needed, so that the vertices go back to using their own state and can be put in stores of other vertices.
+ */
+public class ValueStore implements AutoCloseable {
+
+    private static final ThreadLocal<ValueStore> IN_USE = new ThreadLocal<>();
+
+    private final Layout layout;
+    private final VertexState[] states;
+
+    private ValueStore(Layout layout, VertexState[] states) {
+        this.layout = layout;
+        this.states = states;
+    }
+
+    /**
+     * The indices of the vertices of a graph, which are kept on the vertices and shared by every store of the graph.
+     */
+    static final class Layout {
+
+        private final List<Vertex> vertices;
+        private final int size;
+
+        private Layout(List<Vertex> vertices) {
+            this.vertices = vertices;
+            this.size = vertices.size();
+        }
+    }
+
+    /**
+     * @param vertices the vertices of a graph
+     * @return a store that starts with the current state of each vertex
+     * @throws IllegalStateException if any of the vertices is already in stores of a different set of vertices
+     */
+    public static ValueStore of(Collection<? extends Vertex> vertices) {
+        Set<Vertex> distinctVertices = new LinkedHashSet<>(vertices);
+        Layout layout = layoutOf(distinctVertices);
+
+        VertexState[] states = new VertexState[layout.size];
+        for (Vertex<?> vertex : distinctVertices) {
+            states[vertex.getStoreIndex()] = vertex.getState();
+        }
+
+        return new ValueStore(layout, states);
+    }
+
+    /**
+     * @return the layout that the vertices already share if there is one, so that existing stores of them keep
+     * working, otherwise a new layout
+     * @throws IllegalStateException if any of the vertices is already in stores of a different set of vertices
+     */
+    private static Layout layoutOf(Set<Vertex> vertices) {
+        Layout existing = vertices.isEmpty() ? null : vertices.iterator().next().getStoreLayout();
+        if (existing != null && existing.size == vertices.size()
+            && vertices.stream().allMatch(vertex -> vertex.getStoreLayout() == existing)) {
+            return existing;
+        }
+
+        for (Vertex<?> vertex : vertices) {
+            if (vertex.getStoreLayout() != null) {
+                throw new IllegalStateException(
+                    vertex + " is already in stores of a different set of vertices, so it can't be in this one"
+                );
+            }
+        }
+
+        Layout layout = new Layout(new ArrayList<>(vertices));
+        int index = 0;
+        for (Vertex<?> vertex : vertices) {
+            vertex.setStoreIndex(layout, index++);
+        }
+        return layout;
+    }
+
+    /**
+     * @return a store for the same vertices that starts with the same state as this store
+     */
+    public ValueStore copy() {
+        return new ValueStore(layout, states.clone());
+    }
+
+    /**
+     * Takes the vertices out of this store and every other store of the same vertices. The vertices go back to using
+     * their own state, which is not changed, and can then be put in stores of other vertices. None of these stores
+     * can be used afterwards, so this must only be called once no thread is using any of them.
+     */
+    @Override
+    public void close() {
+        for (Vertex<?> vertex : layout.vertices) {
+            if (vertex.getStoreLayout() == layout) {
+                vertex.setStoreIndex(null, -1);
+            }
+        }
+    }
+
+    public boolean contains(Vertex<?> vertex) {
+        return vertex.getStoreLayout() == layout;
+    }
+
+    /**
+     * @param vertex a vertex in this store
+     * @param <T>    the type of the vertex's value
+     * @return the value of the vertex in this store, which may be null if it hasn't been calculated yet
+     */
+    public <T> T getValue(Vertex<T> vertex) {
+        return getState(vertex).getValue();
+    }
+
+    public <T> VertexState<T> getState(Vertex<T> vertex) {
+        return states[checkedIndexOf(vertex)];
+    }
+
+    public <T> void setState(Vertex<T> vertex, VertexState<T> state) {
+        states[checkedIndexOf(vertex)] = state;
+    }
+
+    /**
+     * Uses this store for the vertices in it while running on the current thread.
+     *
+     * @param runnable what to run with this store
+     */
+    public void run(Runnable runnable) {
+        evaluate(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Uses this store for the vertices in it while evaluating on the current thread.
+     *
+     * @param evaluation what to evaluate with this store
+     * @param <R>        the type of the result
+     * @return the result of the evaluation
+     */
+    public <R> R evaluate(Supplier<R> evaluation) {
+        ValueStore previouslyInUse = IN_USE.get();
+        IN_USE.set(this);
+        try {
+            return evaluation.get();
+        } finally {
+            if (previouslyInUse == null) {
+                IN_USE.remove();
+            } else {
+                IN_USE.set(previouslyInUse);
+            }
+        }
+    }
+
+    /**
+     * @param layout the layout of a vertex
+     * @return the store in use on the current thread if it has that layout, otherwise null
+     */
+    static ValueStore inUseFor(Layout layout) {
+        ValueStore store = IN_USE.get();
+        return store != null && store.layout == layout ? store : null;
+    }
+
+    private int checkedIndexOf(Vertex<?> vertex) {
+        if (!contains(vertex)) {
+            throw new IllegalArgumentException(vertex + " is not in this store");
+        }
+        return vertex.getStoreIndex();
+    }
+
+    <T> VertexState<T> getState(int index) {
+        return states[index];
+    }
+
+    void setState(int index, VertexState<?> state) {
+        states[index] = state;
+    }
+}
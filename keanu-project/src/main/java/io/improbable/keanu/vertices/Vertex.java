@@ -16,6 +16,7 @@ import io.improbable.keanu.vertices.intgr.IntegerVertex;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,6 +29,8 @@ public abstract class Vertex<T> implements Observable<T>, Variable<T, VertexStat
     private Set<Vertex> parents = Collections.emptySet();
     private VertexState<T> state;
     private VertexLabel label = null;
+    private ValueStore.Layout storeLayout = null;
+    private int storeIndex = -1;
 
     public Vertex() {
         this(Tensor.SCALAR_SHAPE);
@@ -110,27 +113,65 @@ public abstract class Vertex<T> implements Observable<T>, Variable<T, VertexStat
      * @param value the observed value
      */
     public void setValue(T value) {
-        if (!state.isObserved()) {
-            state = new VertexState<>(value, false);
+        if (!state().isObserved()) {
+            updateState(new VertexState<>(value, false));
         }
     }
 
     @Override
     public T getValue() {
-        return hasValue() ? state.getValue() : lazyEval();
+        return hasValue() ? state().getValue() : lazyEval();
     }
 
     @Override
     public VertexState<T> getState() {
-        return state;
+        return state();
     }
 
     public void setState(VertexState<T> newState) {
+        updateState(newState);
+    }
+
+    /**
+     * @return the state of this vertex in the {@link ValueStore} in use on this thread if there is one,
+     * otherwise the state held by this vertex
+     */
+    private VertexState<T> state() {
+        if (storeLayout != null) {
+            ValueStore store = ValueStore.inUseFor(storeLayout);
+            if (store != null) {
+                return store.getState(storeIndex);
+            }
+        }
+        return state;
+    }
+
+    private void updateState(VertexState<T> newState) {
+        if (storeLayout != null) {
+            ValueStore store = ValueStore.inUseFor(storeLayout);
+            if (store != null) {
+                store.setState(storeIndex, newState);
+                return;
+            }
+        }
         state = newState;
     }
 
+    ValueStore.Layout getStoreLayout() {
+        return storeLayout;
+    }
+
+    int getStoreIndex() {
+        return storeIndex;
+    }
+
+    void setStoreIndex(ValueStore.Layout storeLayout, int storeIndex) {
+        this.storeLayout = storeLayout;
+        this.storeIndex = storeIndex;
+    }
+
     public boolean hasValue() {
-        T value = state.getValue();
+        T value = state().getValue();
         if (value instanceof Tensor) {
             return !((Tensor) value).isShapePlaceholder();
         } else {
@@ -140,8 +181,9 @@ public abstract class Vertex<T> implements Observable<T>, Variable<T, VertexStat
 
     @Override
     public long[] getShape() {
-        if (state.getValue() instanceof Tensor) {
-            return ((Tensor) state.getValue()).getShape();
+        T value = state().getValue();
+        if (value instanceof Tensor) {
+            return ((Tensor) value).getShape();
         } else {
             return initialShape;
         }
@@ -188,7 +230,7 @@ public abstract class Vertex<T> implements Observable<T>, Variable<T, VertexStat
         if (!isObservable(this.getClass())) {
             throw new UnsupportedOperationException("This type of vertex does not support being observed");
         }
-        state = new VertexState<>(value, true);
+        updateState(new VertexState<>(value, true));
     }
 
     private static boolean isObservable(Class<? extends Vertex> v) {
@@ -207,17 +249,17 @@ public abstract class Vertex<T> implements Observable<T>, Variable<T, VertexStat
 
     @Override
     public void unobserve() {
-        state = new VertexState<>(state.getValue(), false);
+        updateState(new VertexState<>(state().getValue(), false));
     }
 
     @Override
     public boolean isObserved() {
-        return state.isObserved();
+        return state().isObserved();
     }
 
     @Override
     public Optional<T> getObservedValue() {
-        return state.getObservedValue();
+        return state().getObservedValue();
     }
 
     @Override
@@ -282,6 +324,20 @@ public abstract class Vertex<T> implements Observable<T>, Variable<T, VertexStat
         return id.hashCode();
     }
 
+    /**
+     * Creates a new vertex of the same type and with the same parameters as this one, whose parents are the copies
+     * of this vertex's parents. The copy's label and state are set by the caller, e.g. {@link io.improbable.keanu.network.BayesianNetwork#copy()}.
+     * <p>
+     * By default this uses the same annotated methods and constructor as saving and loading a network, so vertices
+     * that can't be saved need to override this to be copied.
+     *
+     * @param copiesOfParents a map from each of this vertex's parents to its copy
+     * @return a copy of this vertex that is connected to the copies of its parents
+     */
+    public Vertex<T> copy(Map<Vertex, Vertex> copiesOfParents) {
+        return VertexCopier.copy(this, copiesOfParents);
+    }
+
     public Set<Vertex> getConnectedGraph() {
         return DiscoverGraph.getEntireGraph(this);
     }
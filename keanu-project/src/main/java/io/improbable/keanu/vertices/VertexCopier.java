@@ -0,0 +1,113 @@
+package io.improbable.keanu.vertices;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copies a vertex using the same annotations that saving and loading a network use: the parameters returned by its
+ * {@link SaveVertexParam} methods are passed to its {@link LoadVertexParam} constructor, with any parent vertices
+ * swapped for their copies. Every other parameter is shared between the vertex and its copy, so constant tensors
+ * aren't duplicated.
+ */
+class VertexCopier {
+
+    private VertexCopier() {
+    }
+
+    static <T> Vertex<T> copy(Vertex<T> vertex, Map<Vertex, Vertex> copiesOfParents) {
+        if (vertex instanceof NonSaveableVertex) {
+            throw new UnsupportedOperationException(
+                vertex.getClass().getSimpleName() + " can't be copied because it can't be saved"
+            );
+        }
+
+        Map<String, Object> savedParams = getSavedParams(vertex, copiesOfParents);
+        Constructor<?> loadConstructor = getLoadConstructor(vertex.getClass());
+        Parameter[] parameters = loadConstructor.getParameters();
+        Object[] arguments = new Object[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            LoadVertexParam paramAnnotation = parameters[i].getAnnotation(LoadVertexParam.class);
+            if (paramAnnotation != null) {
+                if (!savedParams.containsKey(paramAnnotation.value())) {
+                    throw new IllegalArgumentException("Failed to copy vertex due to missing parameter: " + paramAnnotation.value());
+                }
+                arguments[i] = savedParams.get(paramAnnotation.value());
+            } else if (parameters[i].isAnnotationPresent(LoadShape.class)) {
+                arguments[i] = vertex.getShape().clone();
+            } else {
+                throw new IllegalArgumentException("Cannot copy Vertex due to unannotated parameter in constructor");
+            }
+        }
+
+        try {
+            return (Vertex<T>) loadConstructor.newInstance(arguments);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to copy " + vertex, e);
+        }
+    }
+
+    private static Map<String, Object> getSavedParams(Vertex<?> vertex, Map<Vertex, Vertex> copiesOfParents) {
+        Map<String, Object> savedParams = new HashMap<>();
+
+        for (Method method : vertex.getClass().getMethods()) {
+            SaveVertexParam paramAnnotation = method.getAnnotation(SaveVertexParam.class);
+            if (paramAnnotation != null) {
+                Object param;
+                try {
+                    param = method.invoke(vertex);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException("Invalid parent retrieval function specified", e);
+                }
+                savedParams.put(paramAnnotation.value(), inCopy(param, copiesOfParents));
+            }
+        }
+
+        return savedParams;
+    }
+
+    private static Object inCopy(Object param, Map<Vertex, Vertex> copiesOfParents) {
+        if (param instanceof Vertex) {
+            return copyOfParent((Vertex) param, copiesOfParents);
+        } else if (param instanceof Vertex[]) {
+            Vertex[] parents = (Vertex[]) param;
+            Vertex[] copies = (Vertex[]) Array.newInstance(parents.getClass().getComponentType(), parents.length);
+            for (int i = 0; i < parents.length; i++) {
+                copies[i] = copyOfParent(parents[i], copiesOfParents);
+            }
+            return copies;
+        } else if (param instanceof long[]) {
+            return ((long[]) param).clone();
+        } else if (param instanceof int[]) {
+            return ((int[]) param).clone();
+        } else {
+            return param;
+        }
+    }
+
+    private static Vertex copyOfParent(Vertex parent, Map<Vertex, Vertex> copiesOfParents) {
+        Vertex copy = copiesOfParents.get(parent);
+        if (copy == null) {
+            throw new IllegalArgumentException("Parent " + parent + " has not been copied");
+        }
+        return copy;
+    }
+
+    private static Constructor<?> getLoadConstructor(Class<?> vertexClass) {
+        for (Constructor<?> constructor : vertexClass.getConstructors()) {
+            Parameter[] parameters = constructor.getParameters();
+
+            if (parameters.length > 0 &&
+                (parameters[0].isAnnotationPresent(LoadVertexParam.class)
+                    || parameters[0].isAnnotationPresent(LoadShape.class))) {
+                return constructor;
+            }
+        }
+
+        throw new IllegalArgumentException("No Annotated Load Constructor for Vertex of type: " + vertexClass);
+    }
+}
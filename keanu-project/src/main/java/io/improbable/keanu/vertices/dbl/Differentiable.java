@@ -1,7 +1,5 @@
 package io.improbable.keanu.vertices.dbl;
 
-import io.improbable.keanu.tensor.TensorShape;
-import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.vertices.Vertex;
 import io.improbable.keanu.vertices.dbl.nonprobabilistic.diff.PartialDerivative;
 
@@ -19,9 +17,7 @@ public interface Differentiable {
     }
 
     static PartialDerivative withRespectToSelf(long[] shape) {
-        return new PartialDerivative(
-            DoubleTensor.eye(TensorShape.getLength(shape)).reshape(TensorShape.concat(shape, shape))
-        );
+        return PartialDerivative.identity(shape);
     }
 
     default Map<Vertex, PartialDerivative> reverseModeAutoDifferentiation(PartialDerivative derivativeOfOutputWithRespectToSelf) {
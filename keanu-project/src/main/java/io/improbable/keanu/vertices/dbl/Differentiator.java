@@ -74,14 +74,41 @@ public class Differentiator {
 
         ensureGraphValuesAndShapesAreSet(ofVertex);
 
-        PriorityQueue<Vertex> priorityQueue = new PriorityQueue<>(Comparator.<Vertex, VertexId>comparing(Vertex::getId, Comparator.naturalOrder()).reversed());
-        priorityQueue.add(ofVertex);
+        Map<Vertex, PartialDerivative> dwrtOf = new HashMap<>();
+        dwrtOf.put(ofVertex, dWrtOfVertex);
 
-        HashSet<Vertex> alreadyQueued = new HashSet<>();
-        alreadyQueued.add(ofVertex);
+        return new PartialsOf(ofVertex, reverseModeAutoDiffSweep(dwrtOf, wrt));
+    }
+
+    /**
+     * Runs a single reverse mode sweep that is seeded at many vertices at once. All of the seeds must be partials
+     * of the same output, e.g. the joint log prob, so that the contributions arriving at a shared upstream vertex
+     * can be summed before it is visited. Each vertex upstream of any seed is visited exactly once.
+     *
+     * @param dOutputWrtSeeds the partial of the output with respect to each of the seed vertices
+     * @param wrt             the vertices to find the partial of the output with respect to
+     * @return the partial of the output with respect to each of the wrt vertices that is upstream of a seed
+     */
+    public static Map<VertexId, PartialDerivative> reverseModeAutoDiff(Map<? extends Vertex<?>, PartialDerivative> dOutputWrtSeeds,
+                                                                       Set<? extends Vertex<?>> wrt) {
 
         Map<Vertex, PartialDerivative> dwrtOf = new HashMap<>();
-        dwrtOf.put(ofVertex, dWrtOfVertex);
+
+        for (Map.Entry<? extends Vertex<?>, PartialDerivative> seed : dOutputWrtSeeds.entrySet()) {
+            ensureGraphValuesAndShapesAreSet(seed.getKey());
+            dwrtOf.merge(seed.getKey(), seed.getValue(), PartialDerivative::add);
+        }
+
+        return reverseModeAutoDiffSweep(dwrtOf, wrt);
+    }
+
+    private static Map<VertexId, PartialDerivative> reverseModeAutoDiffSweep(Map<Vertex, PartialDerivative> dwrtOf,
+                                                                             Set<? extends Vertex<?>> wrt) {
+
+        PriorityQueue<Vertex> priorityQueue = new PriorityQueue<>(Comparator.<Vertex, VertexId>comparing(Vertex::getId, Comparator.naturalOrder()).reversed());
+        priorityQueue.addAll(dwrtOf.keySet());
+
+        HashSet<Vertex> alreadyQueued = new HashSet<>(dwrtOf.keySet());
 
         Map<VertexId, PartialDerivative> wrtOf = new HashMap<>();
 
@@ -118,7 +145,7 @@ public class Differentiator {
             }
         }
 
-        return new PartialsOf(ofVertex, wrtOf);
+        return wrtOf;
     }
 
     private static void ensureGraphValuesAndShapesAreSet(Vertex<?> vertex) {
@@ -9,6 +9,7 @@ import io.improbable.keanu.vertices.VertexId;
 import io.improbable.keanu.vertices.dbl.Differentiator;
 import io.improbable.keanu.vertices.dbl.DoubleVertex;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -23,6 +24,7 @@ public class LogProbGradientCalculator {
 
     private final Map<Vertex, Set<DoubleVertex>> parentToLatentLookup;
     private final Map<Vertex, Set<DoubleVertex>> verticesWithNonzeroDiffWrtLatent;
+    private final Set<DoubleVertex> latentsConnectedToParents;
 
     public LogProbGradientCalculator(List<? extends Vertex> logProbOfVerticesList, List<? extends Vertex<?>> wrtVerticesList) {
         this.logProbOfVertices = new HashSet<>((List<Vertex<?>>) logProbOfVerticesList);
@@ -30,20 +32,34 @@ public class LogProbGradientCalculator {
 
         parentToLatentLookup = getParentsThatAreConnectedToWrtVertices(logProbOfVertices);
         verticesWithNonzeroDiffWrtLatent = getVerticesWithNonzeroDiffWrt(logProbOfVertices, parentToLatentLookup);
+        latentsConnectedToParents = parentToLatentLookup.values().stream()
+            .flatMap(Set::stream)
+            .collect(Collectors.toSet());
     }
 
     /**
+     * The dLogProb of every vertex is first used to seed the reverse mode auto diff at the parents it depends on.
+     * A single reverse mode sweep then accumulates the joint log prob gradient over the union of the subgraphs
+     * upstream of those parents, so that subgraphs that are shared between many vertices are only visited once.
+     *
      * @return the partial derivatives with respect to a given set of latent vertices
      */
     public Map<VertexId, DoubleTensor> getJointLogProbGradientWrtLatents() {
         LogProbGradients totalLogProbGradients = new LogProbGradients();
+        Map<Vertex<?>, PartialDerivative> dLogProbWrtParents = new HashMap<>();
 
         for (final Vertex<?> ofVertex : logProbOfVertices) {
-            LogProbGradients logProbGradientOfVertex = reverseModeLogProbGradientWrtLatents(ofVertex);
-            totalLogProbGradients.add(logProbGradientOfVertex);
+            collectLogProbGradientWrtSelfAndParents(ofVertex, totalLogProbGradients, dLogProbWrtParents);
         }
 
-        return totalLogProbGradients.getPartials();
+        Map<VertexId, PartialDerivative> dLogProbWrtLatentsFromParents = Differentiator.reverseModeAutoDiff(
+            dLogProbWrtParents,
+            latentsConnectedToParents
+        );
+
+        return totalLogProbGradients
+            .addPartialDerivatives(dLogProbWrtLatentsFromParents)
+            .getPartials();
     }
 
     /**
@@ -114,10 +130,14 @@ public class LogProbGradientCalculator {
     }
 
     /**
-     * @param ofVertex the vertex we are taking the derivative of
-     * @return partial derivatives of the "ofVertex" wrt to any "this.wrtVertices" that it descends.
+     * @param ofVertex                the vertex we are taking the derivative of
+     * @param dLogProbWrtSelf         accumulates the partial derivative of the "ofVertex" wrt itself
+     * @param dLogProbWrtParentsToAdd accumulates the partial derivatives of the "ofVertex" wrt any of its parents
+     *                                that descend from "this.wrtVertices". These seed the reverse mode auto diff.
      */
-    private LogProbGradients reverseModeLogProbGradientWrtLatents(final Vertex ofVertex) {
+    private void collectLogProbGradientWrtSelfAndParents(final Vertex ofVertex,
+                                                         LogProbGradients dLogProbWrtSelf,
+                                                         Map<Vertex<?>, PartialDerivative> dLogProbWrtParentsToAdd) {
         Preconditions.checkArgument(
             ofVertex instanceof Probabilistic<?>,
             "Cannot get logProb gradient on non-probabilistic vertex %s", ofVertex
@@ -126,34 +146,23 @@ public class LogProbGradientCalculator {
         Set<DoubleVertex> verticesWithNonzeroDiff = verticesWithNonzeroDiffWrtLatent.get(ofVertex);
         final Map<Vertex, DoubleTensor> dlogProbOfVertexWrtVertices = ((Probabilistic<?>) ofVertex).dLogProbAtValue(verticesWithNonzeroDiff);
 
-        LogProbGradients dOfWrtLatentsAccumulated = new LogProbGradients();
-
         for (Map.Entry<Vertex, DoubleTensor> dlogProbWrtVertex : dlogProbOfVertexWrtVertices.entrySet()) {
 
             DoubleVertex vertexWithDiff = (DoubleVertex) dlogProbWrtVertex.getKey();
             DoubleTensor dLogProbOfWrtVertexWithDiff = dlogProbWrtVertex.getValue();
 
             if (vertexWithDiff.equals(ofVertex)) {
-                dOfWrtLatentsAccumulated.putWithRespectTo(vertexWithDiff.getId(), dLogProbOfWrtVertexWithDiff);
+                dLogProbWrtSelf.add(Collections.singletonMap(vertexWithDiff.getId(), dLogProbOfWrtVertexWithDiff));
             } else {
 
                 PartialDerivative partialWrtVertexWithDiff = new PartialDerivative(dLogProbOfWrtVertexWithDiff);
 
                 PartialDerivative correctForScalarReverse = AutoDiffBroadcast.correctForBroadcastPartialReverse(partialWrtVertexWithDiff, ofVertex.getShape(), vertexWithDiff.getShape());
 
-                PartialsOf dOfWrtLatentsContributionFromParent = Differentiator
-                    .reverseModeAutoDiff(
-                        vertexWithDiff,
-                        correctForScalarReverse,
-                        this.parentToLatentLookup.get(vertexWithDiff)
-                    );
-
-                dOfWrtLatentsAccumulated = dOfWrtLatentsAccumulated.add(dOfWrtLatentsContributionFromParent);
+                dLogProbWrtParentsToAdd.merge(vertexWithDiff, correctForScalarReverse, PartialDerivative::add);
             }
 
         }
-
-        return dOfWrtLatentsAccumulated;
     }
 
 }
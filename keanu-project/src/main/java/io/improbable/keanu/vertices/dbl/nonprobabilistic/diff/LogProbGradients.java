@@ -32,8 +32,12 @@ public class LogProbGradients {
     }
 
     public LogProbGradients add(PartialsOf addition) {
+        return addPartialDerivatives(addition.asMap());
+    }
+
+    public LogProbGradients addPartialDerivatives(Map<VertexId, PartialDerivative> addition) {
 
-        for (Map.Entry<VertexId, PartialDerivative> entry : addition.asMap().entrySet()) {
+        for (Map.Entry<VertexId, PartialDerivative> entry : addition.entrySet()) {
             putPartial(entry.getKey(), entry.getValue().get());
         }
 
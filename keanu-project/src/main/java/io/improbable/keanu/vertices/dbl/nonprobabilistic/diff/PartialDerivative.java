@@ -5,40 +5,98 @@ import io.improbable.keanu.tensor.dbl.DoubleTensor;
 
 import java.util.Arrays;
 
+/**
+ * A partial derivative of an 'of' tensor with respect to a 'wrt' tensor, held as a tensor of shape [of,wrt].
+ * <p>
+ * A partial can also be held in diagonal form, where the of and wrt shapes are the same and only the elements
+ * that relate an element of 'of' to the same element of 'wrt' are non-zero. Only the diagonal, which has the
+ * of shape, is stored. This is the case for the partial of a vertex with respect to itself as well as for
+ * anything derived from it by elementwise operations, so it avoids holding an O(n^2) dense partial for an O(n)
+ * tensor. The dense form is only created if an operation that isn't elementwise asks for it through {@link #get()}.
+ */
 public class PartialDerivative {
 
     public static final PartialDerivative EMPTY = new PartialDerivative(null);
 
     private final DoubleTensor partial;
+    private final DoubleTensor diagonal;
 
     public PartialDerivative(DoubleTensor partial) {
+        this(partial, null);
+    }
+
+    private PartialDerivative(DoubleTensor partial, DoubleTensor diagonal) {
         this.partial = partial;
+        this.diagonal = diagonal;
+    }
+
+    /**
+     * @param diagonal the diagonal of the partial, which is in the shape of both the of and the wrt.
+     * @return a partial derivative that is zero everywhere except on its diagonal.
+     */
+    public static PartialDerivative diagonal(DoubleTensor diagonal) {
+        return new PartialDerivative(null, diagonal);
+    }
+
+    /**
+     * @param shape the shape of both the of and the wrt
+     * @return the partial derivative of a tensor with respect to itself
+     */
+    public static PartialDerivative identity(long[] shape) {
+        return diagonal(DoubleTensor.ones(shape));
     }
 
     public boolean isPresent() {
-        return partial != null;
+        return partial != null || diagonal != null;
     }
 
+    public boolean isDiagonal() {
+        return diagonal != null;
+    }
+
+    /**
+     * @return the diagonal in the shape of the of/wrt, if this partial is held in diagonal form.
+     */
+    public DoubleTensor getDiagonal() {
+        return diagonal;
+    }
+
+    /**
+     * @return the partial in its dense [of,wrt] form. If this partial is held in diagonal form then the dense
+     * form is created.
+     */
     public DoubleTensor get() {
+        if (isDiagonal()) {
+            return toDense(diagonal);
+        }
         return partial;
     }
 
     public long[] getOfShape(long[] wrtShape) {
+        if (isDiagonal()) {
+            return diagonal.getShape();
+        }
         return Arrays.copyOfRange(partial.getShape(), 0, partial.getRank() - wrtShape.length);
     }
 
     public long[] getWrtShape(long[] ofShape) {
+        if (isDiagonal()) {
+            return diagonal.getShape();
+        }
         return Arrays.copyOfRange(partial.getShape(), ofShape.length, partial.getRank());
     }
 
     public PartialDerivative add(PartialDerivative addition) {
 
         if (this.isPresent() && addition.isPresent()) {
-            return new PartialDerivative(partial.plus(addition.partial));
+            if (bothDiagonalOfSameShape(this, addition)) {
+                return diagonal(diagonal.plus(addition.diagonal));
+            }
+            return new PartialDerivative(get().plus(addition.get()));
         } else if (this.isPresent() && !addition.isPresent()) {
-            return new PartialDerivative(get());
+            return this;
         } else if (!this.isPresent() && addition.isPresent()) {
-            return new PartialDerivative(addition.partial);
+            return addition;
         } else {
             return PartialDerivative.EMPTY;
         }
@@ -47,10 +105,16 @@ public class PartialDerivative {
     public PartialDerivative subtract(PartialDerivative subtraction) {
 
         if (this.isPresent() && subtraction.isPresent()) {
-            return new PartialDerivative(partial.minus(subtraction.partial));
+            if (bothDiagonalOfSameShape(this, subtraction)) {
+                return diagonal(diagonal.minus(subtraction.diagonal));
+            }
+            return new PartialDerivative(get().minus(subtraction.get()));
         } else if (this.isPresent() && !subtraction.isPresent()) {
-            return new PartialDerivative(get());
+            return this;
         } else if (!this.isPresent() && subtraction.isPresent()) {
+            if (subtraction.isDiagonal()) {
+                return diagonal(subtraction.diagonal.unaryMinus());
+            }
             return new PartialDerivative(subtraction.partial.unaryMinus());
         } else {
             return PartialDerivative.EMPTY;
@@ -63,6 +127,10 @@ public class PartialDerivative {
             return this;
         }
 
+        if (isDiagonal()) {
+            return diagonal(diagonal.times(multiplier));
+        }
+
         return new PartialDerivative(partial.times(multiplier));
     }
 
@@ -89,6 +157,11 @@ public class PartialDerivative {
             return this;
         }
 
+        if (isDiagonalAndElementwiseWith(multiplier, partialOfRank)) {
+            return diagonal(diagonal.times(multiplier));
+        }
+
+        final DoubleTensor partial = get();
         DoubleTensor multiplierAlignedAlongOf = alignAlongOf(multiplier, partial.getShape(), partialOfRank);
         DoubleTensor result = partial.times(multiplierAlignedAlongOf);
 
@@ -105,6 +178,11 @@ public class PartialDerivative {
             return this;
         }
 
+        if (isDiagonalAndElementwiseWith(divisor, partialOfRank)) {
+            return diagonal(diagonal.div(divisor));
+        }
+
+        final DoubleTensor partial = get();
         DoubleTensor divisorAlignedAlongOf = alignAlongOf(divisor, partial.getShape(), partialOfRank);
         DoubleTensor result = partial.div(divisorAlignedAlongOf);
 
@@ -117,6 +195,11 @@ public class PartialDerivative {
             return this;
         }
 
+        if (isDiagonalAndElementwiseWith(multiplier)) {
+            return diagonal(diagonal.times(multiplier));
+        }
+
+        final DoubleTensor partial = get();
         DoubleTensor multiplierAlignedAlongWrt = alignAlongWrt(multiplier, partial.getRank());
         DoubleTensor result = partial.times(multiplierAlignedAlongWrt);
 
@@ -177,6 +260,48 @@ public class PartialDerivative {
         return new PartialDerivative(result);
     }
 
+    private boolean isDiagonalAndElementwiseWith(DoubleTensor operand, int partialOfRank) {
+        return isDiagonalAndElementwiseWith(operand) && partialOfRank == diagonal.getRank();
+    }
+
+    private boolean isDiagonalAndElementwiseWith(DoubleTensor operand) {
+        return isDiagonal() && isBroadcastableWithoutChangingShape(operand.getShape(), diagonal.getShape());
+    }
+
+    private static boolean bothDiagonalOfSameShape(PartialDerivative left, PartialDerivative right) {
+        return left.isDiagonal() && right.isDiagonal() && Arrays.equals(left.diagonal.getShape(), right.diagonal.getShape());
+    }
+
+    /**
+     * @param operandShape the shape of a tensor that will be broadcast against the target
+     * @param targetShape  the shape being broadcast to
+     * @return true if the result of broadcasting the operand against the target has the target shape.
+     */
+    private static boolean isBroadcastableWithoutChangingShape(long[] operandShape, long[] targetShape) {
+
+        if (operandShape.length > targetShape.length) {
+            return false;
+        }
+
+        for (int i = 1; i <= operandShape.length; i++) {
+            long operandDimension = operandShape[operandShape.length - i];
+            if (operandDimension != 1 && operandDimension != targetShape[targetShape.length - i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static DoubleTensor toDense(DoubleTensor diagonal) {
+        final long[] shape = diagonal.getShape();
+        final long length = diagonal.getLength();
+
+        return DoubleTensor.eye(length)
+            .timesInPlace(diagonal.reshape(length, 1))
+            .reshape(TensorShape.concat(shape, shape));
+    }
+
     /**
      * This is important for the case where the partial 'of' and the tensor are different ranks but are
      * still broadcastable.
@@ -23,4 +23,8 @@ public class PartialsWithRespectTo {
     public DoubleTensor of(VertexId id) {
         return partials.get(id).get();
     }
+
+    public Map<VertexId, PartialDerivative> asMap() {
+        return partials;
+    }
 }
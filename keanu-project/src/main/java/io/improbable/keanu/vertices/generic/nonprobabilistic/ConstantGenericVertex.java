@@ -2,8 +2,11 @@ package io.improbable.keanu.vertices.generic.nonprobabilistic;
 
 import io.improbable.keanu.vertices.NonProbabilistic;
 import io.improbable.keanu.vertices.NonSaveableVertex;
+import io.improbable.keanu.vertices.Vertex;
 import io.improbable.keanu.vertices.generic.GenericVertex;
 
+import java.util.Map;
+
 public class ConstantGenericVertex<T> extends GenericVertex<T> implements NonProbabilistic<T>, NonSaveableVertex {
 
     public ConstantGenericVertex(T value) {
@@ -14,4 +17,9 @@ public class ConstantGenericVertex<T> extends GenericVertex<T> implements NonPro
     public T calculate() {
         return getValue();
     }
+
+    @Override
+    public ConstantGenericVertex<T> copy(Map<Vertex, Vertex> copiesOfParents) {
+        return new ConstantGenericVertex<>(getValue());
+    }
 }
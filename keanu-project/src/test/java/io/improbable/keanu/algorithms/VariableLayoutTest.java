@@ -0,0 +1,57 @@
+package io.improbable.keanu.algorithms;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.dbl.DoubleVertex;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class VariableLayoutTest {
+
+    private DoubleVertex A;
+    private DoubleVertex B;
+    private VariableLayout layout;
+
+    @Before
+    public void setup() {
+        A = new GaussianVertex(new long[]{2, 2}, 0, 1);
+        B = new GaussianVertex(0, 1);
+        layout = new VariableLayout(ImmutableList.of(A, B));
+    }
+
+    @Test
+    public void laysOutVariablesOneAfterAnother() {
+        Map<VariableReference, DoubleTensor> values = ImmutableMap.of(
+            B.getReference(), DoubleTensor.scalar(5),
+            A.getReference(), DoubleTensor.create(new double[]{1, 2, 3, 4}, 2, 2)
+        );
+
+        assertEquals(5, layout.getLength());
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5}, layout.toArray(values), 0.0);
+    }
+
+    @Test
+    public void canConvertBackToTensorsShapedLikeTheVariables() {
+        Map<VariableReference, DoubleTensor> values = layout.toMap(new double[]{1, 2, 3, 4, 5});
+
+        assertEquals(DoubleTensor.create(new double[]{1, 2, 3, 4}, 2, 2), values.get(A.getReference()));
+        assertEquals(DoubleTensor.scalar(5), values.get(B.getReference()));
+    }
+
+    @Test
+    public void laysOutMissingValuesAsZeros() {
+        double[] flat = new double[]{9, 9, 9, 9, 9};
+
+        layout.copyToArray(ImmutableMap.of(B.getReference(), DoubleTensor.scalar(5)), flat);
+
+        assertArrayEquals(new double[]{0, 0, 0, 0, 5}, flat, 0.0);
+    }
+}
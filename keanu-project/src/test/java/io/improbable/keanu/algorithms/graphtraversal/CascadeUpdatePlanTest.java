@@ -0,0 +1,81 @@
+package io.improbable.keanu.algorithms.graphtraversal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.improbable.keanu.network.KeanuProbabilisticModel;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.TestGraphGenerator;
+import io.improbable.keanu.vertices.dbl.DoubleVertex;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CascadeUpdatePlanTest {
+
+    private AtomicInteger n;
+    private AtomicInteger m;
+    private GaussianVertex start;
+    private DoubleVertex end;
+    private int links = 5;
+
+    @Before
+    public void setup() {
+        n = new AtomicInteger(0);
+        m = new AtomicInteger(0);
+        start = new GaussianVertex(0, 1);
+        end = TestGraphGenerator.addLinks(start, n, m, links);
+    }
+
+    @Test
+    public void doesUpdateSameVerticesAsCascade() {
+        CascadeUpdatePlan plan = CascadeUpdatePlan.compile(ImmutableList.of(start));
+
+        start.setValue(2.0);
+        n.set(0);
+        plan.replay();
+
+        assertEquals(3 * links + 1, plan.size());
+        assertEquals(3 * links, n.get());
+        assertEquals(2.0 * Math.pow(2, links), end.getValue().scalar(), 1e-6);
+    }
+
+    @Test
+    public void doesStopAtProbabilisticVertices() {
+        GaussianVertex child = new GaussianVertex(end, 1);
+        child.plus(1.0);
+
+        CascadeUpdatePlan plan = CascadeUpdatePlan.compile(ImmutableList.of(start));
+
+        assertEquals(3 * links + 1, plan.size());
+    }
+
+    @Test
+    public void isStaleWhenChildIsAdded() {
+        CascadeUpdatePlan plan = CascadeUpdatePlan.compile(ImmutableList.of(start));
+        assertFalse(plan.isStale());
+
+        end.times(2.0);
+
+        assertTrue(plan.isStale());
+    }
+
+    @Test
+    public void modelCascadesNewlyAddedChildren() {
+        GaussianVertex observed = new GaussianVertex(end, 1);
+        observed.observe(1.0);
+
+        KeanuProbabilisticModel model = new KeanuProbabilisticModel(start.getConnectedGraph());
+        model.logProb(ImmutableMap.of(start.getId(), DoubleTensor.scalar(1.0)));
+
+        DoubleVertex addedLater = end.times(3.0);
+        model.logProb(ImmutableMap.of(start.getId(), DoubleTensor.scalar(2.0)));
+
+        assertEquals(3 * 2.0 * Math.pow(2, links), addedLater.getValue().scalar(), 1e-6);
+    }
+}
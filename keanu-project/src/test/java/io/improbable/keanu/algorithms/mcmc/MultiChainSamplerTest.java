@@ -0,0 +1,173 @@
+package io.improbable.keanu.algorithms.mcmc;
+
+import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.MultiChainSamples;
+import io.improbable.keanu.algorithms.NetworkSamples;
+import io.improbable.keanu.algorithms.mcmc.nuts.NUTS;
+import io.improbable.keanu.network.BayesianNetwork;
+import io.improbable.keanu.network.KeanuProbabilisticModel;
+import io.improbable.keanu.network.KeanuProbabilisticModelWithGradient;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.dbl.DoubleVertex;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class MultiChainSamplerTest {
+
+    /**
+     * A ~ N(20, 1), B ~ N(20, 1) and A + B is observed to be 43, so A has a posterior mean of 21
+     */
+    private static DoubleVertex buildModel() {
+        DoubleVertex a = new GaussianVertex(20.0, 1.0);
+        DoubleVertex b = new GaussianVertex(20.0, 1.0);
+        new GaussianVertex(a.plus(b), 1.0).observe(43.0);
+        a.setValue(20.0);
+        b.setValue(20.0);
+        return a;
+    }
+
+    @Test
+    public void mergesTheChainsOfMetropolisHastings() {
+        DoubleVertex a = buildModel();
+        KeanuProbabilisticModel model = new KeanuProbabilisticModel(new BayesianNetwork(a.getConnectedGraph()));
+
+        MultiChainSamples samples = MultiChainSampler.builder()
+            .numChains(3)
+            .algorithm(random -> MetropolisHastings.builder().random(random).build())
+            .dropCount(1000)
+            .random(new KeanuRandom(1))
+            .build()
+            .getPosteriorSamples(
+                model,
+                () -> new KeanuProbabilisticModel(buildModel().getConnectedGraph()),
+                Collections.singletonList(a),
+                5000
+            );
+
+        assertEquals(3, samples.getNumChains());
+        assertEquals(4000, samples.getChain(1).size());
+        assertEquals(12000, samples.getMerged().size());
+        assertEquals(12000, samples.getMerged().getDoubleTensorSamples(a).asList().size());
+
+        for (int chain = 0; chain < samples.getNumChains(); chain++) {
+            assertEquals(21.0, samples.getChain(chain).getDoubleTensorSamples(a).getAverages().scalar(), 0.2);
+        }
+        assertEquals(21.0, samples.getMerged().getDoubleTensorSamples(a).getAverages().scalar(), 0.1);
+        assertThat(samples.getSplitRHat(a).scalar(), lessThan(1.05));
+    }
+
+    @Test
+    public void samplesANetworkThatCantBeCopiedWithAValueStoreForEachChain() {
+        DoubleVertex a = new GaussianVertex(20.0, 1.0);
+        DoubleVertex b = new GaussianVertex(20.0, 1.0);
+        DoubleVertex aThroughLambda = a.lambda(value -> value.times(1.0), null, null);
+        new GaussianVertex(aThroughLambda.plus(b), 1.0).observe(43.0);
+        BayesianNetwork network = new BayesianNetwork(a.getConnectedGraph());
+
+        MultiChainSamples samples = MultiChainSampler.builder()
+            .numChains(3)
+            .algorithm(random -> MetropolisHastings.builder().random(random).build())
+            .dropCount(1000)
+            .random(new KeanuRandom(1))
+            .build()
+            .getPosteriorSamples(network, KeanuProbabilisticModel::new, Collections.singletonList(a), 5000);
+
+        assertEquals(3, samples.getNumChains());
+        for (int chain = 0; chain < samples.getNumChains(); chain++) {
+            assertEquals(21.0, samples.getChain(chain).getDoubleTensorSamples(a).getAverages().scalar(), 0.2);
+        }
+        assertThat(samples.getSplitRHat(a).scalar(), lessThan(1.05));
+    }
+
+    @Test
+    public void canSampleANetworkAgainAfterItHasGrown() {
+        DoubleVertex a = buildModel();
+        MultiChainSampler sampler = MultiChainSampler.builder()
+            .numChains(3)
+            .algorithm(random -> MetropolisHastings.builder().random(random).build())
+            .dropCount(1000)
+            .random(new KeanuRandom(1))
+            .build();
+
+        sampler.getPosteriorSamples(
+            new BayesianNetwork(a.getConnectedGraph()), KeanuProbabilisticModel::new, Collections.singletonList(a), 2000
+        );
+
+        new GaussianVertex(a, 1.0).observe(22.0);
+        MultiChainSamples samples = sampler.getPosteriorSamples(
+            new BayesianNetwork(a.getConnectedGraph()), KeanuProbabilisticModel::new, Collections.singletonList(a), 5000
+        );
+
+        assertEquals(3, samples.getNumChains());
+        assertEquals(21.4, samples.getMerged().getDoubleTensorSamples(a).getAverages().scalar(), 0.2);
+    }
+
+    @Test
+    public void runsAChainOfNUTSOnEachThread() {
+        DoubleVertex a = buildModel();
+        KeanuProbabilisticModelWithGradient model = new KeanuProbabilisticModelWithGradient(new BayesianNetwork(a.getConnectedGraph()));
+
+        MultiChainSamples samples = MultiChainSampler.builder()
+            .numChains(2)
+            .algorithm(random -> NUTS.builder().random(random).build())
+            .dropCount(200)
+            .random(new KeanuRandom(1))
+            .build()
+            .getPosteriorSamples(
+                model,
+                () -> new KeanuProbabilisticModelWithGradient(new BayesianNetwork(buildModel().getConnectedGraph())),
+                1000
+            );
+
+        DoubleTensor splitRHat = samples.getSplitRHat(a);
+
+        assertEquals(1600, samples.getMerged().size());
+        assertEquals(21.0, samples.getMerged().getDoubleTensorSamples(a).getAverages().scalar(), 0.2);
+        assertThat(splitRHat.scalar(), lessThan(1.05));
+    }
+
+    /**
+     * A ~ N(0, 10) and A^2 is observed to be 25 with little noise, so A has two modes that NUTS can't move between
+     */
+    private static DoubleVertex buildBimodalModel() {
+        DoubleVertex a = new GaussianVertex(0.0, 10.0);
+        new GaussianVertex(a.times(a), 0.1).observe(25.0);
+        a.setValue(5.0);
+        return a;
+    }
+
+    @Test
+    public void chainsStartFromDifferentPointsSoSplitRHatFindsChainsInDifferentModes() {
+        DoubleVertex a = buildBimodalModel();
+        KeanuProbabilisticModelWithGradient model = new KeanuProbabilisticModelWithGradient(new BayesianNetwork(a.getConnectedGraph()));
+
+        MultiChainSamples samples = MultiChainSampler.builder()
+            .numChains(4)
+            .algorithm(random -> NUTS.builder().random(random).build())
+            .dropCount(100)
+            .random(new KeanuRandom(1))
+            .build()
+            .getPosteriorSamples(
+                model,
+                () -> new KeanuProbabilisticModelWithGradient(new BayesianNetwork(buildBimodalModel().getConnectedGraph())),
+                500
+            );
+
+        Set<Double> modes = new HashSet<>();
+        for (NetworkSamples chain : samples.getChains()) {
+            modes.add(Math.signum(chain.getDoubleTensorSamples(a).getAverages().scalar()));
+        }
+
+        assertEquals(2, modes.size());
+        assertThat(samples.getSplitRHat(a).scalar(), greaterThan(1.5));
+    }
+}
@@ -18,6 +18,7 @@ import org.junit.experimental.categories.Category;
 
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class MultimodalSimulatedAnnealingTest {
@@ -82,4 +83,67 @@ public class MultimodalSimulatedAnnealingTest {
         assertTrue(findsUpperMode);
     }
 
+    @Test
+    public void deduplicatesModesThatAreCloseTogether() {
+
+        DoubleVertex A = new UniformVertex(-3.0, 3.0);
+        DoubleVertex C = new GaussianVertex(A.multiply(A), 1.5);
+        C.observe(4.0);
+
+        BayesianNetwork network = new BayesianNetwork(A.getConnectedGraph());
+        List<NetworkState> modes = MultiModeDiscovery.findModesBySimulatedAnnealing(network, 10, 1000, 4, 0.5, random);
+
+        assertEquals(2, modes.size());
+        assertEquals(2.0, Math.abs(modes.get(0).get(A).scalar()), 0.05);
+        assertEquals(2.0, Math.abs(modes.get(1).get(A).scalar()), 0.05);
+        assertEquals(0.0, modes.get(0).get(A).scalar() + modes.get(1).get(A).scalar(), 0.1);
+    }
+
+    @Test
+    public void findsTheSameModesWhateverTheNumberOfThreads() {
+
+        DoubleVertex A = new UniformVertex(-3.0, 3.0);
+        DoubleVertex C = new GaussianVertex(A.multiply(A), 1.5);
+        C.observe(4.0);
+
+        BayesianNetwork network = new BayesianNetwork(A.getConnectedGraph());
+        List<NetworkState> serialModes = MultiModeDiscovery.findModesBySimulatedAnnealing(network, 6, 200, 1, 0.0, new KeanuRandom(2));
+        List<NetworkState> parallelModes = MultiModeDiscovery.findModesBySimulatedAnnealing(network, 6, 200, 3, 0.0, new KeanuRandom(2));
+
+        assertEquals(serialModes.size(), parallelModes.size());
+        for (int i = 0; i < serialModes.size(); i++) {
+            assertEquals(serialModes.get(i).get(A), parallelModes.get(i).get(A));
+        }
+    }
+
+    @Test
+    public void returnsTheModeOfEveryAttemptWhenNotRunConcurrently() {
+
+        DoubleVertex A = new UniformVertex(-3.0, 3.0);
+        DoubleVertex C = new GaussianVertex(A.multiply(A), 1.5);
+        C.observe(4.0);
+
+        BayesianNetwork network = new BayesianNetwork(A.getConnectedGraph());
+        List<NetworkState> modes = MultiModeDiscovery.findModesBySimulatedAnnealing(network, 4, 200, random);
+
+        assertEquals(4, modes.size());
+    }
+
+    @Test
+    public void runsOneAttemptAtATimeIfTheNetworkCantBeCopied() {
+
+        DoubleVertex A = new UniformVertex(-3.0, 3.0);
+        DoubleVertex B = A.lambda(value -> value.times(value), null, null);
+        DoubleVertex C = new GaussianVertex(B, 1.5);
+        C.observe(4.0);
+
+        BayesianNetwork network = new BayesianNetwork(A.getConnectedGraph());
+        List<NetworkState> serialModes = MultiModeDiscovery.findModesBySimulatedAnnealing(network, 4, 200, 1, 0.0, new KeanuRandom(2));
+        List<NetworkState> parallelModes = MultiModeDiscovery.findModesBySimulatedAnnealing(network, 4, 200, 2, 0.0, new KeanuRandom(2));
+
+        assertEquals(serialModes.size(), parallelModes.size());
+        for (int i = 0; i < serialModes.size(); i++) {
+            assertEquals(serialModes.get(i).get(A), parallelModes.get(i).get(A));
+        }
+    }
 }
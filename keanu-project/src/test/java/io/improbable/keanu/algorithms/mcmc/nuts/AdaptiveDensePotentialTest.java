@@ -0,0 +1,92 @@
+package io.improbable.keanu.algorithms.mcmc.nuts;
+
+import io.improbable.keanu.KeanuRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveDensePotentialTest {
+
+    /**
+     * Samples with covariance [[4, 3], [3, 4]]
+     */
+    static double[] correlatedSample(KeanuRandom random) {
+        double x = random.nextGaussian();
+        double y = random.nextGaussian();
+        return new double[]{2 * x, 1.5 * x + Math.sqrt(4 - 1.5 * 1.5) * y};
+    }
+
+    /**
+     * @return the covariance of the velocities of random momenta, which is the inverse of the mass matrix
+     */
+    static double[][] covarianceOfVelocity(Potential potential, int dimension, KeanuRandom random) {
+        int sampleCount = 20000;
+        double[] momentum = new double[dimension];
+        double[] velocity = new double[dimension];
+        double[][] covariance = new double[dimension][dimension];
+
+        for (int s = 0; s < sampleCount; s++) {
+            potential.randomMomentum(random, momentum);
+            potential.getVelocity(momentum, velocity);
+            for (int i = 0; i < dimension; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    covariance[i][j] += velocity[i] * velocity[j] / sampleCount;
+                }
+            }
+        }
+        return covariance;
+    }
+
+    @Test
+    public void startsWithTheInitialVarianceOnTheDiagonal() {
+        AdaptiveDensePotential potential = new AdaptiveDensePotential(2.0, 10);
+        potential.initialize(2);
+
+        double[] velocity = new double[2];
+        potential.getVelocity(new double[]{1.0, 0.5}, velocity);
+
+        assertArrayEquals(new double[]{2.0, 1.0}, velocity, 1e-10);
+        assertEquals(0.5 * (1.0 * 2.0 + 0.5 * 1.0), potential.getKineticEnergy(new double[]{1.0, 0.5}, velocity), 1e-10);
+    }
+
+    @Test
+    public void adaptsToTheCovarianceOfEachWindow() {
+        KeanuRandom random = new KeanuRandom(1);
+        int windowSize = 2000;
+        AdaptiveDensePotential potential = new AdaptiveDensePotential(1.0, windowSize);
+        potential.initialize(2);
+
+        for (int i = 0; i < windowSize - 1; i++) {
+            potential.update(correlatedSample(random));
+        }
+        assertEquals(0.0, potential.getCovariance()[0][1], 0.0);
+
+        potential.update(correlatedSample(random));
+
+        double[][] covariance = potential.getCovariance();
+        assertEquals(4.0, covariance[0][0], 0.3);
+        assertEquals(3.0, covariance[0][1], 0.3);
+        assertEquals(covariance[0][1], covariance[1][0], 0.0);
+        assertEquals(4.0, covariance[1][1], 0.3);
+    }
+
+    @Test
+    public void drawsMomentumWithTheMassMatrixAsItsCovariance() {
+        KeanuRandom random = new KeanuRandom(1);
+        int windowSize = 2000;
+        AdaptiveDensePotential potential = new AdaptiveDensePotential(1.0, windowSize);
+        potential.initialize(2);
+
+        for (int i = 0; i < windowSize; i++) {
+            potential.update(correlatedSample(random));
+        }
+
+        double[][] expected = potential.getCovariance();
+        double[][] actual = covarianceOfVelocity(potential, 2, random);
+
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(expected[i], actual[i], 0.15);
+        }
+    }
+}
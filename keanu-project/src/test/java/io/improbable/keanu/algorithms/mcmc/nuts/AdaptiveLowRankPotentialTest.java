@@ -0,0 +1,72 @@
+package io.improbable.keanu.algorithms.mcmc.nuts;
+
+import io.improbable.keanu.KeanuRandom;
+import org.junit.Test;
+
+import static io.improbable.keanu.algorithms.mcmc.nuts.AdaptiveDensePotentialTest.correlatedSample;
+import static io.improbable.keanu.algorithms.mcmc.nuts.AdaptiveDensePotentialTest.covarianceOfVelocity;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveLowRankPotentialTest {
+
+    /**
+     * Samples where the first two values have covariance [[4, 3], [3, 4]] and the third is independent with variance 9
+     */
+    private static double[] sample(KeanuRandom random) {
+        double[] correlated = correlatedSample(random);
+        return new double[]{correlated[0], correlated[1], 3 * random.nextGaussian()};
+    }
+
+    @Test
+    public void startsWithTheInitialVarianceOnTheDiagonal() {
+        AdaptiveLowRankPotential potential = new AdaptiveLowRankPotential(2.0, 1, 10);
+        potential.initialize(2);
+
+        double[] velocity = new double[2];
+        potential.getVelocity(new double[]{1.0, 0.5}, velocity);
+
+        assertArrayEquals(new double[]{2.0, 1.0}, velocity, 1e-10);
+    }
+
+    @Test
+    public void correctsAlongTheDirectionWhoseVarianceIsFurthestFromUncorrelated() {
+        KeanuRandom random = new KeanuRandom(1);
+        int windowSize = 500;
+        AdaptiveLowRankPotential potential = new AdaptiveLowRankPotential(1.0, 1, windowSize);
+        potential.initialize(3);
+
+        for (int i = 0; i < windowSize; i++) {
+            potential.update(sample(random));
+        }
+
+        assertArrayEquals(new double[]{4.0, 4.0, 9.0}, potential.getVariance(), 0.8);
+
+        assertEquals(1, potential.getEigenvalues().length);
+        assertEquals(0.25, potential.getEigenvalues()[0], 0.1);
+
+        double[] eigenvector = potential.getEigenvectors()[0];
+        double sign = Math.signum(eigenvector[0]);
+        assertArrayEquals(new double[]{Math.sqrt(0.5), -Math.sqrt(0.5), 0.0}, new double[]{
+            sign * eigenvector[0], sign * eigenvector[1], sign * eigenvector[2]
+        }, 0.1);
+    }
+
+    @Test
+    public void drawsMomentumWithTheMassMatrixAsItsCovariance() {
+        KeanuRandom random = new KeanuRandom(1);
+        int windowSize = 2000;
+        AdaptiveLowRankPotential potential = new AdaptiveLowRankPotential(1.0, 2, windowSize);
+        potential.initialize(3);
+
+        for (int i = 0; i < windowSize; i++) {
+            potential.update(sample(random));
+        }
+
+        double[][] covariance = covarianceOfVelocity(potential, 3, random);
+
+        assertArrayEquals(new double[]{4.0, 3.0, 0.0}, covariance[0], 0.4);
+        assertArrayEquals(new double[]{3.0, 4.0, 0.0}, covariance[1], 0.4);
+        assertArrayEquals(new double[]{0.0, 0.0, 9.0}, covariance[2], 0.6);
+    }
+}
@@ -1,7 +1,6 @@
 package io.improbable.keanu.algorithms.mcmc.nuts;
 
-import com.google.common.collect.ImmutableMap;
-import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.VariableLayout;
 import io.improbable.keanu.network.BayesianNetwork;
 import io.improbable.keanu.network.KeanuProbabilisticModelWithGradient;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
@@ -10,7 +9,6 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Collections;
-import java.util.Map;
 
 import static io.improbable.keanu.tensor.dbl.DoubleTensor.scalar;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -35,32 +33,30 @@ public class LeapfrogIntegratorTest {
             new BayesianNetwork(vertex.getConnectedGraph())
         );
 
-        Map<VariableReference, DoubleTensor> p = ImmutableMap.of(vertex.getId(), scalar(0));
-
         Potential potential = new AdaptiveQuadraticPotential(0, 1,1, 101);
 
-        potential.initialize(p);
+        potential.initialize(1);
 
         start = leapfrogAt(vertex, initialPosition, initialMomentum, potential);
 
-        integrator = new LeapfrogIntegrator(potential);
+        integrator = new LeapfrogIntegrator(potential, new VariableLayout(Collections.singletonList(vertex)));
     }
 
     @Test
     public void canLeapForward() {
 
         LeapfrogState leap = integrator.step(start, gradientCalculator, 1.0);
-        assertEquals(0.5, leap.getPosition().get(vertex.getId()).scalar(), 1e-6);
+        assertEquals(0.5, leap.getPosition()[0], 1e-6);
     }
 
     @Test
     public void canLeapForwardAndBack() {
 
         LeapfrogState leap = integrator.step(start, gradientCalculator, 1.0);
-        assertEquals(initialMomentum, leap.getPosition().get(vertex.getId()).scalar(), 1e-6);
+        assertEquals(initialMomentum, leap.getPosition()[0], 1e-6);
 
         LeapfrogState leapBack = integrator.step(leap, gradientCalculator, -1.0);
-        assertEquals(initialPosition, leapBack.getPosition().get(vertex.getId()).scalar(), 1e-6);
+        assertEquals(initialPosition, leapBack.getPosition()[0], 1e-6);
     }
 
     @Test
@@ -93,11 +89,7 @@ public class LeapfrogIntegratorTest {
         double gradient = vertex.dLogProb(tensorPosition, Collections.singleton(vertex)).get(vertex).scalar();
         double logProb = vertex.logProb(tensorPosition);
 
-        Map<VariableReference, DoubleTensor> p = ImmutableMap.of(vertex.getId(), tensorPosition);
-        Map<VariableReference, DoubleTensor> m = ImmutableMap.of(vertex.getId(), scalar(momentum));
-        Map<VariableReference, DoubleTensor> g = ImmutableMap.of(vertex.getId(), scalar(gradient));
-
-        return new LeapfrogState(p, m, g, logProb, potential);
+        return new LeapfrogState(new double[]{position}, new double[]{momentum}, new double[]{gradient}, logProb, potential);
     }
 
 }
\ No newline at end of file
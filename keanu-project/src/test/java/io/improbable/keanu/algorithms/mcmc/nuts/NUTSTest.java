@@ -120,6 +120,39 @@ public class NUTSTest {
         MCMCTestDistributions.samplesMatchesSumOfGaussians(44.0, posteriorSamples.get(A).asList(), posteriorSamples.get(B).asList());
     }
 
+    @Test
+    public void samplesContinuousPriorWithDenseMassMatrix() {
+        samplesContinuousPriorWithPotential(new AdaptiveDensePotential(1.0, 50));
+    }
+
+    @Test
+    public void samplesContinuousPriorWithLowRankMassMatrix() {
+        samplesContinuousPriorWithPotential(new AdaptiveLowRankPotential(1.0, 1, 50));
+    }
+
+    private void samplesContinuousPriorWithPotential(Potential potential) {
+
+        BayesianNetwork bayesNet = MCMCTestDistributions.createSumOfGaussianDistribution(20.0, 1.0, 46., 15.0);
+        ProbabilisticModelWithGradient model = new KeanuProbabilisticModelWithGradient(bayesNet);
+
+        int sampleCount = 500;
+        NUTS nuts = NUTS.builder()
+            .adaptCount(sampleCount / 2)
+            .potential(potential)
+            .build();
+
+        NetworkSamples posteriorSamples = nuts.getPosteriorSamples(
+            model,
+            model.getLatentVariables(),
+            sampleCount
+        ).drop(sampleCount / 4);
+
+        Vertex<DoubleTensor> A = bayesNet.getContinuousLatentVertices().get(0);
+        Vertex<DoubleTensor> B = bayesNet.getContinuousLatentVertices().get(1);
+
+        MCMCTestDistributions.samplesMatchesSumOfGaussians(44.0, posteriorSamples.get(A).asList(), posteriorSamples.get(B).asList());
+    }
+
     @Category(Slow.class)
     @Test
     public void samplesFromDonut() {
@@ -2,7 +2,9 @@ package io.improbable.keanu.algorithms.mcmc.nuts;
 
 import com.google.common.collect.ImmutableMap;
 import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.algorithms.LogProbAndGradients;
 import io.improbable.keanu.algorithms.ProbabilisticModelWithGradient;
+import io.improbable.keanu.algorithms.VariableLayout;
 import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.network.BayesianNetwork;
 import io.improbable.keanu.network.KeanuProbabilisticModelWithGradient;
@@ -14,7 +16,6 @@ import org.junit.Test;
 import java.util.Map;
 
 import static io.improbable.keanu.algorithms.mcmc.nuts.LeapfrogIntegratorTest.leapfrogAt;
-import static io.improbable.keanu.tensor.dbl.DoubleTensor.scalar;
 import static java.util.Collections.singletonList;
 import static junit.framework.TestCase.assertEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -47,14 +48,12 @@ public class TreeTest {
             new BayesianNetwork(vertex.getConnectedGraph())
         );
 
-        Map<VariableReference, DoubleTensor> p = ImmutableMap.of(vertex.getId(), scalar(0));
-
         Potential potential = new AdaptiveQuadraticPotential(0, 1, 1, 101);
 
-        potential.initialize(p);
+        potential.initialize(1);
         start = leapfrogAt(vertex, 0.0, 0.5, potential);
 
-        leapfrogIntegrator = new LeapfrogIntegrator(potential);
+        leapfrogIntegrator = new LeapfrogIntegrator(potential, new VariableLayout(singletonList(vertex)));
     }
 
     @Test
@@ -93,8 +92,9 @@ public class TreeTest {
             KeanuRandom.getDefaultRandom()
         );
 
-        when(model.logProbGradients(anyMap())).thenReturn(ImmutableMap.of(vertex.getReference(), DoubleTensor.scalar(1.0)));
-        when(model.logProb()).thenReturn(-1.0);
+        when(model.logProbAndGradients(anyMap())).thenReturn(
+            new LogProbAndGradients(-1.0, ImmutableMap.of(vertex.getReference(), DoubleTensor.scalar(1.0)))
+        );
 
         tree.grow(1, 1e-6);
 
@@ -106,8 +106,9 @@ public class TreeTest {
         assertTrue(tree.shouldContinue());
         assertThat(tree.getTreeSize(), equalTo(3));
 
-        when(model.logProbGradients(anyMap())).thenReturn(ImmutableMap.of(vertex.getReference(), DoubleTensor.scalar(0.0)));
-        when(model.logProb()).thenReturn(Double.NEGATIVE_INFINITY);
+        when(model.logProbAndGradients(anyMap())).thenReturn(
+            new LogProbAndGradients(Double.NEGATIVE_INFINITY, ImmutableMap.of(vertex.getReference(), DoubleTensor.scalar(0.0)))
+        );
 
         tree.grow(-1, 1e-6);
 
@@ -124,8 +125,8 @@ public class TreeTest {
 
         Map<VariableReference, DoubleTensor> mockGradient = ImmutableMap.of(vertex.getId(), DoubleTensor.scalar(0.0));
 
-        when(mockModel.logProbGradients(anyMap()))
-            .thenReturn(mockGradient);
+        when(mockModel.logProbAndGradients(anyMap()))
+            .thenReturn(new LogProbAndGradients(0.0, mockGradient));
 
         Tree tree = new Tree(
             start,
@@ -138,16 +139,16 @@ public class TreeTest {
         );
 
         tree.grow(1, 1e-6);
-        verify(mockModel, times(tree.getTreeSize())).logProbGradients(anyMap());
+        verify(mockModel, times(tree.getTreeSize())).logProbAndGradients(anyMap());
 
         tree.grow(-1, 1e-6);
-        verify(mockModel, times(tree.getTreeSize())).logProbGradients(anyMap());
+        verify(mockModel, times(tree.getTreeSize())).logProbAndGradients(anyMap());
 
         tree.grow(-1, 1e-6);
-        verify(mockModel, times(tree.getTreeSize())).logProbGradients(anyMap());
+        verify(mockModel, times(tree.getTreeSize())).logProbAndGradients(anyMap());
 
         tree.grow(1, 1e-6);
-        verify(mockModel, times(tree.getTreeSize())).logProbGradients(anyMap());
+        verify(mockModel, times(tree.getTreeSize())).logProbAndGradients(anyMap());
     }
 
     @Test
@@ -172,13 +173,13 @@ public class TreeTest {
 
     private void assertMovesInCorrectDirection(Tree tree, int direction) {
 
-        double forwardPositionBefore = tree.getForward().getPosition().get(vertex.getId()).scalar();
-        double backwardPositionBefore = tree.getBackward().getPosition().get(vertex.getId()).scalar();
+        double forwardPositionBefore = tree.getForward().getPosition()[0];
+        double backwardPositionBefore = tree.getBackward().getPosition()[0];
 
         tree.grow(direction, 1e-6);
 
-        double forwardPositionAfter = tree.getForward().getPosition().get(vertex.getId()).scalar();
-        double backwardPositionAfter = tree.getBackward().getPosition().get(vertex.getId()).scalar();
+        double forwardPositionAfter = tree.getForward().getPosition()[0];
+        double backwardPositionAfter = tree.getBackward().getPosition()[0];
 
         if (direction == 1) {
             assertThat(backwardPositionBefore, closeTo(backwardPositionAfter, 1e-8));
@@ -233,8 +234,8 @@ public class TreeTest {
         }
         assertThat(tree.getLogSumWeight(), closeTo(expectedLogSumWeight, 1e-6));
 
-        double expectedSumMomentum = (tree.getTreeSize() + 1) * start.getMomentum().get(vertex.getReference()).scalar();
-        assertThat(expectedSumMomentum, closeTo(tree.getSumMomentum().get(vertex.getReference()).scalar(), 1e-6));
+        double expectedSumMomentum = (tree.getTreeSize() + 1) * start.getMomentum()[0];
+        assertThat(expectedSumMomentum, closeTo(tree.getSumMomentum()[0], 1e-6));
     }
 
     @Test
@@ -1,6 +1,9 @@
 package io.improbable.keanu.algorithms.particlefiltering;
 
 import io.improbable.keanu.DeterministicRule;
+import io.improbable.keanu.algorithms.graphtraversal.VertexValuePropagation;
+import io.improbable.keanu.vertices.ProbabilityCalculator;
+import io.improbable.keanu.vertices.Vertex;
 import io.improbable.keanu.vertices.dbl.DoubleVertex;
 import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
 import io.improbable.keanu.vertices.dbl.probabilistic.UniformVertex;
@@ -8,6 +11,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 @Slf4j
@@ -18,7 +27,96 @@ public class ParticleFilteringTest {
 
     @Test
     public void findsCorrectTemp() {
+        assertFindsCorrectTemp(builder -> builder
+            .withNumParticles(1000)
+            .withResamplingCycles(3)
+            .withResamplingProportion(0.5));
+    }
+
+    @Test
+    public void findsCorrectTempWithSystematicResamplingWhenEffectiveSampleSizeIsLow() {
+        assertFindsCorrectTemp(builder -> builder
+            .withNumParticles(1000)
+            .withResamplingCycles(3)
+            .withResamplingProportion(0.5)
+            .withResamplingStrategy(ResamplingStrategy.SYSTEMATIC)
+            .withEffectiveSampleSizeThreshold(0.5));
+    }
+
+    @Test
+    public void accumulatedParticleWeightsMatchTheLogProbOfTheWholeGraph() {
+        DoubleVertex a = new GaussianVertex(0.0, 2.0);
+        DoubleVertex b = new GaussianVertex(a.times(2.0), 1.0);
+        DoubleVertex c = new GaussianVertex(a.plus(b), 1.0);
+        DoubleVertex observedA = new GaussianVertex(a, 1.0);
+        DoubleVertex observedB = new GaussianVertex(b.plus(1.0), 1.0);
+        DoubleVertex observedC = new GaussianVertex(c, 1.0);
+        observedA.observe(1.0);
+        observedB.observe(2.0);
+        observedC.observe(4.0);
+
+        ParticleFilter particleFilter = ParticleFilter.ofVertexInGraph(a)
+            .withNumParticles(50)
+            .build();
+
+        List<Vertex> observedVertices = Arrays.asList(observedA, observedB, observedC);
+        for (Particle particle : particleFilter.getMostProbableParticles()) {
+            for (Map.Entry<Vertex, Object> latent : particle.getLatentVertices().entrySet()) {
+                latent.getKey().setValue(latent.getValue());
+            }
+            VertexValuePropagation.cascadeUpdate(particle.getLatentVertices().keySet());
+
+            double expectedLogProb = ProbabilityCalculator.calculateLogProbFor(particle.getLatentVertices().keySet())
+                + ProbabilityCalculator.calculateLogProbFor(observedVertices);
+
+            assertEquals(3, particle.getLatentVertices().size());
+            assertEquals(expectedLogProb, particle.logProb(), 1e-10);
+        }
+    }
+
+    @Test
+    public void findsCorrectTempWhenPropagatingParticlesOnSeveralThreads() {
+        assertFindsCorrectTemp(builder -> builder
+            .withNumParticles(1000)
+            .withResamplingCycles(3)
+            .withResamplingProportion(0.5)
+            .withParallelism(4, () -> buildThermometerGraph().getConnectedGraph()));
+    }
+
+    @Test
+    public void findsCorrectTempWhenPropagatingParticlesOnCopiesOfTheGraph() {
+        assertFindsCorrectTemp(builder -> builder
+            .withNumParticles(1000)
+            .withResamplingCycles(3)
+            .withResamplingProportion(0.5)
+            .withParallelism(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAReplicaThatIsNotBuiltTheSameWay() {
+        ParticleFilter.ofVertexInGraph(buildThermometerGraph())
+            .withParallelism(2, () -> new GaussianVertex(0.0, 1.0).getConnectedGraph())
+            .build();
+    }
+
+    private void assertFindsCorrectTemp(Function<ParticleFilterBuilder, ParticleFilterBuilder> configure) {
+
+        DoubleVertex temperature = buildThermometerGraph();
+
+        ParticleFilter particleFilter = configure.apply(ParticleFilter.ofVertexInGraph(temperature)).build();
 
+        Particle mostProbableParticle = particleFilter.getMostProbableParticle();
+
+        double estimatedTemp = mostProbableParticle.getScalarValueOfVertex(temperature);
+        double probability = mostProbableParticle.logProb();
+
+        log.info("Final temp estimate = " + estimatedTemp + ", log probability = " + probability);
+
+        assertTrue(estimatedTemp > 18.0);
+        assertTrue(estimatedTemp < 22.0);
+    }
+
+    private static DoubleVertex buildThermometerGraph() {
         DoubleVertex temperature = new UniformVertex(0.0, 100.0);
         DoubleVertex noiseAMu = new GaussianVertex(0.0, 2.0);
         DoubleVertex noiseA = new GaussianVertex(noiseAMu, 2.0);
@@ -36,24 +134,6 @@ public class ParticleFilteringTest {
         thermometerB.observe(19.5);
         thermometerC.observe(22.0);
         thermometerD.observe(18.0);
-
-        int numParticles = 1000;
-        int resamplingCycles = 3;
-        double resamplingProportion = 0.5;
-        ParticleFilter particleFilter = ParticleFilter.ofVertexInGraph(temperature)
-                .withNumParticles(numParticles)
-                .withResamplingCycles(resamplingCycles)
-                .withResamplingProportion(resamplingProportion)
-                .build();
-
-        Particle mostProbableParticle = particleFilter.getMostProbableParticle();
-
-        double estimatedTemp = mostProbableParticle.getScalarValueOfVertex(temperature);
-        double probability = mostProbableParticle.logProb();
-
-        log.info("Final temp estimate = " + estimatedTemp + ", log probability = " + probability);
-
-        assertTrue(estimatedTemp > 18.0);
-        assertTrue(estimatedTemp < 22.0);
+        return temperature;
     }
 }
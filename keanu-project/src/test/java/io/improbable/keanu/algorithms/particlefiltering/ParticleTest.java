@@ -0,0 +1,50 @@
+package io.improbable.keanu.algorithms.particlefiltering;
+
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.dbl.DoubleVertex;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ParticleTest {
+
+    private final DoubleVertex a = new GaussianVertex(0.0, 1.0);
+    private final DoubleVertex b = new GaussianVertex(0.0, 1.0);
+    private final DoubleVertex c = new GaussianVertex(0.0, 1.0);
+
+    @Test
+    public void copiesSeeTheValuesOfTheirAncestors() {
+        Particle root = new Particle();
+        root.addLatentVertex(a, DoubleTensor.scalar(1.0));
+
+        Particle child = root.shallowCopy();
+        child.addLatentVertex(b, DoubleTensor.scalar(2.0));
+
+        Particle grandchild = child.shallowCopy();
+        grandchild.addLatentVertex(c, DoubleTensor.scalar(3.0));
+
+        assertEquals(1.0, grandchild.getScalarValueOfVertex(a), 0.0);
+        assertEquals(2.0, grandchild.getScalarValueOfVertex(b), 0.0);
+        assertEquals(3.0, grandchild.getScalarValueOfVertex(c), 0.0);
+        assertEquals(3, grandchild.getLatentVertices().size());
+    }
+
+    @Test
+    public void siblingsDoNotSeeEachOthersValues() {
+        Particle root = new Particle();
+        root.addLatentVertex(a, DoubleTensor.scalar(1.0));
+
+        Particle first = root.shallowCopy();
+        first.addLatentVertex(b, DoubleTensor.scalar(2.0));
+
+        Particle second = root.shallowCopy();
+        second.addLatentVertex(b, DoubleTensor.scalar(-2.0));
+
+        assertEquals(2.0, first.getScalarValueOfVertex(b), 0.0);
+        assertEquals(-2.0, second.getScalarValueOfVertex(b), 0.0);
+        assertNull(root.getValueOfVertex(b));
+        assertEquals(1, root.getLatentVertices().size());
+    }
+}
@@ -0,0 +1,55 @@
+package io.improbable.keanu.algorithms.particlefiltering;
+
+import io.improbable.keanu.KeanuRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ResamplingStrategyTest {
+
+    private static final double[] WEIGHTS = new double[]{0.1, 0.0, 0.6, 0.3};
+
+    @Test
+    public void allStrategiesDrawInProportionToWeight() {
+        int numToSample = 100000;
+
+        for (ResamplingStrategy strategy : ResamplingStrategy.values()) {
+            int[] ancestors = strategy.sampleAncestors(WEIGHTS, numToSample, new KeanuRandom(1));
+
+            int[] counts = new int[WEIGHTS.length];
+            for (int ancestor : ancestors) {
+                counts[ancestor]++;
+            }
+
+            for (int i = 0; i < WEIGHTS.length; i++) {
+                assertEquals(strategy.name(), WEIGHTS[i], (double) counts[i] / numToSample, 0.01);
+            }
+        }
+    }
+
+    @Test
+    public void systematicAndResidualResamplingKeepExactCopiesOfWholeWeights() {
+        int[] expected = new int[]{0, 2, 2, 2, 2, 2, 2, 3, 3, 3};
+
+        assertArrayEquals(expected, ResamplingStrategy.SYSTEMATIC.sampleAncestors(WEIGHTS, 10, new KeanuRandom(1)));
+        assertArrayEquals(expected, ResamplingStrategy.RESIDUAL.sampleAncestors(WEIGHTS, 10, new KeanuRandom(1)));
+    }
+
+    @Test
+    public void normalisesLogWeightsWithoutUnderflow() {
+        double[] weights = ResamplingStrategy.normaliseLogWeights(new double[]{-2000, -2000 + Math.log(3)});
+
+        assertArrayEquals(new double[]{0.25, 0.75}, weights, 1e-12);
+        assertEquals(1.6, ResamplingStrategy.effectiveSampleSize(weights), 1e-12);
+    }
+
+    @Test
+    public void treatsAllImpossibleParticlesAsEquallyLikely() {
+        double[] weights = ResamplingStrategy.normaliseLogWeights(
+            new double[]{Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY}
+        );
+
+        assertArrayEquals(new double[]{0.5, 0.5}, weights, 0.0);
+    }
+}
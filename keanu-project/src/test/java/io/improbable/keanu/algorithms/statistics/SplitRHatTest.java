@@ -0,0 +1,47 @@
+package io.improbable.keanu.algorithms.statistics;
+
+import io.improbable.keanu.KeanuRandom;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class SplitRHatTest {
+
+    private final KeanuRandom random = new KeanuRandom(1);
+
+    private double[] gaussianChain(int length, double mu) {
+        double[] chain = new double[length];
+        for (int i = 0; i < length; i++) {
+            chain[i] = random.nextGaussian(mu, 1.0);
+        }
+        return chain;
+    }
+
+    @Test
+    public void isCloseToOneForChainsFromTheSameDistribution() {
+        double[][] chains = new double[][]{gaussianChain(1000, 0.0), gaussianChain(1000, 0.0), gaussianChain(1000, 0.0)};
+
+        assertEquals(1.0, SplitRHat.calculate(chains), 0.01);
+    }
+
+    @Test
+    public void isLargeForChainsFromDifferentDistributions() {
+        double[][] chains = new double[][]{gaussianChain(1000, 0.0), gaussianChain(1000, 3.0)};
+
+        assertThat(SplitRHat.calculate(chains), greaterThan(1.5));
+    }
+
+    @Test
+    public void detectsAChainThatIsStillDrifting() {
+        double[] drifting = new double[1000];
+        for (int i = 0; i < drifting.length; i++) {
+            drifting[i] = random.nextGaussian(i / 100.0, 1.0);
+        }
+
+        assertThat(SplitRHat.calculate(new double[][]{drifting}), greaterThan(1.5));
+        assertThat(SplitRHat.calculate(new double[][]{gaussianChain(1000, 0.0)}), lessThan(1.01));
+    }
+}
@@ -0,0 +1,75 @@
+package io.improbable.keanu.algorithms.variational.optimizer;
+
+import io.improbable.keanu.DeterministicRule;
+import io.improbable.keanu.Keanu;
+import io.improbable.keanu.KeanuRandom;
+import io.improbable.keanu.network.BayesianNetwork;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MultiStartOptimizerTest {
+
+    @Rule
+    public DeterministicRule deterministicRule = new DeterministicRule();
+
+    @Test
+    public void findsBothModesOfABimodalPosterior() {
+        GaussianVertex A = new GaussianVertex(0, 3);
+        GaussianVertex y = new GaussianVertex(A.times(A), 0.5);
+        y.observe(4.0);
+        BayesianNetwork network = new BayesianNetwork(A.getConnectedGraph());
+
+        MultiStartOptimizedResult result = MultiStartOptimizer.builder()
+            .numStarts(8)
+            .numThreads(4)
+            .random(new KeanuRandom(1))
+            .build()
+            .maxAPosteriori(network);
+
+        List<OptimizedResult> localOptima = result.getLocalOptima();
+        assertEquals(8, localOptima.size());
+
+        boolean foundPositiveMode = false;
+        boolean foundNegativeMode = false;
+        for (OptimizedResult optimum : localOptima) {
+            double a = optimum.getValueFor(A.getId()).scalar();
+            assertEquals(2.0, Math.abs(a), 0.05);
+            foundPositiveMode |= a > 0;
+            foundNegativeMode |= a < 0;
+            assertTrue(optimum.getFitness() <= result.getBest().getFitness());
+        }
+        assertTrue(foundPositiveMode);
+        assertTrue(foundNegativeMode);
+
+        assertEquals(result.getBest().getValueFor(A.getId()).scalar(), A.getValue().scalar(), 1e-10);
+        assertEquals(result.getBest().getFitness(), network.getLogOfMasterP(), 1e-10);
+    }
+
+    @Test
+    public void canFindTheMaxLikelihoodWithAnyOptimizer() {
+        GaussianVertex A = new GaussianVertex(new long[]{2}, 0, 1);
+        GaussianVertex B = new GaussianVertex(A, 1);
+        B.observe(DoubleTensor.create(3.0, -1.0));
+        BayesianNetwork network = new BayesianNetwork(A.getConnectedGraph());
+
+        MultiStartOptimizedResult result = MultiStartOptimizer.builder()
+            .numStarts(3)
+            .optimizer(Keanu.Optimizer.NonGradient::of)
+            .random(new KeanuRandom(1))
+            .build()
+            .maxLikelihood(network);
+
+        for (OptimizedResult optimum : result.getLocalOptima()) {
+            assertArrayEquals(new double[]{3.0, -1.0}, optimum.getValueFor(A.getId()).asFlatDoubleArray(), 1e-3);
+        }
+        assertArrayEquals(new double[]{3.0, -1.0}, A.getValue().asFlatDoubleArray(), 1e-3);
+    }
+}
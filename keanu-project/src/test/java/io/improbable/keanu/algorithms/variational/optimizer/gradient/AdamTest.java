@@ -8,6 +8,10 @@ import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.math3.exception.NotStrictlyPositiveException;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -94,6 +98,37 @@ public class AdamTest {
         assertFalse(adamOptimizer.getStatistics().didConverge());
     }
 
+    @Test
+    public void canAddLearningRateSchedule() {
+
+        GradientOptimizationAlgorithmTestCase testCase = new SingleGaussianTestCase(ProbabilityFitness.MAP, new long[0]);
+
+        List<Integer> iterations = new ArrayList<>();
+        Adam adamOptimizer = Adam.builder()
+            .alpha(0.1)
+            .maxEvaluations(5)
+            .learningRateSchedule((alpha, iteration) -> {
+                iterations.add(iteration);
+                return alpha;
+            })
+            .build();
+
+        adamOptimizer.optimize(
+            testCase.getVariables(),
+            testCase.getFitnessFunction(),
+            testCase.getFitnessFunctionGradient()
+        );
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), iterations);
+    }
+
+    @Test
+    public void learningRateSchedulesDecay() {
+        assertEquals(0.1, LearningRateSchedule.constant().getLearningRate(0.1, 100), 0.0);
+        assertEquals(0.05, LearningRateSchedule.exponentialDecay(0.5, 10).getLearningRate(0.1, 10), 1e-12);
+        assertEquals(0.05, LearningRateSchedule.inverseTimeDecay(0.1).getLearningRate(0.1, 10), 1e-12);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void throwsOnNegativeBeta1() {
         validateParameters(10, 0.1, -0.1, 0.1, 0.1);
@@ -48,6 +48,12 @@ public class GradientOptimizationAlgorithmTest {
             return ConjugateGradient.builder()
                 .updateFormula(ConjugateGradient.UpdateFormula.FLETCHER_REEVES)
                 .build();
+        }),
+
+        L_BFGS(() -> {
+
+            return LBFGS.builder()
+                .build();
         });
 
         private Supplier<GradientOptimizationAlgorithm> getOptimizer;
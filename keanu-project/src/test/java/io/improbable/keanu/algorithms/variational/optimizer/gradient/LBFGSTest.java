@@ -0,0 +1,106 @@
+package io.improbable.keanu.algorithms.variational.optimizer.gradient;
+
+import io.improbable.keanu.algorithms.variational.optimizer.OptimizedResult;
+import io.improbable.keanu.algorithms.variational.optimizer.ProbabilityFitness;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.testcase.GradientOptimizationAlgorithmTestCase;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.testcase.RosenbrockTestCase;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.testcase.SingleGaussianTestCase;
+import org.apache.commons.math3.exception.NotStrictlyPositiveException;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LBFGSTest {
+
+    @Test
+    public void canOptimizeSingleGaussianVectorNetwork() {
+
+        SingleGaussianTestCase testCase = new SingleGaussianTestCase(ProbabilityFitness.MAP, new long[]{1000});
+
+        LBFGS lbfgs = LBFGS.builder().build();
+
+        OptimizedResult result = lbfgs.optimize(
+            testCase.getVariables(),
+            testCase.getFitnessFunction(),
+            testCase.getFitnessFunctionGradient()
+        );
+
+        testCase.assertResult(result);
+        assertTrue(lbfgs.getStatistics().didConverge());
+        assertThat(lbfgs.getStatistics().getEvaluations(), lessThan(20));
+    }
+
+    @Test
+    public void needsFewEvaluationsForRosenbrock() {
+
+        GradientOptimizationAlgorithmTestCase testCase = new RosenbrockTestCase(1, 100);
+
+        LBFGS lbfgs = LBFGS.builder().build();
+
+        testCase.assertUsingOptimizer(lbfgs);
+        assertThat(lbfgs.getStatistics().getEvaluations(), lessThan(200));
+    }
+
+    @Test
+    public void canAddMaxEvaluations() {
+
+        GradientOptimizationAlgorithmTestCase testCase = new RosenbrockTestCase(1, 100);
+
+        LBFGS lbfgs = LBFGS.builder()
+            .maxEvaluations(5)
+            .build();
+
+        lbfgs.optimize(
+            testCase.getVariables(),
+            testCase.getFitnessFunction(),
+            testCase.getFitnessFunctionGradient()
+        );
+
+        assertEquals(5, lbfgs.getStatistics().getEvaluations());
+        assertFalse(lbfgs.getStatistics().didConverge());
+    }
+
+    @Test
+    public void skipsChangesWithoutPositiveCurvatureWhenTheHistoryIsFull() {
+
+        LBFGS.CorrectionHistory history = new LBFGS.CorrectionHistory(2, 2);
+        LBFGS.CorrectionHistory expected = new LBFGS.CorrectionHistory(2, 2);
+
+        for (LBFGS.CorrectionHistory h : new LBFGS.CorrectionHistory[]{history, expected}) {
+            assertTrue(h.add(new double[]{0, 0}, new double[]{1, 0}, new double[]{0, 0}, new double[]{2, 1}));
+            assertTrue(h.add(new double[]{1, 0}, new double[]{1, 1}, new double[]{2, 1}, new double[]{3, 4}));
+        }
+
+        assertFalse(history.add(new double[]{1, 1}, new double[]{2, 1}, new double[]{3, 4}, new double[]{0, 4}));
+        assertEquals(2, history.size());
+
+        double[] gradient = new double[]{1, -2};
+        double[] direction = new double[2];
+        double[] expectedDirection = new double[2];
+        history.searchDirection(gradient, direction);
+        expected.searchDirection(gradient, expectedDirection);
+
+        assertArrayEquals(expectedDirection, direction, 0.0);
+        assertThat(gradient[0] * direction[0] + gradient[1] * direction[1], lessThan(0.0));
+    }
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void throwsOnNonPositiveMaxEvaluations() {
+        LBFGS.builder().maxEvaluations(0);
+    }
+
+    @Test(expected = NotStrictlyPositiveException.class)
+    public void throwsOnNonPositiveMemorySize() {
+        LBFGS.builder().memorySize(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throwsOnCurvatureConstantSmallerThanSufficientDecreaseConstant() {
+        LBFGS.builder().wolfeConstants(0.5, 0.1);
+    }
+}
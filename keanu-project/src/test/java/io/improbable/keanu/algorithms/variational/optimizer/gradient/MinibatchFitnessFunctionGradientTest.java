@@ -0,0 +1,66 @@
+package io.improbable.keanu.algorithms.variational.optimizer.gradient;
+
+import com.google.common.collect.ImmutableMap;
+import io.improbable.keanu.algorithms.VariableReference;
+import io.improbable.keanu.algorithms.variational.optimizer.FitnessAndGradient;
+import io.improbable.keanu.algorithms.variational.optimizer.ProbabilityFitness;
+import io.improbable.keanu.network.KeanuProbabilisticModelWithGradient;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class MinibatchFitnessFunctionGradientTest {
+
+    private static final DoubleTensor MINIBATCH = DoubleTensor.create(1.0, 2.0);
+    private static final double SCALE = 50.0;
+
+    private GaussianVertex mu;
+    private GaussianVertex y;
+    private KeanuProbabilisticModelWithGradient model;
+    private Map<VariableReference, DoubleTensor> point;
+
+    @Before
+    public void setup() {
+        mu = new GaussianVertex(0, 2);
+        y = new GaussianVertex(new long[]{2}, mu, 1);
+        y.observe(MINIBATCH);
+        model = new KeanuProbabilisticModelWithGradient(y.getConnectedGraph());
+        point = ImmutableMap.of(mu.getId(), DoubleTensor.scalar(0.5));
+    }
+
+    private MinibatchFitnessFunctionGradient fitnessFunction(ProbabilityFitness probabilityFitness) {
+        return new MinibatchFitnessFunctionGradient(model, probabilityFitness, () -> {
+            y.observe(MINIBATCH);
+            return SCALE;
+        });
+    }
+
+    @Test
+    public void scalesTheLikelihoodOfTheMinibatchForMAP() {
+        FitnessAndGradient result = fitnessFunction(ProbabilityFitness.MAP).getFitnessAndGradientsAt(point);
+
+        double expectedFitness = mu.logProb(DoubleTensor.scalar(0.5)) + SCALE * y.logProb(MINIBATCH);
+        double expectedGradient = -0.5 / 4 + SCALE * ((1.0 - 0.5) + (2.0 - 0.5));
+
+        assertEquals(expectedFitness, result.getFitness(), 1e-10);
+        assertEquals(expectedGradient, result.getGradients().get(mu.getId()).scalar(), 1e-10);
+        assertEquals(expectedFitness, fitnessFunction(ProbabilityFitness.MAP).getFitnessAt(point), 1e-10);
+    }
+
+    @Test
+    public void scalesTheLikelihoodOfTheMinibatchForMLE() {
+        FitnessAndGradient result = fitnessFunction(ProbabilityFitness.MLE).getFitnessAndGradientsAt(point);
+
+        double expectedFitness = SCALE * y.logProb(MINIBATCH);
+        double expectedGradient = SCALE * ((1.0 - 0.5) + (2.0 - 0.5));
+
+        assertEquals(expectedFitness, result.getFitness(), 1e-10);
+        assertEquals(expectedGradient, result.getGradients().get(mu.getId()).scalar(), 1e-10);
+        assertEquals(expectedFitness, fitnessFunction(ProbabilityFitness.MLE).getFitnessAt(point), 1e-10);
+    }
+}
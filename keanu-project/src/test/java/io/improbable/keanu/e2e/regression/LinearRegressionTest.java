@@ -2,18 +2,24 @@ package io.improbable.keanu.e2e.regression;
 
 import io.improbable.keanu.DeterministicRule;
 import io.improbable.keanu.Keanu;
+import io.improbable.keanu.KeanuRandom;
 import io.improbable.keanu.algorithms.NetworkSamples;
 import io.improbable.keanu.algorithms.mcmc.MetropolisHastings;
 import io.improbable.keanu.algorithms.mcmc.RollbackAndCascadeOnRejection;
 import io.improbable.keanu.algorithms.mcmc.proposal.GaussianProposalDistribution;
 import io.improbable.keanu.algorithms.mcmc.proposal.MHStepVariableSelector;
 import io.improbable.keanu.algorithms.mcmc.proposal.ProposalDistribution;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.Adam;
 import io.improbable.keanu.algorithms.variational.optimizer.gradient.GradientOptimizer;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.LearningRateSchedule;
 import io.improbable.keanu.model.SamplingModelFitting;
 import io.improbable.keanu.model.regression.RegressionModel;
+import io.improbable.keanu.model.regression.RegressionRegularization;
+import io.improbable.keanu.model.regression.TrainingBatch;
 import io.improbable.keanu.network.BayesianNetwork;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.testcategory.Slow;
+import io.improbable.keanu.util.csv.ReadCsv;
 import io.improbable.keanu.vertices.ConstantVertex;
 import io.improbable.keanu.vertices.dbl.DoubleVertex;
 import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
@@ -21,8 +27,16 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
 import static io.improbable.keanu.e2e.regression.LinearRegressionTestUtils.assertSampledWeightsAndInterceptMatchTestData;
 import static io.improbable.keanu.e2e.regression.LinearRegressionTestUtils.assertWeightsAndInterceptMatchTestData;
+import static io.improbable.keanu.tensor.TensorMatchers.allCloseTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 
 public class LinearRegressionTest {
 
@@ -140,6 +154,55 @@ public class LinearRegressionTest {
         );
     }
 
+    @Test
+    public void modelFindsParamsForTwoWeightsWithMinibatches() {
+        LinearRegressionTestUtils.TestData data = LinearRegressionTestUtils.generateTwoFeatureData();
+
+        Adam optimizer = Adam.builder()
+            .alpha(0.5)
+            .learningRateSchedule(LearningRateSchedule.inverseTimeDecay(0.01))
+            .maxEvaluations(3000)
+            .build();
+
+        RegressionModel linearRegressionModel = RegressionModel.withTrainingData(data.xTrain, data.yTrain)
+            .withMinibatches(500, optimizer)
+            .build();
+
+        assertWeightsAndInterceptMatchTestData(
+            linearRegressionModel.getWeightVertex(),
+            linearRegressionModel.getInterceptVertex(),
+            data
+        );
+    }
+
+    @Test
+    public void minibatchesCanBeSeededToReproduceAFit() {
+        LinearRegressionTestUtils.TestData data = LinearRegressionTestUtils.generateTwoFeatureData();
+
+        RegressionModel first = fitWithSeededMinibatches(data, 1);
+        RegressionModel second = fitWithSeededMinibatches(data, 1);
+
+        assertThat(second.getWeightVertex().getValue(), allCloseTo(1e-12, first.getWeightVertex().getValue()));
+        assertThat(second.getInterceptVertex().getValue(), allCloseTo(1e-12, first.getInterceptVertex().getValue()));
+    }
+
+    private static RegressionModel fitWithSeededMinibatches(LinearRegressionTestUtils.TestData data, long seed) {
+        Adam optimizer = Adam.builder()
+            .alpha(0.5)
+            .learningRateSchedule(LearningRateSchedule.inverseTimeDecay(0.01))
+            .maxEvaluations(200)
+            .build();
+
+        RegressionModel model = RegressionModel.withTrainingData(data.xTrain, data.yTrain)
+            .withMinibatches(100, optimizer, new KeanuRandom(seed))
+            .buildWithoutFitting();
+
+        model.getWeightVertex().setAndCascade(DoubleTensor.zeros(model.getWeightVertex().getShape()));
+        model.getInterceptVertex().setAndCascade(DoubleTensor.zeros(model.getInterceptVertex().getShape()));
+        model.fit();
+        return model;
+    }
+
     @Category(Slow.class)
     @Test
     public void youCanChooseSamplingInsteadOfGradientOptimization() {
@@ -173,4 +236,60 @@ public class LinearRegressionTest {
             networkSamples.getDoubleTensorSamples(linearRegressionModel.getInterceptVertex().getId()),
             data);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void modelCanBeFittedToStreamedCsvLines() {
+        LinearRegressionTestUtils.TestData data = LinearRegressionTestUtils.generateTwoFeatureData();
+
+        RegressionModel inMemoryModel = RegressionModel.withTrainingData(data.xTrain, data.yTrain)
+            .withRegularization(RegressionRegularization.RIDGE)
+            .withPriorOnWeightsAndIntercept(0, 2)
+            .build();
+
+        StringBuilder csv = new StringBuilder("x1,y,x2\n");
+        for (int row = 0; row < data.yTrain.getLength(); row++) {
+            csv.append(data.xTrain.getValue(row, 0)).append(',')
+                .append(data.yTrain.getValue(row, 0)).append(',')
+                .append(data.xTrain.getValue(row, 1)).append('\n');
+        }
+
+        RegressionModel streamedModel;
+        try (Stream<List<String>> lines = ReadCsv.fromString(csv.toString()).streamLines()) {
+            streamedModel = RegressionModel.withStreamingTrainingData(2, TrainingBatch.fromCsvLines(lines, 1, 77))
+                .withRegularization(RegressionRegularization.RIDGE)
+                .withPriorOnWeightsAndIntercept(0, 2)
+                .build();
+        }
+
+        assertThat(streamedModel.getWeightVertex().getValue(), allCloseTo(1e-6, inMemoryModel.getWeightVertex().getValue()));
+        assertThat(streamedModel.getInterceptVertex().getValue().scalar(), closeTo(inMemoryModel.getInterceptVertex().getValue().scalar(), 1e-6));
+
+        DoubleTensor input = DoubleTensor.create(new double[]{1.0, 60.0, 2.0, 70.0}, 2, 2);
+        assertThat((DoubleTensor) streamedModel.predict(input), allCloseTo(1e-6, (DoubleTensor) inMemoryModel.predict(input)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void streamedCsvLinesMustHaveTheOutputColumn() {
+        try (Stream<List<String>> lines = ReadCsv.fromString("x1,x2,y\n1.0,2.0,3.0\n").streamLines()) {
+            TrainingBatch.fromCsvLines(lines, 3, 10).next();
+        }
+    }
+
+    @Test
+    public void streamedModelFindsParamsForTwoWeights() {
+        LinearRegressionTestUtils.TestData data = LinearRegressionTestUtils.generateTwoFeatureData();
+
+        Iterator<TrainingBatch> batches = Arrays.asList(
+            new TrainingBatch(data.xTrain.slice(0, 0).reshape(1, 2), data.yTrain.slice(0, 0).reshape(1, 1)),
+            new TrainingBatch(data.xTrain, data.yTrain)
+        ).iterator();
+
+        RegressionModel linearRegressionModel = RegressionModel.withStreamingTrainingData(2, batches).build();
+
+        assertWeightsAndInterceptMatchTestData(
+            linearRegressionModel.getWeightVertex(),
+            linearRegressionModel.getInterceptVertex(),
+            data
+        );
+    }
+}
@@ -1,12 +1,14 @@
 package io.improbable.keanu.e2e.regression;
 
 import io.improbable.keanu.DeterministicRule;
+import io.improbable.keanu.Keanu;
 import io.improbable.keanu.algorithms.NetworkSamples;
 import io.improbable.keanu.algorithms.mcmc.MetropolisHastings;
 import io.improbable.keanu.algorithms.mcmc.RollbackAndCascadeOnRejection;
 import io.improbable.keanu.algorithms.mcmc.proposal.GaussianProposalDistribution;
 import io.improbable.keanu.algorithms.mcmc.proposal.MHStepVariableSelector;
 import io.improbable.keanu.algorithms.mcmc.proposal.ProposalDistribution;
+import io.improbable.keanu.algorithms.variational.optimizer.gradient.LBFGS;
 import io.improbable.keanu.model.SamplingModelFitting;
 import io.improbable.keanu.model.regression.RegressionModel;
 import io.improbable.keanu.model.regression.RegressionRegularization;
@@ -18,7 +20,9 @@ import org.junit.experimental.categories.Category;
 
 import static io.improbable.keanu.e2e.regression.LinearRegressionTestUtils.assertSampledWeightsAndInterceptMatchTestData;
 import static io.improbable.keanu.e2e.regression.LinearRegressionTestUtils.assertWeightsAndInterceptMatchTestData;
+import static io.improbable.keanu.tensor.TensorMatchers.allCloseTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.lessThan;
 
 public class LinearRidgeRegressionTest {
@@ -127,4 +131,26 @@ public class LinearRidgeRegressionTest {
             networkSamples.getDoubleTensorSamples(linearRegressionModel.getInterceptVertex().getId()),
             data);
     }
+
+    @Test
+    public void solvesForTheExactMAPWithGaussianPriors() {
+        LinearRegressionTestUtils.TestData data = LinearRegressionTestUtils.generateTwoFeatureData(50);
+
+        RegressionModel linearRegressionModel = RegressionModel.withTrainingData(data.xTrain, data.yTrain)
+            .withRegularization(RegressionRegularization.RIDGE)
+            .withPriorOnWeights(DoubleTensor.create(new double[]{1.0, -1.0}, 2, 1), DoubleTensor.create(new double[]{0.1, 0.2}, 2, 1))
+            .withPriorOnIntercept(0, 5)
+            .build();
+
+        DoubleTensor solvedWeights = linearRegressionModel.getWeightVertex().getValue();
+        double solvedIntercept = linearRegressionModel.getInterceptVertex().getValue().scalar();
+
+        Keanu.Optimizer.Gradient.builderFor(linearRegressionModel.getWeightVertex().getConnectedGraph())
+            .algorithm(LBFGS.builder().build())
+            .build()
+            .maxAPosteriori();
+
+        assertThat(linearRegressionModel.getWeightVertex().getValue(), allCloseTo(1e-4, solvedWeights));
+        assertThat(linearRegressionModel.getInterceptVertex().getValue().scalar(), closeTo(solvedIntercept, 1e-4));
+    }
 }
@@ -1,11 +1,14 @@
 package io.improbable.keanu.network;
 
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.vertices.NonSaveableVertex;
 import io.improbable.keanu.vertices.Vertex;
 import io.improbable.keanu.vertices.VertexLabel;
 import io.improbable.keanu.vertices.bool.BooleanVertex;
 import io.improbable.keanu.vertices.bool.probabilistic.BernoulliVertex;
 import io.improbable.keanu.vertices.dbl.DoubleVertex;
+import io.improbable.keanu.vertices.dbl.nonprobabilistic.ConstantDoubleVertex;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -119,6 +122,59 @@ public class BayesianNetworkTest {
         net.save(netSaver);
     }
 
+    @Test
+    public void copyHasTheSameStructureLabelsObservationsAndValues() {
+        DoubleVertex a = new GaussianVertex(0.0, 1.0).setLabel(LABEL_A);
+        DoubleVertex b = new GaussianVertex(a.times(2.0), 1.0).setLabel(LABEL_B);
+        b.observe(3.0);
+        a.setAndCascade(0.5);
+        BayesianNetwork original = new BayesianNetwork(b.getConnectedGraph());
+
+        BayesianNetwork copy = original.copy();
+        DoubleVertex aCopy = (DoubleVertex) copy.getVertexByLabel(new VertexLabel(LABEL_A));
+        DoubleVertex bCopy = (DoubleVertex) copy.getVertexByLabel(new VertexLabel(LABEL_B));
+
+        assertThat(copy.getVertexCount(), equalTo(original.getVertexCount()));
+        assertThat(aCopy == a, is(false));
+        assertThat(aCopy.getValue().scalar(), equalTo(0.5));
+        assertThat(bCopy.isObserved(), is(true));
+        assertThat(bCopy.getValue().scalar(), equalTo(3.0));
+        assertThat(copy.getLogOfMasterP(), equalTo(original.getLogOfMasterP()));
+        assertThat(copy.getLatentVertices(), contains(aCopy));
+    }
+
+    @Test
+    public void copyIsIndependentOfTheOriginal() {
+        DoubleVertex a = new GaussianVertex(0.0, 1.0).setLabel(LABEL_A);
+        DoubleVertex b = a.times(2.0).setLabel(LABEL_B);
+        a.setAndCascade(0.5);
+        BayesianNetwork original = new BayesianNetwork(b.getConnectedGraph());
+
+        BayesianNetwork copy = original.copy();
+        copy.getVertexByLabel(new VertexLabel(LABEL_A)).setAndCascade(DoubleTensor.scalar(4.0));
+
+        assertThat(b.getValue().scalar(), equalTo(1.0));
+        assertThat(((DoubleVertex) copy.getVertexByLabel(new VertexLabel(LABEL_B))).getValue().scalar(), equalTo(8.0));
+        assertThat(a.getChildren(), contains(b));
+    }
+
+    @Test
+    public void copySharesConstants() {
+        DoubleTensor constant = DoubleTensor.create(1.0, 2.0, 3.0);
+        DoubleVertex a = new GaussianVertex(new ConstantDoubleVertex(constant), 1.0).setLabel(LABEL_A);
+
+        BayesianNetwork copy = new BayesianNetwork(a.getConnectedGraph()).copy();
+        GaussianVertex aCopy = (GaussianVertex) copy.getVertexByLabel(new VertexLabel(LABEL_A));
+
+        assertThat(aCopy.getMu().getValue() == constant, is(true));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void cantCopyNetworkWithNonSaveableVertices() {
+        DoubleVertex testVertex = new TestNonSaveableVertex();
+        new BayesianNetwork(testVertex.getConnectedGraph()).copy();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void cantInstantiateEmptyBayesianNetwork() {
         BayesianNetwork net = new BayesianNetwork(new HashSet<>());
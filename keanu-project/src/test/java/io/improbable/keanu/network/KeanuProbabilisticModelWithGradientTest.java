@@ -1,5 +1,7 @@
 package io.improbable.keanu.network;
 
+import com.google.common.collect.ImmutableMap;
+import io.improbable.keanu.algorithms.LogProbAndGradients;
 import io.improbable.keanu.algorithms.VariableReference;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.vertices.VertexId;
@@ -59,6 +61,34 @@ public class KeanuProbabilisticModelWithGradientTest {
         canCalculateLogProbGradient(logProbGradientCalculator, logProbGradients);
     }
 
+    @Test
+    public void canCalculateLogProbAndGradientsTogether() {
+
+        Map<VariableReference, DoubleTensor> inputs = ImmutableMap.of(
+            A.getId(), DoubleTensor.scalar(0.75),
+            B.getId(), DoubleTensor.scalar(-0.5)
+        );
+
+        LogProbAndGradients logProbAndGradients = model.logProbAndGradients(inputs);
+
+        assertEquals(model.logProb(inputs), logProbAndGradients.getLogProb(), 1e-10);
+        assertEquals(model.logProbGradients(inputs), logProbAndGradients.getGradients());
+    }
+
+    @Test
+    public void canCalculateLogLikelihoodAndGradientsTogether() {
+
+        Map<VariableReference, DoubleTensor> inputs = ImmutableMap.of(
+            A.getId(), DoubleTensor.scalar(0.75),
+            B.getId(), DoubleTensor.scalar(-0.5)
+        );
+
+        LogProbAndGradients logLikelihoodAndGradients = model.logLikelihoodAndGradients(inputs);
+
+        assertEquals(model.logLikelihood(inputs), logLikelihoodAndGradients.getLogProb(), 1e-10);
+        assertEquals(model.logLikelihoodGradients(inputs), logLikelihoodAndGradients.getGradients());
+    }
+
     public void canCalculateLogProbGradient(LogProbGradientCalculator gradientCalculator,
                                             Map<? extends VariableReference, DoubleTensor> actualGradients) {
 
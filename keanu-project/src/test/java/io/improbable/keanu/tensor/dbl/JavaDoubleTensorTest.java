@@ -0,0 +1,236 @@
+package io.improbable.keanu.tensor.dbl;
+
+import io.improbable.keanu.tensor.bool.BooleanTensor;
+import io.improbable.keanu.tensor.intgr.IntegerTensor;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that a {@link JavaDoubleTensor} behaves the same as a {@link Nd4jDoubleTensor}.
+ */
+public class JavaDoubleTensorTest {
+
+    private static final double[] MATRIX_VALUES = new double[]{1, -2.5, 3, 4, 0.5, -6};
+    private static final long[] MATRIX_SHAPE = new long[]{2, 3};
+
+    private static final double[] RANK_THREE_VALUES = new double[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+    private static final long[] RANK_THREE_SHAPE = new long[]{2, 3, 2};
+
+    private static void assertMatchesNd4j(Function<DoubleTensor, DoubleTensor> op, double[] values, long[] shape) {
+        DoubleTensor expected = op.apply(Nd4jDoubleTensor.create(values, shape));
+        DoubleTensor actual = op.apply(JavaDoubleTensor.create(values, shape));
+
+        assertTrue(actual instanceof JavaDoubleTensor);
+        assertArrayEquals(expected.getShape(), actual.getShape());
+        assertArrayEquals(expected.asFlatDoubleArray(), actual.asFlatDoubleArray(), 1e-10);
+    }
+
+    private static void assertMatchesNd4j(BiFunction<DoubleTensor, DoubleTensor, DoubleTensor> op,
+                                          double[] leftValues, long[] leftShape,
+                                          double[] rightValues, long[] rightShape) {
+        DoubleTensor expected = op.apply(
+            Nd4jDoubleTensor.create(leftValues, leftShape),
+            Nd4jDoubleTensor.create(rightValues, rightShape)
+        );
+        DoubleTensor actual = op.apply(
+            JavaDoubleTensor.create(leftValues, leftShape),
+            JavaDoubleTensor.create(rightValues, rightShape)
+        );
+
+        assertArrayEquals(expected.getShape(), actual.getShape());
+        assertArrayEquals(expected.asFlatDoubleArray(), actual.asFlatDoubleArray(), 1e-10);
+    }
+
+    @Test
+    public void isNotPreferredForAnyShapeWhenDisabled() {
+        assumeTrue(JavaDoubleTensor.MAX_LENGTH == 0);
+
+        assertFalse(JavaDoubleTensor.isPreferredFor(new long[]{0}));
+        assertFalse(JavaDoubleTensor.isPreferredFor(new long[]{2, 0}));
+    }
+
+    @Test
+    public void doesElementwiseOperationsLikeNd4j() {
+        assertMatchesNd4j(DoubleTensor::abs, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(DoubleTensor::exp, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(DoubleTensor::sigmoid, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(DoubleTensor::round, new double[]{-2.5, -1.5, -0.5, 0.5, 1.5, 2.5}, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.abs().log(), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.abs().logGamma(), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.pow(2.0).sqrt(), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.times(2.0).plus(1.0).div(3.0).minus(4.0), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(DoubleTensor::standardize, MATRIX_VALUES, MATRIX_SHAPE);
+    }
+
+    @Test
+    public void doesBroadcastLikeNd4j() {
+        double[] row = new double[]{1, 2, 3};
+        double[] column = new double[]{10, 20};
+
+        assertMatchesNd4j(DoubleTensor::plus, MATRIX_VALUES, MATRIX_SHAPE, row, new long[]{3});
+        assertMatchesNd4j(DoubleTensor::times, MATRIX_VALUES, MATRIX_SHAPE, row, new long[]{1, 3});
+        assertMatchesNd4j(DoubleTensor::minus, MATRIX_VALUES, MATRIX_SHAPE, column, new long[]{2, 1});
+        assertMatchesNd4j(DoubleTensor::div, column, new long[]{2, 1}, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(DoubleTensor::times, MATRIX_VALUES, MATRIX_SHAPE, new double[]{2}, new long[]{1, 1, 1});
+        assertMatchesNd4j(DoubleTensor::plus, RANK_THREE_VALUES, RANK_THREE_SHAPE, new double[]{1, 2}, new long[]{2});
+    }
+
+    @Test
+    public void doesSummationLikeNd4j() {
+        assertMatchesNd4j(t -> t.sum(0), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(t -> t.sum(1), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(t -> t.sum(0, 2), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(t -> t.sum(-1), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+
+        assertEquals(78.0, JavaDoubleTensor.create(RANK_THREE_VALUES, RANK_THREE_SHAPE).sum(), 1e-10);
+    }
+
+    @Test
+    public void doesReshapingLikeNd4j() {
+        assertMatchesNd4j(DoubleTensor::transpose, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.permute(2, 0, 1), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(t -> t.slice(1, 2), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(t -> t.slice(0, 1), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(DoubleTensor::diag, new double[]{1, 2, 3, 4}, new long[]{2, 2});
+        assertMatchesNd4j(DoubleTensor::diag, new double[]{1, 2, 3}, new long[]{3});
+    }
+
+    @Test
+    public void doesSplitAndConcatLikeNd4j() {
+        DoubleTensor tensor = JavaDoubleTensor.create(RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        DoubleTensor nd4jTensor = Nd4jDoubleTensor.create(RANK_THREE_VALUES, RANK_THREE_SHAPE);
+
+        List<DoubleTensor> splits = tensor.split(1, 1, 3);
+        List<DoubleTensor> nd4jSplits = nd4jTensor.split(1, 1, 3);
+
+        for (int i = 0; i < splits.size(); i++) {
+            assertArrayEquals(nd4jSplits.get(i).getShape(), splits.get(i).getShape());
+            assertArrayEquals(nd4jSplits.get(i).asFlatDoubleArray(), splits.get(i).asFlatDoubleArray(), 0.0);
+        }
+
+        DoubleTensor concatenated = JavaDoubleTensor.concat(1, splits.get(1), splits.get(0));
+        DoubleTensor nd4jConcatenated = DoubleTensor.concat(1, nd4jSplits.get(1), nd4jSplits.get(0));
+
+        assertArrayEquals(nd4jConcatenated.getShape(), concatenated.getShape());
+        assertArrayEquals(nd4jConcatenated.asFlatDoubleArray(), concatenated.asFlatDoubleArray(), 0.0);
+    }
+
+    @Test
+    public void doesLinearAlgebraLikeNd4j() {
+        double[] square = new double[]{4, 1, 0.5, 1, 3, 0.2, 0.5, 0.2, 2};
+        long[] squareShape = new long[]{3, 3};
+
+        assertMatchesNd4j(DoubleTensor::matrixInverse, square, squareShape);
+        assertMatchesNd4j(DoubleTensor::choleskyDecomposition, square, squareShape);
+        assertMatchesNd4j(DoubleTensor::matrixMultiply, MATRIX_VALUES, MATRIX_SHAPE, square, squareShape);
+        assertMatchesNd4j(
+            (a, b) -> a.tensorMultiply(b, new int[]{1}, new int[]{0}),
+            RANK_THREE_VALUES, RANK_THREE_SHAPE, square, squareShape
+        );
+        assertMatchesNd4j(
+            (a, b) -> a.tensorMultiply(b, new int[]{0, 2}, new int[]{1, 0}),
+            RANK_THREE_VALUES, RANK_THREE_SHAPE, RANK_THREE_VALUES, new long[]{2, 2, 3}
+        );
+
+        assertEquals(
+            Nd4jDoubleTensor.create(square, squareShape).determinant(),
+            JavaDoubleTensor.create(square, squareShape).determinant(),
+            1e-10
+        );
+    }
+
+    @Test
+    public void doesReductionsLikeNd4j() {
+        DoubleTensor tensor = JavaDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+        DoubleTensor nd4jTensor = Nd4jDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+
+        assertEquals(nd4jTensor.max(), tensor.max(), 0.0);
+        assertEquals(nd4jTensor.min(), tensor.min(), 0.0);
+        assertEquals(nd4jTensor.argMax(), tensor.argMax());
+        assertEquals(nd4jTensor.argMax(0), tensor.argMax(0));
+        assertEquals(nd4jTensor.argMax(1), tensor.argMax(1));
+        assertEquals(nd4jTensor.average(), tensor.average(), 1e-10);
+        assertEquals(nd4jTensor.standardDeviation(), tensor.standardDeviation(), 1e-10);
+        assertEquals(nd4jTensor.product(), tensor.product(), 1e-10);
+    }
+
+    @Test
+    public void doesMasksAndComparisonsLikeNd4j() {
+        double[] threshold = new double[]{0, 1, 2, 3, 4, 5};
+        long[] thresholdShape = MATRIX_SHAPE;
+
+        assertMatchesNd4j(DoubleTensor::getGreaterThanMask, MATRIX_VALUES, MATRIX_SHAPE, threshold, thresholdShape);
+        assertMatchesNd4j(DoubleTensor::getLessThanOrEqualToMask, MATRIX_VALUES, MATRIX_SHAPE, threshold, thresholdShape);
+        assertMatchesNd4j(
+            (t, mask) -> t.setWithMask(mask, -1.0),
+            MATRIX_VALUES, MATRIX_SHAPE, new double[]{1, 0, 1, 0, 0, 1}, MATRIX_SHAPE
+        );
+
+        DoubleTensor tensor = JavaDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+        BooleanTensor greaterThanZero = tensor.greaterThan(0.0);
+
+        assertEquals(Nd4jDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE).greaterThan(0.0), greaterThanZero);
+        assertArrayEquals(MATRIX_SHAPE, greaterThanZero.getShape());
+    }
+
+    @Test
+    public void canBeMixedWithNd4jTensors() {
+        DoubleTensor javaTensor = JavaDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+        DoubleTensor nd4jTensor = Nd4jDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+
+        assertEquals(nd4jTensor.times(2.0), javaTensor.plus(nd4jTensor));
+        assertEquals(nd4jTensor.times(2.0), nd4jTensor.plus(javaTensor));
+        assertEquals(nd4jTensor, javaTensor);
+        assertEquals(javaTensor, nd4jTensor);
+        assertTrue(javaTensor.equalsWithinEpsilon(nd4jTensor, 1e-10));
+    }
+
+    @Test
+    public void canConvertToInteger() {
+        IntegerTensor integers = JavaDoubleTensor.create(new double[]{1.2, 2.7, -3.5}, new long[]{3}).toInteger();
+        assertArrayEquals(new int[]{1, 2, -3}, integers.asFlatIntegerArray());
+    }
+
+    @Test
+    public void inPlaceOperationsTakeTheBroadcastShape() {
+        DoubleTensor column = JavaDoubleTensor.create(new double[]{1, 2}, new long[]{2, 1});
+        DoubleTensor result = column.plusInPlace(JavaDoubleTensor.create(new double[]{10, 20, 30}, new long[]{3}));
+
+        assertTrue(result == column);
+        assertArrayEquals(new long[]{2, 3}, column.getShape());
+        assertArrayEquals(new double[]{11, 21, 31, 12, 22, 32}, column.asFlatDoubleArray(), 0.0);
+    }
+
+    @Test
+    public void copiesIntoPartOfAnArrayLikeNd4j() {
+        double[] fromJava = new double[MATRIX_VALUES.length + 2];
+        double[] fromNd4j = new double[MATRIX_VALUES.length + 2];
+
+        JavaDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE).copyTo(fromJava, 1);
+        Nd4jDoubleTensor.create(MATRIX_VALUES, MATRIX_SHAPE).copyTo(fromNd4j, 1);
+
+        assertArrayEquals(fromNd4j, fromJava, 0.0);
+        assertArrayEquals(new double[]{0, 1, -2.5, 3, 4, 0.5, -6, 0}, fromJava, 0.0);
+    }
+
+    @Test
+    public void canBeCreatedFromPartOfAnArray() {
+        double[] values = new double[]{9, 1, -2.5, 3, 4, 0.5, -6, 9};
+
+        DoubleTensor tensor = DoubleTensor.fromSlice(values, 1, MATRIX_SHAPE);
+        values[1] = 100;
+
+        assertArrayEquals(MATRIX_SHAPE, tensor.getShape());
+        assertArrayEquals(MATRIX_VALUES, tensor.asFlatDoubleArray(), 0.0);
+        assertEquals(DoubleTensor.scalar(9), DoubleTensor.fromSlice(values, 7, new long[0]));
+    }
+}
@@ -1010,4 +1010,34 @@ public class Nd4jDoubleTensorTest {
         assertEquals(DoubleTensor.create(2, 3, 4, 5, 6), concat);
     }
 
+    @Test
+    public void canBeCreatedFromPartOfAnArray() {
+        double[] values = new double[]{9, 1, 2, 3, 4, 9};
+
+        Nd4jDoubleTensor matrix = Nd4jDoubleTensor.fromSlice(values, 1, new long[]{2, 2});
+        Nd4jDoubleTensor vector = Nd4jDoubleTensor.fromSlice(values, 2, new long[]{3});
+        values[2] = 100;
+
+        assertThat(matrix, valuesAndShapesMatch(matrixA));
+        assertThat(vector, valuesAndShapesMatch(vectorA.plus(1)));
+    }
+
+    @Test
+    public void copiesIntoPartOfAnArray() {
+        double[] destination = new double[6];
+
+        matrixA.copyTo(destination, 1);
+
+        assertArrayEquals(new double[]{0, 1, 2, 3, 4, 0}, destination, 0.0);
+    }
+
+    @Test
+    public void copiesViewsIntoPartOfAnArrayInRowMajorOrder() {
+        double[] destination = new double[6];
+
+        matrixA.transpose().copyTo(destination, 1);
+
+        assertArrayEquals(new double[]{0, 1, 3, 2, 4, 0}, destination, 0.0);
+    }
+
 }
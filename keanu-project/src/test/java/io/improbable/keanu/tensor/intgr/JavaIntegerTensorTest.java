@@ -0,0 +1,146 @@
+package io.improbable.keanu.tensor.intgr;
+
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import org.junit.Test;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a {@link JavaIntegerTensor} behaves the same as a {@link Nd4jIntegerTensor}.
+ */
+public class JavaIntegerTensorTest {
+
+    private static final int[] MATRIX_VALUES = new int[]{1, -5, 3, 4, 7, -6};
+    private static final long[] MATRIX_SHAPE = new long[]{2, 3};
+
+    private static final int[] RANK_THREE_VALUES = new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+    private static final long[] RANK_THREE_SHAPE = new long[]{2, 3, 2};
+
+    private static void assertMatchesNd4j(Function<IntegerTensor, IntegerTensor> op, int[] values, long[] shape) {
+        IntegerTensor expected = op.apply(Nd4jIntegerTensor.create(values, shape));
+        IntegerTensor actual = op.apply(JavaIntegerTensor.create(values, shape));
+
+        assertArrayEquals(expected.getShape(), actual.getShape());
+        assertArrayEquals(expected.asFlatIntegerArray(), actual.asFlatIntegerArray());
+    }
+
+    private static void assertMatchesNd4j(BiFunction<IntegerTensor, IntegerTensor, IntegerTensor> op,
+                                          int[] leftValues, long[] leftShape,
+                                          int[] rightValues, long[] rightShape) {
+        IntegerTensor expected = op.apply(
+            Nd4jIntegerTensor.create(leftValues, leftShape),
+            Nd4jIntegerTensor.create(rightValues, rightShape)
+        );
+        IntegerTensor actual = op.apply(
+            JavaIntegerTensor.create(leftValues, leftShape),
+            JavaIntegerTensor.create(rightValues, rightShape)
+        );
+
+        assertArrayEquals(expected.getShape(), actual.getShape());
+        assertArrayEquals(expected.asFlatIntegerArray(), actual.asFlatIntegerArray());
+    }
+
+    @Test
+    public void isCreatedByDefault() {
+        assertTrue(IntegerTensor.create(new int[]{1, 2, 3}, 3) instanceof JavaIntegerTensor);
+        assertTrue(IntegerTensor.zeros(2, 2) instanceof JavaIntegerTensor);
+        assertTrue(DoubleTensor.create(1.5, 2.5).toInteger() instanceof JavaIntegerTensor);
+    }
+
+    @Test
+    public void doesElementwiseOperationsLikeNd4j() {
+        assertMatchesNd4j(IntegerTensor::abs, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(IntegerTensor::unaryMinus, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.div(2), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.pow(2), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.times(3).plus(1).minus(4), MATRIX_VALUES, MATRIX_SHAPE);
+    }
+
+    @Test
+    public void doesBroadcastLikeNd4j() {
+        int[] row = new int[]{1, 2, 3};
+        int[] column = new int[]{10, 20};
+
+        assertMatchesNd4j(IntegerTensor::plus, MATRIX_VALUES, MATRIX_SHAPE, row, new long[]{3});
+        assertMatchesNd4j(IntegerTensor::times, MATRIX_VALUES, MATRIX_SHAPE, row, new long[]{1, 3});
+        assertMatchesNd4j(IntegerTensor::minus, MATRIX_VALUES, MATRIX_SHAPE, column, new long[]{2, 1});
+        assertMatchesNd4j(IntegerTensor::div, MATRIX_VALUES, MATRIX_SHAPE, new int[]{2, -2, 3, 3, 4, 4}, MATRIX_SHAPE);
+        assertMatchesNd4j(IntegerTensor::maxInPlace, MATRIX_VALUES, MATRIX_SHAPE, new int[]{2, 2, 2, 2, 2, 2}, MATRIX_SHAPE);
+    }
+
+    @Test
+    public void doesSummationAndReshapingLikeNd4j() {
+        assertMatchesNd4j(t -> t.sum(0), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(t -> t.sum(1, 2), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(IntegerTensor::transpose, MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(t -> t.slice(1, 2), RANK_THREE_VALUES, RANK_THREE_SHAPE);
+        assertMatchesNd4j(t -> t.reshape(3, -1), MATRIX_VALUES, MATRIX_SHAPE);
+        assertMatchesNd4j(IntegerTensor::diag, new int[]{1, 2, 3}, new long[]{3});
+
+        assertEquals(78, (int) JavaIntegerTensor.create(RANK_THREE_VALUES, RANK_THREE_SHAPE).sum());
+    }
+
+    @Test
+    public void doesMatrixMultiplyLikeNd4j() {
+        int[] square = new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9};
+        long[] squareShape = new long[]{3, 3};
+
+        assertMatchesNd4j(IntegerTensor::matrixMultiply, MATRIX_VALUES, MATRIX_SHAPE, square, squareShape);
+        assertMatchesNd4j(
+            (a, b) -> a.tensorMultiply(b, new int[]{1}, new int[]{0}),
+            RANK_THREE_VALUES, RANK_THREE_SHAPE, square, squareShape
+        );
+    }
+
+    @Test
+    public void doesMasksAndComparisonsLikeNd4j() {
+        int[] threshold = new int[]{0, 1, 2, 3, 4, 5};
+
+        assertMatchesNd4j(IntegerTensor::getGreaterThanMask, MATRIX_VALUES, MATRIX_SHAPE, threshold, MATRIX_SHAPE);
+        assertMatchesNd4j(IntegerTensor::getLessThanOrEqualToMask, MATRIX_VALUES, MATRIX_SHAPE, threshold, MATRIX_SHAPE);
+        assertMatchesNd4j(
+            (t, mask) -> t.setWithMask(mask, -1),
+            MATRIX_VALUES, MATRIX_SHAPE, new int[]{1, 0, 1, 0, 0, 1}, MATRIX_SHAPE
+        );
+
+        assertEquals(
+            Nd4jIntegerTensor.create(MATRIX_VALUES, MATRIX_SHAPE).greaterThan(2),
+            JavaIntegerTensor.create(MATRIX_VALUES, MATRIX_SHAPE).greaterThan(2)
+        );
+    }
+
+    @Test
+    public void doesReductionsLikeNd4j() {
+        IntegerTensor tensor = JavaIntegerTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+        IntegerTensor nd4jTensor = Nd4jIntegerTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+
+        assertEquals(nd4jTensor.max(), tensor.max());
+        assertEquals(nd4jTensor.min(), tensor.min());
+        assertEquals(nd4jTensor.argMax(), tensor.argMax());
+        assertEquals(nd4jTensor.argMax(0), tensor.argMax(0));
+        assertEquals(nd4jTensor.argMax(1), tensor.argMax(1));
+    }
+
+    @Test
+    public void canBeMixedWithNd4jTensors() {
+        IntegerTensor javaTensor = JavaIntegerTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+        IntegerTensor nd4jTensor = Nd4jIntegerTensor.create(MATRIX_VALUES, MATRIX_SHAPE);
+
+        assertEquals(nd4jTensor.times(2), javaTensor.plus(nd4jTensor));
+        assertEquals(nd4jTensor.times(2), nd4jTensor.plus(javaTensor));
+        assertEquals(javaTensor, nd4jTensor);
+    }
+
+    @Test
+    public void canConvertToDouble() {
+        DoubleTensor doubles = JavaIntegerTensor.create(MATRIX_VALUES, MATRIX_SHAPE).toDouble();
+
+        assertArrayEquals(MATRIX_SHAPE, doubles.getShape());
+        assertArrayEquals(new double[]{1, -5, 3, 4, 7, -6}, doubles.asFlatDoubleArray(), 0.0);
+    }
+}
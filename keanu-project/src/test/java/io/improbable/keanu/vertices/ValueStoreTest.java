@@ -0,0 +1,217 @@
+package io.improbable.keanu.vertices;
+
+import com.google.common.collect.ImmutableList;
+import io.improbable.keanu.network.BayesianNetwork;
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.dbl.DoubleVertex;
+import io.improbable.keanu.vertices.dbl.nonprobabilistic.diff.LogProbGradientCalculator;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ValueStoreTest {
+
+    private GaussianVertex A;
+    private GaussianVertex B;
+    private DoubleVertex C;
+    private GaussianVertex D;
+    private List<Vertex> vertices;
+
+    @Before
+    public void setup() {
+        A = new GaussianVertex(0, 1);
+        B = new GaussianVertex(0, 1);
+        C = A.times(B).plus(A);
+        D = new GaussianVertex(C, 1);
+        D.observe(1.5);
+        A.setAndCascade(0.1);
+        B.setAndCascade(0.2);
+        vertices = new ArrayList<>(new BayesianNetwork(A.getConnectedGraph()).getAllVertices());
+    }
+
+    @Test
+    public void valuesSetWhileUsingAStoreAreOnlySeenInThatStore() {
+        ValueStore store = ValueStore.of(vertices);
+
+        store.run(() -> A.setAndCascade(2.0));
+
+        assertEquals(0.1, A.getValue().scalar(), 1e-10);
+        assertEquals(0.1 * 0.2 + 0.1, C.getValue().scalar(), 1e-10);
+        assertEquals(2.0, store.getValue(A).scalar(), 1e-10);
+        assertEquals(2.0 * 0.2 + 2.0, store.getValue(C).scalar(), 1e-10);
+    }
+
+    @Test
+    public void copiesOfAStoreAreIndependent() {
+        ValueStore store = ValueStore.of(vertices);
+        ValueStore copy = store.copy();
+
+        copy.run(() -> B.setAndCascade(-1.0));
+
+        assertEquals(0.2, store.getValue(B).scalar(), 1e-10);
+        assertEquals(-1.0, copy.getValue(B).scalar(), 1e-10);
+    }
+
+    @Test
+    public void observationsAreKeptInTheStore() {
+        ValueStore store = ValueStore.of(vertices);
+
+        store.run(D::unobserve);
+
+        assertTrue(D.isObserved());
+        assertFalse(store.getState(D).isObserved());
+    }
+
+    @Test
+    public void verticesNotInTheStoreUseTheirOwnState() {
+        GaussianVertex other = new GaussianVertex(0, 1);
+        ValueStore store = ValueStore.of(vertices);
+
+        store.run(() -> other.setValue(3.0));
+
+        assertFalse(store.contains(other));
+        assertEquals(3.0, other.getValue().scalar(), 1e-10);
+    }
+
+    @Test
+    public void storesOfTheSameVerticesShareTheirIndices() {
+        ValueStore store = ValueStore.of(vertices);
+        ValueStore another = ValueStore.of(vertices);
+
+        store.run(() -> A.setAndCascade(2.0));
+        another.run(() -> A.setAndCascade(3.0));
+
+        assertTrue(store.contains(A));
+        assertEquals(2.0, store.getValue(A).scalar(), 1e-10);
+        assertEquals(3.0, another.getValue(A).scalar(), 1e-10);
+    }
+
+    @Test
+    public void cannotCreateAStoreOfOtherVerticesThatSharesVerticesWithAnExistingStore() {
+        ValueStore store = ValueStore.of(vertices);
+
+        try {
+            ValueStore.of(ImmutableList.of(A, B));
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+
+        assertTrue(store.contains(A));
+        assertTrue(store.contains(C));
+    }
+
+    @Test
+    public void canCreateAStoreOfVerticesThatAreInNoOtherStore() {
+        ValueStore.of(vertices);
+        GaussianVertex other = new GaussianVertex(0, 1);
+
+        ValueStore store = ValueStore.of(ImmutableList.of(other));
+
+        assertTrue(store.contains(other));
+        assertFalse(store.contains(A));
+    }
+
+    @Test
+    public void closingAStoreGivesItsVerticesBackTheirOwnState() {
+        ValueStore store = ValueStore.of(vertices);
+        ValueStore copy = store.copy();
+        store.run(() -> A.setAndCascade(2.0));
+
+        store.close();
+        copy.run(() -> A.setAndCascade(3.0));
+
+        assertFalse(store.contains(A));
+        assertFalse(copy.contains(A));
+        assertEquals(3.0, A.getValue().scalar(), 1e-10);
+        assertEquals(3.0 * 0.2 + 3.0, C.getValue().scalar(), 1e-10);
+    }
+
+    @Test
+    public void verticesOfAClosedStoreCanBeInAStoreOfOtherVertices() {
+        ValueStore.of(vertices).close();
+
+        ValueStore ofSomeVertices = ValueStore.of(ImmutableList.of(A, B));
+
+        assertTrue(ofSomeVertices.contains(A));
+        assertFalse(ofSomeVertices.contains(C));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsVerticesNotInTheStore() {
+        ValueStore.of(vertices).getValue(new GaussianVertex(0, 1));
+    }
+
+    @Test
+    public void canEvaluateLogProbAndGradientsOnSeveralThreadsAtOnce() throws Exception {
+        int numEvaluations = 64;
+        List<Vertex> latents = ImmutableList.of(A, B);
+        List<Vertex> probabilistic = ImmutableList.of(A, B, D);
+
+        double[] expectedLogProb = new double[numEvaluations];
+        double[][] expectedGradient = new double[numEvaluations][];
+        for (int i = 0; i < numEvaluations; i++) {
+            A.setAndCascade(aOf(i));
+            B.setAndCascade(bOf(i));
+            expectedLogProb[i] = ProbabilityCalculator.calculateLogProbFor(probabilistic);
+            expectedGradient[i] = gradientOf(probabilistic, latents);
+        }
+
+        A.setAndCascade(0.1);
+        B.setAndCascade(0.2);
+        ValueStore original = ValueStore.of(vertices);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<double[]>> results = new ArrayList<>();
+            for (int i = 0; i < numEvaluations; i++) {
+                int evaluation = i;
+                ValueStore store = original.copy();
+                results.add(executor.submit(() -> store.evaluate(() -> {
+                    A.setAndCascade(aOf(evaluation));
+                    B.setAndCascade(bOf(evaluation));
+                    double[] gradient = gradientOf(probabilistic, latents);
+                    return new double[]{ProbabilityCalculator.calculateLogProbFor(probabilistic), gradient[0], gradient[1]};
+                })));
+            }
+
+            for (int i = 0; i < numEvaluations; i++) {
+                double[] result = results.get(i).get();
+                assertEquals(expectedLogProb[i], result[0], 1e-10);
+                assertEquals(expectedGradient[i][0], result[1], 1e-10);
+                assertEquals(expectedGradient[i][1], result[2], 1e-10);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0.1, A.getValue().scalar(), 1e-10);
+        assertEquals(0.2, B.getValue().scalar(), 1e-10);
+        assertEquals(0.1 * 0.2 + 0.1, C.getValue().scalar(), 1e-10);
+    }
+
+    private static double aOf(int evaluation) {
+        return -2.0 + 0.07 * evaluation;
+    }
+
+    private static double bOf(int evaluation) {
+        return 1.5 - 0.05 * evaluation;
+    }
+
+    private double[] gradientOf(List<Vertex> ofVertices, List<Vertex> wrtVertices) {
+        Map<VertexId, DoubleTensor> gradient = new LogProbGradientCalculator(ofVertices, (List) wrtVertices)
+            .getJointLogProbGradientWrtLatents();
+        return new double[]{gradient.get(A.getId()).scalar(), gradient.get(B.getId()).scalar()};
+    }
+}
@@ -6,6 +6,8 @@ import io.improbable.keanu.distributions.continuous.Gaussian;
 import io.improbable.keanu.distributions.hyperparam.Diffs;
 import io.improbable.keanu.tensor.dbl.DoubleTensor;
 import io.improbable.keanu.vertices.ConstantVertex;
+import io.improbable.keanu.vertices.TestGraphGenerator;
+import io.improbable.keanu.vertices.Vertex;
 import io.improbable.keanu.vertices.VertexId;
 import io.improbable.keanu.vertices.dbl.Differentiator;
 import io.improbable.keanu.vertices.dbl.DoubleVertex;
@@ -13,7 +15,10 @@ import io.improbable.keanu.vertices.dbl.nonprobabilistic.operators.unary.SumVert
 import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -162,4 +167,37 @@ public class LogProbGradientCalculatorTest {
         assertEquals(expectedDJLogProbWrtBValue, dJLogProbWrtBValue);
     }
 
+    @Test
+    public void visitsSharedUpstreamSubgraphOnceForManyObservations() {
+        AtomicInteger opCount = new AtomicInteger(0);
+        AtomicInteger autoDiffCount = new AtomicInteger(0);
+        int links = 5;
+        int observationCount = 20;
+
+        GaussianVertex A = new GaussianVertex(0, 1);
+        A.setValue(0.5);
+        DoubleVertex mu = TestGraphGenerator.addLinks(A, opCount, autoDiffCount, links);
+
+        List<Vertex> observations = new ArrayList<>();
+        for (int i = 0; i < observationCount; i++) {
+            GaussianVertex observation = new GaussianVertex(mu, 1);
+            observation.observe(i / 10.0);
+            observations.add(observation);
+        }
+
+        LogProbGradientCalculator calculator = new LogProbGradientCalculator(observations, ImmutableList.of(A));
+        autoDiffCount.set(0);
+
+        DoubleTensor dLogProbWrtA = calculator.getJointLogProbGradientWrtLatents().get(A.getId());
+
+        double dLogProbWrtMu = 0;
+        for (Vertex observation : observations) {
+            dLogProbWrtMu += ((GaussianVertex) observation).dLogProbAtValue(mu).get(mu).scalar();
+        }
+        double dMuWrtA = Math.pow(2, links);
+
+        assertEquals(3 * links, autoDiffCount.get());
+        assertEquals(dLogProbWrtMu * dMuWrtA, dLogProbWrtA.scalar(), 1e-6);
+    }
+
 }
@@ -0,0 +1,98 @@
+package io.improbable.keanu.vertices.dbl.nonprobabilistic.diff;
+
+import io.improbable.keanu.tensor.dbl.DoubleTensor;
+import io.improbable.keanu.vertices.dbl.Differentiator;
+import io.improbable.keanu.vertices.dbl.nonprobabilistic.operators.binary.MultiplicationVertex;
+import io.improbable.keanu.vertices.dbl.probabilistic.GaussianVertex;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PartialDerivativeTest {
+
+    private static final long[] SHAPE = new long[]{2, 2};
+
+    @Test
+    public void identityIsDenseEyeWhenMaterialized() {
+        PartialDerivative identity = PartialDerivative.identity(SHAPE);
+
+        assertTrue(identity.isDiagonal());
+        assertEquals(DoubleTensor.eye(4).reshape(2, 2, 2, 2), identity.get());
+        assertArrayEquals(SHAPE, identity.getOfShape(SHAPE));
+        assertArrayEquals(SHAPE, identity.getWrtShape(SHAPE));
+    }
+
+    @Test
+    public void staysDiagonalForElementwiseOperations() {
+        DoubleTensor multiplier = DoubleTensor.create(new double[]{1, 2, 3, 4}, SHAPE);
+        DoubleTensor rowMultiplier = DoubleTensor.create(new double[]{5, 6}, 1, 2);
+
+        PartialDerivative identity = PartialDerivative.identity(SHAPE);
+        PartialDerivative denseIdentity = new PartialDerivative(identity.get());
+
+        PartialDerivative diagonalResult = identity
+            .multiplyAlongOfDimensions(multiplier)
+            .multiplyAlongWrtDimensions(rowMultiplier)
+            .divideByAlongOfDimensions(multiplier)
+            .multiplyBy(2.0)
+            .add(identity)
+            .subtract(identity.multiplyAlongOfDimensions(multiplier));
+
+        PartialDerivative denseResult = denseIdentity
+            .multiplyAlongOfDimensions(multiplier)
+            .multiplyAlongWrtDimensions(rowMultiplier)
+            .divideByAlongOfDimensions(multiplier)
+            .multiplyBy(2.0)
+            .add(denseIdentity)
+            .subtract(denseIdentity.multiplyAlongOfDimensions(multiplier));
+
+        assertTrue(diagonalResult.isDiagonal());
+        assertFalse(denseResult.isDiagonal());
+        assertEquals(denseResult.get(), diagonalResult.get());
+    }
+
+    @Test
+    public void becomesDenseWhenBroadcastChangesShape() {
+        DoubleTensor multiplier = DoubleTensor.create(new double[]{1, 2, 3, 4, 5, 6, 7, 8}, 2, 2, 2);
+
+        PartialDerivative identity = PartialDerivative.identity(SHAPE);
+        PartialDerivative result = identity.multiplyAlongWrtDimensions(multiplier);
+        PartialDerivative expected = new PartialDerivative(identity.get()).multiplyAlongWrtDimensions(multiplier);
+
+        assertFalse(result.isDiagonal());
+        assertEquals(expected.get(), result.get());
+    }
+
+    @Test
+    public void addingDiagonalToDenseIsDense() {
+        DoubleTensor dense = DoubleTensor.arange(0, 16).reshape(2, 2, 2, 2);
+        PartialDerivative identity = PartialDerivative.identity(SHAPE);
+
+        PartialDerivative result = identity.add(new PartialDerivative(dense));
+
+        assertFalse(result.isDiagonal());
+        assertEquals(dense.plus(identity.get()), result.get());
+    }
+
+    @Test
+    public void elementwiseGraphOfLargeVectorHasDiagonalPartial() {
+        long length = 10000;
+        GaussianVertex A = new GaussianVertex(new long[]{length}, 0, 1);
+        A.setValue(DoubleTensor.linspace(0, 1, (int) length));
+
+        MultiplicationVertex B = A.exp().times(A.sin());
+
+        PartialDerivative reverse = Differentiator.reverseModeAutoDiff(B, A).asMap().get(A.getId());
+        PartialDerivative forward = Differentiator.forwardModeAutoDiff(A, B).asMap().get(B.getId());
+
+        DoubleTensor expectedDiagonal = A.getValue().exp().timesInPlace(A.getValue().sin().plusInPlace(A.getValue().cos()));
+
+        assertTrue(reverse.isDiagonal());
+        assertTrue(forward.isDiagonal());
+        assertArrayEquals(expectedDiagonal.asFlatDoubleArray(), reverse.getDiagonal().asFlatDoubleArray(), 1e-6);
+        assertArrayEquals(expectedDiagonal.asFlatDoubleArray(), forward.getDiagonal().asFlatDoubleArray(), 1e-6);
+    }
+}
@@ -1,5 +1,6 @@
 package io.improbable.keanu.vertices.intgr.probabilistic;
 
+import io.improbable.keanu.KeanuRandom;
 import io.improbable.keanu.tensor.intgr.IntegerTensor;
 import io.improbable.keanu.vertices.ConstantVertex;
 import io.improbable.keanu.vertices.LogProbGraph;
@@ -100,4 +101,51 @@ public class BinomialVertexTest {
 
         LogProbGraphContract.matchesKnownLogDensity(logProbGraph, expectedDensity);
     }
+
+    @Test
+    public void samplingMatchesTheProbabilityMassFunction() {
+        assertSamplesMatchProbabilityMassFunction(0.3, 1000);
+        assertSamplesMatchProbabilityMassFunction(0.9, 50);
+        assertSamplesMatchProbabilityMassFunction(0.02, 200);
+    }
+
+    private void assertSamplesMatchProbabilityMassFunction(double p, int n) {
+        int N = 200000;
+        int[] samples = new BinomialVertex(new long[]{N}, p, n).sample(new KeanuRandom(1)).asFlatIntegerArray();
+
+        int[] counts = new int[n + 1];
+        for (int sample : samples) {
+            counts[sample]++;
+        }
+
+        BinomialDistribution distribution = new BinomialDistribution(n, p);
+        for (int k = 0; k <= n; k++) {
+            double expected = distribution.probability(k);
+            assertEquals("p = " + p + ", n = " + n + ", k = " + k, expected, (double) counts[k] / N, 5 * Math.sqrt(expected / N) + 1e-5);
+        }
+    }
+
+    @Test
+    public void samplingWithManyTrialsProducesRealisticMeanAndStandardDeviation() {
+        double p = 0.4;
+        int n = 1000000;
+
+        IntegerTensor samples = new BinomialVertex(new long[]{20000}, p, n).sample(new KeanuRandom(1));
+
+        assertEquals(n * p, samples.toDouble().average(), 10.0);
+        assertEquals(Math.sqrt(n * p * (1 - p)), samples.toDouble().standardDeviation(), 10.0);
+    }
+
+    @Test
+    public void samplesEachPAndNOfATensor() {
+        DoubleVertex p = ConstantVertex.of(new double[]{0.0, 1.0, 0.5, 0.5});
+        IntegerVertex n = ConstantVertex.of(new int[]{10, 10, 0, 100000});
+
+        IntegerTensor samples = new BinomialVertex(p, n).sample(new KeanuRandom(1));
+
+        assertEquals(0, samples.getValue(0).intValue());
+        assertEquals(10, samples.getValue(1).intValue());
+        assertEquals(0, samples.getValue(2).intValue());
+        assertEquals(50000, samples.getValue(3), 1000);
+    }
 }
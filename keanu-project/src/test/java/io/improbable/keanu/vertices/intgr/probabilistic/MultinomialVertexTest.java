@@ -36,8 +36,6 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertEquals;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 public class MultinomialVertexTest {
 
@@ -232,27 +230,37 @@ public class MultinomialVertexTest {
     }
 
     @Test
-    public void ifYourRandomReturnsZeroItSamplesFromTheFirstCategory() {
-        KeanuRandom mockRandomAlwaysZero = mock(KeanuRandom.class);
-        when(mockRandomAlwaysZero.nextDouble()).thenReturn(0.);
+    public void ifTheFirstCategoryHasAllOfTheProbabilityItGetsEveryDraw() {
         IntegerTensor n = IntegerTensor.scalar(100).reshape(1, 1);
-        DoubleTensor p = DoubleTensor.create(0.1, 0.2, .3, 0.4).reshape(4, 1);
+        DoubleTensor p = DoubleTensor.create(1., 0., 0., 0.).reshape(4, 1);
         Multinomial multinomial = Multinomial.withParameters(n, p);
-        IntegerTensor samples = multinomial.sample(new long[]{1, 1}, mockRandomAlwaysZero);
+        IntegerTensor samples = multinomial.sample(new long[]{1, 1}, KeanuRandom.getDefaultRandom());
         assertThat(samples, hasValue(100, 0, 0, 0));
     }
 
     @Test
-    public void ifYourRandomReturnsOneItSamplesFromTheLastCategory() {
-        KeanuRandom mockRandomAlwaysZero = mock(KeanuRandom.class);
-        when(mockRandomAlwaysZero.nextDouble()).thenReturn(1.);
+    public void ifTheLastCategoryHasAllOfTheProbabilityItGetsEveryDraw() {
         IntegerTensor n = IntegerTensor.scalar(100).reshape(1, 1);
-        DoubleTensor p = DoubleTensor.create(0.1, 0.2, .3, 0.4).reshape(4, 1);
+        DoubleTensor p = DoubleTensor.create(0., 0., 0., 1.).reshape(4, 1);
         Multinomial multinomial = Multinomial.withParameters(n, p);
-        IntegerTensor samples = multinomial.sample(new long[]{1, 1}, mockRandomAlwaysZero);
+        IntegerTensor samples = multinomial.sample(new long[]{1, 1}, KeanuRandom.getDefaultRandom());
         assertThat(samples, hasValue(0, 0, 0, 100));
     }
 
+    @Test
+    public void eachSampleAddsUpToNEvenWhenNIsLarge() {
+        int n = 1_000_000_000;
+        DoubleTensor p = DoubleTensor.create(0.1, 0.2, 0.3, 0.4).reshape(4, 1);
+        Multinomial multinomial = Multinomial.withParameters(IntegerTensor.scalar(n).reshape(1, 1), p);
+
+        IntegerTensor samples = multinomial.sample(new long[]{1, 100}, KeanuRandom.getDefaultRandom());
+        assertThat(samples, hasShape(4, 100));
+        assertThat(samples.sum(0), allValues(equalTo(n)));
+
+        DoubleTensor proportions = samples.toDouble().sum(1).div(100.0 * n);
+        assertThat(proportions, allCloseTo(1e-4, p.reshape(4)));
+    }
+
     @Test
     public void whenKEqualsTwoItsBinomial() {
         IntegerTensor n = IntegerTensor.scalar(10).reshape(1, 1);
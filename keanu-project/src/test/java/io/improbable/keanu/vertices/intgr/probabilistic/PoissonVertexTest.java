@@ -126,4 +126,58 @@ public class PoissonVertexTest {
 
         LogProbGraphContract.matchesKnownLogDensity(logProbGraph, expectedLogProb);
     }
+
+    @Test
+    public void samplingWithLargeMuProducesRealisticMeanAndStandardDeviation() {
+        double mu = 10000.0;
+        KeanuRandom random = new KeanuRandom(1);
+
+        int[] samples = new PoissonVertex(new long[]{20000}, mu).sample(random).asFlatIntegerArray();
+
+        SummaryStatistics stats = new SummaryStatistics();
+        for (int sample : samples) {
+            stats.addValue(sample);
+        }
+
+        assertEquals(mu, stats.getMean(), 2.0);
+        assertEquals(Math.sqrt(mu), stats.getStandardDeviation(), 1.0);
+    }
+
+    @Test
+    public void samplingWithTransformedRejectionMatchesTheProbabilityMassFunction() {
+        int N = 200000;
+        double mu = 12.0;
+        KeanuRandom random = new KeanuRandom(1);
+
+        int[] samples = new PoissonVertex(new long[]{N}, mu).sample(random).asFlatIntegerArray();
+
+        int[] counts = new int[100];
+        for (int sample : samples) {
+            counts[sample]++;
+        }
+
+        PoissonDistribution distribution = new PoissonDistribution(mu);
+        for (int k = 0; k < 30; k++) {
+            double expected = distribution.probability(k);
+            assertEquals("k = " + k, expected, (double) counts[k] / N, 5 * Math.sqrt(expected / N) + 1e-5);
+        }
+    }
+
+    @Test
+    public void samplesEachMuOfATensor() {
+        DoubleVertex mu = ConstantVertex.of(new double[]{2.0, 50.0, 5000.0});
+        KeanuRandom random = new KeanuRandom(1);
+
+        SummaryStatistics[] stats = {new SummaryStatistics(), new SummaryStatistics(), new SummaryStatistics()};
+        for (int i = 0; i < 5000; i++) {
+            int[] sample = new PoissonVertex(mu).sample(random).asFlatIntegerArray();
+            for (int j = 0; j < sample.length; j++) {
+                stats[j].addValue(sample[j]);
+            }
+        }
+
+        assertEquals(2.0, stats[0].getMean(), 0.1);
+        assertEquals(50.0, stats[1].getMean(), 0.5);
+        assertEquals(5000.0, stats[2].getMean(), 5.0);
+    }
 }